@@ -0,0 +1,1086 @@
+package com.github.marschall.sets;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.github.marschall.sets.SmallIntegerSet.IntegerSetSpliterator;
+
+/**
+ * A thread safe set for {@link Integer}s between {@value #MIN_VALUE} and
+ * {@value #MAX_VALUE}.
+ *
+ * <p>Like {@link SmallIntegerSet} but the elements are kept in a
+ * {@code volatile long} that is updated with compare and set. This makes
+ * the set safe to share between threads without locking, for example for
+ * flags that many threads flip concurrently.</p>
+ *
+ * <p>Operations that only read, like {@link #contains(Object)},
+ * {@link #size()}, {@link #first()} or {@link #equals(Object)}, are wait
+ * free. They read the elements once and operate on that snapshot.</p>
+ *
+ * <p>Operations that modify, like {@link #add(Integer)},
+ * {@link #remove(Object)}, {@link #pollFirst()} or {@link #clear()}, are
+ * lock free and atomic. The bulk operations {@link #addAll(Collection)},
+ * {@link #removeAll(Collection)}, {@link #retainAll(Collection)} and
+ * {@link #removeIf(Predicate)} are atomic as well, either all or none of
+ * the elements are added or removed. The predicate of
+ * {@link #removeIf(Predicate)} and the argument of
+ * {@link #retainAll(Collection)} may be invoked more than once for an
+ * element when there is contention.</p>
+ *
+ * <p>In addition the raw bits can be updated with
+ * {@link #compareAndSet(long, long)}, {@link #getAndSet(long)},
+ * {@link #getAndAdd(int)}, {@link #getAndRemove(int)},
+ * {@link #getAndUpdate(LongUnaryOperator)} and
+ * {@link #updateAndGet(LongUnaryOperator)}.</p>
+ *
+ * <p>Iterators and spliterators operate on a snapshot of the elements taken
+ * when they are created, they never throw
+ * {@link java.util.ConcurrentModificationException}.
+ * {@link Iterator#remove()} removes the element from the set.</p>
+ *
+ * <p>Operations like {@link #add(Integer)} will throw an
+ * {@link IllegalArgumentException} with an argument outside the supported
+ * range. Operations like {@link #remove(Object)} or {@link #contains(Object)}
+ * will return {@code false} with an argument outside this range.  This is in
+ * accordance with the {@link Set} contract.</p>
+ *
+ * <p>This set does not support {@code null} elements.</p>
+ *
+ * <p>This set keeps the elements in their natural order.</p>
+ *
+ * <p>The operations {@link #addAll(Collection)},
+ * {@link #removeAll(Collection)}, {@link #retainAll(Collection)},
+ * {@link #containsAll(Collection)} and {@link #equals(Object)} run in
+ * constant time when the argument is a {@link SmallIntegerSet}, an
+ * {@link AtomicSmallIntegerSet}, an {@link ImmutableSmallIntegerSet} or a
+ * range view of one of them.</p>
+ *
+ * <p>This set supports all optional {@link Set} and {@link Iterator} operations.</p>
+ */
+public final class AtomicSmallIntegerSet implements IntNavigableSet, SmallIntegerBits, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Smallest value supported by this {@link Set}.
+   */
+  public static final int MIN_VALUE = SmallIntegerSet.MIN_VALUE;
+
+  /**
+   * Largest value supported by this {@link Set}.
+   */
+  public static final int MAX_VALUE = SmallIntegerSet.MAX_VALUE;
+
+  /**
+   * Returned by the primitive navigation methods if there is no such element.
+   */
+  private static final int NONE = -1;
+
+  /**
+   * The mask of the set itself, as opposed to a range view.
+   */
+  private static final long ALL = -1L;
+
+  private static final AtomicLongFieldUpdater<AtomicSmallIntegerSet> VALUES =
+          AtomicLongFieldUpdater.newUpdater(AtomicSmallIntegerSet.class, "values");
+
+  private volatile long values;
+
+  /**
+   * Creates a new empty set.
+   */
+  public AtomicSmallIntegerSet() {
+    this.values = 0L;
+  }
+
+  private AtomicSmallIntegerSet(long values) {
+    this.values = values;
+  }
+
+  /**
+   * Creates a new set from its raw bit representation.
+   *
+   * @param bits the elements, bit {@code i} is set if {@code i} is contained
+   * @return a new set containing the elements in {@code bits}
+   * @see #toBits()
+   */
+  public static AtomicSmallIntegerSet fromBits(long bits) {
+    return new AtomicSmallIntegerSet(bits);
+  }
+
+  /**
+   * Returns the raw bit representation of this set.
+   *
+   * <p>This is a volatile read.</p>
+   *
+   * @return the elements, bit {@code i} is set if {@code i} is contained
+   */
+  @Override
+  public long toBits() {
+    return this.values;
+  }
+
+  /**
+   * Writes the elements of this set as a single {@code long}.
+   *
+   * <p>Much more compact than serialization. The set can be read back with
+   * {@link #readFrom(DataInput)}.</p>
+   *
+   * @param out the output to write to, not {@code null}
+   * @throws IOException if writing fails
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeLong(this.values);
+  }
+
+  /**
+   * Reads a set written by {@link #writeTo(DataOutput)}.
+   *
+   * @param in the input to read from, not {@code null}
+   * @return the set read
+   * @throws IOException if reading fails
+   */
+  public static AtomicSmallIntegerSet readFrom(DataInput in) throws IOException {
+    return fromBits(in.readLong());
+  }
+
+  /**
+   * Atomically sets the elements to the given bits if the current elements
+   * are equal to the expected bits.
+   *
+   * @param expectedBits the expected elements
+   * @param newBits the new elements
+   * @return {@code true} if successful, {@code false} if the current
+   *  elements were not equal to the expected bits
+   */
+  public boolean compareAndSet(long expectedBits, long newBits) {
+    return VALUES.compareAndSet(this, expectedBits, newBits);
+  }
+
+  /**
+   * Atomically sets the elements to the given bits.
+   *
+   * @param newBits the new elements
+   * @return the previous elements
+   */
+  public long getAndSet(long newBits) {
+    return VALUES.getAndSet(this, newBits);
+  }
+
+  /**
+   * Atomically adds an element.
+   *
+   * @param i the element to add
+   * @return the elements before the element was added
+   * @throws IllegalArgumentException if the element is not supported
+   */
+  public long getAndAdd(int i) {
+    checkSupported(ALL, i);
+    return this.getAndOr(1L << i);
+  }
+
+  /**
+   * Atomically removes an element.
+   *
+   * @param i the element to remove
+   * @return the elements before the element was removed
+   */
+  public long getAndRemove(int i) {
+    if (!SmallIntegerSet.isSupported(i)) {
+      return this.values;
+    }
+    return this.getAndAndNot(1L << i);
+  }
+
+  /**
+   * Atomically updates the elements with the results of applying the given
+   * function.
+   *
+   * <p>The function should be side-effect-free, since it may be re-applied
+   * when attempted updates fail due to contention among threads.</p>
+   *
+   * @param updateFunction the function to apply to the elements
+   * @return the previous elements
+   */
+  public long getAndUpdate(LongUnaryOperator updateFunction) {
+    return VALUES.getAndUpdate(this, updateFunction);
+  }
+
+  /**
+   * Atomically updates the elements with the results of applying the given
+   * function.
+   *
+   * <p>The function should be side-effect-free, since it may be re-applied
+   * when attempted updates fail due to contention among threads.</p>
+   *
+   * @param updateFunction the function to apply to the elements
+   * @return the updated elements
+   */
+  public long updateAndGet(LongUnaryOperator updateFunction) {
+    return VALUES.updateAndGet(this, updateFunction);
+  }
+
+  private long getAndOr(long bits) {
+    long before;
+    do {
+      before = this.values;
+      if ((before | bits) == before) {
+        // avoid the write if nothing changes
+        return before;
+      }
+    } while (!VALUES.compareAndSet(this, before, before | bits));
+    return before;
+  }
+
+  private long getAndAndNot(long bits) {
+    long before;
+    do {
+      before = this.values;
+      if ((before & bits) == 0L) {
+        // avoid the write if nothing changes
+        return before;
+      }
+    } while (!VALUES.compareAndSet(this, before, before & ~bits));
+    return before;
+  }
+
+  private static void checkSupported(long mask, int i) {
+    if (!SmallIntegerSet.isSupported(mask, i)) {
+      throw new IllegalArgumentException();
+    }
+  }
+
+  // the operations for both the set and its range views
+  // the range views pass their mask, the set passes ALL
+
+  private boolean add(long mask, int i) {
+    checkSupported(mask, i);
+    long bit = 1L << i;
+    return (this.getAndOr(bit) & bit) == 0L;
+  }
+
+  private boolean remove(long mask, int i) {
+    if (!SmallIntegerSet.isSupported(mask, i)) {
+      return false;
+    }
+    long bit = 1L << i;
+    return (this.getAndAndNot(bit) & bit) != 0L;
+  }
+
+  private boolean removeIf(long mask, IntPredicate filter) {
+    long before;
+    long matching;
+    do {
+      before = this.values;
+      matching = SmallIntegerSet.matching(before & mask, filter);
+      if (matching == 0L) {
+        return false;
+      }
+    } while (!VALUES.compareAndSet(this, before, before & ~matching));
+    return true;
+  }
+
+  private int pollFirst(long mask) {
+    long before;
+    long bits;
+    do {
+      before = this.values;
+      bits = before & mask;
+      if (bits == 0L) {
+        return NONE;
+      }
+    } while (!VALUES.compareAndSet(this, before, before & ~(bits & -bits)));
+    return Long.numberOfTrailingZeros(bits) + MIN_VALUE;
+  }
+
+  private int pollLast(long mask) {
+    long before;
+    long bits;
+    do {
+      before = this.values;
+      bits = before & mask;
+      if (bits == 0L) {
+        return NONE;
+      }
+    } while (!VALUES.compareAndSet(this, before, before & ~Long.highestOneBit(bits)));
+    return MAX_VALUE - Long.numberOfLeadingZeros(bits);
+  }
+
+  private boolean containsAll(long mask, Collection<?> c) {
+    long bits = this.values & mask;
+    if (c instanceof SmallIntegerBits) {
+      return SmallIntegerSet.containsAll(bits, ((SmallIntegerBits) c).toBits());
+    }
+    for (Object each : c) {
+      if (!SmallIntegerSet.isSet(bits, (Integer) each)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean addAll(long mask, Collection<? extends Integer> c) {
+    // collect first so that either all or none of the elements are added
+    long bits = SmallIntegerSet.bits(c);
+    if ((bits & ~mask) != 0L) {
+      throw new IllegalArgumentException();
+    }
+    long before = this.getAndOr(bits);
+    return (before | bits) != before;
+  }
+
+  private boolean retainAll(long mask, Collection<?> c) {
+    if (c instanceof SmallIntegerBits) {
+      long toRemove = mask & ~((SmallIntegerBits) c).toBits();
+      return (this.getAndAndNot(toRemove) & toRemove) != 0L;
+    }
+    return this.removeIf(mask, i -> !c.contains(i));
+  }
+
+  private boolean removeAll(long mask, Collection<?> c) {
+    long toRemove;
+    if (c instanceof SmallIntegerBits) {
+      toRemove = ((SmallIntegerBits) c).toBits() & mask;
+    } else {
+      // collect first so that either all or none of the elements are removed
+      toRemove = 0L;
+      for (Object each : c) {
+        int i = (Integer) each;
+        if (SmallIntegerSet.isSupported(mask, i)) {
+          toRemove |= 1L << i;
+        }
+      }
+    }
+    return (this.getAndAndNot(toRemove) & toRemove) != 0L;
+  }
+
+  private boolean equals(long mask, Object obj) {
+    if (!(obj instanceof Set)) {
+      return false;
+    }
+    long bits = this.values & mask;
+    if (obj instanceof SmallIntegerBits) {
+      return bits == ((SmallIntegerBits) obj).toBits();
+    }
+    Set<?> other = (Set<?>) obj;
+    if (SmallIntegerSet.size(bits) != other.size()) {
+      return false;
+    }
+    return SmallIntegerSet.containsAllNonThrowing(bits, other);
+  }
+
+  private static String toString(long bits) {
+    if (SmallIntegerSet.isEmpty(bits)) {
+      return "[]";
+    }
+    return SmallIntegerSet.toStringNotEmpty(bits);
+  }
+
+  private IntNavigableSet range(long mask, long startInclusive, long endInclusive) {
+    long rangeMask = SmallIntegerSet.rangeMask(mask, startInclusive, endInclusive);
+    if (rangeMask == ALL) {
+      return this;
+    }
+    return new AtomicSubSet(rangeMask);
+  }
+
+  private static void checkRange(int fromElement, int toElement) {
+    if (fromElement > toElement) {
+      throw new IllegalArgumentException();
+    }
+  }
+
+  @Override
+  public int size() {
+    return SmallIntegerSet.size(this.values);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.values == 0L;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return SmallIntegerSet.isSet(this.values, (Integer) o);
+  }
+
+  @Override
+  public boolean containsInt(int i) {
+    return SmallIntegerSet.isSet(this.values, i);
+  }
+
+  @Override
+  public boolean add(Integer e) {
+    return this.add(ALL, e);
+  }
+
+  @Override
+  public boolean addInt(int i) {
+    return this.add(ALL, i);
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    return this.remove(ALL, (Integer) o);
+  }
+
+  @Override
+  public boolean removeInt(int i) {
+    return this.remove(ALL, i);
+  }
+
+  @Override
+  public void clear() {
+    this.values = 0L;
+  }
+
+  @Override
+  public Comparator<? super Integer> comparator() {
+    // natural order
+    return null;
+  }
+
+  @Override
+  public Integer first() {
+    return SmallIntegerSet.first(this.values);
+  }
+
+  @Override
+  public Integer last() {
+    return SmallIntegerSet.last(this.values);
+  }
+
+  @Override
+  public Integer ceiling(Integer e) {
+    return SmallIntegerSet.boxOrNull(this.ceilingInt(e));
+  }
+
+  @Override
+  public int ceilingInt(int e) {
+    return SmallIntegerSet.ceiling(this.values, e);
+  }
+
+  @Override
+  public Integer higher(Integer e) {
+    return SmallIntegerSet.boxOrNull(this.higherInt(e));
+  }
+
+  @Override
+  public int higherInt(int e) {
+    return SmallIntegerSet.higher(this.values, e);
+  }
+
+  @Override
+  public Integer floor(Integer e) {
+    return SmallIntegerSet.boxOrNull(this.floorInt(e));
+  }
+
+  @Override
+  public int floorInt(int e) {
+    return SmallIntegerSet.floor(this.values, e);
+  }
+
+  @Override
+  public Integer lower(Integer e) {
+    return SmallIntegerSet.boxOrNull(this.lowerInt(e));
+  }
+
+  @Override
+  public int lowerInt(int e) {
+    return SmallIntegerSet.lower(this.values, e);
+  }
+
+  @Override
+  public Integer pollFirst() {
+    return SmallIntegerSet.boxOrNull(this.pollFirst(ALL));
+  }
+
+  @Override
+  public Integer pollLast() {
+    return SmallIntegerSet.boxOrNull(this.pollLast(ALL));
+  }
+
+  @Override
+  public NavigableSet<Integer> descendingSet() {
+    return new DescendingIntegerSet(this);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt descendingIterator() {
+    return new SnapshotDescendingIterator(this, this.values);
+  }
+
+  @Override
+  public IntNavigableSet subSet(Integer fromElement, Integer toElement) {
+    return this.subSet(fromElement, true, toElement, false);
+  }
+
+  @Override
+  public IntNavigableSet headSet(Integer toElement) {
+    return this.headSet(toElement, false);
+  }
+
+  @Override
+  public IntNavigableSet tailSet(Integer fromElement) {
+    return this.tailSet(fromElement, true);
+  }
+
+  @Override
+  public IntNavigableSet subSet(Integer fromElement, boolean fromInclusive, Integer toElement, boolean toInclusive) {
+    checkRange(fromElement, toElement);
+    long startInclusive = fromInclusive ? fromElement : fromElement + 1L;
+    long endInclusive = toInclusive ? toElement : toElement - 1L;
+    return this.range(ALL, startInclusive, endInclusive);
+  }
+
+  @Override
+  public IntNavigableSet headSet(Integer toElement, boolean inclusive) {
+    long endInclusive = inclusive ? toElement : toElement - 1L;
+    return this.range(ALL, MIN_VALUE, endInclusive);
+  }
+
+  @Override
+  public IntNavigableSet tailSet(Integer fromElement, boolean inclusive) {
+    long startInclusive = inclusive ? fromElement : fromElement + 1L;
+    return this.range(ALL, startInclusive, MAX_VALUE);
+  }
+
+  @Override
+  public Iterator<Integer> iterator() {
+    return new SnapshotIterator(this, this.values);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return new SnapshotIterator(this, this.values);
+  }
+
+  @Override
+  public Spliterator<Integer> spliterator() {
+    return new IntegerSetSpliterator(this.values);
+  }
+
+  @Override
+  public Stream<Integer> stream() {
+    return StreamSupport.stream(this.spliterator(), false);
+  }
+
+  @Override
+  public Stream<Integer> parallelStream() {
+    return StreamSupport.stream(this.spliterator(), true);
+  }
+
+  @Override
+  public IntStream intStream() {
+    return StreamSupport.intStream(new IntegerSetSpliterator(this.values), false);
+  }
+
+  @Override
+  public void forEach(Consumer<? super Integer> action) {
+    SmallIntegerSet.forEach(this.values, action);
+  }
+
+  @Override
+  public void forEachInt(IntConsumer action) {
+    SmallIntegerSet.forEachInt(this.values, action);
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super Integer> filter) {
+    return this.removeIf(ALL, filter::test);
+  }
+
+  @Override
+  public boolean removeIfInt(IntPredicate filter) {
+    return this.removeIf(ALL, filter);
+  }
+
+  @Override
+  public Object[] toArray() {
+    return SmallIntegerSet.toArray(this.values);
+  }
+
+  @Override
+  public <T> T[] toArray(T[] a) {
+    return SmallIntegerSet.toArray(this.values, a);
+  }
+
+  @Override
+  public int[] toIntArray() {
+    return SmallIntegerSet.toIntArray(this.values);
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> c) {
+    return this.containsAll(ALL, c);
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Integer> c) {
+    return this.addAll(ALL, c);
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    return this.retainAll(ALL, c);
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    return this.removeAll(ALL, c);
+  }
+
+  @Override
+  public int hashCode() {
+    return SmallIntegerSet.hashCode(this.values);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    return this.equals(ALL, obj);
+  }
+
+  @Override
+  public String toString() {
+    return toString(this.values);
+  }
+
+  private Object writeReplace() {
+    return new Ser(Ser.ATOMIC_SMALL_INTEGER_SET, this.values);
+  }
+
+  /**
+   * Iterates over a snapshot of the elements, removes from the set.
+   */
+  static final class SnapshotIterator implements PrimitiveIterator.OfInt {
+
+    private final AtomicSmallIntegerSet set;
+
+    /**
+     * The elements not yet returned.
+     */
+    private long remaining;
+
+    /**
+     * Element to remove, {@value AtomicSmallIntegerSet#NONE} means no remove possible.
+     */
+    private int removeIndex;
+
+    SnapshotIterator(AtomicSmallIntegerSet set, long bits) {
+      this.set = set;
+      this.remaining = bits;
+      this.removeIndex = NONE;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.remaining != 0L;
+    }
+
+    @Override
+    public int nextInt() {
+      long remaining = this.remaining;
+      if (remaining == 0L) {
+        throw new NoSuchElementException();
+      }
+      int next = Long.numberOfTrailingZeros(remaining) + MIN_VALUE;
+      this.remaining = remaining & (remaining - 1L);
+      this.removeIndex = next;
+      return next;
+    }
+
+    @Override
+    public Integer next() {
+      return this.nextInt();
+    }
+
+    @Override
+    public void remove() {
+      if (this.removeIndex == NONE) {
+        throw new IllegalStateException();
+      }
+      this.set.remove(ALL, this.removeIndex);
+      this.removeIndex = NONE;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      long remaining = this.remaining;
+      // an exception will prevent remaining from being updated
+      SmallIntegerSet.forEachInt(remaining, action);
+      this.remaining = 0L;
+    }
+
+  }
+
+  /**
+   * Iterates in descending order over a snapshot of the elements, removes
+   * from the set.
+   */
+  static final class SnapshotDescendingIterator implements PrimitiveIterator.OfInt {
+
+    private final AtomicSmallIntegerSet set;
+
+    /**
+     * The elements not yet returned.
+     */
+    private long remaining;
+
+    /**
+     * Element to remove, {@value AtomicSmallIntegerSet#NONE} means no remove possible.
+     */
+    private int removeIndex;
+
+    SnapshotDescendingIterator(AtomicSmallIntegerSet set, long bits) {
+      this.set = set;
+      this.remaining = bits;
+      this.removeIndex = NONE;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.remaining != 0L;
+    }
+
+    @Override
+    public int nextInt() {
+      long remaining = this.remaining;
+      if (remaining == 0L) {
+        throw new NoSuchElementException();
+      }
+      int next = MAX_VALUE - Long.numberOfLeadingZeros(remaining);
+      this.remaining = remaining & ~Long.highestOneBit(remaining);
+      this.removeIndex = next;
+      return next;
+    }
+
+    @Override
+    public Integer next() {
+      return this.nextInt();
+    }
+
+    @Override
+    public void remove() {
+      if (this.removeIndex == NONE) {
+        throw new IllegalStateException();
+      }
+      this.set.remove(ALL, this.removeIndex);
+      this.removeIndex = NONE;
+    }
+
+  }
+
+  /**
+   * A range view, writes through to the set.
+   */
+  final class AtomicSubSet implements IntNavigableSet, SmallIntegerBits {
+
+    private final long mask;
+
+    AtomicSubSet(long mask) {
+      this.mask = mask;
+    }
+
+    long bits() {
+      return values & this.mask;
+    }
+
+    @Override
+    public long toBits() {
+      return this.bits();
+    }
+
+    @Override
+    public int size() {
+      return SmallIntegerSet.size(this.bits());
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return this.bits() == 0L;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return SmallIntegerSet.isSet(this.bits(), (Integer) o);
+    }
+
+    @Override
+    public boolean containsInt(int i) {
+      return SmallIntegerSet.isSet(this.bits(), i);
+    }
+
+    @Override
+    public boolean add(Integer e) {
+      return AtomicSmallIntegerSet.this.add(this.mask, e);
+    }
+
+    @Override
+    public boolean addInt(int i) {
+      return AtomicSmallIntegerSet.this.add(this.mask, i);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      return AtomicSmallIntegerSet.this.remove(this.mask, (Integer) o);
+    }
+
+    @Override
+    public boolean removeInt(int i) {
+      return AtomicSmallIntegerSet.this.remove(this.mask, i);
+    }
+
+    @Override
+    public void clear() {
+      AtomicSmallIntegerSet.this.getAndAndNot(this.mask);
+    }
+
+    @Override
+    public Comparator<? super Integer> comparator() {
+      // natural order
+      return null;
+    }
+
+    @Override
+    public Integer first() {
+      return SmallIntegerSet.first(this.bits());
+    }
+
+    @Override
+    public Integer last() {
+      return SmallIntegerSet.last(this.bits());
+    }
+
+    @Override
+    public Integer ceiling(Integer e) {
+      return SmallIntegerSet.boxOrNull(this.ceilingInt(e));
+    }
+
+    @Override
+    public int ceilingInt(int e) {
+      return SmallIntegerSet.ceiling(this.bits(), e);
+    }
+
+    @Override
+    public Integer higher(Integer e) {
+      return SmallIntegerSet.boxOrNull(this.higherInt(e));
+    }
+
+    @Override
+    public int higherInt(int e) {
+      return SmallIntegerSet.higher(this.bits(), e);
+    }
+
+    @Override
+    public Integer floor(Integer e) {
+      return SmallIntegerSet.boxOrNull(this.floorInt(e));
+    }
+
+    @Override
+    public int floorInt(int e) {
+      return SmallIntegerSet.floor(this.bits(), e);
+    }
+
+    @Override
+    public Integer lower(Integer e) {
+      return SmallIntegerSet.boxOrNull(this.lowerInt(e));
+    }
+
+    @Override
+    public int lowerInt(int e) {
+      return SmallIntegerSet.lower(this.bits(), e);
+    }
+
+    @Override
+    public Integer pollFirst() {
+      return SmallIntegerSet.boxOrNull(AtomicSmallIntegerSet.this.pollFirst(this.mask));
+    }
+
+    @Override
+    public Integer pollLast() {
+      return SmallIntegerSet.boxOrNull(AtomicSmallIntegerSet.this.pollLast(this.mask));
+    }
+
+    @Override
+    public NavigableSet<Integer> descendingSet() {
+      return new DescendingIntegerSet(this);
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt descendingIterator() {
+      return new SnapshotDescendingIterator(AtomicSmallIntegerSet.this, this.bits());
+    }
+
+    @Override
+    public IntNavigableSet subSet(Integer fromElement, Integer toElement) {
+      return this.subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public IntNavigableSet headSet(Integer toElement) {
+      return this.headSet(toElement, false);
+    }
+
+    @Override
+    public IntNavigableSet tailSet(Integer fromElement) {
+      return this.tailSet(fromElement, true);
+    }
+
+    @Override
+    public IntNavigableSet subSet(Integer fromElement, boolean fromInclusive, Integer toElement, boolean toInclusive) {
+      checkRange(fromElement, toElement);
+      long startInclusive = fromInclusive ? fromElement : fromElement + 1L;
+      long endInclusive = toInclusive ? toElement : toElement - 1L;
+      return AtomicSmallIntegerSet.this.range(this.mask, startInclusive, endInclusive);
+    }
+
+    @Override
+    public IntNavigableSet headSet(Integer toElement, boolean inclusive) {
+      if (this.mask == 0L) {
+        // empty range
+        return this;
+      }
+      long endInclusive = inclusive ? toElement : toElement - 1L;
+      return AtomicSmallIntegerSet.this.range(this.mask, SmallIntegerSet.first(this.mask), endInclusive);
+    }
+
+    @Override
+    public IntNavigableSet tailSet(Integer fromElement, boolean inclusive) {
+      if (this.mask == 0L) {
+        // empty range
+        return this;
+      }
+      long startInclusive = inclusive ? fromElement : fromElement + 1L;
+      return AtomicSmallIntegerSet.this.range(this.mask, startInclusive, SmallIntegerSet.last(this.mask));
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new SnapshotIterator(AtomicSmallIntegerSet.this, this.bits());
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt intIterator() {
+      return new SnapshotIterator(AtomicSmallIntegerSet.this, this.bits());
+    }
+
+    @Override
+    public Spliterator<Integer> spliterator() {
+      return new IntegerSetSpliterator(this.bits());
+    }
+
+    @Override
+    public Stream<Integer> stream() {
+      return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    @Override
+    public Stream<Integer> parallelStream() {
+      return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    @Override
+    public IntStream intStream() {
+      return StreamSupport.intStream(new IntegerSetSpliterator(this.bits()), false);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Integer> action) {
+      SmallIntegerSet.forEach(this.bits(), action);
+    }
+
+    @Override
+    public void forEachInt(IntConsumer action) {
+      SmallIntegerSet.forEachInt(this.bits(), action);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Integer> filter) {
+      return AtomicSmallIntegerSet.this.removeIf(this.mask, filter::test);
+    }
+
+    @Override
+    public boolean removeIfInt(IntPredicate filter) {
+      return AtomicSmallIntegerSet.this.removeIf(this.mask, filter);
+    }
+
+    @Override
+    public Object[] toArray() {
+      return SmallIntegerSet.toArray(this.bits());
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+      return SmallIntegerSet.toArray(this.bits(), a);
+    }
+
+    @Override
+    public int[] toIntArray() {
+      return SmallIntegerSet.toIntArray(this.bits());
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+      return AtomicSmallIntegerSet.this.containsAll(this.mask, c);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Integer> c) {
+      return AtomicSmallIntegerSet.this.addAll(this.mask, c);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+      return AtomicSmallIntegerSet.this.retainAll(this.mask, c);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+      return AtomicSmallIntegerSet.this.removeAll(this.mask, c);
+    }
+
+    @Override
+    public int hashCode() {
+      return SmallIntegerSet.hashCode(this.bits());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      return AtomicSmallIntegerSet.this.equals(this.mask, obj);
+    }
+
+    @Override
+    public String toString() {
+      return AtomicSmallIntegerSet.toString(this.bits());
+    }
+
+  }
+
+}
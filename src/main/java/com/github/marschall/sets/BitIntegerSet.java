@@ -0,0 +1,583 @@
+package com.github.marschall.sets;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.github.marschall.sets.WordBitsSupport.DescendingWordBitsIterator;
+import com.github.marschall.sets.WordBitsSupport.WordBitsIterator;
+import com.github.marschall.sets.WordBitsSupport.WordBitsSpliterator;
+
+/**
+ * A set for non-negative {@link Integer}s that grows on demand.
+ *
+ * <p>Like {@link SmallIntegerSet} but for any non-negative value. The
+ * elements are kept in a {@code long[]} that is large enough for the
+ * greatest element ever added. Unlike {@link java.util.BitSet} this is a
+ * proper {@link Set}.</p>
+ *
+ * <p>Operations like {@link #add(Integer)} will throw an
+ * {@link IllegalArgumentException} with a negative argument. Operations
+ * like {@link #remove(Object)} or {@link #contains(Object)} will return
+ * {@code false} with a negative argument.  This is in accordance with the
+ * {@link Set} contract.</p>
+ *
+ * <p>This set does not support {@code null} elements.</p>
+ *
+ * <p>This set keeps the elements in their natural order.</p>
+ *
+ * <p>The operations {@link #contains(Object)}, {@link #add(Integer)},
+ * {@link #remove(Object)} and {@link #size()} run in constant time,
+ * {@link #add(Integer)} in amortized constant time.</p>
+ *
+ * <p>The operations {@link #addAll(Collection)},
+ * {@link #removeAll(Collection)}, {@link #retainAll(Collection)},
+ * {@link #containsAll(Collection)} and {@link #equals(Object)} operate on
+ * whole words when the argument is a {@link BitIntegerSet}, a
+ * {@link SmallIntegerSet}, a {@link MediumIntegerSet}, a
+ * {@link LargeIntegerSet} or a range view of one of them.</p>
+ *
+ * <p>The memory used is proportional to the greatest element ever added,
+ * not to the number of elements. Removing elements does not shrink the
+ * set.</p>
+ *
+ * <p>This set is not thread safe.</p>
+ *
+ * <p>This set is not fail-fast.</p>
+ *
+ * <p>This set supports all optional {@link Set} and {@link Iterator} operations.</p>
+ */
+public final class BitIntegerSet implements IntNavigableSet, MutableWordBits, Serializable, Cloneable {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The minimum value this set can hold.
+   */
+  public static final int MIN_VALUE = 0;
+
+  /**
+   * The maximum value this set can hold.
+   */
+  public static final int MAX_VALUE = Integer.MAX_VALUE;
+
+  private static final long[] EMPTY_WORDS = new long[0];
+
+  /**
+   * Bit {@code i} of word {@code w} is set if the element
+   * {@code w * 64 + i} is contained.
+   */
+  private long[] words;
+
+  /**
+   * The number of elements, kept up to date on every modification.
+   */
+  private int size;
+
+  /**
+   * Creates a new empty set.
+   */
+  public BitIntegerSet() {
+    this.words = EMPTY_WORDS;
+    this.size = 0;
+  }
+
+  /**
+   * Creates a new empty set that can hold the elements up to
+   * {@code initialCapacity - 1} without growing.
+   *
+   * @param initialCapacity the number of values that can be held without
+   *  growing
+   * @throws IllegalArgumentException if {@code initialCapacity} is negative
+   */
+  public BitIntegerSet(int initialCapacity) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("negative initial capacity: " + initialCapacity);
+    }
+    this.words = new long[(int) ((initialCapacity + 63L) >>> 6)];
+    this.size = 0;
+  }
+
+  /**
+   * Checks if instances of this set class will support containing the given
+   * value.
+   *
+   * @param i the integer to check
+   * @return {@code true} if {@code i} is not negative
+   */
+  public static boolean isSupported(int i) {
+    return i >= MIN_VALUE;
+  }
+
+  /**
+   * Returns the number of {@code long} words currently used to represent
+   * this set.
+   *
+   * @return the number of words allocated
+   */
+  @Override
+  public int wordCount() {
+    return this.words.length;
+  }
+
+  /**
+   * Returns a word of the raw bit representation of this set.
+   *
+   * <p>Bit {@code i} of word {@code w} is set if the element
+   * {@code w * 64 + i} is contained.</p>
+   *
+   * @param index the index of the word, not negative
+   * @return the word with the given index, {@code 0} if past
+   *  {@link #wordCount()}
+   * @throws IndexOutOfBoundsException if the index is negative
+   */
+  @Override
+  public long getWord(int index) {
+    long[] words = this.words;
+    return index < words.length ? words[index] : 0L;
+  }
+
+  /**
+   * Replaces a word of the raw bit representation of this set.
+   *
+   * <p>Grows the set if needed.</p>
+   *
+   * @param index the index of the word, not negative
+   * @param word the new word
+   * @throws IndexOutOfBoundsException if the index is negative
+   * @see #getWord(int)
+   */
+  @Override
+  public void setWord(int index, long word) {
+    if (index >= this.words.length) {
+      if (word == 0L) {
+        return;
+      }
+      this.grow(index + 1);
+    }
+    long before = this.words[index];
+    this.words[index] = word;
+    this.size += Long.bitCount(word) - Long.bitCount(before);
+  }
+
+  private void grow(int minWordCount) {
+    int length = this.words.length;
+    // grow by 50% to get amortized constant time add
+    int newLength = Math.max(minWordCount, length + (length >>> 1));
+    this.words = Arrays.copyOf(this.words, newLength);
+  }
+
+  /**
+   * Returns the number of words needed to hold all the elements, ignores
+   * trailing {@code 0} words.
+   */
+  private static int usedWordCount(long[] words) {
+    for (int i = words.length - 1; i >= 0; i--) {
+      if (words[i] != 0L) {
+        return i + 1;
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return this.containsInt((Integer) o);
+  }
+
+  @Override
+  public boolean containsInt(int i) {
+    if (!isSupported(i)) {
+      return false;
+    }
+    return (this.getWord(i >>> 6) & (1L << i)) != 0L;
+  }
+
+  @Override
+  public boolean add(Integer e) {
+    return this.addInt(e);
+  }
+
+  @Override
+  public boolean addInt(int i) {
+    if (!isSupported(i)) {
+      throw new IllegalArgumentException("negative element: " + i);
+    }
+    int wordIndex = i >>> 6;
+    if (wordIndex >= this.words.length) {
+      this.grow(wordIndex + 1);
+    }
+    long before = this.words[wordIndex];
+    long after = before | (1L << i);
+    if (before == after) {
+      return false;
+    }
+    this.words[wordIndex] = after;
+    this.size += 1;
+    return true;
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    return this.removeInt((Integer) o);
+  }
+
+  @Override
+  public boolean removeInt(int i) {
+    if (!this.containsInt(i)) {
+      return false;
+    }
+    this.words[i >>> 6] &= ~(1L << i);
+    this.size -= 1;
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(this.words, 0L);
+    this.size = 0;
+  }
+
+  @Override
+  public Comparator<? super Integer> comparator() {
+    // natural order
+    return null;
+  }
+
+  @Override
+  public Integer first() {
+    if (this.size == 0) {
+      throw new NoSuchElementException();
+    }
+    return WordBitsSupport.nextSetBit(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  @Override
+  public Integer last() {
+    if (this.size == 0) {
+      throw new NoSuchElementException();
+    }
+    return WordBitsSupport.previousSetBit(this, MAX_VALUE, MIN_VALUE);
+  }
+
+  @Override
+  public Integer ceiling(Integer e) {
+    return SmallIntegerSet.boxOrNull(this.ceilingInt(e));
+  }
+
+  @Override
+  public int ceilingInt(int e) {
+    return WordBitsSupport.ceiling(this, MIN_VALUE, MAX_VALUE, e);
+  }
+
+  @Override
+  public Integer higher(Integer e) {
+    return SmallIntegerSet.boxOrNull(this.higherInt(e));
+  }
+
+  @Override
+  public int higherInt(int e) {
+    return WordBitsSupport.higher(this, MIN_VALUE, MAX_VALUE, e);
+  }
+
+  @Override
+  public Integer floor(Integer e) {
+    return SmallIntegerSet.boxOrNull(this.floorInt(e));
+  }
+
+  @Override
+  public int floorInt(int e) {
+    return WordBitsSupport.floor(this, MIN_VALUE, MAX_VALUE, e);
+  }
+
+  @Override
+  public Integer lower(Integer e) {
+    return SmallIntegerSet.boxOrNull(this.lowerInt(e));
+  }
+
+  @Override
+  public int lowerInt(int e) {
+    return WordBitsSupport.lower(this, MIN_VALUE, MAX_VALUE, e);
+  }
+
+  @Override
+  public Integer pollFirst() {
+    if (this.size == 0) {
+      return null;
+    }
+    return WordBitsSupport.pollFirst(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  @Override
+  public Integer pollLast() {
+    if (this.size == 0) {
+      return null;
+    }
+    return WordBitsSupport.pollLast(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  @Override
+  public NavigableSet<Integer> descendingSet() {
+    return new DescendingIntegerSet(this);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt descendingIterator() {
+    return new DescendingWordBitsIterator(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  @Override
+  public IntNavigableSet subSet(Integer fromElement, boolean fromInclusive, Integer toElement, boolean toInclusive) {
+    return (IntNavigableSet) WordBitsSupport.subSet(this, this, MIN_VALUE, MAX_VALUE,
+            fromElement, fromInclusive, toElement, toInclusive);
+  }
+
+  @Override
+  public IntNavigableSet headSet(Integer toElement, boolean inclusive) {
+    return (IntNavigableSet) WordBitsSupport.headSet(this, this, MIN_VALUE, MAX_VALUE, toElement, inclusive);
+  }
+
+  @Override
+  public IntNavigableSet tailSet(Integer fromElement, boolean inclusive) {
+    return (IntNavigableSet) WordBitsSupport.tailSet(this, this, MIN_VALUE, MAX_VALUE, fromElement, inclusive);
+  }
+
+  @Override
+  public IntNavigableSet subSet(Integer fromElement, Integer toElement) {
+    return this.subSet(fromElement, true, toElement, false);
+  }
+
+  @Override
+  public IntNavigableSet headSet(Integer toElement) {
+    return this.headSet(toElement, false);
+  }
+
+  @Override
+  public IntNavigableSet tailSet(Integer fromElement) {
+    return this.tailSet(fromElement, true);
+  }
+
+  @Override
+  public Iterator<Integer> iterator() {
+    return new WordBitsIterator(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return new WordBitsIterator(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  @Override
+  public Spliterator<Integer> spliterator() {
+    return new WordBitsSpliterator(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  @Override
+  public Stream<Integer> stream() {
+    return StreamSupport.stream(this.spliterator(), false);
+  }
+
+  @Override
+  public Stream<Integer> parallelStream() {
+    return StreamSupport.stream(this.spliterator(), true);
+  }
+
+  @Override
+  public IntStream intStream() {
+    return StreamSupport.intStream(new WordBitsSpliterator(this, MIN_VALUE, MAX_VALUE), false);
+  }
+
+  @Override
+  public void forEach(Consumer<? super Integer> action) {
+    WordBitsSupport.forEach(this, MIN_VALUE, MAX_VALUE, action);
+  }
+
+  @Override
+  public void forEachInt(IntConsumer action) {
+    WordBitsSupport.forEachInt(this, MIN_VALUE, MAX_VALUE, action);
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super Integer> filter) {
+    return WordBitsSupport.removeIf(this, MIN_VALUE, MAX_VALUE, filter::test);
+  }
+
+  @Override
+  public boolean removeIfInt(IntPredicate filter) {
+    return WordBitsSupport.removeIf(this, MIN_VALUE, MAX_VALUE, filter);
+  }
+
+  @Override
+  public Object[] toArray() {
+    return WordBitsSupport.toArray(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  @Override
+  public <T> T[] toArray(T[] a) {
+    return WordBitsSupport.toArray(this, MIN_VALUE, MAX_VALUE, a);
+  }
+
+  @Override
+  public int[] toIntArray() {
+    return WordBitsSupport.toIntArray(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> c) {
+    if (c instanceof BitIntegerSet) {
+      BitIntegerSet other = (BitIntegerSet) c;
+      if (other.size > this.size) {
+        return false;
+      }
+      long[] otherWords = other.words;
+      for (int i = 0; i < otherWords.length; i++) {
+        if ((otherWords[i] & ~this.getWord(i)) != 0L) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return WordBitsSupport.containsAll(this, MIN_VALUE, MAX_VALUE, c);
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Integer> c) {
+    if (c instanceof BitIntegerSet) {
+      BitIntegerSet other = (BitIntegerSet) c;
+      long[] otherWords = other.words;
+      int otherWordCount = usedWordCount(otherWords);
+      if (otherWordCount > this.words.length) {
+        this.grow(otherWordCount);
+      }
+      long[] words = this.words;
+      int added = 0;
+      for (int i = 0; i < otherWordCount; i++) {
+        long before = words[i];
+        long after = before | otherWords[i];
+        words[i] = after;
+        added += Long.bitCount(after) - Long.bitCount(before);
+      }
+      this.size += added;
+      return added != 0;
+    }
+    return WordBitsSupport.addAll(this, MIN_VALUE, MAX_VALUE, c);
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    if (c instanceof BitIntegerSet) {
+      BitIntegerSet other = (BitIntegerSet) c;
+      long[] words = this.words;
+      int removed = 0;
+      for (int i = 0; i < words.length; i++) {
+        long before = words[i];
+        long after = before & other.getWord(i);
+        words[i] = after;
+        removed += Long.bitCount(before) - Long.bitCount(after);
+      }
+      this.size -= removed;
+      return removed != 0;
+    }
+    return WordBitsSupport.retainAll(this, MIN_VALUE, MAX_VALUE, c);
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    if (c instanceof BitIntegerSet) {
+      BitIntegerSet other = (BitIntegerSet) c;
+      long[] words = this.words;
+      long[] otherWords = other.words;
+      int removed = 0;
+      for (int i = 0; i < Math.min(words.length, otherWords.length); i++) {
+        long before = words[i];
+        long after = before & ~otherWords[i];
+        words[i] = after;
+        removed += Long.bitCount(before) - Long.bitCount(after);
+      }
+      this.size -= removed;
+      return removed != 0;
+    }
+    return WordBitsSupport.removeAll(this, MIN_VALUE, MAX_VALUE, c);
+  }
+
+  @Override
+  public int hashCode() {
+    long[] words = this.words;
+    int hashCode = 0;
+    for (int i = 0; i < words.length; i++) {
+      hashCode += WordBitsSupport.hashCode(words[i], i);
+    }
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj instanceof BitIntegerSet) {
+      BitIntegerSet other = (BitIntegerSet) obj;
+      if (this.size != other.size) {
+        return false;
+      }
+      // the lengths of the arrays may differ
+      int wordCount = Math.max(this.words.length, other.words.length);
+      for (int i = 0; i < wordCount; i++) {
+        if (this.getWord(i) != other.getWord(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return WordBitsSupport.equals(this, MIN_VALUE, MAX_VALUE, obj);
+  }
+
+  @Override
+  public String toString() {
+    return WordBitsSupport.toString(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  /**
+   * Returns a shallow copy of this {@code BitIntegerSet} instance.
+   *
+   * <p>The {@link Integer} elements themselves are not cloned.</p>
+   *
+   * @return a shallow copy of this set
+   */
+  @Override
+  public Object clone() {
+    try {
+      BitIntegerSet clone = (BitIntegerSet) super.clone();
+      clone.words = this.words.clone();
+      return clone;
+    } catch (CloneNotSupportedException e) {
+      // this shouldn't happen, since we are Cloneable
+      throw new InternalError(e);
+    }
+  }
+
+}
@@ -0,0 +1,218 @@
+package com.github.marschall.sets;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.SortedSet;
+
+/**
+ * A reverse order view of a {@link NavigableSet} of {@link Integer}s.
+ *
+ * <p>All operations delegate to the ascending set, only the order is
+ * reversed.</p>
+ */
+final class DescendingIntegerSet implements NavigableSet<Integer> {
+
+  private final NavigableSet<Integer> ascending;
+
+  DescendingIntegerSet(NavigableSet<Integer> ascending) {
+    this.ascending = ascending;
+  }
+
+  @Override
+  public Comparator<? super Integer> comparator() {
+    return Collections.reverseOrder();
+  }
+
+  @Override
+  public Integer first() {
+    return this.ascending.last();
+  }
+
+  @Override
+  public Integer last() {
+    return this.ascending.first();
+  }
+
+  @Override
+  public int size() {
+    return this.ascending.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.ascending.isEmpty();
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return this.ascending.contains(o);
+  }
+
+  @Override
+  public Object[] toArray() {
+    Object[] result = this.ascending.toArray();
+    reverse(result, result.length);
+    return result;
+  }
+
+  @Override
+  public <T> T[] toArray(T[] a) {
+    int size = this.ascending.size();
+    T[] result = this.ascending.toArray(a);
+    reverse(result, size);
+    return result;
+  }
+
+  private static void reverse(Object[] array, int length) {
+    for (int i = 0, j = length - 1; i < j; i++, j--) {
+      Object temp = array[i];
+      array[i] = array[j];
+      array[j] = temp;
+    }
+  }
+
+  @Override
+  public boolean add(Integer e) {
+    return this.ascending.add(e);
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    return this.ascending.remove(o);
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> c) {
+    return this.ascending.containsAll(c);
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Integer> c) {
+    return this.ascending.addAll(c);
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    return this.ascending.retainAll(c);
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    return this.ascending.removeAll(c);
+  }
+
+  @Override
+  public void clear() {
+    this.ascending.clear();
+  }
+
+  @Override
+  public Integer lower(Integer e) {
+    return this.ascending.higher(e);
+  }
+
+  @Override
+  public Integer floor(Integer e) {
+    return this.ascending.ceiling(e);
+  }
+
+  @Override
+  public Integer ceiling(Integer e) {
+    return this.ascending.floor(e);
+  }
+
+  @Override
+  public Integer higher(Integer e) {
+    return this.ascending.lower(e);
+  }
+
+  @Override
+  public Integer pollFirst() {
+    return this.ascending.pollLast();
+  }
+
+  @Override
+  public Integer pollLast() {
+    return this.ascending.pollFirst();
+  }
+
+  @Override
+  public Iterator<Integer> iterator() {
+    return this.ascending.descendingIterator();
+  }
+
+  @Override
+  public NavigableSet<Integer> descendingSet() {
+    return this.ascending;
+  }
+
+  @Override
+  public Iterator<Integer> descendingIterator() {
+    return this.ascending.iterator();
+  }
+
+  @Override
+  public NavigableSet<Integer> subSet(Integer fromElement, boolean fromInclusive, Integer toElement, boolean toInclusive) {
+    return this.ascending.subSet(toElement, toInclusive, fromElement, fromInclusive).descendingSet();
+  }
+
+  @Override
+  public NavigableSet<Integer> headSet(Integer toElement, boolean inclusive) {
+    return this.ascending.tailSet(toElement, inclusive).descendingSet();
+  }
+
+  @Override
+  public NavigableSet<Integer> tailSet(Integer fromElement, boolean inclusive) {
+    return this.ascending.headSet(fromElement, inclusive).descendingSet();
+  }
+
+  @Override
+  public SortedSet<Integer> subSet(Integer fromElement, Integer toElement) {
+    return this.subSet(fromElement, true, toElement, false);
+  }
+
+  @Override
+  public SortedSet<Integer> headSet(Integer toElement) {
+    return this.headSet(toElement, false);
+  }
+
+  @Override
+  public SortedSet<Integer> tailSet(Integer fromElement) {
+    return this.tailSet(fromElement, true);
+  }
+
+  @Override
+  public String toString() {
+    Iterator<Integer> iterator = this.iterator();
+    if (!iterator.hasNext()) {
+      return "[]";
+    }
+    StringBuilder builder = new StringBuilder();
+    builder.append('[');
+    builder.append(iterator.next());
+    while (iterator.hasNext()) {
+      builder.append(',').append(' ');
+      builder.append(iterator.next());
+    }
+    builder.append(']');
+    return builder.toString();
+  }
+
+  @Override
+  public int hashCode() {
+    // set equality does not depend on the order
+    return this.ascending.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    return this.ascending.equals(obj);
+  }
+
+}
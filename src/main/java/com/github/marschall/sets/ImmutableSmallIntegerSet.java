@@ -0,0 +1,504 @@
+package com.github.marschall.sets;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.github.marschall.sets.SmallIntegerSet.AbstractDescendingIntegerSetIterator;
+import com.github.marschall.sets.SmallIntegerSet.AbstractIntegerSetIterator;
+import com.github.marschall.sets.SmallIntegerSet.IntegerSetSpliterator;
+
+/**
+ * An immutable set for {@link Integer}s between
+ * {@value SmallIntegerSet#MIN_VALUE} and {@value SmallIntegerSet#MAX_VALUE}.
+ *
+ * <p>Has the same representation and performance characteristics as
+ * {@link SmallIntegerSet}. All operations that would modify the set throw an
+ * {@link UnsupportedOperationException}.</p>
+ *
+ * <p>The factory methods return shared instances for the empty set, the full
+ * set and all singleton sets. Clients should therefore not rely on the
+ * identity of instances.</p>
+ *
+ * <p>The bulk operations of {@link SmallIntegerSet} run in constant time
+ * when the argument is an {@link ImmutableSmallIntegerSet} and vice
+ * versa.</p>
+ *
+ * <p>Range views are immutable as well. They are snapshots but since the
+ * set never changes this can not be observed.</p>
+ *
+ * <p>This set is thread safe.</p>
+ */
+public final class ImmutableSmallIntegerSet implements IntNavigableSet, SmallIntegerBits, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final ImmutableSmallIntegerSet EMPTY = new ImmutableSmallIntegerSet(0L);
+
+  private static final ImmutableSmallIntegerSet FULL = new ImmutableSmallIntegerSet(-1L);
+
+  private static final ImmutableSmallIntegerSet[] SINGLETONS;
+
+  static {
+    SINGLETONS = new ImmutableSmallIntegerSet[SmallIntegerSet.MAX_VALUE - SmallIntegerSet.MIN_VALUE + 1];
+    for (int i = 0; i < SINGLETONS.length; i++) {
+      SINGLETONS[i] = new ImmutableSmallIntegerSet(1L << i);
+    }
+  }
+
+  private final long values;
+
+  private ImmutableSmallIntegerSet(long values) {
+    this.values = values;
+  }
+
+  /**
+   * Returns the empty set.
+   *
+   * @return the empty set, a shared instance
+   */
+  public static ImmutableSmallIntegerSet of() {
+    return EMPTY;
+  }
+
+  /**
+   * Returns the set containing a single element.
+   *
+   * @param element the element to contain
+   * @return the set containing only {@code element}, a shared instance
+   * @throws IllegalArgumentException if the element is not supported
+   * @see SmallIntegerSet#isSupported(int)
+   */
+  public static ImmutableSmallIntegerSet of(int element) {
+    if (!SmallIntegerSet.isSupported(element)) {
+      throw new IllegalArgumentException();
+    }
+    return SINGLETONS[element - SmallIntegerSet.MIN_VALUE];
+  }
+
+  /**
+   * Returns the set containing the given elements.
+   *
+   * <p>Duplicate elements are ignored.</p>
+   *
+   * @param elements the elements to contain
+   * @return the set containing the given elements
+   * @throws IllegalArgumentException if any of the elements is not supported
+   * @see SmallIntegerSet#isSupported(int)
+   */
+  public static ImmutableSmallIntegerSet of(int... elements) {
+    return fromBits(SmallIntegerSets.of(elements));
+  }
+
+  /**
+   * Returns the set containing the elements of the given collection.
+   *
+   * @param c the elements to contain
+   * @return the set containing the elements of {@code c}, {@code c} itself
+   *  if it already is an {@link ImmutableSmallIntegerSet}
+   * @throws IllegalArgumentException if the collection contains an element
+   *  that is not supported
+   * @throws NullPointerException if the collection contains {@code null}
+   */
+  public static ImmutableSmallIntegerSet copyOf(Collection<? extends Integer> c) {
+    if (c instanceof ImmutableSmallIntegerSet) {
+      return (ImmutableSmallIntegerSet) c;
+    }
+    return fromBits(SmallIntegerSet.bits(c));
+  }
+
+  /**
+   * Returns the set from its raw bit representation.
+   *
+   * @param bits the elements of the set, one bit per element
+   * @return the set containing the elements encoded in {@code bits}
+   * @see SmallIntegerSets
+   */
+  public static ImmutableSmallIntegerSet fromBits(long bits) {
+    if (bits == 0L) {
+      return EMPTY;
+    }
+    if (bits == -1L) {
+      return FULL;
+    }
+    if ((bits & (bits - 1L)) == 0L) {
+      return SINGLETONS[Long.numberOfTrailingZeros(bits)];
+    }
+    return new ImmutableSmallIntegerSet(bits);
+  }
+
+  /**
+   * Returns the raw bit representation of this set.
+   *
+   * @return the elements of this set, one bit per element
+   * @see SmallIntegerSets
+   */
+  @Override
+  public long toBits() {
+    return this.values;
+  }
+
+  /**
+   * Writes the elements of this set as a single {@code long}.
+   *
+   * <p>Much more compact than serialization. The set can be read back with
+   * {@link #readFrom(DataInput)}.</p>
+   *
+   * @param out the output to write to, not {@code null}
+   * @throws IOException if writing fails
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeLong(this.values);
+  }
+
+  /**
+   * Reads a set written by {@link #writeTo(DataOutput)}.
+   *
+   * @param in the input to read from, not {@code null}
+   * @return the set read
+   * @throws IOException if reading fails
+   */
+  public static ImmutableSmallIntegerSet readFrom(DataInput in) throws IOException {
+    return fromBits(in.readLong());
+  }
+
+  @Override
+  public int size() {
+    return SmallIntegerSet.size(this.values);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return SmallIntegerSet.isEmpty(this.values);
+  }
+
+  @Override
+  public Comparator<? super Integer> comparator() {
+    // natural order
+    return null;
+  }
+
+  @Override
+  public Integer first() {
+    return SmallIntegerSet.first(this.values);
+  }
+
+  @Override
+  public Integer last() {
+    return SmallIntegerSet.last(this.values);
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return SmallIntegerSet.isSet(this.values, (Integer) o);
+  }
+
+  @Override
+  public boolean containsInt(int i) {
+    return SmallIntegerSet.isSet(this.values, i);
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> c) {
+    if (c instanceof SmallIntegerBits) {
+      return SmallIntegerSet.containsAll(this.values, ((SmallIntegerBits) c).toBits());
+    }
+    return this.containsAllGeneric(c);
+  }
+
+  private boolean containsAllGeneric(Collection<?> c) {
+    for (Object each : c) {
+      if (!this.contains(each)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public Integer ceiling(Integer e) {
+    return SmallIntegerSet.boxOrNull(SmallIntegerSet.ceiling(this.values, e));
+  }
+
+  @Override
+  public int ceilingInt(int e) {
+    return SmallIntegerSet.ceiling(this.values, e);
+  }
+
+  @Override
+  public Integer higher(Integer e) {
+    return SmallIntegerSet.boxOrNull(SmallIntegerSet.higher(this.values, e));
+  }
+
+  @Override
+  public int higherInt(int e) {
+    return SmallIntegerSet.higher(this.values, e);
+  }
+
+  @Override
+  public Integer floor(Integer e) {
+    return SmallIntegerSet.boxOrNull(SmallIntegerSet.floor(this.values, e));
+  }
+
+  @Override
+  public int floorInt(int e) {
+    return SmallIntegerSet.floor(this.values, e);
+  }
+
+  @Override
+  public Integer lower(Integer e) {
+    return SmallIntegerSet.boxOrNull(SmallIntegerSet.lower(this.values, e));
+  }
+
+  @Override
+  public int lowerInt(int e) {
+    return SmallIntegerSet.lower(this.values, e);
+  }
+
+  @Override
+  public Object[] toArray() {
+    return SmallIntegerSet.toArray(this.values);
+  }
+
+  @Override
+  public <T> T[] toArray(T[] a) {
+    return SmallIntegerSet.toArray(this.values, a);
+  }
+
+  @Override
+  public int[] toIntArray() {
+    return SmallIntegerSet.toIntArray(this.values);
+  }
+
+  @Override
+  public void forEach(Consumer<? super Integer> action) {
+    SmallIntegerSet.forEach(this.values, action);
+  }
+
+  @Override
+  public void forEachInt(IntConsumer action) {
+    SmallIntegerSet.forEachInt(this.values, action);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt iterator() {
+    return new ImmutableSmallIntegerSetIterator();
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return new ImmutableSmallIntegerSetIterator();
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt descendingIterator() {
+    return new ImmutableSmallIntegerSetDescendingIterator();
+  }
+
+  @Override
+  public NavigableSet<Integer> descendingSet() {
+    return new DescendingIntegerSet(this);
+  }
+
+  @Override
+  public Spliterator<Integer> spliterator() {
+    return new IntegerSetSpliterator(this.values);
+  }
+
+  @Override
+  public Stream<Integer> stream() {
+    return StreamSupport.stream(new IntegerSetSpliterator(this.values), false);
+  }
+
+  @Override
+  public Stream<Integer> parallelStream() {
+    return StreamSupport.stream(new IntegerSetSpliterator(this.values), true);
+  }
+
+  @Override
+  public IntStream intStream() {
+    return StreamSupport.intStream(new IntegerSetSpliterator(this.values), false);
+  }
+
+  @Override
+  public IntNavigableSet subSet(Integer fromElement, boolean fromInclusive, Integer toElement, boolean toInclusive) {
+    return this.view().subSet(fromElement, fromInclusive, toElement, toInclusive);
+  }
+
+  @Override
+  public IntNavigableSet headSet(Integer toElement, boolean inclusive) {
+    return this.view().headSet(toElement, inclusive);
+  }
+
+  @Override
+  public IntNavigableSet tailSet(Integer fromElement, boolean inclusive) {
+    return this.view().tailSet(fromElement, inclusive);
+  }
+
+  @Override
+  public IntNavigableSet subSet(Integer fromElement, Integer toElement) {
+    return this.subSet(fromElement, true, toElement, false);
+  }
+
+  @Override
+  public IntNavigableSet headSet(Integer toElement) {
+    return this.headSet(toElement, false);
+  }
+
+  @Override
+  public IntNavigableSet tailSet(Integer fromElement) {
+    return this.tailSet(fromElement, true);
+  }
+
+  private IntNavigableSet view() {
+    // the copy is never exposed so the range views can not be modified
+    // and take care of the range checks
+    return SmallIntegerSet.fromBits(this.values).asUnmodifiable();
+  }
+
+  @Override
+  public boolean add(Integer e) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean addInt(int i) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean removeInt(int i) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Integer> c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super Integer> filter) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean removeIfInt(IntPredicate filter) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Integer pollFirst() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Integer pollLast() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public int hashCode() {
+    return SmallIntegerSet.hashCode(this.values);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof Set)) {
+      return false;
+    }
+    if (obj instanceof SmallIntegerBits) {
+      return this.values == ((SmallIntegerBits) obj).toBits();
+    }
+
+    Set<?> other = (Set<?>) obj;
+    if (this.size() != other.size()) {
+      return false;
+    }
+    return SmallIntegerSet.containsAllNonThrowing(this.values, other);
+  }
+
+  @Override
+  public String toString() {
+    return SmallIntegerSets.toString(this.values);
+  }
+
+  private Object writeReplace() {
+    return new Ser(Ser.IMMUTABLE_SMALL_INTEGER_SET, this.values);
+  }
+
+  final class ImmutableSmallIntegerSetIterator extends AbstractIntegerSetIterator {
+
+    @Override
+    void unsetNoCheck(int i) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    long bits() {
+      return ImmutableSmallIntegerSet.this.values;
+    }
+
+  }
+
+  final class ImmutableSmallIntegerSetDescendingIterator extends AbstractDescendingIntegerSetIterator {
+
+    @Override
+    void unsetNoCheck(int i) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    long bits() {
+      return ImmutableSmallIntegerSet.this.values;
+    }
+
+  }
+
+}
@@ -0,0 +1,85 @@
+package com.github.marschall.sets;
+
+import java.util.NavigableSet;
+
+/**
+ * A {@link NavigableSet} of {@link Integer}s that in addition offers
+ * operations on primitive {@code int}s.
+ *
+ * <p>Implementations of this interface only support non-negative elements.
+ * This allows the primitive navigation methods to return {@code -1} if there
+ * is no such element instead of {@code null}.</p>
+ *
+ * <p>The range views returned by {@link #subSet(Integer, boolean, Integer, boolean)},
+ * {@link #headSet(Integer, boolean)} and {@link #tailSet(Integer, boolean)}
+ * also support the primitive operations.</p>
+ */
+public interface IntNavigableSet extends IntSortedSet, NavigableSet<Integer> {
+
+  /**
+   * Returns the least element in this set greater than or equal to the
+   * given element.
+   *
+   * <p>Like {@link java.util.NavigableSet#ceiling(Object)} but without boxing.</p>
+   *
+   * @param e the value to match
+   * @return the least element greater than or equal to {@code e},
+   *         or {@code -1} if there is no such element
+   */
+  int ceilingInt(int e);
+
+  /**
+   * Returns the greatest element in this set less than or equal to the
+   * given element.
+   *
+   * <p>Like {@link java.util.NavigableSet#floor(Object)} but without boxing.</p>
+   *
+   * @param e the value to match
+   * @return the greatest element less than or equal to {@code e},
+   *         or {@code -1} if there is no such element
+   */
+  int floorInt(int e);
+
+  /**
+   * Returns the least element in this set strictly greater than the
+   * given element.
+   *
+   * <p>Like {@link java.util.NavigableSet#higher(Object)} but without boxing.</p>
+   *
+   * @param e the value to match
+   * @return the least element greater than {@code e},
+   *         or {@code -1} if there is no such element
+   */
+  int higherInt(int e);
+
+  /**
+   * Returns the greatest element in this set strictly less than the
+   * given element.
+   *
+   * <p>Like {@link java.util.NavigableSet#lower(Object)} but without boxing.</p>
+   *
+   * @param e the value to match
+   * @return the greatest element less than {@code e},
+   *         or {@code -1} if there is no such element
+   */
+  int lowerInt(int e);
+
+  @Override
+  IntNavigableSet subSet(Integer fromElement, boolean fromInclusive, Integer toElement, boolean toInclusive);
+
+  @Override
+  IntNavigableSet headSet(Integer toElement, boolean inclusive);
+
+  @Override
+  IntNavigableSet tailSet(Integer fromElement, boolean inclusive);
+
+  @Override
+  IntNavigableSet subSet(Integer fromElement, Integer toElement);
+
+  @Override
+  IntNavigableSet headSet(Integer toElement);
+
+  @Override
+  IntNavigableSet tailSet(Integer fromElement);
+
+}
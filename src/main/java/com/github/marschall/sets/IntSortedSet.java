@@ -0,0 +1,118 @@
+package com.github.marschall.sets;
+
+import java.util.Collection;
+import java.util.PrimitiveIterator;
+import java.util.SortedSet;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link SortedSet} of {@link Integer}s that in addition offers operations
+ * on primitive {@code int}s.
+ *
+ * <p>The primitive operations have the same semantics as their
+ * {@link Integer} counterparts but avoid boxing, unboxing and type checks.
+ * They never throw a {@link NullPointerException} or a
+ * {@link ClassCastException}.</p>
+ *
+ * <p>The range views returned by {@link #subSet(Integer, Integer)},
+ * {@link #headSet(Integer)} and {@link #tailSet(Integer)} also support the
+ * primitive operations.</p>
+ */
+public interface IntSortedSet extends SortedSet<Integer> {
+
+  /**
+   * Adds the specified element to this set if it is not already present.
+   *
+   * <p>Like {@link #add(Object)} but without boxing.</p>
+   *
+   * @param i element to be added to this set
+   * @return {@code true} if this set did not already contain the specified
+   *         element
+   * @throws IllegalArgumentException if the element is not supported by
+   *         this set
+   */
+  boolean addInt(int i);
+
+  /**
+   * Returns {@code true} if this set contains the specified element.
+   *
+   * <p>Like {@link #contains(Object)} but without boxing and type checks.</p>
+   *
+   * @param i element whose presence in this set is to be tested
+   * @return {@code true} if this set contains the specified element
+   */
+  boolean containsInt(int i);
+
+  /**
+   * Removes the specified element from this set if it is present.
+   *
+   * <p>Like {@link #remove(Object)} but without boxing and type checks.</p>
+   *
+   * @param i element to be removed from this set, if present
+   * @return {@code true} if this set contained the specified element
+   */
+  boolean removeInt(int i);
+
+  /**
+   * Performs the given action for each element of this set in ascending
+   * order.
+   *
+   * <p>Like {@link #forEach(java.util.function.Consumer)} but without
+   * boxing.</p>
+   *
+   * @param action the action to be performed for each element
+   */
+  void forEachInt(IntConsumer action);
+
+  /**
+   * Removes all of the elements of this set that satisfy the given predicate.
+   *
+   * <p>Like {@link #removeIf(java.util.function.Predicate)} but without
+   * boxing.</p>
+   *
+   * @param filter a predicate which returns {@code true} for elements to be
+   *        removed
+   * @return {@code true} if any elements were removed
+   */
+  boolean removeIfInt(IntPredicate filter);
+
+  /**
+   * Returns an array containing all of the elements in this set in
+   * ascending order.
+   *
+   * <p>Like {@link Collection#toArray()} but without boxing.</p>
+   *
+   * @return an array containing all the elements in this set
+   */
+  int[] toIntArray();
+
+  /**
+   * Returns an iterator over the elements in this set in ascending order.
+   *
+   * <p>Like {@link #iterator()} but without boxing.</p>
+   *
+   * @return an iterator over the elements in this set
+   */
+  PrimitiveIterator.OfInt intIterator();
+
+  /**
+   * Returns a sequential {@link IntStream} with this set as its source.
+   *
+   * <p>Like {@link #stream()} but without boxing.</p>
+   *
+   * @return a sequential {@link IntStream} over the elements in this set
+   */
+  IntStream intStream();
+
+  @Override
+  IntSortedSet subSet(Integer fromElement, Integer toElement);
+
+  @Override
+  IntSortedSet headSet(Integer toElement);
+
+  @Override
+  IntSortedSet tailSet(Integer fromElement);
+
+}
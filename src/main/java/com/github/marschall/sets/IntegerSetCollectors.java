@@ -0,0 +1,121 @@
+package com.github.marschall.sets;
+
+import java.util.stream.Collector;
+import java.util.stream.Collector.Characteristics;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * {@link Collector}s that collect into the sets of this package.
+ *
+ * <p>Unlike {@link Collectors#toCollection(java.util.function.Supplier)}
+ * the collectors merge partial results of parallel streams with bitwise
+ * operations instead of adding the elements one by one. For
+ * {@link SmallIntegerSet} and {@link ImmutableSmallIntegerSet} the
+ * intermediate result is a single {@code long} and merging is a single
+ * bitwise or. For {@link BitIntegerSet} merging is a bitwise or per
+ * {@code long} word.</p>
+ *
+ * <p>The methods taking an {@link IntStream} collect without boxing.</p>
+ *
+ * <p>All collectors are {@link Characteristics#UNORDERED unordered} and
+ * throw an {@link IllegalArgumentException} when they encounter an element
+ * that is not supported by the resulting set.</p>
+ */
+public final class IntegerSetCollectors {
+
+  private static final Collector<Integer, SmallIntegerSet, SmallIntegerSet> TO_SMALL_INTEGER_SET =
+          Collector.of(SmallIntegerSet::new, SmallIntegerSet::addInt, IntegerSetCollectors::combine,
+                  Characteristics.UNORDERED, Characteristics.IDENTITY_FINISH);
+
+  private static final Collector<Integer, SmallIntegerSet, ImmutableSmallIntegerSet> TO_IMMUTABLE_SMALL_INTEGER_SET =
+          Collector.of(SmallIntegerSet::new, SmallIntegerSet::addInt, IntegerSetCollectors::combine,
+                  IntegerSetCollectors::toImmutable, Characteristics.UNORDERED);
+
+  private static final Collector<Integer, BitIntegerSet, BitIntegerSet> TO_BIT_INTEGER_SET =
+          Collector.of(BitIntegerSet::new, BitIntegerSet::addInt, IntegerSetCollectors::combine,
+                  Characteristics.UNORDERED, Characteristics.IDENTITY_FINISH);
+
+  private IntegerSetCollectors() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Returns a collector that collects into a new {@link SmallIntegerSet}.
+   *
+   * @return the collector
+   */
+  public static Collector<Integer, ?, SmallIntegerSet> toSmallIntegerSet() {
+    return TO_SMALL_INTEGER_SET;
+  }
+
+  /**
+   * Returns a collector that collects into an {@link ImmutableSmallIntegerSet}.
+   *
+   * @return the collector
+   */
+  public static Collector<Integer, ?, ImmutableSmallIntegerSet> toImmutableSmallIntegerSet() {
+    return TO_IMMUTABLE_SMALL_INTEGER_SET;
+  }
+
+  /**
+   * Returns a collector that collects into a new {@link BitIntegerSet}.
+   *
+   * @return the collector
+   */
+  public static Collector<Integer, ?, BitIntegerSet> toBitIntegerSet() {
+    return TO_BIT_INTEGER_SET;
+  }
+
+  /**
+   * Collects the elements of a stream into a new {@link SmallIntegerSet}.
+   *
+   * @param stream the stream to collect, not {@code null}
+   * @return the set containing the elements of the stream
+   */
+  public static SmallIntegerSet toSmallIntegerSet(IntStream stream) {
+    return stream.collect(SmallIntegerSet::new, SmallIntegerSet::addInt, IntegerSetCollectors::combine);
+  }
+
+  /**
+   * Collects the elements of a stream into an {@link ImmutableSmallIntegerSet}.
+   *
+   * @param stream the stream to collect, not {@code null}
+   * @return the set containing the elements of the stream
+   */
+  public static ImmutableSmallIntegerSet toImmutableSmallIntegerSet(IntStream stream) {
+    return toImmutable(toSmallIntegerSet(stream));
+  }
+
+  /**
+   * Collects the elements of a stream into a new {@link BitIntegerSet}.
+   *
+   * @param stream the stream to collect, not {@code null}
+   * @return the set containing the elements of the stream
+   */
+  public static BitIntegerSet toBitIntegerSet(IntStream stream) {
+    // has to merge into the left set
+    return stream.collect(BitIntegerSet::new, BitIntegerSet::addInt, (left, right) -> left.addAll(right));
+  }
+
+  private static SmallIntegerSet combine(SmallIntegerSet left, SmallIntegerSet right) {
+    left.addAll(right.toBits());
+    return left;
+  }
+
+  private static BitIntegerSet combine(BitIntegerSet left, BitIntegerSet right) {
+    // addAll is word wise for BitIntegerSet
+    if (left.wordCount() < right.wordCount()) {
+      // avoid growing left
+      right.addAll(left);
+      return right;
+    }
+    left.addAll(right);
+    return left;
+  }
+
+  private static ImmutableSmallIntegerSet toImmutable(SmallIntegerSet set) {
+    return ImmutableSmallIntegerSet.fromBits(set.toBits());
+  }
+
+}
@@ -0,0 +1,317 @@
+package com.github.marschall.sets;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.util.function.LongConsumer;
+
+/**
+ * A fixed number of sets for {@link Integer}s between
+ * {@value SmallIntegerSet#MIN_VALUE} and {@value SmallIntegerSet#MAX_VALUE}
+ * stored in a memory mapped file.
+ *
+ * <p>Like {@link SmallIntegerSetArray} but off heap and persistent. Every
+ * set, called row, takes exactly eight bytes in the file, the raw bit
+ * representation of {@link SmallIntegerSet#toBits()} in little endian byte
+ * order. The file has no header, the number of rows is the file size
+ * divided by eight.</p>
+ *
+ * <p>The file is mapped in segments of {@value #ROWS_PER_SEGMENT} rows so
+ * that more than {@link Integer#MAX_VALUE} bytes can be mapped. Rows are
+ * addressed with {@code long}s.</p>
+ *
+ * <p>Modifications are written to the page cache, call {@link #force()}
+ * to write them to the storage device.</p>
+ *
+ * <p>Operations like {@link #add(long, int)} will throw an
+ * {@link IllegalArgumentException} with a value outside the supported
+ * range. Operations like {@link #remove(long, int)} or
+ * {@link #contains(long, int)} will return {@code false} with a value
+ * outside this range. All operations throw an
+ * {@link IndexOutOfBoundsException} with an invalid row.</p>
+ *
+ * <p>This class is not thread safe.</p>
+ */
+public final class MappedSmallIntegerSetArray implements Closeable {
+
+  /**
+   * The number of rows in a mapped segment, 128 MiB per segment.
+   */
+  static final int ROWS_PER_SEGMENT = 1 << 24;
+
+  private static final int SEGMENT_SHIFT = 24;
+
+  private static final int ROW_SHIFT = 3;
+
+  private final FileChannel channel;
+
+  private final MappedByteBuffer[] segments;
+
+  private final long length;
+
+  private MappedSmallIntegerSetArray(FileChannel channel, long length) throws IOException {
+    this.channel = channel;
+    this.length = length;
+    this.segments = map(channel, length);
+  }
+
+  private static MappedByteBuffer[] map(FileChannel channel, long length) throws IOException {
+    int segmentCount = (int) ((length + ROWS_PER_SEGMENT - 1L) >>> SEGMENT_SHIFT);
+    MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      long firstRow = (long) i << SEGMENT_SHIFT;
+      long rowCount = Math.min(ROWS_PER_SEGMENT, length - firstRow);
+      MappedByteBuffer segment = channel.map(MapMode.READ_WRITE, firstRow << ROW_SHIFT, rowCount << ROW_SHIFT);
+      segment.order(ByteOrder.LITTLE_ENDIAN);
+      segments[i] = segment;
+    }
+    return segments;
+  }
+
+  /**
+   * Opens a file with a given number of rows.
+   *
+   * <p>The file is created if it does not exist. It is grown if it has
+   * fewer rows, new rows are empty. Existing rows keep their elements.</p>
+   *
+   * @param path the file to open, not {@code null}
+   * @param length the number of rows
+   * @return the opened file, has to be closed
+   * @throws IOException if the file can not be opened or mapped
+   * @throws IllegalArgumentException if {@code length} is negative
+   */
+  public static MappedSmallIntegerSetArray open(Path path, long length) throws IOException {
+    if (length < 0L) {
+      throw new IllegalArgumentException("negative length: " + length);
+    }
+    FileChannel channel = FileChannel.open(path, READ, WRITE, CREATE);
+    try {
+      return new MappedSmallIntegerSetArray(channel, length);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Opens an existing file with all of its rows.
+   *
+   * @param path the file to open, not {@code null}
+   * @return the opened file, has to be closed
+   * @throws IOException if the file can not be opened or mapped or if
+   *  the file size is not a multiple of eight
+   */
+  public static MappedSmallIntegerSetArray open(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(path, READ, WRITE);
+    try {
+      long size = channel.size();
+      if ((size & 7L) != 0L) {
+        throw new IOException("file size not a multiple of 8: " + size);
+      }
+      return new MappedSmallIntegerSetArray(channel, size >>> ROW_SHIFT);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the number of sets in this file.
+   *
+   * @return the number of sets
+   */
+  public long length() {
+    return this.length;
+  }
+
+  private void checkRow(long row) {
+    if (row < 0L || row >= this.length) {
+      throw new IndexOutOfBoundsException("row: " + row + ", length: " + this.length);
+    }
+  }
+
+  private MappedByteBuffer segment(long row) {
+    return this.segments[(int) (row >>> SEGMENT_SHIFT)];
+  }
+
+  private static int offset(long row) {
+    return ((int) row & (ROWS_PER_SEGMENT - 1)) << ROW_SHIFT;
+  }
+
+  /**
+   * Returns the raw bit representation of a set.
+   *
+   * @param row the index of the set
+   * @return the elements, bit {@code i} is set if {@code i} is contained
+   * @see SmallIntegerSets
+   */
+  public long getBits(long row) {
+    this.checkRow(row);
+    return this.segment(row).getLong(offset(row));
+  }
+
+  /**
+   * Replaces the elements of a set with its raw bit representation.
+   *
+   * @param row the index of the set
+   * @param bits the elements, bit {@code i} is set if {@code i} is contained
+   * @see SmallIntegerSets
+   */
+  public void setBits(long row, long bits) {
+    this.checkRow(row);
+    this.segment(row).putLong(offset(row), bits);
+  }
+
+  /**
+   * Reads a set.
+   *
+   * @param row the index of the set
+   * @return a new set with the elements of the row, not backed by the file
+   */
+  public SmallIntegerSet get(long row) {
+    return SmallIntegerSet.fromBits(this.getBits(row));
+  }
+
+  /**
+   * Replaces the elements of a set.
+   *
+   * @param row the index of the set
+   * @param set the new elements, not {@code null}
+   */
+  public void set(long row, SmallIntegerSet set) {
+    this.setBits(row, set.toBits());
+  }
+
+  /**
+   * Adds a value to a set.
+   *
+   * @param row the index of the set
+   * @param value the value to add
+   * @return {@code true} if the set did not already contain the value
+   * @throws IllegalArgumentException if the value is not supported
+   */
+  public boolean add(long row, int value) {
+    if (!SmallIntegerSet.isSupported(value)) {
+      throw new IllegalArgumentException();
+    }
+    long before = this.getBits(row);
+    long after = before | (1L << value);
+    if (before == after) {
+      return false;
+    }
+    this.setBits(row, after);
+    return true;
+  }
+
+  /**
+   * Removes a value from a set.
+   *
+   * @param row the index of the set
+   * @param value the value to remove
+   * @return {@code true} if the set contained the value
+   */
+  public boolean remove(long row, int value) {
+    long before = this.getBits(row);
+    if (!SmallIntegerSet.isSet(before, value)) {
+      return false;
+    }
+    this.setBits(row, before & ~(1L << value));
+    return true;
+  }
+
+  /**
+   * Checks whether a set contains a value.
+   *
+   * @param row the index of the set
+   * @param value the value to check
+   * @return {@code true} if the set contains the value
+   */
+  public boolean contains(long row, int value) {
+    return SmallIntegerSet.isSet(this.getBits(row), value);
+  }
+
+  /**
+   * Returns the number of elements in a set.
+   *
+   * @param row the index of the set
+   * @return the number of elements in the set
+   */
+  public int size(long row) {
+    return SmallIntegerSet.size(this.getBits(row));
+  }
+
+  /**
+   * Calls an action for every row that contains all the elements of a mask.
+   *
+   * <p>Scans the file sequentially.</p>
+   *
+   * @param mask the raw bit representation of the elements to match
+   * @param action the action to call with the index of every matching row
+   */
+  public void forEachRowContainingAll(long mask, LongConsumer action) {
+    for (int i = 0; i < this.segments.length; i++) {
+      MappedByteBuffer segment = this.segments[i];
+      long firstRow = (long) i << SEGMENT_SHIFT;
+      int limit = segment.limit();
+      for (int offset = 0; offset < limit; offset += 8) {
+        if ((segment.getLong(offset) & mask) == mask) {
+          action.accept(firstRow + (offset >>> ROW_SHIFT));
+        }
+      }
+    }
+  }
+
+  /**
+   * Calls an action for every row that contains any of the elements of a
+   * mask.
+   *
+   * <p>Scans the file sequentially.</p>
+   *
+   * @param mask the raw bit representation of the elements to match
+   * @param action the action to call with the index of every matching row
+   */
+  public void forEachRowContainingAny(long mask, LongConsumer action) {
+    for (int i = 0; i < this.segments.length; i++) {
+      MappedByteBuffer segment = this.segments[i];
+      long firstRow = (long) i << SEGMENT_SHIFT;
+      int limit = segment.limit();
+      for (int offset = 0; offset < limit; offset += 8) {
+        if ((segment.getLong(offset) & mask) != 0L) {
+          action.accept(firstRow + (offset >>> ROW_SHIFT));
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes all modifications to the storage device.
+   *
+   * @see MappedByteBuffer#force()
+   */
+  public void force() {
+    for (MappedByteBuffer segment : this.segments) {
+      segment.force();
+    }
+  }
+
+  /**
+   * Closes the underlying file.
+   *
+   * <p>Modifications are not forced to the storage device. The mapped
+   * memory is released once this object is garbage collected, this object
+   * must not be used after it has been closed.</p>
+   */
+  @Override
+  public void close() throws IOException {
+    this.channel.close();
+  }
+
+}
@@ -0,0 +1,404 @@
+package com.github.marschall.sets;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.github.marschall.sets.WordBitsSupport.WordBitsIterator;
+import com.github.marschall.sets.WordBitsSupport.WordBitsSpliterator;
+
+/**
+ * A set for {@link Integer}s between {@value #MIN_VALUE} and
+ * {@value #MAX_VALUE}.
+ *
+ * <p>Like {@link SmallIntegerSet} but for twice the range. The elements are
+ * kept in two {@code long} fields, there is no array.</p>
+ *
+ * <p>Operations like {@link #add(Integer)} will throw an
+ * {@link IllegalArgumentException} with an argument outside the supported
+ * range. Operations like {@link #remove(Object)} or {@link #contains(Object)}
+ * will return {@code false} with an argument outside this range.  This is in
+ * accordance with the {@link Set} contract.</p>
+ *
+ * <p>This set does not support {@code null} elements.</p>
+ *
+ * <p>This set keeps the elements in their natural order.</p>
+ *
+ * <p>The operations {@link #contains(Object)}, {@link #add(Integer)},
+ * {@link #remove(Object)}, {@link #clear()}, {@link #size()},
+ * {@link #first()}, {@link #last()} and {@link #hashCode()} run in constant
+ * time.</p>
+ *
+ * <p>The operations {@link #addAll(Collection)},
+ * {@link #removeAll(Collection)}, {@link #retainAll(Collection)},
+ * {@link #containsAll(Collection)} and {@link #equals(Object)} run in
+ * constant time when the argument is a {@link MediumIntegerSet}, a
+ * {@link LargeIntegerSet}, a {@link SmallIntegerSet} or a range view of
+ * one of them.</p>
+ *
+ * <p>This set is not thread safe.</p>
+ *
+ * <p>This set is not fail-fast.</p>
+ *
+ * <p>This set supports all optional {@link Set} and {@link Iterator} operations.</p>
+ */
+public final class MediumIntegerSet implements IntSortedSet, MutableWordBits, Serializable, Cloneable {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The minimum value this set can hold.
+   */
+  public static final int MIN_VALUE = 0;
+
+  /**
+   * The maximum value this set can hold.
+   */
+  public static final int MAX_VALUE = 127;
+
+  private static final int WORD_COUNT = 2;
+
+  /**
+   * The elements from 0 to 63.
+   */
+  private long bits0;
+
+  /**
+   * The elements from 64 to 127.
+   */
+  private long bits1;
+
+  /**
+   * Creates a new empty set.
+   */
+  public MediumIntegerSet() {
+    this.bits0 = 0L;
+    this.bits1 = 0L;
+  }
+
+  /**
+   * Checks if instances of this set class will support containing the given
+   * value.
+   *
+   * @param i the integer to check
+   * @return {@code true} if {@code i} is between {@value #MIN_VALUE} and
+   *  {@value #MAX_VALUE}
+   */
+  public static boolean isSupported(int i) {
+    return i >= MIN_VALUE && i <= MAX_VALUE;
+  }
+
+  /**
+   * Returns the number of {@code long} words used to represent this set.
+   *
+   * @return {@code 2}
+   */
+  @Override
+  public int wordCount() {
+    return WORD_COUNT;
+  }
+
+  /**
+   * Returns a word of the raw bit representation of this set.
+   *
+   * <p>Bit {@code i} of word {@code w} is set if the element
+   * {@code w * 64 + i} is contained.</p>
+   *
+   * @param index the index of the word, either {@code 0} or {@code 1}
+   * @return the word with the given index
+   * @throws IndexOutOfBoundsException if the index is neither {@code 0}
+   *  nor {@code 1}
+   */
+  @Override
+  public long getWord(int index) {
+    switch (index) {
+      case 0:
+        return this.bits0;
+      case 1:
+        return this.bits1;
+      default:
+        throw new IndexOutOfBoundsException();
+    }
+  }
+
+  /**
+   * Replaces a word of the raw bit representation of this set.
+   *
+   * @param index the index of the word, either {@code 0} or {@code 1}
+   * @param word the new word
+   * @throws IndexOutOfBoundsException if the index is neither {@code 0}
+   *  nor {@code 1}
+   * @see #getWord(int)
+   */
+  @Override
+  public void setWord(int index, long word) {
+    switch (index) {
+      case 0:
+        this.bits0 = word;
+        break;
+      case 1:
+        this.bits1 = word;
+        break;
+      default:
+        throw new IndexOutOfBoundsException();
+    }
+  }
+
+  @Override
+  public int size() {
+    return Long.bitCount(this.bits0) + Long.bitCount(this.bits1);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return (this.bits0 | this.bits1) == 0L;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return this.containsInt((Integer) o);
+  }
+
+  @Override
+  public boolean containsInt(int i) {
+    if (!isSupported(i)) {
+      return false;
+    }
+    return (this.getWord(i >>> 6) & (1L << i)) != 0L;
+  }
+
+  @Override
+  public boolean add(Integer e) {
+    return this.addInt(e);
+  }
+
+  @Override
+  public boolean addInt(int i) {
+    return WordBitsSupport.add(this, MIN_VALUE, MAX_VALUE, i);
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    return this.removeInt((Integer) o);
+  }
+
+  @Override
+  public boolean removeInt(int i) {
+    return WordBitsSupport.remove(this, MIN_VALUE, MAX_VALUE, i);
+  }
+
+  @Override
+  public void clear() {
+    this.bits0 = 0L;
+    this.bits1 = 0L;
+  }
+
+  @Override
+  public Comparator<? super Integer> comparator() {
+    // natural order
+    return null;
+  }
+
+  @Override
+  public Integer first() {
+    if (this.bits0 != 0L) {
+      return Long.numberOfTrailingZeros(this.bits0);
+    }
+    if (this.bits1 != 0L) {
+      return 64 + Long.numberOfTrailingZeros(this.bits1);
+    }
+    throw new NoSuchElementException();
+  }
+
+  @Override
+  public Integer last() {
+    if (this.bits1 != 0L) {
+      return 127 - Long.numberOfLeadingZeros(this.bits1);
+    }
+    if (this.bits0 != 0L) {
+      return 63 - Long.numberOfLeadingZeros(this.bits0);
+    }
+    throw new NoSuchElementException();
+  }
+
+  @Override
+  public IntSortedSet subSet(Integer fromElement, Integer toElement) {
+    return WordBitsSupport.subSet(this, this, MIN_VALUE, MAX_VALUE, fromElement, toElement);
+  }
+
+  @Override
+  public IntSortedSet headSet(Integer toElement) {
+    return WordBitsSupport.headSet(this, this, MIN_VALUE, MAX_VALUE, toElement);
+  }
+
+  @Override
+  public IntSortedSet tailSet(Integer fromElement) {
+    return WordBitsSupport.tailSet(this, this, MIN_VALUE, MAX_VALUE, fromElement);
+  }
+
+  @Override
+  public Iterator<Integer> iterator() {
+    return new WordBitsIterator(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return new WordBitsIterator(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  @Override
+  public Spliterator<Integer> spliterator() {
+    return new WordBitsSpliterator(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  @Override
+  public Stream<Integer> stream() {
+    return StreamSupport.stream(this.spliterator(), false);
+  }
+
+  @Override
+  public Stream<Integer> parallelStream() {
+    return StreamSupport.stream(this.spliterator(), true);
+  }
+
+  @Override
+  public IntStream intStream() {
+    return StreamSupport.intStream(new WordBitsSpliterator(this, MIN_VALUE, MAX_VALUE), false);
+  }
+
+  @Override
+  public void forEach(Consumer<? super Integer> action) {
+    WordBitsSupport.forEach(this, MIN_VALUE, MAX_VALUE, action);
+  }
+
+  @Override
+  public void forEachInt(IntConsumer action) {
+    WordBitsSupport.forEachInt(this, MIN_VALUE, MAX_VALUE, action);
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super Integer> filter) {
+    return WordBitsSupport.removeIf(this, MIN_VALUE, MAX_VALUE, filter::test);
+  }
+
+  @Override
+  public boolean removeIfInt(IntPredicate filter) {
+    return WordBitsSupport.removeIf(this, MIN_VALUE, MAX_VALUE, filter);
+  }
+
+  @Override
+  public Object[] toArray() {
+    return WordBitsSupport.toArray(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  @Override
+  public <T> T[] toArray(T[] a) {
+    return WordBitsSupport.toArray(this, MIN_VALUE, MAX_VALUE, a);
+  }
+
+  @Override
+  public int[] toIntArray() {
+    return WordBitsSupport.toIntArray(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> c) {
+    if (c instanceof MediumIntegerSet) {
+      MediumIntegerSet other = (MediumIntegerSet) c;
+      return (other.bits0 & ~this.bits0) == 0L
+              && (other.bits1 & ~this.bits1) == 0L;
+    }
+    return WordBitsSupport.containsAll(this, MIN_VALUE, MAX_VALUE, c);
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Integer> c) {
+    if (c instanceof MediumIntegerSet) {
+      MediumIntegerSet other = (MediumIntegerSet) c;
+      long before0 = this.bits0;
+      long before1 = this.bits1;
+      this.bits0 = before0 | other.bits0;
+      this.bits1 = before1 | other.bits1;
+      return before0 != this.bits0 || before1 != this.bits1;
+    }
+    return WordBitsSupport.addAll(this, MIN_VALUE, MAX_VALUE, c);
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    if (c instanceof MediumIntegerSet) {
+      MediumIntegerSet other = (MediumIntegerSet) c;
+      long before0 = this.bits0;
+      long before1 = this.bits1;
+      this.bits0 = before0 & other.bits0;
+      this.bits1 = before1 & other.bits1;
+      return before0 != this.bits0 || before1 != this.bits1;
+    }
+    return WordBitsSupport.retainAll(this, MIN_VALUE, MAX_VALUE, c);
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    if (c instanceof MediumIntegerSet) {
+      MediumIntegerSet other = (MediumIntegerSet) c;
+      long before0 = this.bits0;
+      long before1 = this.bits1;
+      this.bits0 = before0 & ~other.bits0;
+      this.bits1 = before1 & ~other.bits1;
+      return before0 != this.bits0 || before1 != this.bits1;
+    }
+    return WordBitsSupport.removeAll(this, MIN_VALUE, MAX_VALUE, c);
+  }
+
+  @Override
+  public int hashCode() {
+    return WordBitsSupport.hashCode(this.bits0, 0) + WordBitsSupport.hashCode(this.bits1, 1);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj instanceof MediumIntegerSet) {
+      MediumIntegerSet other = (MediumIntegerSet) obj;
+      return this.bits0 == other.bits0 && this.bits1 == other.bits1;
+    }
+    return WordBitsSupport.equals(this, MIN_VALUE, MAX_VALUE, obj);
+  }
+
+  @Override
+  public String toString() {
+    return WordBitsSupport.toString(this, MIN_VALUE, MAX_VALUE);
+  }
+
+  /**
+   * Returns a shallow copy of this {@code MediumIntegerSet} instance.
+   *
+   * <p>The {@link Integer} elements themselves are not cloned.</p>
+   *
+   * @return a shallow copy of this set
+   */
+  @Override
+  public Object clone() {
+    try {
+      return super.clone();
+    } catch (CloneNotSupportedException e) {
+      // this shouldn't happen, since we are Cloneable
+      throw new InternalError(e);
+    }
+  }
+
+}
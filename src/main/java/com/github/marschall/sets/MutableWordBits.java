@@ -0,0 +1,20 @@
+package com.github.marschall.sets;
+
+/**
+ * A {@link WordBits} whose words can be replaced.
+ *
+ * <p>Allows range views, iterators and bulk operations to be implemented
+ * once for all sets backed by words.</p>
+ */
+interface MutableWordBits extends WordBits {
+
+  /**
+   * Replaces the word with the given index.
+   *
+   * @param index the index of the word, between {@code 0} and
+   *  {@link #wordCount()} exclusive
+   * @param word the new word
+   */
+  void setWord(int index, long word);
+
+}
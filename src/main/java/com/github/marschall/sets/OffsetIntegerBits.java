@@ -0,0 +1,27 @@
+package com.github.marschall.sets;
+
+/**
+ * A collection whose elements can be represented as a raw {@code long}
+ * relative to a base.
+ *
+ * <p>Like {@link SmallIntegerBits} but bit {@code i} represents the element
+ * {@code getBase() + i}.</p>
+ */
+interface OffsetIntegerBits {
+
+  /**
+   * Returns the element represented by the lowest bit.
+   *
+   * @return the element represented by the lowest bit
+   */
+  int getBase();
+
+  /**
+   * Returns the elements of this collection relative to the base, one bit
+   * per element.
+   *
+   * @return the elements of this collection relative to the base
+   */
+  long toBits();
+
+}
@@ -0,0 +1,928 @@
+package com.github.marschall.sets;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.github.marschall.sets.SmallIntegerSet.IntegerSetSpliterator;
+
+/**
+ * A set for {@link Integer}s between a base and base + 63.
+ *
+ * <p>Like {@link SmallIntegerSet} but the 64 supported elements don't have
+ * to start at {@code 0}. Useful for values that are small and dense but at
+ * an offset like port ranges or shard ids. The base is fixed when the set
+ * is created.</p>
+ *
+ * <p>Operations like {@link #add(Integer)} will throw an
+ * {@link IllegalArgumentException} with an argument outside the supported
+ * range. Operations like {@link #remove(Object)} or {@link #contains(Object)}
+ * will return {@code false} with an argument outside this range.  This is in
+ * accordance with the {@link Set} contract.</p>
+ *
+ * <p>This set does not support {@code null} elements.</p>
+ *
+ * <p>This set keeps the elements in their natural order.</p>
+ *
+ * <p>The operations {@link #contains(Object)}, {@link #add(Integer)},
+ * {@link #remove(Object)}, {@link #clear()}, {@link #first()},
+ * {@link #last()} and {@link #hashCode()} run in constant time.</p>
+ *
+ * <p>The operations {@link #addAll(Collection)},
+ * {@link #removeAll(Collection)}, {@link #retainAll(Collection)},
+ * {@link #containsAll(Collection)} and {@link #equals(Object)} run in
+ * constant time when the argument is an {@link OffsetIntegerSet} or a range
+ * view of one, even with a different base. This also holds for
+ * {@link SmallIntegerSet}s which are treated as having a base of
+ * {@code 0}.</p>
+ *
+ * <p>This set is not thread safe.</p>
+ *
+ * <p>This set is not fail-fast.</p>
+ *
+ * <p>This set supports all optional {@link Set} and {@link Iterator} operations.</p>
+ */
+public final class OffsetIntegerSet implements IntSortedSet, OffsetIntegerBits, Serializable, Cloneable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final int NONE = -1;
+
+  /**
+   * The highest index of a bit.
+   */
+  private static final int MAX_INDEX = 63;
+
+  private final int base;
+
+  private long values;
+
+  /**
+   * Creates a new empty set supporting the elements from {@code base}
+   * to {@code base + 63}, both inclusive.
+   *
+   * @param base the lowest supported element
+   * @throws IllegalArgumentException if {@code base + 63} overflows
+   */
+  public OffsetIntegerSet(int base) {
+    if (base > Integer.MAX_VALUE - MAX_INDEX) {
+      throw new IllegalArgumentException("base too large: " + base);
+    }
+    this.base = base;
+    this.values = 0L;
+  }
+
+  /**
+   * Returns the lowest supported element.
+   *
+   * @return the lowest supported element
+   */
+  @Override
+  public int getBase() {
+    return this.base;
+  }
+
+  /**
+   * Returns the raw bit representation of this set.
+   *
+   * <p>Bit {@code i} of the result is set if the element
+   * {@code getBase() + i} is contained.</p>
+   *
+   * @return the elements of this set relative to {@link #getBase()}, one
+   *  bit per element
+   */
+  @Override
+  public long toBits() {
+    return this.values;
+  }
+
+  /**
+   * Checks if this set will support containing the given value.
+   *
+   * @param i the integer to check
+   * @return {@code true} if {@code i} is between {@link #getBase()} and
+   *  {@code getBase() + 63}
+   */
+  public boolean isSupported(int i) {
+    return isSupported(this.base, i);
+  }
+
+  static boolean isSupported(int base, int i) {
+    long index = (long) i - base;
+    return index >= 0L && index <= MAX_INDEX;
+  }
+
+  boolean isSupported(long mask, int i) {
+    return this.isSupported(i) && ((mask & (1L << (i - this.base))) != 0L);
+  }
+
+  private void checkSupported(long mask, int i) {
+    if (!this.isSupported(mask, i)) {
+      throw new IllegalArgumentException();
+    }
+  }
+
+  /**
+   * Moves bits from the base of an other set to the base of this set.
+   *
+   * @param bits the bits relative to the other base
+   * @param distance the other base minus this base
+   * @return the bits relative to this base, elements outside of this set
+   *  are dropped
+   */
+  static long shift(long bits, long distance) {
+    if (distance > MAX_INDEX || distance < -MAX_INDEX) {
+      return 0L;
+    }
+    if (distance >= 0L) {
+      return bits << distance;
+    }
+    return bits >>> -distance;
+  }
+
+  /**
+   * Computes the bits that are dropped by {@link #shift(long, long)}.
+   *
+   * @param bits the bits relative to the other base
+   * @param distance the other base minus this base
+   * @return the bits of elements that can not be represented relative to
+   *  this base
+   */
+  static long outside(long bits, long distance) {
+    if (distance > MAX_INDEX || distance < -MAX_INDEX) {
+      return bits;
+    }
+    if (distance >= 0L) {
+      return bits & ~(-1L >>> distance);
+    }
+    return bits & ((1L << -distance) - 1L);
+  }
+
+  private static long distance(int thisBase, int otherBase) {
+    return (long) otherBase - thisBase;
+  }
+
+  @Override
+  public int size() {
+    return SmallIntegerSet.size(this.values);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return SmallIntegerSet.isEmpty(this.values);
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return this.containsInt((Integer) o);
+  }
+
+  @Override
+  public boolean containsInt(int i) {
+    return this.isSupported(this.values, i);
+  }
+
+  @Override
+  public boolean add(Integer e) {
+    return this.addInt(e);
+  }
+
+  @Override
+  public boolean addInt(int i) {
+    return this.set(-1L, i);
+  }
+
+  boolean set(long mask, int i) {
+    this.checkSupported(mask, i);
+    long before = this.values;
+    this.values = before | (1L << (i - this.base));
+    return before != this.values;
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    return this.removeInt((Integer) o);
+  }
+
+  @Override
+  public boolean removeInt(int i) {
+    return this.unset(-1L, i);
+  }
+
+  boolean unset(long mask, int i) {
+    if (!this.isSupported(mask, i)) {
+      return false;
+    }
+    long before = this.values;
+    this.values = before & ~(1L << (i - this.base));
+    return before != this.values;
+  }
+
+  @Override
+  public void clear() {
+    this.values = 0L;
+  }
+
+  void clear(long bitsToClear) {
+    this.values &= ~bitsToClear;
+  }
+
+  @Override
+  public Comparator<? super Integer> comparator() {
+    // natural order
+    return null;
+  }
+
+  @Override
+  public Integer first() {
+    return SmallIntegerSet.first(this.values) + this.base;
+  }
+
+  @Override
+  public Integer last() {
+    return SmallIntegerSet.last(this.values) + this.base;
+  }
+
+  @Override
+  public Iterator<Integer> iterator() {
+    return new OffsetIntegerSetIterator(-1L);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return new OffsetIntegerSetIterator(-1L);
+  }
+
+  @Override
+  public Spliterator<Integer> spliterator() {
+    return new IntegerSetSpliterator(this.values, this.base);
+  }
+
+  @Override
+  public Stream<Integer> stream() {
+    return StreamSupport.stream(() -> new IntegerSetSpliterator(this.values, this.base),
+            IntegerSetSpliterator.CHARACTERISTICS, false);
+  }
+
+  @Override
+  public Stream<Integer> parallelStream() {
+    return StreamSupport.stream(() -> new IntegerSetSpliterator(this.values, this.base),
+            IntegerSetSpliterator.CHARACTERISTICS, true);
+  }
+
+  @Override
+  public IntStream intStream() {
+    // binds late, when the terminal operation starts
+    return StreamSupport.intStream(() -> new IntegerSetSpliterator(this.values, this.base),
+            IntegerSetSpliterator.CHARACTERISTICS, false);
+  }
+
+  @Override
+  public void forEach(Consumer<? super Integer> action) {
+    forEach(this.values, this.base, action);
+  }
+
+  static void forEach(long bits, int base, Consumer<? super Integer> action) {
+    long remaining = bits;
+    while (remaining != 0L) {
+      action.accept(Long.numberOfTrailingZeros(remaining) + base);
+      remaining &= remaining - 1L;
+    }
+  }
+
+  @Override
+  public void forEachInt(IntConsumer action) {
+    forEachInt(this.values, this.base, action);
+  }
+
+  static void forEachInt(long bits, int base, IntConsumer action) {
+    long remaining = bits;
+    while (remaining != 0L) {
+      action.accept(Long.numberOfTrailingZeros(remaining) + base);
+      remaining &= remaining - 1L;
+    }
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super Integer> filter) {
+    return this.removeIfInt(filter::test);
+  }
+
+  @Override
+  public boolean removeIfInt(IntPredicate filter) {
+    return this.removeAll(this.matching(this.values, filter));
+  }
+
+  long matching(long bits, IntPredicate filter) {
+    int base = this.base;
+    return SmallIntegerSet.matching(bits, i -> filter.test(i + base));
+  }
+
+  @Override
+  public Object[] toArray() {
+    return toArray(this.values, this.base);
+  }
+
+  static Object[] toArray(long bits, int base) {
+    Object[] result = new Object[SmallIntegerSet.size(bits)];
+    int current = 0;
+    long remaining = bits;
+    while (remaining != 0L) {
+      result[current++] = Long.numberOfTrailingZeros(remaining) + base;
+      remaining &= remaining - 1L;
+    }
+    return result;
+  }
+
+  @Override
+  public <T> T[] toArray(T[] a) {
+    return toArray(this.values, this.base, a);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> T[] toArray(long bits, int base, T[] a) {
+    int size = SmallIntegerSet.size(bits);
+    T[] result;
+    if (a.length < size) {
+      result = (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+    } else {
+      result = a;
+      if (result.length > size) {
+        result[size] = null;
+      }
+    }
+    int current = 0;
+    long remaining = bits;
+    while (remaining != 0L) {
+      result[current++] = (T) (Integer) (Long.numberOfTrailingZeros(remaining) + base);
+      remaining &= remaining - 1L;
+    }
+    return result;
+  }
+
+  @Override
+  public int[] toIntArray() {
+    return toIntArray(this.values, this.base);
+  }
+
+  static int[] toIntArray(long bits, int base) {
+    int[] result = new int[SmallIntegerSet.size(bits)];
+    int current = 0;
+    long remaining = bits;
+    while (remaining != 0L) {
+      result[current++] = Long.numberOfTrailingZeros(remaining) + base;
+      remaining &= remaining - 1L;
+    }
+    return result;
+  }
+
+  @Override
+  public IntSortedSet subSet(Integer fromElement, Integer toElement) {
+    if (fromElement > toElement) {
+      throw new IllegalArgumentException();
+    }
+    return this.range(-1L, (long) fromElement - this.base, (long) toElement - 1L - this.base);
+  }
+
+  @Override
+  public IntSortedSet headSet(Integer toElement) {
+    return this.range(-1L, 0L, (long) toElement - 1L - this.base);
+  }
+
+  @Override
+  public IntSortedSet tailSet(Integer fromElement) {
+    return this.range(-1L, (long) fromElement - this.base, MAX_INDEX);
+  }
+
+  IntSortedSet range(long mask, long startIndex, long endIndex) {
+    long rangeMask = SmallIntegerSet.rangeMask(mask, startIndex, endIndex);
+    if (rangeMask == -1L) {
+      return this;
+    }
+    return new OffsetSubSet(rangeMask);
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> c) {
+    if (c instanceof OffsetIntegerBits) {
+      OffsetIntegerBits other = (OffsetIntegerBits) c;
+      return this.containsAll(this.values, other.toBits(), other.getBase());
+    }
+    if (c instanceof SmallIntegerBits) {
+      return this.containsAll(this.values, ((SmallIntegerBits) c).toBits(), SmallIntegerSet.MIN_VALUE);
+    }
+    return containsAllGeneric(this, c);
+  }
+
+  boolean containsAll(long bits, long otherBits, int otherBase) {
+    long distance = distance(this.base, otherBase);
+    return outside(otherBits, distance) == 0L
+            && SmallIntegerSet.containsAll(bits, shift(otherBits, distance));
+  }
+
+  static boolean containsAllGeneric(Collection<?> self, Collection<?> c) {
+    for (Object each : c) {
+      if (!self.contains(each)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Integer> c) {
+    if (c instanceof OffsetIntegerBits) {
+      OffsetIntegerBits other = (OffsetIntegerBits) c;
+      return this.addAll(-1L, other.toBits(), other.getBase());
+    }
+    if (c instanceof SmallIntegerBits) {
+      return this.addAll(-1L, ((SmallIntegerBits) c).toBits(), SmallIntegerSet.MIN_VALUE);
+    }
+    return addAllGeneric(this, c);
+  }
+
+  boolean addAll(long mask, long otherBits, int otherBase) {
+    long distance = distance(this.base, otherBase);
+    long bits = shift(otherBits, distance);
+    if (outside(otherBits, distance) != 0L || (bits & mask) != bits) {
+      throw new IllegalArgumentException();
+    }
+    long before = this.values;
+    this.values = before | bits;
+    return before != this.values;
+  }
+
+  static boolean addAllGeneric(IntSortedSet self, Collection<? extends Integer> c) {
+    boolean changed = false;
+    for (Integer each : c) {
+      changed |= self.add(each);
+    }
+    return changed;
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    if (c instanceof OffsetIntegerBits) {
+      OffsetIntegerBits other = (OffsetIntegerBits) c;
+      return this.retainAll(-1L, other.toBits(), other.getBase());
+    }
+    if (c instanceof SmallIntegerBits) {
+      return this.retainAll(-1L, ((SmallIntegerBits) c).toBits(), SmallIntegerSet.MIN_VALUE);
+    }
+    return this.removeAll(this.matching(this.values, i -> !c.contains(i)));
+  }
+
+  boolean retainAll(long mask, long otherBits, int otherBase) {
+    long bits = shift(otherBits, distance(this.base, otherBase));
+    long before = this.values;
+    this.values = before & (bits | ~mask);
+    return before != this.values;
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    if (c instanceof OffsetIntegerBits) {
+      OffsetIntegerBits other = (OffsetIntegerBits) c;
+      return this.removeAll(shift(other.toBits(), distance(this.base, other.getBase())));
+    }
+    if (c instanceof SmallIntegerBits) {
+      return this.removeAll(shift(((SmallIntegerBits) c).toBits(), distance(this.base, SmallIntegerSet.MIN_VALUE)));
+    }
+    return removeAllGeneric(this, c);
+  }
+
+  boolean removeAll(long bits) {
+    long before = this.values;
+    this.values = before & ~bits;
+    return before != this.values;
+  }
+
+  static boolean removeAllGeneric(IntSortedSet self, Collection<?> c) {
+    boolean changed = false;
+    for (Object each : c) {
+      changed |= self.remove(each);
+    }
+    return changed;
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode(this.values, this.base);
+  }
+
+  static int hashCode(long bits, int base) {
+    // the sum of the elements is the sum of the indices plus base for every element
+    return SmallIntegerSet.hashCode(bits) + base * SmallIntegerSet.size(bits);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    return equals(this.values, this.base, obj);
+  }
+
+  static boolean equals(long bits, int base, Object obj) {
+    if (!(obj instanceof Set)) {
+      return false;
+    }
+    if (obj instanceof OffsetIntegerBits) {
+      OffsetIntegerBits other = (OffsetIntegerBits) obj;
+      return equals(bits, base, other.toBits(), other.getBase());
+    }
+    if (obj instanceof SmallIntegerBits) {
+      return equals(bits, base, ((SmallIntegerBits) obj).toBits(), SmallIntegerSet.MIN_VALUE);
+    }
+    Set<?> other = (Set<?>) obj;
+    if (SmallIntegerSet.size(bits) != other.size()) {
+      return false;
+    }
+    // avoids exceptions in the case of null or anything but Integer
+    for (Object each : other) {
+      if (!(each instanceof Integer)) {
+        return false;
+      }
+      int i = (Integer) each;
+      if (!isSupported(base, i) || (bits & (1L << (i - base))) == 0L) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean equals(long bits, int base, long otherBits, int otherBase) {
+    long distance = distance(base, otherBase);
+    return outside(otherBits, distance) == 0L && shift(otherBits, distance) == bits;
+  }
+
+  @Override
+  public String toString() {
+    return toString(this.values, this.base);
+  }
+
+  static String toString(long bits, int base) {
+    if (bits == 0L) {
+      return "[]";
+    }
+    StringBuilder builder = new StringBuilder();
+    builder.append('[');
+    long remaining = bits;
+    builder.append(Long.numberOfTrailingZeros(remaining) + base);
+    remaining &= remaining - 1L;
+    while (remaining != 0L) {
+      builder.append(',').append(' ');
+      builder.append(Long.numberOfTrailingZeros(remaining) + base);
+      remaining &= remaining - 1L;
+    }
+    builder.append(']');
+    return builder.toString();
+  }
+
+  /**
+   * Returns a shallow copy of this {@code OffsetIntegerSet} instance.
+   *
+   * <p>The {@link Integer} elements themselves are not cloned.</p>
+   *
+   * @return a shallow copy of this set
+   */
+  @Override
+  public Object clone() {
+    try {
+      return super.clone();
+    } catch (CloneNotSupportedException e) {
+      // this shouldn't happen, since we are Cloneable
+      throw new InternalError(e);
+    }
+  }
+
+  final class OffsetIntegerSetIterator implements PrimitiveIterator.OfInt {
+
+    private final long mask;
+
+    /**
+     * Index of the next read, {@value OffsetIntegerSet#NONE} means end reached.
+     */
+    private int nextIndex;
+
+    /**
+     * Index of the next remove, {@value OffsetIntegerSet#NONE} means no remove possible.
+     */
+    private int removeIndex;
+
+    OffsetIntegerSetIterator(long mask) {
+      this.mask = mask;
+      this.nextIndex = SmallIntegerSet.ceiling(this.bits(), 0);
+      this.removeIndex = NONE;
+    }
+
+    private long bits() {
+      return values & this.mask;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.nextIndex != NONE;
+    }
+
+    @Override
+    public int nextInt() {
+      if (!this.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int next = this.nextIndex;
+      this.removeIndex = next;
+      this.nextIndex = SmallIntegerSet.higher(this.bits(), next);
+      return next + base;
+    }
+
+    @Override
+    public Integer next() {
+      return this.nextInt();
+    }
+
+    @Override
+    public void remove() {
+      if (this.removeIndex == NONE) {
+        throw new IllegalStateException();
+      }
+      OffsetIntegerSet.this.clear(1L << this.removeIndex);
+      this.removeIndex = NONE;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      if (!this.hasNext()) {
+        return;
+      }
+      // an exception will prevent nextIndex from being updated
+      OffsetIntegerSet.forEachInt(this.bits() & (-1L << this.nextIndex), base, action);
+      this.nextIndex = NONE;
+    }
+
+  }
+
+  final class OffsetSubSet implements IntSortedSet, OffsetIntegerBits {
+
+    /**
+     * The supported elements relative to the base.
+     */
+    private final long mask;
+
+    OffsetSubSet(long mask) {
+      this.mask = mask;
+    }
+
+    private long bits() {
+      return values & this.mask;
+    }
+
+    @Override
+    public int getBase() {
+      return base;
+    }
+
+    @Override
+    public long toBits() {
+      return this.bits();
+    }
+
+    @Override
+    public int size() {
+      return SmallIntegerSet.size(this.bits());
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return SmallIntegerSet.isEmpty(this.bits());
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return this.containsInt((Integer) o);
+    }
+
+    @Override
+    public boolean containsInt(int i) {
+      return OffsetIntegerSet.this.isSupported(this.bits(), i);
+    }
+
+    @Override
+    public boolean add(Integer e) {
+      return this.addInt(e);
+    }
+
+    @Override
+    public boolean addInt(int i) {
+      return OffsetIntegerSet.this.set(this.mask, i);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      return this.removeInt((Integer) o);
+    }
+
+    @Override
+    public boolean removeInt(int i) {
+      return OffsetIntegerSet.this.unset(this.mask, i);
+    }
+
+    @Override
+    public void clear() {
+      OffsetIntegerSet.this.clear(this.mask);
+    }
+
+    @Override
+    public Comparator<? super Integer> comparator() {
+      return null;
+    }
+
+    @Override
+    public Integer first() {
+      return SmallIntegerSet.first(this.bits()) + base;
+    }
+
+    @Override
+    public Integer last() {
+      return SmallIntegerSet.last(this.bits()) + base;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new OffsetIntegerSetIterator(this.mask);
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt intIterator() {
+      return new OffsetIntegerSetIterator(this.mask);
+    }
+
+    @Override
+    public Spliterator<Integer> spliterator() {
+      return new IntegerSetSpliterator(this.bits(), base);
+    }
+
+    @Override
+    public Stream<Integer> stream() {
+      return StreamSupport.stream(() -> new IntegerSetSpliterator(this.bits(), base),
+              IntegerSetSpliterator.CHARACTERISTICS, false);
+    }
+
+    @Override
+    public Stream<Integer> parallelStream() {
+      return StreamSupport.stream(() -> new IntegerSetSpliterator(this.bits(), base),
+              IntegerSetSpliterator.CHARACTERISTICS, true);
+    }
+
+    @Override
+    public IntStream intStream() {
+      return StreamSupport.intStream(() -> new IntegerSetSpliterator(this.bits(), base),
+              IntegerSetSpliterator.CHARACTERISTICS, false);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Integer> action) {
+      OffsetIntegerSet.forEach(this.bits(), base, action);
+    }
+
+    @Override
+    public void forEachInt(IntConsumer action) {
+      OffsetIntegerSet.forEachInt(this.bits(), base, action);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Integer> filter) {
+      return this.removeIfInt(filter::test);
+    }
+
+    @Override
+    public boolean removeIfInt(IntPredicate filter) {
+      return OffsetIntegerSet.this.removeAll(OffsetIntegerSet.this.matching(this.bits(), filter));
+    }
+
+    @Override
+    public Object[] toArray() {
+      return OffsetIntegerSet.toArray(this.bits(), base);
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+      return OffsetIntegerSet.toArray(this.bits(), base, a);
+    }
+
+    @Override
+    public int[] toIntArray() {
+      return OffsetIntegerSet.toIntArray(this.bits(), base);
+    }
+
+    @Override
+    public IntSortedSet subSet(Integer fromElement, Integer toElement) {
+      if (fromElement > toElement) {
+        throw new IllegalArgumentException();
+      }
+      return new OffsetSubSet(SmallIntegerSet.rangeMask(this.mask,
+              (long) fromElement - base, (long) toElement - 1L - base));
+    }
+
+    @Override
+    public IntSortedSet headSet(Integer toElement) {
+      if (this.mask == 0L) {
+        // empty range
+        return this;
+      }
+      return new OffsetSubSet(SmallIntegerSet.rangeMask(this.mask,
+              SmallIntegerSet.first(this.mask), (long) toElement - 1L - base));
+    }
+
+    @Override
+    public IntSortedSet tailSet(Integer fromElement) {
+      if (this.mask == 0L) {
+        // empty range
+        return this;
+      }
+      return new OffsetSubSet(SmallIntegerSet.rangeMask(this.mask,
+              (long) fromElement - base, SmallIntegerSet.last(this.mask)));
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+      if (c instanceof OffsetIntegerBits) {
+        OffsetIntegerBits other = (OffsetIntegerBits) c;
+        return OffsetIntegerSet.this.containsAll(this.bits(), other.toBits(), other.getBase());
+      }
+      if (c instanceof SmallIntegerBits) {
+        return OffsetIntegerSet.this.containsAll(this.bits(), ((SmallIntegerBits) c).toBits(), SmallIntegerSet.MIN_VALUE);
+      }
+      return containsAllGeneric(this, c);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Integer> c) {
+      if (c instanceof OffsetIntegerBits) {
+        OffsetIntegerBits other = (OffsetIntegerBits) c;
+        return OffsetIntegerSet.this.addAll(this.mask, other.toBits(), other.getBase());
+      }
+      if (c instanceof SmallIntegerBits) {
+        return OffsetIntegerSet.this.addAll(this.mask, ((SmallIntegerBits) c).toBits(), SmallIntegerSet.MIN_VALUE);
+      }
+      return addAllGeneric(this, c);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+      if (c instanceof OffsetIntegerBits) {
+        OffsetIntegerBits other = (OffsetIntegerBits) c;
+        return OffsetIntegerSet.this.retainAll(this.mask, other.toBits(), other.getBase());
+      }
+      if (c instanceof SmallIntegerBits) {
+        return OffsetIntegerSet.this.retainAll(this.mask, ((SmallIntegerBits) c).toBits(), SmallIntegerSet.MIN_VALUE);
+      }
+      return OffsetIntegerSet.this.removeAll(OffsetIntegerSet.this.matching(this.bits(), i -> !c.contains(i)));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+      if (c instanceof OffsetIntegerBits) {
+        OffsetIntegerBits other = (OffsetIntegerBits) c;
+        return OffsetIntegerSet.this.removeAll(shift(other.toBits(), distance(base, other.getBase())) & this.mask);
+      }
+      if (c instanceof SmallIntegerBits) {
+        return OffsetIntegerSet.this.removeAll(shift(((SmallIntegerBits) c).toBits(), distance(base, SmallIntegerSet.MIN_VALUE)) & this.mask);
+      }
+      return removeAllGeneric(this, c);
+    }
+
+    @Override
+    public int hashCode() {
+      return OffsetIntegerSet.hashCode(this.bits(), base);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      return OffsetIntegerSet.equals(this.bits(), base, obj);
+    }
+
+    @Override
+    public String toString() {
+      return OffsetIntegerSet.toString(this.bits(), base);
+    }
+
+  }
+
+}
@@ -0,0 +1,89 @@
+package com.github.marschall.sets;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+
+/**
+ * The serialized form of the sets backed by a single {@code long}.
+ *
+ * <p>Writes a one byte header followed by the significant bytes of the
+ * {@code long}, most significant first. The upper four bits of the header
+ * are the type of the set, the lower four bits the number of bytes that
+ * follow. Sets with only small elements take less than the eight bytes
+ * of a {@code long}. Together with the short class name this keeps the
+ * stream overhead per set to a minimum.</p>
+ *
+ * <p>The sets write this class in {@code writeReplace()}, it resolves to
+ * the original set in {@link #readResolve()}. Streams written before the
+ * introduction of this class are still readable since the fields of the
+ * sets did not change.</p>
+ */
+final class Ser implements Externalizable {
+
+  private static final long serialVersionUID = 1L;
+
+  static final byte SMALL_INTEGER_SET = 1;
+
+  static final byte IMMUTABLE_SMALL_INTEGER_SET = 2;
+
+  static final byte ATOMIC_SMALL_INTEGER_SET = 3;
+
+  private byte type;
+
+  private long bits;
+
+  /**
+   * Constructor for deserialization.
+   */
+  public Ser() {
+    super();
+  }
+
+  Ser(byte type, long bits) {
+    this.type = type;
+    this.bits = bits;
+  }
+
+  @Override
+  public void writeExternal(ObjectOutput out) throws IOException {
+    long bits = this.bits;
+    int length = (Long.SIZE - Long.numberOfLeadingZeros(bits) + 7) / 8;
+    out.writeByte((this.type << 4) | length);
+    for (int i = length - 1; i >= 0; i--) {
+      out.writeByte((int) (bits >>> (i * 8)));
+    }
+  }
+
+  @Override
+  public void readExternal(ObjectInput in) throws IOException {
+    int header = in.readUnsignedByte();
+    int length = header & 0xF;
+    if (length > 8) {
+      throw new StreamCorruptedException("invalid length: " + length);
+    }
+    long bits = 0L;
+    for (int i = 0; i < length; i++) {
+      bits = (bits << 8) | in.readUnsignedByte();
+    }
+    this.type = (byte) (header >>> 4);
+    this.bits = bits;
+  }
+
+  private Object readResolve() throws InvalidObjectException {
+    switch (this.type) {
+      case SMALL_INTEGER_SET:
+        return SmallIntegerSet.fromBits(this.bits);
+      case IMMUTABLE_SMALL_INTEGER_SET:
+        return ImmutableSmallIntegerSet.fromBits(this.bits);
+      case ATOMIC_SMALL_INTEGER_SET:
+        return AtomicSmallIntegerSet.fromBits(this.bits);
+      default:
+        throw new InvalidObjectException("unknown type: " + this.type);
+    }
+  }
+
+}
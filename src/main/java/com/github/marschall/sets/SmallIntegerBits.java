@@ -0,0 +1,20 @@
+package com.github.marschall.sets;
+
+/**
+ * A collection whose elements can be represented as the raw {@code long}
+ * used by {@link SmallIntegerSets}.
+ *
+ * <p>Bulk operations check for this interface instead of concrete classes
+ * so that range views, immutable sets and unmodifiable views all take the
+ * bitwise fast paths.</p>
+ */
+interface SmallIntegerBits {
+
+  /**
+   * Returns the elements of this collection, one bit per element.
+   *
+   * @return the elements of this collection, one bit per element
+   */
+  long toBits();
+
+}
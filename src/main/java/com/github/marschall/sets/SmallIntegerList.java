@@ -0,0 +1,300 @@
+package com.github.marschall.sets;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * An unmodifiable, random access {@link List} view of a set backed by a
+ * single {@code long} in ascending order.
+ *
+ * <p>Indexed access uses {@link SmallIntegerSet#select(long, int)} and
+ * {@link SmallIntegerSet#rank(long, int)} and runs in constant time.
+ * {@link #subList(int, int)} returns a view restricted to the range of
+ * elements between the two indices at the time of the call.</p>
+ *
+ * <p>All operations that would modify the list throw an
+ * {@link UnsupportedOperationException}.</p>
+ */
+final class SmallIntegerList implements List<Integer>, RandomAccess {
+
+  private final SmallIntegerBits set;
+
+  private final long mask;
+
+  SmallIntegerList(SmallIntegerBits set, long mask) {
+    this.set = set;
+    this.mask = mask;
+  }
+
+  private long bits() {
+    return this.set.toBits() & this.mask;
+  }
+
+  @Override
+  public int size() {
+    return SmallIntegerSet.size(this.bits());
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return SmallIntegerSet.isEmpty(this.bits());
+  }
+
+  @Override
+  public Integer get(int index) {
+    long bits = this.bits();
+    checkIndex(index, SmallIntegerSet.size(bits));
+    return SmallIntegerSet.select(bits, index);
+  }
+
+  private static void checkIndex(int index, int size) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+    }
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return o instanceof Integer && SmallIntegerSet.isSet(this.bits(), (Integer) o);
+  }
+
+  @Override
+  public int indexOf(Object o) {
+    if (!(o instanceof Integer)) {
+      return -1;
+    }
+    int i = (Integer) o;
+    long bits = this.bits();
+    if (!SmallIntegerSet.isSet(bits, i)) {
+      return -1;
+    }
+    return SmallIntegerSet.rank(bits, i);
+  }
+
+  @Override
+  public int lastIndexOf(Object o) {
+    // elements are unique
+    return this.indexOf(o);
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> c) {
+    return SmallIntegerSet.containsAllNonThrowing(this.bits(), c);
+  }
+
+  @Override
+  public Object[] toArray() {
+    return SmallIntegerSet.toArray(this.bits());
+  }
+
+  @Override
+  public <T> T[] toArray(T[] a) {
+    return SmallIntegerSet.toArray(this.bits(), a);
+  }
+
+  @Override
+  public void forEach(Consumer<? super Integer> action) {
+    SmallIntegerSet.forEach(this.bits(), action);
+  }
+
+  @Override
+  public Iterator<Integer> iterator() {
+    return new SmallIntegerListIterator(this.bits(), 0);
+  }
+
+  @Override
+  public ListIterator<Integer> listIterator() {
+    return new SmallIntegerListIterator(this.bits(), 0);
+  }
+
+  @Override
+  public ListIterator<Integer> listIterator(int index) {
+    long bits = this.bits();
+    if (index < 0 || index > SmallIntegerSet.size(bits)) {
+      throw new IndexOutOfBoundsException("index: " + index);
+    }
+    return new SmallIntegerListIterator(bits, index);
+  }
+
+  @Override
+  public List<Integer> subList(int fromIndex, int toIndex) {
+    long bits = this.bits();
+    int size = SmallIntegerSet.size(bits);
+    if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+      throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", size: " + size);
+    }
+    if (fromIndex == toIndex) {
+      return new SmallIntegerList(this.set, 0L);
+    }
+    int first = SmallIntegerSet.select(bits, fromIndex);
+    int last = SmallIntegerSet.select(bits, toIndex - 1);
+    return new SmallIntegerList(this.set, SmallIntegerSet.rangeMask(this.mask, first, last));
+  }
+
+  @Override
+  public boolean add(Integer e) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void add(int index, Integer element) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Integer set(int index, Integer element) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Integer remove(int index) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Integer> c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean addAll(int index, Collection<? extends Integer> c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 1;
+    long remaining = this.bits();
+    while (remaining != 0L) {
+      hashCode = 31 * hashCode + Long.numberOfTrailingZeros(remaining);
+      remaining &= remaining - 1L;
+    }
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof List)) {
+      return false;
+    }
+    if (obj instanceof SmallIntegerList) {
+      return this.bits() == ((SmallIntegerList) obj).bits();
+    }
+    long remaining = this.bits();
+    for (Object each : (List<?>) obj) {
+      if (remaining == 0L || !Integer.valueOf(Long.numberOfTrailingZeros(remaining)).equals(each)) {
+        return false;
+      }
+      remaining &= remaining - 1L;
+    }
+    return remaining == 0L;
+  }
+
+  @Override
+  public String toString() {
+    return SmallIntegerSets.toString(this.bits());
+  }
+
+  /**
+   * List iterator over the elements at the time of creation.
+   */
+  static final class SmallIntegerListIterator implements ListIterator<Integer> {
+
+    private final long bits;
+
+    private final int size;
+
+    private int nextIndex;
+
+    SmallIntegerListIterator(long bits, int nextIndex) {
+      this.bits = bits;
+      this.size = SmallIntegerSet.size(bits);
+      this.nextIndex = nextIndex;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.nextIndex < this.size;
+    }
+
+    @Override
+    public Integer next() {
+      if (!this.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int index = this.nextIndex;
+      this.nextIndex = index + 1;
+      return SmallIntegerSet.select(this.bits, index);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+      return this.nextIndex > 0;
+    }
+
+    @Override
+    public Integer previous() {
+      if (!this.hasPrevious()) {
+        throw new NoSuchElementException();
+      }
+      int index = this.nextIndex - 1;
+      this.nextIndex = index;
+      return SmallIntegerSet.select(this.bits, index);
+    }
+
+    @Override
+    public int nextIndex() {
+      return this.nextIndex;
+    }
+
+    @Override
+    public int previousIndex() {
+      return this.nextIndex - 1;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void set(Integer e) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void add(Integer e) {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+}
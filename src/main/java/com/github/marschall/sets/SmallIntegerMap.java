@@ -0,0 +1,1085 @@
+package com.github.marschall.sets;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.github.marschall.sets.SmallIntegerSet.AbstractIntegerSetIterator;
+import com.github.marschall.sets.SmallIntegerSet.IntegerSetSpliterator;
+
+/**
+ * A map with {@link Integer} keys between {@value SmallIntegerSet#MIN_VALUE}
+ * and {@value SmallIntegerSet#MAX_VALUE}.
+ *
+ * <p>The keys are stored in a single {@code long} like in
+ * {@link SmallIntegerSet}. The values are stored in a dense array in
+ * ascending order of their keys, the value of key {@code k} is at index
+ * {@code Long.bitCount(keys & ((1L << k) - 1L))} as in the nodes of a
+ * <a href="https://en.wikipedia.org/wiki/Hash_array_mapped_trie">hash array mapped trie</a>.
+ * Unlike an {@code Object[64]} indexed by key no slots are wasted for
+ * absent keys.</p>
+ *
+ * <p>{@link #get(Object)} and {@link #containsKey(Object)} run in constant
+ * time. {@link #put(Integer, Object)} and {@link #remove(Object)} have to
+ * shift the values of the larger keys.</p>
+ *
+ * <p>The primitive operations {@link #get(int)}, {@link #put(int, Object)},
+ * {@link #remove(int)} and {@link #containsKey(int)} avoid boxing.</p>
+ *
+ * <p>{@link #keySet()} is a live view that takes the same bitwise fast
+ * paths as {@link SmallIntegerSet} in bulk operations and
+ * {@link Set#equals(Object)}. Removing keys from it removes the mappings.
+ * The views iterate in ascending order of the keys.</p>
+ *
+ * <p>Operations like {@link #put(Integer, Object)} will throw an
+ * {@link IllegalArgumentException} with a key outside the supported range.
+ * Operations like {@link #get(Object)} or {@link #remove(Object)} will
+ * return {@code null} with a key outside this range. This map does not
+ * support {@code null} keys but does support {@code null} values.</p>
+ *
+ * <p>This map is not thread safe.</p>
+ *
+ * <p>This map is not fail-fast.</p>
+ *
+ * @param <V> the type of the values
+ */
+public final class SmallIntegerMap<V> implements Map<Integer, V>, Serializable, Cloneable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final Object[] EMPTY_VALUES = {};
+
+  private static final int MIN_CAPACITY = 4;
+
+  private long keys;
+
+  /**
+   * The values in ascending order of the keys, only the first
+   * {@code Long.bitCount(keys)} elements are used.
+   */
+  private transient Object[] values;
+
+  /**
+   * Creates a new empty map.
+   */
+  public SmallIntegerMap() {
+    this.values = EMPTY_VALUES;
+  }
+
+  private static int index(long keys, int key) {
+    return Long.bitCount(keys & ((1L << key) - 1L));
+  }
+
+  @SuppressWarnings("unchecked")
+  private V valueAt(int index) {
+    return (V) this.values[index];
+  }
+
+  @Override
+  public int size() {
+    return Long.bitCount(this.keys);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.keys == 0L;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return SmallIntegerSet.isSet(this.keys, (Integer) key);
+  }
+
+  /**
+   * Checks whether this map contains a key.
+   *
+   * <p>Like {@link #containsKey(Object)} but avoids boxing.</p>
+   *
+   * @param key the key to check
+   * @return {@code true} if this map contains a mapping for {@code key}
+   */
+  public boolean containsKey(int key) {
+    return SmallIntegerSet.isSet(this.keys, key);
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    return this.indexOfValue(value) != -1;
+  }
+
+  private int indexOfValue(Object value) {
+    Object[] values = this.values;
+    int size = this.size();
+    for (int i = 0; i < size; i++) {
+      if (Objects.equals(value, values[i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public V get(Object key) {
+    return this.get((int) (Integer) key);
+  }
+
+  /**
+   * Returns the value of a key.
+   *
+   * <p>Like {@link #get(Object)} but avoids boxing.</p>
+   *
+   * @param key the key
+   * @return the value of {@code key}, {@code null} if there is no mapping
+   */
+  public V get(int key) {
+    long keys = this.keys;
+    if (!SmallIntegerSet.isSet(keys, key)) {
+      return null;
+    }
+    return this.valueAt(index(keys, key));
+  }
+
+  @Override
+  public V put(Integer key, V value) {
+    return this.put((int) key, value);
+  }
+
+  /**
+   * Associates a value with a key.
+   *
+   * <p>Like {@link #put(Integer, Object)} but avoids boxing.</p>
+   *
+   * @param key the key
+   * @param value the value, may be {@code null}
+   * @return the previous value of {@code key}, {@code null} if there was no
+   *  mapping
+   * @throws IllegalArgumentException if {@code key} is not supported
+   */
+  public V put(int key, V value) {
+    SmallIntegerSet.checkSupported(key);
+    long keys = this.keys;
+    int index = index(keys, key);
+    if (SmallIntegerSet.isSet(keys, key)) {
+      V previous = this.valueAt(index);
+      this.values[index] = value;
+      return previous;
+    }
+    this.insert(index, Long.bitCount(keys), value);
+    this.keys = keys | (1L << key);
+    return null;
+  }
+
+  private void insert(int index, int size, Object value) {
+    Object[] values = this.values;
+    if (size == values.length) {
+      // grow by 50% like ArrayList, there are never more than 64 values
+      int capacity = Math.min(SmallIntegerSet.MAX_VALUE + 1, Math.max(MIN_CAPACITY, size + (size >> 1)));
+      Object[] grown = new Object[capacity];
+      System.arraycopy(values, 0, grown, 0, index);
+      System.arraycopy(values, index, grown, index + 1, size - index);
+      this.values = grown;
+      values = grown;
+    } else {
+      System.arraycopy(values, index, values, index + 1, size - index);
+    }
+    values[index] = value;
+  }
+
+  @Override
+  public V remove(Object key) {
+    return this.remove((int) (Integer) key);
+  }
+
+  /**
+   * Removes the mapping of a key.
+   *
+   * <p>Like {@link #remove(Object)} but avoids boxing.</p>
+   *
+   * @param key the key
+   * @return the previous value of {@code key}, {@code null} if there was no
+   *  mapping
+   */
+  public V remove(int key) {
+    long keys = this.keys;
+    if (!SmallIntegerSet.isSet(keys, key)) {
+      return null;
+    }
+    int index = index(keys, key);
+    int size = Long.bitCount(keys);
+    V previous = this.valueAt(index);
+    System.arraycopy(this.values, index + 1, this.values, index, size - index - 1);
+    this.values[size - 1] = null;
+    this.keys = keys & ~(1L << key);
+    return previous;
+  }
+
+  /**
+   * Removes the mappings of several keys with a single pass over the
+   * values.
+   *
+   * @param removed the keys to remove, may contain keys not in this map
+   * @return {@code true} if this map changed
+   */
+  boolean removeKeys(long removed) {
+    long keys = this.keys;
+    long toRemove = removed & keys;
+    if (toRemove == 0L) {
+      return false;
+    }
+    Object[] values = this.values;
+    int size = Long.bitCount(keys);
+    int write = 0;
+    int read = 0;
+    for (long remaining = keys; remaining != 0L; remaining &= remaining - 1L) {
+      if ((toRemove & remaining & -remaining) == 0L) {
+        values[write++] = values[read];
+      }
+      read += 1;
+    }
+    Arrays.fill(values, write, size, null);
+    this.keys = keys & ~toRemove;
+    return true;
+  }
+
+  /**
+   * Computes the keys whose values match a predicate.
+   *
+   * <p>Does not modify anything so that an exception in the predicate
+   * leaves the map unchanged.</p>
+   */
+  long keysMatching(long mask, Predicate<? super V> filter) {
+    long matching = 0L;
+    int index = 0;
+    for (long remaining = this.keys; remaining != 0L; remaining &= remaining - 1L) {
+      long lowest = remaining & -remaining;
+      if ((mask & lowest) != 0L && filter.test(this.valueAt(index))) {
+        matching |= lowest;
+      }
+      index += 1;
+    }
+    return matching;
+  }
+
+  @Override
+  public void putAll(Map<? extends Integer, ? extends V> m) {
+    if (m instanceof SmallIntegerMap) {
+      @SuppressWarnings("unchecked")
+      SmallIntegerMap<? extends V> other = (SmallIntegerMap<? extends V>) m;
+      this.putAll(other);
+    } else {
+      for (Entry<? extends Integer, ? extends V> entry : m.entrySet()) {
+        this.put(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  private void putAll(SmallIntegerMap<? extends V> other) {
+    int index = 0;
+    for (long remaining = other.keys; remaining != 0L; remaining &= remaining - 1L) {
+      this.put(Long.numberOfTrailingZeros(remaining), other.valueAt(index));
+      index += 1;
+    }
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(this.values, 0, this.size(), null);
+    this.keys = 0L;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super Integer, ? super V> action) {
+    int index = 0;
+    for (long remaining = this.keys; remaining != 0L; remaining &= remaining - 1L) {
+      action.accept(Long.numberOfTrailingZeros(remaining), this.valueAt(index));
+      index += 1;
+    }
+  }
+
+  /**
+   * Returns a live view of the keys of this map.
+   *
+   * <p>The view takes the bitwise fast paths of {@link SmallIntegerSet},
+   * for example {@code set.retainAll(map.keySet())} runs in constant time
+   * if {@code set} is a {@link SmallIntegerSet}. Removing keys from the view
+   * removes the mappings, adding keys is not supported.</p>
+   *
+   * @return a view of the keys of this map
+   */
+  @Override
+  public IntSortedSet keySet() {
+    return new KeySet(-1L);
+  }
+
+  @Override
+  public Collection<V> values() {
+    return new Values();
+  }
+
+  @Override
+  public Set<Entry<Integer, V>> entrySet() {
+    return new EntrySet();
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    int index = 0;
+    for (long remaining = this.keys; remaining != 0L; remaining &= remaining - 1L) {
+      hashCode += Long.numberOfTrailingZeros(remaining) ^ Objects.hashCode(this.values[index]);
+      index += 1;
+    }
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof Map)) {
+      return false;
+    }
+    if (obj instanceof SmallIntegerMap) {
+      return this.equals((SmallIntegerMap<?>) obj);
+    }
+    Map<?, ?> other = (Map<?, ?>) obj;
+    if (this.size() != other.size()) {
+      return false;
+    }
+    int index = 0;
+    for (long remaining = this.keys; remaining != 0L; remaining &= remaining - 1L) {
+      Integer key = Long.numberOfTrailingZeros(remaining);
+      Object value = this.values[index];
+      if (!Objects.equals(value, other.get(key)) || (value == null && !other.containsKey(key))) {
+        return false;
+      }
+      index += 1;
+    }
+    return true;
+  }
+
+  private boolean equals(SmallIntegerMap<?> other) {
+    if (this.keys != other.keys) {
+      return false;
+    }
+    int size = this.size();
+    for (int i = 0; i < size; i++) {
+      if (!Objects.equals(this.values[i], other.values[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    if (this.keys == 0L) {
+      return "{}";
+    }
+    StringBuilder buffer = new StringBuilder();
+    buffer.append('{');
+    int index = 0;
+    for (long remaining = this.keys; remaining != 0L; remaining &= remaining - 1L) {
+      if (index > 0) {
+        buffer.append(", ");
+      }
+      Object value = this.values[index];
+      buffer.append(Long.numberOfTrailingZeros(remaining))
+        .append('=')
+        .append(value == this ? "(this Map)" : value);
+      index += 1;
+    }
+    buffer.append('}');
+    return buffer.toString();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public SmallIntegerMap<V> clone() {
+    SmallIntegerMap<V> clone;
+    try {
+      clone = (SmallIntegerMap<V>) super.clone();
+    } catch (CloneNotSupportedException e) {
+      // this shouldn't happen, since we are Cloneable
+      throw new InternalError(e);
+    }
+    int size = this.size();
+    clone.values = size == 0 ? EMPTY_VALUES : Arrays.copyOf(this.values, size);
+    return clone;
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    int size = this.size();
+    for (int i = 0; i < size; i++) {
+      out.writeObject(this.values[i]);
+    }
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    int size = this.size();
+    Object[] values = size == 0 ? EMPTY_VALUES : new Object[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = in.readObject();
+    }
+    this.values = values;
+  }
+
+  static <T> T[] toArray(Object[] source, int size, T[] a) {
+    T[] result = a;
+    if (result.length < size) {
+      @SuppressWarnings("unchecked")
+      T[] newArray = (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+      result = newArray;
+    }
+    System.arraycopy(source, 0, result, 0, size);
+    if (result.length > size) {
+      result[size] = null;
+    }
+    return result;
+  }
+
+  /**
+   * Iterates over the mappings in ascending key order, supports
+   * {@link #remove()}.
+   */
+  abstract class MapIterator<T> implements Iterator<T> {
+
+    private long remaining;
+
+    private int lastKey;
+
+    MapIterator(long mask) {
+      this.remaining = keys & mask;
+      this.lastKey = -1;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.remaining != 0L;
+    }
+
+    @Override
+    public T next() {
+      long remaining = this.remaining;
+      if (remaining == 0L) {
+        throw new NoSuchElementException();
+      }
+      int key = Long.numberOfTrailingZeros(remaining);
+      this.remaining = remaining & (remaining - 1L);
+      this.lastKey = key;
+      return this.element(key);
+    }
+
+    abstract T element(int key);
+
+    @Override
+    public void remove() {
+      if (this.lastKey == -1) {
+        throw new IllegalStateException();
+      }
+      SmallIntegerMap.this.remove(this.lastKey);
+      this.lastKey = -1;
+    }
+
+  }
+
+  /**
+   * Live view of the keys, possibly restricted to a range.
+   */
+  final class KeySet implements IntSortedSet, SmallIntegerBits {
+
+    /**
+     * The keys that are part of this view.
+     */
+    private final long mask;
+
+    KeySet(long mask) {
+      this.mask = mask;
+    }
+
+    long bits() {
+      return keys & this.mask;
+    }
+
+    @Override
+    public long toBits() {
+      return this.bits();
+    }
+
+    @Override
+    public int size() {
+      return SmallIntegerSet.size(this.bits());
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return this.bits() == 0L;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return SmallIntegerSet.isSet(this.bits(), (Integer) o);
+    }
+
+    @Override
+    public boolean containsInt(int i) {
+      return SmallIntegerSet.isSet(this.bits(), i);
+    }
+
+    @Override
+    public boolean add(Integer e) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addInt(int i) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Integer> c) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      return this.removeInt((Integer) o);
+    }
+
+    @Override
+    public boolean removeInt(int i) {
+      if (!SmallIntegerSet.isSet(this.bits(), i)) {
+        return false;
+      }
+      SmallIntegerMap.this.remove(i);
+      return true;
+    }
+
+    @Override
+    public void clear() {
+      removeKeys(this.mask);
+    }
+
+    @Override
+    public Comparator<? super Integer> comparator() {
+      // natural order
+      return null;
+    }
+
+    @Override
+    public Integer first() {
+      return SmallIntegerSet.first(this.bits());
+    }
+
+    @Override
+    public Integer last() {
+      return SmallIntegerSet.last(this.bits());
+    }
+
+    @Override
+    public IntSortedSet subSet(Integer fromElement, Integer toElement) {
+      if (fromElement > toElement) {
+        throw new IllegalArgumentException();
+      }
+      return this.range(fromElement, toElement - 1L);
+    }
+
+    @Override
+    public IntSortedSet headSet(Integer toElement) {
+      if (this.mask == 0L) {
+        // empty range
+        return this;
+      }
+      return this.range(SmallIntegerSet.first(this.mask), toElement - 1L);
+    }
+
+    @Override
+    public IntSortedSet tailSet(Integer fromElement) {
+      if (this.mask == 0L) {
+        // empty range
+        return this;
+      }
+      return this.range(fromElement, SmallIntegerSet.last(this.mask));
+    }
+
+    private IntSortedSet range(long startInclusive, long endInclusive) {
+      long rangeMask = SmallIntegerSet.rangeMask(this.mask, startInclusive, endInclusive);
+      if (rangeMask == this.mask) {
+        return this;
+      }
+      return new KeySet(rangeMask);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new KeySetIterator();
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt intIterator() {
+      return new KeySetIterator();
+    }
+
+    @Override
+    public Spliterator<Integer> spliterator() {
+      return new IntegerSetSpliterator(this.bits());
+    }
+
+    @Override
+    public Stream<Integer> stream() {
+      return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    @Override
+    public Stream<Integer> parallelStream() {
+      return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    @Override
+    public IntStream intStream() {
+      return StreamSupport.intStream(new IntegerSetSpliterator(this.bits()), false);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Integer> action) {
+      SmallIntegerSet.forEach(this.bits(), action);
+    }
+
+    @Override
+    public void forEachInt(IntConsumer action) {
+      SmallIntegerSet.forEachInt(this.bits(), action);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Integer> filter) {
+      return this.removeIfInt(filter::test);
+    }
+
+    @Override
+    public boolean removeIfInt(IntPredicate filter) {
+      return removeKeys(SmallIntegerSet.matching(this.bits(), filter));
+    }
+
+    @Override
+    public Object[] toArray() {
+      return SmallIntegerSet.toArray(this.bits());
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+      return SmallIntegerSet.toArray(this.bits(), a);
+    }
+
+    @Override
+    public int[] toIntArray() {
+      return SmallIntegerSet.toIntArray(this.bits());
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+      long bits = this.bits();
+      if (c instanceof SmallIntegerBits) {
+        return SmallIntegerSet.containsAll(bits, ((SmallIntegerBits) c).toBits());
+      }
+      for (Object each : c) {
+        if (!SmallIntegerSet.isSet(bits, (Integer) each)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+      long bits = this.bits();
+      if (c instanceof SmallIntegerBits) {
+        return removeKeys(bits & ~((SmallIntegerBits) c).toBits());
+      }
+      return removeKeys(SmallIntegerSet.matching(bits, i -> !c.contains(i)));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+      long bits = this.bits();
+      if (c instanceof SmallIntegerBits) {
+        return removeKeys(bits & ((SmallIntegerBits) c).toBits());
+      }
+      long removed = 0L;
+      for (Object each : c) {
+        int i = (Integer) each;
+        if (SmallIntegerSet.isSupported(i)) {
+          removed |= 1L << i;
+        }
+      }
+      return removeKeys(bits & removed);
+    }
+
+    @Override
+    public int hashCode() {
+      return SmallIntegerSet.hashCode(this.bits());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof Set)) {
+        return false;
+      }
+      long bits = this.bits();
+      if (obj instanceof SmallIntegerBits) {
+        return bits == ((SmallIntegerBits) obj).toBits();
+      }
+      Set<?> other = (Set<?>) obj;
+      if (SmallIntegerSet.size(bits) != other.size()) {
+        return false;
+      }
+      return SmallIntegerSet.containsAllNonThrowing(bits, other);
+    }
+
+    @Override
+    public String toString() {
+      return SmallIntegerSets.toString(this.bits());
+    }
+
+    final class KeySetIterator extends AbstractIntegerSetIterator {
+
+      @Override
+      void unsetNoCheck(int i) {
+        SmallIntegerMap.this.remove(i);
+      }
+
+      @Override
+      long bits() {
+        return KeySet.this.bits();
+      }
+
+    }
+
+  }
+
+  /**
+   * Live view of the values in ascending order of their keys.
+   */
+  final class Values implements Collection<V> {
+
+    @Override
+    public int size() {
+      return SmallIntegerMap.this.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return SmallIntegerMap.this.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return containsValue(o);
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+      return new MapIterator<V>(-1L) {
+
+        @Override
+        V element(int key) {
+          return get(key);
+        }
+
+      };
+    }
+
+    @Override
+    public Object[] toArray() {
+      return Arrays.copyOf(values, this.size());
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+      return SmallIntegerMap.toArray(values, this.size(), a);
+    }
+
+    @Override
+    public void forEach(Consumer<? super V> action) {
+      int size = this.size();
+      for (int i = 0; i < size; i++) {
+        action.accept(valueAt(i));
+      }
+    }
+
+    @Override
+    public boolean add(V e) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends V> c) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      int index = indexOfValue(o);
+      if (index == -1) {
+        return false;
+      }
+      SmallIntegerMap.this.remove(SmallIntegerSet.select(keys, index));
+      return true;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+      for (Object each : c) {
+        if (!containsValue(each)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super V> filter) {
+      return removeKeys(keysMatching(-1L, filter));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+      return this.removeIf(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+      return this.removeIf(each -> !c.contains(each));
+    }
+
+    @Override
+    public void clear() {
+      SmallIntegerMap.this.clear();
+    }
+
+    @Override
+    public String toString() {
+      return Arrays.toString(this.toArray());
+    }
+
+  }
+
+  /**
+   * Live view of the mappings in ascending order of their keys.
+   */
+  final class EntrySet implements Set<Entry<Integer, V>> {
+
+    @Override
+    public int size() {
+      return SmallIntegerMap.this.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return SmallIntegerMap.this.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      Entry<?, ?> entry = (Entry<?, ?>) o;
+      Object key = entry.getKey();
+      if (!(key instanceof Integer) || !containsKey((int) (Integer) key)) {
+        return false;
+      }
+      return Objects.equals(get((int) (Integer) key), entry.getValue());
+    }
+
+    @Override
+    public Iterator<Entry<Integer, V>> iterator() {
+      return new MapIterator<Entry<Integer, V>>(-1L) {
+
+        @Override
+        Entry<Integer, V> element(int key) {
+          return new MapEntry(key);
+        }
+
+      };
+    }
+
+    @Override
+    public Object[] toArray() {
+      Object[] array = new Object[this.size()];
+      int index = 0;
+      for (long remaining = keys; remaining != 0L; remaining &= remaining - 1L) {
+        array[index++] = new MapEntry(Long.numberOfTrailingZeros(remaining));
+      }
+      return array;
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+      Object[] array = this.toArray();
+      return SmallIntegerMap.toArray(array, array.length, a);
+    }
+
+    @Override
+    public boolean add(Entry<Integer, V> e) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Entry<Integer, V>> c) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      if (!this.contains(o)) {
+        return false;
+      }
+      SmallIntegerMap.this.remove(((Entry<?, ?>) o).getKey());
+      return true;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+      for (Object each : c) {
+        if (!this.contains(each)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+      boolean changed = false;
+      for (Object each : c) {
+        changed |= this.remove(each);
+      }
+      return changed;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+      long removed = 0L;
+      for (long remaining = keys; remaining != 0L; remaining &= remaining - 1L) {
+        if (!c.contains(new MapEntry(Long.numberOfTrailingZeros(remaining)))) {
+          removed |= remaining & -remaining;
+        }
+      }
+      return removeKeys(removed);
+    }
+
+    @Override
+    public void clear() {
+      SmallIntegerMap.this.clear();
+    }
+
+    @Override
+    public int hashCode() {
+      return SmallIntegerMap.this.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof Set)) {
+        return false;
+      }
+      Set<?> other = (Set<?>) obj;
+      return this.size() == other.size() && this.containsAll(other);
+    }
+
+    @Override
+    public String toString() {
+      return Arrays.toString(this.toArray());
+    }
+
+  }
+
+  /**
+   * A mapping that reads and writes through to the map.
+   * {@link #setValue(Object)} fails once the mapping has been removed.
+   */
+  final class MapEntry implements Entry<Integer, V> {
+
+    private final int key;
+
+    MapEntry(int key) {
+      this.key = key;
+    }
+
+    @Override
+    public Integer getKey() {
+      return this.key;
+    }
+
+    @Override
+    public V getValue() {
+      return get(this.key);
+    }
+
+    @Override
+    public V setValue(V value) {
+      long keys = SmallIntegerMap.this.keys;
+      if (!SmallIntegerSet.isSet(keys, this.key)) {
+        throw new IllegalStateException("mapping was removed");
+      }
+      int index = index(keys, this.key);
+      V previous = valueAt(index);
+      values[index] = value;
+      return previous;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.key ^ Objects.hashCode(this.getValue());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof Entry)) {
+        return false;
+      }
+      Entry<?, ?> other = (Entry<?, ?>) obj;
+      return Integer.valueOf(this.key).equals(other.getKey())
+              && Objects.equals(this.getValue(), other.getValue());
+    }
+
+    @Override
+    public String toString() {
+      return this.key + "=" + this.getValue();
+    }
+
+  }
+
+}
@@ -0,0 +1,536 @@
+package com.github.marschall.sets;
+
+import java.io.Serializable;
+import java.util.function.IntConsumer;
+
+/**
+ * A multiset of {@link Integer}s between {@value SmallIntegerSet#MIN_VALUE}
+ * and {@value SmallIntegerSet#MAX_VALUE}, a counter per element.
+ *
+ * <p>The elements with a count greater than zero are kept in a
+ * {@link SmallIntegerSet}, so {@link #elementSet()} runs in constant time
+ * and operations over the distinct elements only look at the set bits
+ * instead of scanning 64 counters.</p>
+ *
+ * <p>The counts are stored in a {@code byte[64]} as long as all of them fit
+ * into an unsigned byte. The array is widened to a {@code short[64]} and
+ * an {@code int[64]} once a count requires it, it is never narrowed again.
+ * Apart from widening no operation allocates. Counters of elements that
+ * are not contained are ignored, so {@link #clear()} and the removal of
+ * elements run in constant time or in time proportional to the number of
+ * removed elements.</p>
+ *
+ * <p>Operations like {@link #add(int, int)} will throw an
+ * {@link IllegalArgumentException} with an element outside the supported
+ * range or if a count would exceed {@link Integer#MAX_VALUE}. Operations
+ * like {@link #count(int)} or {@link #remove(int, int)} will return
+ * {@code 0} with an element outside this range.</p>
+ *
+ * <p>This class is not thread safe.</p>
+ */
+public final class SmallIntegerMultiset implements Serializable, Cloneable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final int LENGTH = SmallIntegerSet.MAX_VALUE + 1;
+
+  private static final int MAX_BYTE_COUNT = 0xFF;
+
+  private static final int MAX_SHORT_COUNT = 0xFFFF;
+
+  /**
+   * The elements with a count greater than zero.
+   */
+  private final SmallIntegerSet elements;
+
+  /**
+   * The sum of all counts.
+   */
+  private long size;
+
+  // exactly one of the count arrays is not null
+
+  private byte[] byteCounts;
+
+  private short[] shortCounts;
+
+  private int[] intCounts;
+
+  /**
+   * Creates a new empty multiset.
+   */
+  public SmallIntegerMultiset() {
+    this.elements = new SmallIntegerSet();
+    this.byteCounts = new byte[LENGTH];
+  }
+
+  private SmallIntegerMultiset(SmallIntegerSet elements, long size, byte[] byteCounts, short[] shortCounts, int[] intCounts) {
+    this.elements = elements;
+    this.size = size;
+    this.byteCounts = byteCounts;
+    this.shortCounts = shortCounts;
+    this.intCounts = intCounts;
+  }
+
+  /**
+   * Creates a new multiset from an array of counts.
+   *
+   * @param counts the counts, {@code counts[i]} is the count of element
+   *  {@code i}, at most 64 elements, not {@code null}
+   * @return a new multiset with the given counts
+   * @throws IllegalArgumentException if {@code counts} is longer than 64 or
+   *  contains a negative count
+   * @see #toCounts()
+   */
+  public static SmallIntegerMultiset fromCounts(int[] counts) {
+    if (counts.length > LENGTH) {
+      throw new IllegalArgumentException("too many counts: " + counts.length);
+    }
+    SmallIntegerMultiset multiset = new SmallIntegerMultiset();
+    for (int i = 0; i < counts.length; i++) {
+      multiset.setCount(i, counts[i]);
+    }
+    return multiset;
+  }
+
+  /**
+   * Returns the counts of all elements.
+   *
+   * @return a new array of length 64, element {@code i} is the count of
+   *  element {@code i}
+   * @see #fromCounts(int[])
+   */
+  public int[] toCounts() {
+    int[] counts = new int[LENGTH];
+    long remaining = this.elements.values;
+    while (remaining != 0L) {
+      int element = Long.numberOfTrailingZeros(remaining);
+      counts[element] = this.storedCount(element);
+      remaining &= remaining - 1L;
+    }
+    return counts;
+  }
+
+  /**
+   * Returns the number of occurrences of an element.
+   *
+   * @param element the element
+   * @return the number of occurrences, {@code 0} if not contained
+   */
+  public int count(int element) {
+    if (!SmallIntegerSet.isSet(this.elements.values, element)) {
+      return 0;
+    }
+    return this.storedCount(element);
+  }
+
+  private int storedCount(int element) {
+    if (this.byteCounts != null) {
+      return this.byteCounts[element] & MAX_BYTE_COUNT;
+    }
+    if (this.shortCounts != null) {
+      return this.shortCounts[element] & MAX_SHORT_COUNT;
+    }
+    return this.intCounts[element];
+  }
+
+  private void storeCount(int element, int count) {
+    if (this.byteCounts != null) {
+      if (count <= MAX_BYTE_COUNT) {
+        this.byteCounts[element] = (byte) count;
+        return;
+      }
+      this.widen(count);
+    }
+    if (this.shortCounts != null) {
+      if (count <= MAX_SHORT_COUNT) {
+        this.shortCounts[element] = (short) count;
+        return;
+      }
+      this.widen(count);
+    }
+    this.intCounts[element] = count;
+  }
+
+  private void widen(int count) {
+    if (count <= MAX_SHORT_COUNT) {
+      short[] widened = new short[LENGTH];
+      for (int i = 0; i < LENGTH; i++) {
+        widened[i] = (short) (this.byteCounts[i] & MAX_BYTE_COUNT);
+      }
+      this.shortCounts = widened;
+    } else {
+      int[] widened = new int[LENGTH];
+      for (int i = 0; i < LENGTH; i++) {
+        widened[i] = this.storedCount(i);
+      }
+      this.intCounts = widened;
+      this.shortCounts = null;
+    }
+    this.byteCounts = null;
+  }
+
+  /**
+   * Returns whether this multiset contains an element at least once.
+   *
+   * @param element the element
+   * @return {@code true} if the count of {@code element} is greater than
+   *  zero
+   */
+  public boolean contains(int element) {
+    return SmallIntegerSet.isSet(this.elements.values, element);
+  }
+
+  /**
+   * Returns the total number of occurrences of all elements.
+   *
+   * @return the sum of all counts
+   */
+  public long size() {
+    return this.size;
+  }
+
+  /**
+   * Returns whether this multiset contains no elements.
+   *
+   * @return {@code true} if this multiset contains no elements
+   */
+  public boolean isEmpty() {
+    return this.elements.values == 0L;
+  }
+
+  /**
+   * Adds a single occurrence of an element.
+   *
+   * @param element the element to add
+   * @return the count of {@code element} before the call
+   * @throws IllegalArgumentException if {@code element} is not supported or
+   *  its count would exceed {@link Integer#MAX_VALUE}
+   */
+  public int add(int element) {
+    return this.add(element, 1);
+  }
+
+  /**
+   * Adds occurrences of an element.
+   *
+   * @param element the element to add
+   * @param occurrences the number of occurrences to add, not negative
+   * @return the count of {@code element} before the call
+   * @throws IllegalArgumentException if {@code element} is not supported,
+   *  {@code occurrences} is negative or the count would exceed
+   *  {@link Integer#MAX_VALUE}
+   */
+  public int add(int element, int occurrences) {
+    SmallIntegerSet.checkSupported(element);
+    checkOccurrences(occurrences);
+    int before = this.count(element);
+    long after = (long) before + occurrences;
+    if (after > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("count too large: " + after);
+    }
+    this.setCountNoCheck(element, before, (int) after);
+    return before;
+  }
+
+  /**
+   * Removes a single occurrence of an element.
+   *
+   * @param element the element to remove
+   * @return the count of {@code element} before the call
+   */
+  public int remove(int element) {
+    return this.remove(element, 1);
+  }
+
+  /**
+   * Removes occurrences of an element.
+   *
+   * <p>If the element has fewer occurrences all of them are removed.</p>
+   *
+   * @param element the element to remove
+   * @param occurrences the number of occurrences to remove, not negative
+   * @return the count of {@code element} before the call
+   * @throws IllegalArgumentException if {@code occurrences} is negative
+   */
+  public int remove(int element, int occurrences) {
+    checkOccurrences(occurrences);
+    int before = this.count(element);
+    if (before == 0) {
+      return 0;
+    }
+    this.setCountNoCheck(element, before, Math.max(0, before - occurrences));
+    return before;
+  }
+
+  /**
+   * Sets the number of occurrences of an element.
+   *
+   * @param element the element
+   * @param count the new count, not negative, {@code 0} removes the element
+   * @return the count of {@code element} before the call
+   * @throws IllegalArgumentException if {@code element} is not supported or
+   *  {@code count} is negative
+   */
+  public int setCount(int element, int count) {
+    SmallIntegerSet.checkSupported(element);
+    checkOccurrences(count);
+    int before = this.count(element);
+    this.setCountNoCheck(element, before, count);
+    return before;
+  }
+
+  private void setCountNoCheck(int element, int before, int after) {
+    this.size += after - before;
+    if (after == 0) {
+      this.elements.values &= ~(1L << element);
+    } else {
+      this.storeCount(element, after);
+      this.elements.values |= 1L << element;
+    }
+  }
+
+  private static void checkOccurrences(int occurrences) {
+    if (occurrences < 0) {
+      throw new IllegalArgumentException("negative: " + occurrences);
+    }
+  }
+
+  /**
+   * Returns a live, unmodifiable view of the distinct elements.
+   *
+   * <p>Runs in constant time. The view takes the same bitwise fast paths as
+   * a {@link SmallIntegerSet} in bulk operations.</p>
+   *
+   * @return the elements with a count greater than zero
+   */
+  public IntNavigableSet elementSet() {
+    return this.elements.asUnmodifiable();
+  }
+
+  /**
+   * Returns the raw bit representation of the distinct elements.
+   *
+   * @return the elements with a count greater than zero, bit {@code i} is
+   *  set if {@code i} is contained
+   * @see SmallIntegerSets
+   */
+  public long elementBits() {
+    return this.elements.values;
+  }
+
+  /**
+   * Performs the given action for each distinct element in ascending order.
+   *
+   * @param action the action to be performed for each element
+   */
+  public void forEachElement(IntConsumer action) {
+    SmallIntegerSet.forEachInt(this.elements.values, action);
+  }
+
+  /**
+   * Removes all occurrences of the given elements.
+   *
+   * @param bits the raw bit representation of the elements to remove
+   * @return {@code true} if this multiset changed
+   */
+  public boolean removeElements(long bits) {
+    long removed = this.elements.values & bits;
+    if (removed == 0L) {
+      return false;
+    }
+    this.size -= this.sumOfCounts(removed);
+    this.elements.values &= ~removed;
+    return true;
+  }
+
+  /**
+   * Removes all occurrences of the elements not contained in the given
+   * elements.
+   *
+   * @param bits the raw bit representation of the elements to keep
+   * @return {@code true} if this multiset changed
+   */
+  public boolean retainElements(long bits) {
+    return this.removeElements(~bits);
+  }
+
+  private long sumOfCounts(long bits) {
+    long sum = 0L;
+    long remaining = bits;
+    while (remaining != 0L) {
+      sum += this.storedCount(Long.numberOfTrailingZeros(remaining));
+      remaining &= remaining - 1L;
+    }
+    return sum;
+  }
+
+  /**
+   * Checks whether this multiset and an other one have an element in
+   * common.
+   *
+   * @param other the other multiset, not {@code null}
+   * @return {@code true} if there is an element contained in both
+   */
+  public boolean intersects(SmallIntegerMultiset other) {
+    return (this.elements.values & other.elements.values) != 0L;
+  }
+
+  /**
+   * Adds all occurrences of an other multiset, the counts are summed.
+   *
+   * <p>Only looks at the elements of {@code other}.</p>
+   *
+   * @param other the multiset to add, not {@code null}
+   * @throws IllegalArgumentException if a count would exceed
+   *  {@link Integer#MAX_VALUE}, this multiset is not modified in this case
+   */
+  public void addAll(SmallIntegerMultiset other) {
+    this.checkSums(other);
+    long remaining = other.elements.values;
+    while (remaining != 0L) {
+      int element = Long.numberOfTrailingZeros(remaining);
+      this.add(element, other.storedCount(element));
+      remaining &= remaining - 1L;
+    }
+  }
+
+  /**
+   * Checks that no count overflows when adding an other multiset before
+   * anything is modified.
+   */
+  private void checkSums(SmallIntegerMultiset other) {
+    long remaining = this.elements.values & other.elements.values;
+    while (remaining != 0L) {
+      int element = Long.numberOfTrailingZeros(remaining);
+      long sum = (long) this.storedCount(element) + other.storedCount(element);
+      if (sum > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("count too large: " + sum);
+      }
+      remaining &= remaining - 1L;
+    }
+  }
+
+  /**
+   * Removes the occurrences of an other multiset, the counts are
+   * subtracted.
+   *
+   * <p>Only looks at the elements contained in both multisets.</p>
+   *
+   * @param other the multiset to remove, not {@code null}
+   */
+  public void removeAll(SmallIntegerMultiset other) {
+    long remaining = this.elements.values & other.elements.values;
+    while (remaining != 0L) {
+      int element = Long.numberOfTrailingZeros(remaining);
+      this.remove(element, other.storedCount(element));
+      remaining &= remaining - 1L;
+    }
+  }
+
+  /**
+   * Retains the occurrences also contained in an other multiset, the
+   * minimum of both counts is kept.
+   *
+   * <p>Elements not contained in {@code other} are removed with a single
+   * bitwise operation, only the elements contained in both multisets are
+   * looked at.</p>
+   *
+   * @param other the multiset to intersect with, not {@code null}
+   */
+  public void retainAll(SmallIntegerMultiset other) {
+    long otherElements = other.elements.values;
+    this.retainElements(otherElements);
+    long remaining = this.elements.values;
+    while (remaining != 0L) {
+      int element = Long.numberOfTrailingZeros(remaining);
+      int count = other.storedCount(element);
+      int before = this.storedCount(element);
+      if (count < before) {
+        this.setCountNoCheck(element, before, count);
+      }
+      remaining &= remaining - 1L;
+    }
+  }
+
+  /**
+   * Removes all elements.
+   *
+   * <p>Runs in constant time.</p>
+   */
+  public void clear() {
+    this.elements.values = 0L;
+    this.size = 0L;
+  }
+
+  @Override
+  public SmallIntegerMultiset clone() {
+    return new SmallIntegerMultiset(SmallIntegerSet.fromBits(this.elements.values), this.size,
+            this.byteCounts != null ? this.byteCounts.clone() : null,
+            this.shortCounts != null ? this.shortCounts.clone() : null,
+            this.intCounts != null ? this.intCounts.clone() : null);
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    long remaining = this.elements.values;
+    while (remaining != 0L) {
+      int element = Long.numberOfTrailingZeros(remaining);
+      hashCode += element ^ this.storedCount(element);
+      remaining &= remaining - 1L;
+    }
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof SmallIntegerMultiset)) {
+      return false;
+    }
+    SmallIntegerMultiset other = (SmallIntegerMultiset) obj;
+    if (this.elements.values != other.elements.values || this.size != other.size) {
+      return false;
+    }
+    long remaining = this.elements.values;
+    while (remaining != 0L) {
+      int element = Long.numberOfTrailingZeros(remaining);
+      if (this.storedCount(element) != other.storedCount(element)) {
+        return false;
+      }
+      remaining &= remaining - 1L;
+    }
+    return true;
+  }
+
+  /**
+   * Returns a string representation of this multiset.
+   *
+   * @return the elements in ascending order with their count, for example
+   *  {@code [1 x 3, 5]}
+   */
+  @Override
+  public String toString() {
+    StringBuilder buffer = new StringBuilder();
+    buffer.append('[');
+    long remaining = this.elements.values;
+    while (remaining != 0L) {
+      int element = Long.numberOfTrailingZeros(remaining);
+      int count = this.storedCount(element);
+      buffer.append(element);
+      if (count > 1) {
+        buffer.append(" x ").append(count);
+      }
+      remaining &= remaining - 1L;
+      if (remaining != 0L) {
+        buffer.append(", ");
+      }
+    }
+    buffer.append(']');
+    return buffer.toString();
+  }
+
+}
@@ -1,17 +1,29 @@
 package com.github.marschall.sets;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.Array;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
 import java.util.Set;
-import java.util.SortedSet;
 import java.util.Spliterator;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A set for {@link Integer}s between {@value #MIN_VALUE} and
@@ -37,12 +49,45 @@ import java.util.function.Predicate;
  * <p>The operations {@link #contains(Object)}, {@link #add(Integer)},
  * {@link #remove(Object)} and {@link #clear()} run in constant time.</p>
  *
+ * <p>The primitive operations {@link #containsInt(int)},
+ * {@link #addInt(int)}, {@link #removeInt(int)}, {@link #forEachInt(IntConsumer)},
+ * {@link #removeIfInt(IntPredicate)}, {@link #toIntArray()},
+ * {@link #intIterator()} and {@link #intStream()} avoid boxing, unboxing and
+ * type checks. They are also supported on range views.</p>
+ *
  * <p>The operations {@link #addAll(Collection)},
  * {@link #removeAll(Collection)}, {@link #retainAll(Collection)}
  * and {@link #containsAll(Collection)} run in constant time when the argument
- * is a {@link SmallIntegerSet}.</p>
+ * is a {@link SmallIntegerSet}, a range view of one, an
+ * {@link ImmutableSmallIntegerSet} or a view returned by
+ * {@link #asUnmodifiable()}.</p>
+ *
+ * <p>{@link #fromBitSet(BitSet)}, {@link #toBitSet()} and the overloads
+ * like {@link #addAll(BitSet)} taking a {@link BitSet} convert a whole
+ * word at once instead of individual elements.</p>
+ *
+ * <p>The static operations {@link #union(Collection, Collection)},
+ * {@link #intersection(Collection, Collection)},
+ * {@link #difference(Collection, Collection)},
+ * {@link #symmetricDifference(Collection, Collection)},
+ * {@link #complement(Collection)}, {@link #intersects(Collection, Collection)}
+ * and {@link #isDisjoint(Collection, Collection)} run in constant time when
+ * the arguments are {@link SmallIntegerSet}s or range views of
+ * {@link SmallIntegerSet}s. The predicates do not allocate in this case.</p>
+ *
+ * <p>The operations {@link #first()}, {@link #last()}, {@link #ceiling(Integer)},
+ * {@link #floor(Integer)}, {@link #higher(Integer)}, {@link #lower(Integer)},
+ * {@link #pollFirst()}, {@link #pollLast()}, {@link #rank(int)},
+ * {@link #select(int)} and {@link #hashCode()} run in constant time. The
+ * view returned by {@link #asList()} uses {@link #select(int)} for random
+ * access.</p>
  *
- * <p>The operations {@link #first()} and {@link #last()} run in constant time.</p>
+ * <p>The {@link Spliterator} returned by {@link #spliterator()} splits at the
+ * median element and is {@link Spliterator#SORTED}, so {@code sorted()} and
+ * {@code distinct()} are no-ops in stream pipelines. It binds to the set when
+ * it is created. The streams returned by {@link #stream()},
+ * {@link #parallelStream()} and {@link #intStream()} bind when the terminal
+ * operation starts.</p>
  *
  * <p>This set is not thread safe.</p>
  *
@@ -108,10 +153,7 @@ import java.util.function.Predicate;
  * Space losses: 4 bytes internal + 8 bytes external = 12 bytes total
  * </code></pre>
  */
-public final class SmallIntegerSet implements SortedSet<Integer>, Serializable, Cloneable {
-  // TODO implement NavigableSet
-  // TODO implement spliterator
-
+public final class SmallIntegerSet implements IntNavigableSet, SmallIntegerBits, Serializable, Cloneable {
   private static final long serialVersionUID = 1L;
 
   /**
@@ -130,6 +172,29 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
    */
   public static final int MAX_VALUE = 63;
 
+  private static final byte[] SELECT_IN_BYTE = selectInByte();
+
+  /**
+   * Returned by the primitive navigation methods if there is no such element.
+   */
+  private static final int NONE = -1;
+
+  /**
+   * Mask of all the elements that need two digits in {@link #toString()}.
+   */
+  private static final long TWO_DIGITS = -1L << 10;
+
+  /*
+   * Masks of all the elements whose index has a certain bit set.
+   */
+
+  private static final long INDEX_BIT_0 = 0xAAAA_AAAA_AAAA_AAAAL;
+  private static final long INDEX_BIT_1 = 0xCCCC_CCCC_CCCC_CCCCL;
+  private static final long INDEX_BIT_2 = 0xF0F0_F0F0_F0F0_F0F0L;
+  private static final long INDEX_BIT_3 = 0xFF00_FF00_FF00_FF00L;
+  private static final long INDEX_BIT_4 = 0xFFFF_0000_FFFF_0000L;
+  private static final long INDEX_BIT_5 = 0xFFFF_FFFF_0000_0000L;
+
   long values;
 
   /**
@@ -139,6 +204,136 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
     this.values = 0L;
   }
 
+  private SmallIntegerSet(long values) {
+    this.values = values;
+  }
+
+  /**
+   * Creates a new set from its raw bit representation.
+   *
+   * <p>Bit {@code i} of {@code bits} set means the element {@code i} is
+   * contained. This is the representation used by {@link SmallIntegerSets}.</p>
+   *
+   * @param bits the elements of the set, one bit per element
+   * @return a new set containing the elements encoded in {@code bits}
+   * @see #toBits()
+   */
+  public static SmallIntegerSet fromBits(long bits) {
+    return new SmallIntegerSet(bits);
+  }
+
+  /**
+   * Returns the raw bit representation of this set.
+   *
+   * <p>Bit {@code i} of the result is set if the element {@code i} is
+   * contained. This is the representation used by {@link SmallIntegerSets}.</p>
+   *
+   * @return the elements of this set, one bit per element
+   * @see #fromBits(long)
+   */
+  @Override
+  public long toBits() {
+    return this.values;
+  }
+
+  /**
+   * Writes the elements of this set as a single {@code long}.
+   *
+   * <p>Much more compact than serialization. The set can be read back with
+   * {@link #readFrom(DataInput)}.</p>
+   *
+   * @param out the output to write to, not {@code null}
+   * @throws IOException if writing fails
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeLong(this.values);
+  }
+
+  /**
+   * Reads a set written by {@link #writeTo(DataOutput)}.
+   *
+   * @param in the input to read from, not {@code null}
+   * @return the set read
+   * @throws IOException if reading fails
+   */
+  public static SmallIntegerSet readFrom(DataInput in) throws IOException {
+    return fromBits(in.readLong());
+  }
+
+  /**
+   * Creates a new set from a {@link BitSet}.
+   *
+   * <p>Converts the first word of the {@link BitSet} instead of adding the
+   * elements one by one.</p>
+   *
+   * @param bitSet the elements of the new set, not {@code null}
+   * @return a new set containing the elements of {@code bitSet}
+   * @throws IllegalArgumentException if {@code bitSet} contains an element
+   *  that is not supported by this set class
+   * @see #toBitSet()
+   */
+  public static SmallIntegerSet fromBitSet(BitSet bitSet) {
+    return new SmallIntegerSet(bits(bitSet));
+  }
+
+  /**
+   * Returns a new {@link BitSet} containing the elements of this set.
+   *
+   * @return a new {@link BitSet} containing the elements of this set
+   * @see #fromBitSet(BitSet)
+   */
+  public BitSet toBitSet() {
+    return BitSet.valueOf(new long[] {this.values});
+  }
+
+  /**
+   * Creates a new set from the {@link Enum#ordinal() ordinals} of the
+   * elements of an {@link EnumSet}.
+   *
+   * @param enumSet the enums whose ordinals to add, not {@code null}
+   * @return a new set containing the ordinals of the elements of
+   *  {@code enumSet}
+   * @throws IllegalArgumentException if {@code enumSet} contains an element
+   *  whose ordinal is not supported by this set class
+   * @see #toEnumSet(Class)
+   */
+  public static SmallIntegerSet fromEnumSet(EnumSet<?> enumSet) {
+    long bits = 0L;
+    for (Enum<?> each : enumSet) {
+      int ordinal = each.ordinal();
+      checkSupported(ordinal);
+      bits |= 1L << ordinal;
+    }
+    return new SmallIntegerSet(bits);
+  }
+
+  /**
+   * Returns a new {@link EnumSet} containing the enums whose
+   * {@link Enum#ordinal() ordinals} are contained in this set.
+   *
+   * @param <E> the type of the enum
+   * @param elementType the class of the enum, not {@code null}
+   * @return a new {@link EnumSet} containing the enums whose ordinals are
+   *  contained in this set
+   * @throws IllegalArgumentException if this set contains an element that
+   *  is not an ordinal of {@code elementType}
+   * @see #fromEnumSet(EnumSet)
+   */
+  public <E extends Enum<E>> EnumSet<E> toEnumSet(Class<E> elementType) {
+    E[] constants = elementType.getEnumConstants();
+    long bits = this.values;
+    if (bits != 0L && last(bits) >= constants.length) {
+      throw new IllegalArgumentException();
+    }
+    EnumSet<E> enumSet = EnumSet.noneOf(elementType);
+    long remaining = bits;
+    while (remaining != 0L) {
+      enumSet.add(constants[Long.numberOfTrailingZeros(remaining)]);
+      remaining &= remaining - 1L;
+    }
+    return enumSet;
+  }
+
   private boolean set(int i) {
     checkSupported(i);
     long before = this.values;
@@ -241,7 +436,7 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
     return isSupported(i) && (((1L << i) & mask) != 0);
   }
 
-  private static void checkSupported(int i) {
+  static void checkSupported(int i) {
     if (!isSupported(i)) {
       throw new IllegalArgumentException();
     }
@@ -270,36 +465,118 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
     return this.isSet((Integer) o);
   }
 
+  @Override
+  public boolean containsInt(int i) {
+    return this.isSet(i);
+  }
+
   @Override
   public Iterator<Integer> iterator() {
     return new SmallIntegerSetIterator();
   }
 
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return new SmallIntegerSetIterator();
+  }
+
+  @Override
+  public IntStream intStream() {
+    // binds late, when the terminal operation starts
+    return StreamSupport.intStream(() -> new IntegerSetSpliterator(this.values),
+            IntegerSetSpliterator.CHARACTERISTICS, false);
+  }
+
+  @Override
+  public Spliterator<Integer> spliterator() {
+    return new IntegerSetSpliterator(this.values);
+  }
+
+  @Override
+  public Stream<Integer> stream() {
+    return StreamSupport.stream(() -> new IntegerSetSpliterator(this.values),
+            IntegerSetSpliterator.CHARACTERISTICS, false);
+  }
+
+  @Override
+  public Stream<Integer> parallelStream() {
+    return StreamSupport.stream(() -> new IntegerSetSpliterator(this.values),
+            IntegerSetSpliterator.CHARACTERISTICS, true);
+  }
+
   @Override
   public void forEach(Consumer<? super Integer> action) {
     forEach(this.values, action);
   }
 
   static void forEach(long bits, Consumer<? super Integer> action) {
-    // TODO also check size
-    for (int i = MIN_VALUE; i <= MAX_VALUE; ++i) {
-      if (isSetNoCheck(bits, i)) {
-        action.accept(i);
-      }
+    long remaining = bits;
+    while (remaining != 0L) {
+      action.accept(Long.numberOfTrailingZeros(remaining) + MIN_VALUE);
+      remaining &= remaining - 1L;
+    }
+  }
+
+  @Override
+  public void forEachInt(IntConsumer action) {
+    forEachInt(this.values, action);
+  }
+
+  static void forEachInt(long bits, IntConsumer action) {
+    long remaining = bits;
+    while (remaining != 0L) {
+      action.accept(Long.numberOfTrailingZeros(remaining) + MIN_VALUE);
+      remaining &= remaining - 1L;
     }
   }
 
   @Override
   public boolean removeIf(Predicate<? super Integer> filter) {
-    // TODO also check size
-    boolean modified = false;
-    for (int i = MIN_VALUE; i <= MAX_VALUE; ++i) {
-      if (this.isSetNoCheck(i) && filter.test(i)) {
-        this.unsetNoCheck(i);
-        modified = true;
+    return this.removeIfInt(filter::test);
+  }
+
+  @Override
+  public boolean removeIfInt(IntPredicate filter) {
+    return this.removeAll(matching(this.values, filter));
+  }
+
+  /**
+   * Computes the elements matching a predicate.
+   *
+   * <p>Does not modify anything so that an exception in the predicate
+   * leaves the set unchanged.</p>
+   *
+   * @param bits the elements to test
+   * @param filter the predicate to test the elements with
+   * @return the elements in {@code bits} that match {@code filter}
+   */
+  static long matching(long bits, IntPredicate filter) {
+    long matching = 0L;
+    long remaining = bits;
+    while (remaining != 0L) {
+      long lowestOneBit = remaining & -remaining;
+      if (filter.test(Long.numberOfTrailingZeros(remaining) + MIN_VALUE)) {
+        matching |= lowestOneBit;
       }
+      remaining ^= lowestOneBit;
+    }
+    return matching;
+  }
+
+  @Override
+  public int[] toIntArray() {
+    return toIntArray(this.values);
+  }
+
+  static int[] toIntArray(long bits) {
+    int[] result = new int[size(bits)];
+    int current = 0;
+    long remaining = bits;
+    while (remaining != 0L) {
+      result[current++] = Long.numberOfTrailingZeros(remaining) + MIN_VALUE;
+      remaining &= remaining - 1L;
     }
-    return modified;
+    return result;
   }
 
   @Override
@@ -311,10 +588,10 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
     // REVIEW discussable if it should be an Integer[]
     Object[] result = new Object[size(bits)];
     int current = 0;
-    for (int i = MIN_VALUE; i <= MAX_VALUE; ++i) {
-      if (isSetNoCheck(bits, i)) {
-        result[current++] = i;
-      }
+    long remaining = bits;
+    while (remaining != 0L) {
+      result[current++] = Long.numberOfTrailingZeros(remaining) + MIN_VALUE;
+      remaining &= remaining - 1L;
     }
     return result;
   }
@@ -337,66 +614,92 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
       }
     }
     int current = 0;
-    for (int i = MIN_VALUE; i <= MAX_VALUE; ++i) {
-      if (isSetNoCheck(bits, i)) {
-        result[current++] = (T) (Integer) i;
-      }
+    long remaining = bits;
+    while (remaining != 0L) {
+      result[current++] = (T) (Integer) (Long.numberOfTrailingZeros(remaining) + MIN_VALUE);
+      remaining &= remaining - 1L;
     }
     return result;
   }
 
   @Override
-  public SortedSet<Integer> subSet(Integer fromElement, Integer toElement) {
-    int startInclusive = fromElement;
-    checkSupported(startInclusive);
-    int endInclusive = toElement - 1;
-    if (startInclusive == endInclusive + 1) {
-      return Collections.emptyNavigableSet();
-    }
-    checkSupported(endInclusive);
-    if (fromElement.intValue() == MIN_VALUE && endInclusive == MAX_VALUE) {
-      return this;
-    }
-    if (startInclusive > endInclusive + 1) {
-      throw new IllegalArgumentException();
-    }
+  public IntNavigableSet subSet(Integer fromElement, Integer toElement) {
+    return this.subSet(fromElement, true, toElement, false);
+  }
 
-    // 0b1110
-    long headMask;
-    if (endInclusive == MAX_VALUE) {
-      // can't shift by 64
-      headMask = -1L;
-    } else {
-      headMask = (1L << (endInclusive + 1L)) - 1L;
-    }
-    // 0b0111
-    long tailMask = ~((1L << fromElement) - 1L);
-    // 0b0110
-    long mask = headMask & tailMask;
-    return new SmallIntegerSubSet(mask);
+  @Override
+  public IntNavigableSet headSet(Integer toElement) {
+    return this.headSet(toElement, false);
   }
 
   @Override
-  public SortedSet<Integer> headSet(Integer toElement) {
-    int endInclusive = toElement - 1;
-    checkSupported(endInclusive);
-    if (endInclusive == MAX_VALUE) {
-      return this;
-    }
-    long mask = (1L << (endInclusive + 1L)) - 1L;
-    return new SmallIntegerSubSet(mask);
+  public IntNavigableSet tailSet(Integer fromElement) {
+    return this.tailSet(fromElement, true);
+  }
+
+  @Override
+  public IntNavigableSet subSet(Integer fromElement, boolean fromInclusive, Integer toElement, boolean toInclusive) {
+    checkRange(fromElement, toElement);
+    long startInclusive = fromInclusive ? fromElement : fromElement + 1L;
+    long endInclusive = toInclusive ? toElement : toElement - 1L;
+    return this.range(startInclusive, endInclusive);
+  }
+
+  @Override
+  public IntNavigableSet headSet(Integer toElement, boolean inclusive) {
+    long endInclusive = inclusive ? toElement : toElement - 1L;
+    return this.range(MIN_VALUE, endInclusive);
   }
 
   @Override
-  public SortedSet<Integer> tailSet(Integer fromElement) {
-    checkSupported(fromElement);
-    if (fromElement.intValue() == MIN_VALUE) {
+  public IntNavigableSet tailSet(Integer fromElement, boolean inclusive) {
+    long startInclusive = inclusive ? fromElement : fromElement + 1L;
+    return this.range(startInclusive, MAX_VALUE);
+  }
+
+  private static void checkRange(int fromElement, int toElement) {
+    if (fromElement > toElement) {
+      throw new IllegalArgumentException();
+    }
+  }
+
+  private IntNavigableSet range(long startInclusive, long endInclusive) {
+    long mask = rangeMask(-1L, startInclusive, endInclusive);
+    if (mask == -1L) {
       return this;
     }
-    long mask = ~((1L << fromElement) - 1L);
     return new SmallIntegerSubSet(mask);
   }
 
+  /**
+   * Computes the mask of a range view.
+   *
+   * <p>The bounds are {@code long}s so that they can't overflow when
+   * converting exclusive bounds to inclusive ones.</p>
+   *
+   * @param mask the mask of the set on which the range view is created
+   * @param startInclusive the lowest element of the range view
+   * @param endInclusive the highest element of the range view
+   * @return the mask of the range view
+   * @throws IllegalArgumentException if the range is not empty and lies
+   *  outside of {@code mask}
+   */
+  static long rangeMask(long mask, long startInclusive, long endInclusive) {
+    if (startInclusive > endInclusive) {
+      // empty range
+      return 0L;
+    }
+    if (startInclusive < MIN_VALUE || endInclusive > MAX_VALUE) {
+      throw new IllegalArgumentException();
+    }
+    // 0b0111 & 0b1110 = 0b0110
+    long rangeMask = (-1L << startInclusive) & (-1L >>> (MAX_VALUE - endInclusive));
+    if ((rangeMask & mask) != rangeMask) {
+      throw new IllegalArgumentException();
+    }
+    return rangeMask;
+  }
+
   @Override
   public Comparator<? super Integer> comparator() {
     // natural order
@@ -428,171 +731,430 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
   }
 
   @Override
-  public boolean add(Integer e) {
-    return this.set(e);
+  public Integer ceiling(Integer e) {
+    return boxOrNull(ceiling(this.values, e));
   }
 
   @Override
-  public boolean remove(Object o) {
-    return this.unset((Integer) o);
+  public int ceilingInt(int e) {
+    return ceiling(this.values, e);
   }
 
-  @Override
-  public boolean containsAll(Collection<?> c) {
-    if (c instanceof SmallIntegerSet) {
-      return this.containsAll((SmallIntegerSet) c);
+  static int ceiling(long bits, int e) {
+    if (e > MAX_VALUE) {
+      return NONE;
     }
-    if (c instanceof SmallIntegerSubSet) {
-      return this.containsAll((SmallIntegerSubSet) c);
-    }
-    return this.containsAllGeneric(c);
-  }
-
-  private boolean containsAllGeneric(Collection<?> c) {
-    // can't check for size because Collection could be a List
-    // would have to check for Set and size
-    for (Object each : c) {
-      if (!this.contains(each)) {
-        return false;
-      }
+    long masked = e <= MIN_VALUE ? bits : bits & (-1L << e);
+    if (masked == 0L) {
+      return NONE;
     }
-    return true;
+    return Long.numberOfTrailingZeros(masked) + MIN_VALUE;
   }
 
-  private boolean containsAll(SmallIntegerSet other) {
-    return containsAll(this.values, other.values);
+  @Override
+  public Integer higher(Integer e) {
+    return boxOrNull(higher(this.values, e));
   }
 
-  private boolean containsAll(SmallIntegerSubSet other) {
-    return containsAll(this.values, other.bits());
+  @Override
+  public int higherInt(int e) {
+    return higher(this.values, e);
   }
 
-  static boolean containsAll(long thisBits, long otherBits) {
-    return (thisBits & otherBits) == otherBits;
+  static int higher(long bits, int e) {
+    if (e >= MAX_VALUE) {
+      return NONE;
+    }
+    return ceiling(bits, e + 1);
   }
 
-  private boolean containsAllNonThrowing(Collection<?> c) {
-    return containsAllNonThrowing(this.values, c);
+  @Override
+  public Integer floor(Integer e) {
+    return boxOrNull(floor(this.values, e));
   }
 
-  static boolean containsAllNonThrowing(long bits, Collection<?> c) {
-    // avoids exceptions in the case of null or anything but Integer
-    for (Object each : c) {
-      if (!(each instanceof Integer)) {
-        return false;
-      }
-      if (!isSet(bits, (Integer) each)) {
-        return false;
-      }
-    }
-    return true;
+  @Override
+  public int floorInt(int e) {
+    return floor(this.values, e);
   }
 
-  @Override
-  public boolean addAll(Collection<? extends Integer> c) {
-    if (c instanceof SmallIntegerSet) {
-      return this.addAll((SmallIntegerSet) c);
+  static int floor(long bits, int e) {
+    if (e < MIN_VALUE) {
+      return NONE;
     }
-    if (c instanceof SmallIntegerSubSet) {
-      return this.addAll((SmallIntegerSubSet) c);
+    // 2L << 63 is 0 so the mask becomes -1
+    long masked = e >= MAX_VALUE ? bits : bits & ((2L << e) - 1L);
+    if (masked == 0L) {
+      return NONE;
     }
-    return this.addAllGeneric(c);
+    return MAX_VALUE - Long.numberOfLeadingZeros(masked);
   }
 
-  private boolean addAllGeneric(Collection<? extends Integer> c) {
-    boolean changed = false;
-    for (Integer each : c) {
-      changed |= this.add(each);
-    }
-    return changed;
+  @Override
+  public Integer lower(Integer e) {
+    return boxOrNull(lower(this.values, e));
   }
 
-  private boolean addAll(SmallIntegerSet other) {
-    return this.addAll(other.values);
+  @Override
+  public int lowerInt(int e) {
+    return lower(this.values, e);
   }
 
-  private boolean addAll(SmallIntegerSubSet other) {
-    return this.addAll(other.bits());
+  static int lower(long bits, int e) {
+    if (e <= MIN_VALUE) {
+      return NONE;
+    }
+    return floor(bits, e - 1);
   }
 
-  boolean addAll(long bits) {
-    long before = this.values;
-    this.values |= bits;
-    return before != this.values;
+  static Integer boxOrNull(int i) {
+    if (i == NONE) {
+      return null;
+    }
+    return i;
   }
 
   @Override
-  public boolean retainAll(Collection<?> c) {
-    if (c instanceof SmallIntegerSet) {
-      return this.retainAll((SmallIntegerSet) c);
-    }
-    if (c instanceof SmallIntegerSubSet) {
-      return this.retainAll((SmallIntegerSubSet) c);
+  public Integer pollFirst() {
+    long bits = this.values;
+    if (bits == 0L) {
+      return null;
     }
-    return this.retainAllGeneric(c);
+    this.values = bits & (bits - 1L);
+    return Long.numberOfTrailingZeros(bits) + MIN_VALUE;
   }
 
-  private boolean retainAllGeneric(Collection<?> c) {
-    boolean modified = false;
-    for (int i = MIN_VALUE; i <= MAX_VALUE; ++i) {
-      if (this.isSetNoCheck(i) && !c.contains(i)) {
-        this.unsetNoCheck(i);
-        modified = true;
-      }
+  @Override
+  public Integer pollLast() {
+    long bits = this.values;
+    if (bits == 0L) {
+      return null;
     }
-    return modified;
-  }
-
-  private boolean retainAll(SmallIntegerSubSet other) {
-    return this.retainAll(other.bits());
+    this.values = bits & ~Long.highestOneBit(bits);
+    return MAX_VALUE - Long.numberOfLeadingZeros(bits);
   }
 
-  private boolean retainAll(SmallIntegerSet other) {
-    return this.retainAll(other.values);
+  @Override
+  public NavigableSet<Integer> descendingSet() {
+    return new DescendingIntegerSet(this);
   }
 
-  boolean retainAll(long bits) {
-    long before = this.values;
-    this.values &= bits;
-    return before != this.values;
+  /**
+   * Returns an unmodifiable view of this set.
+   *
+   * <p>Unlike {@link java.util.Collections#unmodifiableSet(Set)} the
+   * returned view still takes the constant time paths of bulk operations
+   * like {@link #addAll(Collection)} or {@link #equals(Object)}. Range
+   * views of the returned view are unmodifiable as well.</p>
+   *
+   * @return an unmodifiable view of this set
+   */
+  public IntNavigableSet asUnmodifiable() {
+    return new UnmodifiableSmallIntegerSet(this);
   }
 
   @Override
-  public boolean removeAll(Collection<?> c) {
-    if (c instanceof SmallIntegerSet) {
-      return this.removeAll((SmallIntegerSet) c);
-    }
-    if (c instanceof SmallIntegerSubSet) {
-      return this.removeAll((SmallIntegerSubSet) c);
-    }
-    return this.removeAllGeneric(c);
+  public PrimitiveIterator.OfInt descendingIterator() {
+    return new SmallIntegerSetDescendingIterator();
   }
 
-  private boolean removeAllGeneric(Collection<?> c) {
-    boolean changed = false;
-    // TODO check size, iterate over other
-    for (Object each : c) {
-      changed |= this.remove(each);
+  /**
+   * Returns the element with the given index in ascending order.
+   *
+   * <p>Runs in constant time.</p>
+   *
+   * @param k the zero based index of the element
+   * @return the {@code k}th smallest element
+   * @throws IndexOutOfBoundsException if {@code k} is negative or not less
+   *  than {@link #size()}
+   * @see #rank(int)
+   */
+  public int select(int k) {
+    long bits = this.values;
+    if (k < 0 || k >= size(bits)) {
+      throw new IndexOutOfBoundsException("k: " + k + ", size: " + size(bits));
     }
-    return changed;
+    return select(bits, k);
   }
 
-  private boolean removeAll(SmallIntegerSet other) {
-    return this.removeAll(other.values);
+  /**
+   * Returns the number of elements smaller than a value.
+   *
+   * <p>For an element this is its zero based index in ascending order.
+   * Runs in constant time.</p>
+   *
+   * @param i the value, does not have to be contained
+   * @return the number of elements less than {@code i}
+   * @see #select(int)
+   */
+  public int rank(int i) {
+    return rank(this.values, i);
   }
 
-  private boolean removeAll(SmallIntegerSubSet other) {
-    return this.removeAll(other.bits());
+  static int rank(long bits, int i) {
+    if (i <= MIN_VALUE) {
+      return 0;
+    }
+    if (i > MAX_VALUE) {
+      return size(bits);
+    }
+    return Long.bitCount(bits & ((1L << i) - 1L));
   }
 
-  boolean removeAll(long bits) {
-    long before = this.values;
-    this.values &= ~bits;
-    return before != this.values;
+  /**
+   * Returns the index of the set bit with the given rank.
+   *
+   * <p>Broadword select, computes the cumulative popcount of every byte in
+   * parallel, finds the byte containing the bit with SWAR compares and
+   * looks up the bit inside the byte in {@link #SELECT_IN_BYTE}.</p>
+   *
+   * @param bits the bits to search, must have more than {@code k} bits set
+   * @param k the zero based rank of the bit to find
+   * @return the index of the {@code k}th lowest set bit
+   */
+  static int select(long bits, int k) {
+    long byteCounts = bits - ((bits >>> 1) & 0x5555555555555555L);
+    byteCounts = (byteCounts & 0x3333333333333333L) + ((byteCounts >>> 2) & 0x3333333333333333L);
+    byteCounts = (byteCounts + (byteCounts >>> 4)) & 0x0F0F0F0F0F0F0F0FL;
+    // byte i holds the number of bits set in bytes 0 to i, at most 64
+    long byteSums = byteCounts * 0x0101010101010101L;
+    // high bit of byte i set if byteSums[i] <= k
+    long lessOrEqual = (((k * 0x0101010101010101L) | 0x8080808080808080L) - byteSums) & 0x8080808080808080L;
+    int place = Long.bitCount(lessOrEqual) << 3;
+    int byteRank = k - (int) (((byteSums << 8) >>> place) & 0xFFL);
+    return place + SELECT_IN_BYTE[(int) ((bits >>> place) & 0xFFL) | (byteRank << 8)];
+  }
+
+  private static byte[] selectInByte() {
+    // index is byte | rank << 8
+    byte[] table = new byte[8 * 256];
+    for (int b = 0; b < 256; b++) {
+      int remaining = b;
+      for (int rank = 0; remaining != 0; rank++) {
+        table[b | (rank << 8)] = (byte) Integer.numberOfTrailingZeros(remaining);
+        remaining &= remaining - 1;
+      }
+    }
+    return table;
   }
 
-  @Override
-  public void clear() {
+  /**
+   * Returns an unmodifiable, random access {@link List} view of this set in
+   * ascending order.
+   *
+   * <p>{@link List#get(int)} and {@link List#indexOf(Object)} run in
+   * constant time using {@link #select(int)} and {@link #rank(int)}.
+   * Changes to this set are visible in the list.</p>
+   *
+   * @return a list view of this set
+   */
+  public List<Integer> asList() {
+    return new SmallIntegerList(this, -1L);
+  }
+
+  /**
+   * Returns a uniformly distributed random element.
+   *
+   * <p>Draws a single random index and uses {@link #select(int)}, runs in
+   * constant time.</p>
+   *
+   * @param random the source of randomness, not {@code null}
+   * @return a random element of this set
+   * @throws NoSuchElementException if this set is empty
+   */
+  public int randomElement(Random random) {
+    long bits = this.values;
+    if (bits == 0L) {
+      throw new NoSuchElementException();
+    }
+    return select(bits, random.nextInt(size(bits)));
+  }
+
+  @Override
+  public boolean add(Integer e) {
+    return this.set(e);
+  }
+
+  @Override
+  public boolean addInt(int i) {
+    return this.set(i);
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    return this.unset((Integer) o);
+  }
+
+  @Override
+  public boolean removeInt(int i) {
+    return this.unset(i);
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> c) {
+    if (c instanceof SmallIntegerBits) {
+      return this.containsAll(((SmallIntegerBits) c).toBits());
+    }
+    return this.containsAllGeneric(c);
+  }
+
+  private boolean containsAllGeneric(Collection<?> c) {
+    // can't check for size because Collection could be a List
+    // would have to check for Set and size
+    for (Object each : c) {
+      if (!this.contains(each)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether this set contains all the elements of a {@link BitSet}.
+   *
+   * <p>Like {@link #containsAll(Collection)} but compares whole words
+   * instead of individual elements.</p>
+   *
+   * @param bitSet the elements to check, not {@code null}
+   * @return {@code true} if this set contains all the elements of
+   *  {@code bitSet}
+   */
+  public boolean containsAll(BitSet bitSet) {
+    return bitSet.length() <= Long.SIZE && this.containsAll(lowBits(bitSet));
+  }
+
+  private boolean containsAll(long bits) {
+    return containsAll(this.values, bits);
+  }
+
+  static boolean containsAll(long thisBits, long otherBits) {
+    return (thisBits & otherBits) == otherBits;
+  }
+
+  private boolean containsAllNonThrowing(Collection<?> c) {
+    return containsAllNonThrowing(this.values, c);
+  }
+
+  static boolean containsAllNonThrowing(long bits, Collection<?> c) {
+    // avoids exceptions in the case of null or anything but Integer
+    for (Object each : c) {
+      if (!(each instanceof Integer)) {
+        return false;
+      }
+      if (!isSet(bits, (Integer) each)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Integer> c) {
+    if (c instanceof SmallIntegerBits) {
+      return this.addAll(((SmallIntegerBits) c).toBits());
+    }
+    return this.addAllGeneric(c);
+  }
+
+  private boolean addAllGeneric(Collection<? extends Integer> c) {
+    boolean changed = false;
+    for (Integer each : c) {
+      changed |= this.add(each);
+    }
+    return changed;
+  }
+
+  /**
+   * Adds all the elements of a {@link BitSet} to this set.
+   *
+   * <p>Like {@link #addAll(Collection)} but adds whole words instead of
+   * individual elements.</p>
+   *
+   * @param bitSet the elements to add, not {@code null}
+   * @return {@code true} if this set changed as a result of the call
+   * @throws IllegalArgumentException if {@code bitSet} contains an element
+   *  that is not supported by this set class
+   */
+  public boolean addAll(BitSet bitSet) {
+    return this.addAll(bits(bitSet));
+  }
+
+  boolean addAll(long bits) {
+    long before = this.values;
+    this.values |= bits;
+    return before != this.values;
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    if (c instanceof SmallIntegerBits) {
+      return this.retainAll(((SmallIntegerBits) c).toBits());
+    }
+    return this.retainAllGeneric(c);
+  }
+
+  private boolean retainAllGeneric(Collection<?> c) {
+    return this.removeAll(matching(this.values, i -> !c.contains(i)));
+  }
+
+  /**
+   * Retains only the elements of this set that are contained in a
+   * {@link BitSet}.
+   *
+   * <p>Like {@link #retainAll(Collection)} but retains whole words instead
+   * of individual elements.</p>
+   *
+   * @param bitSet the elements to retain, not {@code null}
+   * @return {@code true} if this set changed as a result of the call
+   */
+  public boolean retainAll(BitSet bitSet) {
+    return this.retainAll(lowBits(bitSet));
+  }
+
+  boolean retainAll(long bits) {
+    long before = this.values;
+    this.values &= bits;
+    return before != this.values;
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    if (c instanceof SmallIntegerBits) {
+      return this.removeAll(((SmallIntegerBits) c).toBits());
+    }
+    return this.removeAllGeneric(c);
+  }
+
+  private boolean removeAllGeneric(Collection<?> c) {
+    boolean changed = false;
+    // TODO check size, iterate over other
+    for (Object each : c) {
+      changed |= this.remove(each);
+    }
+    return changed;
+  }
+
+  /**
+   * Removes all the elements of a {@link BitSet} from this set.
+   *
+   * <p>Like {@link #removeAll(Collection)} but removes whole words instead
+   * of individual elements.</p>
+   *
+   * @param bitSet the elements to remove, not {@code null}
+   * @return {@code true} if this set changed as a result of the call
+   */
+  public boolean removeAll(BitSet bitSet) {
+    return this.removeAll(lowBits(bitSet));
+  }
+
+  boolean removeAll(long bits) {
+    long before = this.values;
+    this.values &= ~bits;
+    return before != this.values;
+  }
+
+  @Override
+  public void clear() {
     this.values = 0;
   }
 
@@ -611,38 +1173,24 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
   static String toStringNotEmpty(long bits) {
     StringBuilder builder = new StringBuilder(estimateToStringSize(bits));
     builder.append('[');
-    boolean first = true;
-    for (int i = MIN_VALUE; i <= MAX_VALUE; ++i) {
-      if (isSetNoCheck(bits, i)) {
-        if (!first) {
-          builder.append(',').append(' ');
-        } else {
-          first = false;
-        }
-        builder.append(i);
-      }
+    long remaining = bits;
+    builder.append(Long.numberOfTrailingZeros(remaining) + MIN_VALUE);
+    remaining &= remaining - 1L;
+    while (remaining != 0L) {
+      builder.append(',').append(' ');
+      builder.append(Long.numberOfTrailingZeros(remaining) + MIN_VALUE);
+      remaining &= remaining - 1L;
     }
     builder.append(']');
     return builder.toString();
   }
 
   private static int estimateToStringSize(long bits) {
+    int size = size(bits);
     int toStringSize = 2; // []
-    boolean first = true;
-    for (int i = MIN_VALUE; i <= MAX_VALUE; ++i) {
-      if (isSetNoCheck(bits, i)) {
-        if (!first) {
-          toStringSize += 2; // ", "
-        } else {
-          first = false;
-        }
-        if (i < 10) {
-          toStringSize += 1;
-        } else {
-          toStringSize += 2;
-        }
-      }
-    }
+    toStringSize += (size - 1) * 2; // ", "
+    toStringSize += size; // one digit for every element
+    toStringSize += Long.bitCount(bits & TWO_DIGITS); // second digit for 10 and above
     return toStringSize;
   }
 
@@ -654,13 +1202,15 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
   static int hashCode(long bits) {
     // took contract form AbstractSet, has to produce the same results
     // as unordered sets
-    int hashCode = 0;
-    for (int i = MIN_VALUE; i <= MAX_VALUE; ++i) {
-      if (isSetNoCheck(bits, i)) {
-        hashCode += i;
-      }
-    }
-    return hashCode;
+    // the sum of all indices is the sum over every bit k of the indices
+    // weighted by 2^k, so count how many elements have bit k set
+    return Long.bitCount(bits & INDEX_BIT_0)
+            + (Long.bitCount(bits & INDEX_BIT_1) << 1)
+            + (Long.bitCount(bits & INDEX_BIT_2) << 2)
+            + (Long.bitCount(bits & INDEX_BIT_3) << 3)
+            + (Long.bitCount(bits & INDEX_BIT_4) << 4)
+            + (Long.bitCount(bits & INDEX_BIT_5) << 5)
+            + MIN_VALUE * size(bits);
   }
 
   @Override
@@ -671,11 +1221,8 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
     if (!(obj instanceof Set)) {
       return false;
     }
-    if (obj instanceof SmallIntegerSet) {
-      return this.values == ((SmallIntegerSet) obj).values;
-    }
-    if (obj instanceof SmallIntegerSubSet) {
-      return this.values == ((SmallIntegerSubSet) obj).bits();
+    if (obj instanceof SmallIntegerBits) {
+      return this.values == ((SmallIntegerBits) obj).toBits();
     }
 
     Set<?> other = (Set<?>) obj;
@@ -702,25 +1249,189 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
     }
   }
 
-  abstract static class AbstractIntegerSetSpliterator implements Spliterator<Integer> {
+  private Object writeReplace() {
+    return new Ser(Ser.SMALL_INTEGER_SET, this.values);
+  }
+
+  /**
+   * Creates a new set containing the elements contained in either of the
+   * given collections.
+   *
+   * @param a the first collection, not {@code null}
+   * @param b the second collection, not {@code null}
+   * @return a new set containing the union of {@code a} and {@code b}
+   * @throws IllegalArgumentException if any of the collections contains an
+   *  element that is not supported by this set class
+   * @throws NullPointerException if any of the collections contains
+   *  {@code null}
+   */
+  public static SmallIntegerSet union(Collection<? extends Integer> a, Collection<? extends Integer> b) {
+    return new SmallIntegerSet(bits(a) | bits(b));
+  }
+
+  /**
+   * Creates a new set containing the elements contained in both of the
+   * given collections.
+   *
+   * @param a the first collection, not {@code null}
+   * @param b the second collection, not {@code null}
+   * @return a new set containing the intersection of {@code a} and {@code b}
+   * @throws IllegalArgumentException if any of the collections contains an
+   *  element that is not supported by this set class
+   * @throws NullPointerException if any of the collections contains
+   *  {@code null}
+   */
+  public static SmallIntegerSet intersection(Collection<? extends Integer> a, Collection<? extends Integer> b) {
+    return new SmallIntegerSet(bits(a) & bits(b));
+  }
+
+  /**
+   * Creates a new set containing the elements contained in the first but
+   * not in the second collection.
+   *
+   * @param a the first collection, not {@code null}
+   * @param b the second collection, not {@code null}
+   * @return a new set containing the elements of {@code a} that are not
+   *  contained in {@code b}
+   * @throws IllegalArgumentException if any of the collections contains an
+   *  element that is not supported by this set class
+   * @throws NullPointerException if any of the collections contains
+   *  {@code null}
+   */
+  public static SmallIntegerSet difference(Collection<? extends Integer> a, Collection<? extends Integer> b) {
+    return new SmallIntegerSet(bits(a) & ~bits(b));
+  }
+
+  /**
+   * Creates a new set containing the elements contained in exactly one of
+   * the given collections.
+   *
+   * @param a the first collection, not {@code null}
+   * @param b the second collection, not {@code null}
+   * @return a new set containing the elements contained in either {@code a}
+   *  or {@code b} but not in both
+   * @throws IllegalArgumentException if any of the collections contains an
+   *  element that is not supported by this set class
+   * @throws NullPointerException if any of the collections contains
+   *  {@code null}
+   */
+  public static SmallIntegerSet symmetricDifference(Collection<? extends Integer> a, Collection<? extends Integer> b) {
+    return new SmallIntegerSet(bits(a) ^ bits(b));
+  }
+
+  /**
+   * Creates a new set containing all the elements between
+   * {@value #MIN_VALUE} and {@value #MAX_VALUE} that are not contained in
+   * the given collection.
+   *
+   * @param a the collection, not {@code null}
+   * @return a new set containing the complement of {@code a}
+   * @throws IllegalArgumentException if the collection contains an
+   *  element that is not supported by this set class
+   * @throws NullPointerException if the collection contains {@code null}
+   */
+  public static SmallIntegerSet complement(Collection<? extends Integer> a) {
+    return new SmallIntegerSet(~bits(a));
+  }
+
+  /**
+   * Checks if the given collections have at least one element in common.
+   *
+   * @param a the first collection, not {@code null}
+   * @param b the second collection, not {@code null}
+   * @return {@code true} if there is at least one element contained in both
+   *  {@code a} and {@code b}
+   * @throws IllegalArgumentException if any of the collections contains an
+   *  element that is not supported by this set class
+   * @throws NullPointerException if any of the collections contains
+   *  {@code null}
+   */
+  public static boolean intersects(Collection<? extends Integer> a, Collection<? extends Integer> b) {
+    return (bits(a) & bits(b)) != 0L;
+  }
+
+  /**
+   * Checks if the given collections have no elements in common.
+   *
+   * @param a the first collection, not {@code null}
+   * @param b the second collection, not {@code null}
+   * @return {@code true} if there is no element contained in both
+   *  {@code a} and {@code b}
+   * @throws IllegalArgumentException if any of the collections contains an
+   *  element that is not supported by this set class
+   * @throws NullPointerException if any of the collections contains
+   *  {@code null}
+   */
+  public static boolean isDisjoint(Collection<? extends Integer> a, Collection<? extends Integer> b) {
+    return (bits(a) & bits(b)) == 0L;
+  }
+
+  static long bits(Collection<? extends Integer> c) {
+    if (c instanceof SmallIntegerBits) {
+      return ((SmallIntegerBits) c).toBits();
+    }
+    return bitsGeneric(c);
+  }
+
+  static long bits(BitSet bitSet) {
+    if (bitSet.length() > MAX_VALUE + 1) {
+      throw new IllegalArgumentException();
+    }
+    return lowBits(bitSet);
+  }
+
+  /**
+   * Returns the elements of a {@link BitSet} that are supported by this set
+   * class.
+   */
+  static long lowBits(BitSet bitSet) {
+    // avoid copying all words of a large BitSet
+    BitSet low = bitSet.length() > Long.SIZE ? bitSet.get(MIN_VALUE, MAX_VALUE + 1) : bitSet;
+    long[] words = low.toLongArray();
+    return words.length == 0 ? 0L : words[0];
+  }
+
+  private static long bitsGeneric(Collection<? extends Integer> c) {
+    long bits = 0L;
+    for (Integer each : c) {
+      int i = each;
+      checkSupported(i);
+      bits |= 1L << i;
+    }
+    return bits;
+  }
+
+  /**
+   * Spliterator over the elements of a set at the time of creation.
+   */
+  static final class IntegerSetSpliterator implements Spliterator.OfInt {
+
+    static final int CHARACTERISTICS = SIZED | SUBSIZED | DISTINCT | SORTED | ORDERED | NONNULL;
 
     /**
-     * Marks the end of the iteration has been reached.
+     * The elements not yet traversed.
      */
-    private static final int END = -1;
+    private long bits;
 
     /**
-     * Index of the next read, {@value #END} means end reached.
+     * The element represented by the lowest bit.
      */
-    private int nextIndex;
+    private final int base;
+
+    IntegerSetSpliterator(long bits) {
+      this(bits, MIN_VALUE);
+    }
+
+    IntegerSetSpliterator(long bits, int base) {
+      this.bits = bits;
+      this.base = base;
+    }
 
     @Override
     public int characteristics() {
-      return SIZED | SUBSIZED | DISTINCT | SORTED | ORDERED;
+      return CHARACTERISTICS;
     }
 
-    abstract int bits();
-
     @Override
     public Comparator<? super Integer> getComparator() {
       // natural order
@@ -729,7 +1440,7 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
 
     @Override
     public long estimateSize() {
-      return SmallIntegerSet.size(this.bits());
+      return SmallIntegerSet.size(this.bits);
     }
 
     @Override
@@ -738,26 +1449,43 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
     }
 
     @Override
-    public boolean tryAdvance(Consumer<? super Integer> action) {
-      // TODO Auto-generated method stub
-      return false;
+    public boolean tryAdvance(IntConsumer action) {
+      long remaining = this.bits;
+      if (remaining == 0L) {
+        return false;
+      }
+      this.bits = remaining & (remaining - 1L);
+      action.accept(Long.numberOfTrailingZeros(remaining) + this.base);
+      return true;
     }
 
     @Override
-    public Spliterator<Integer> trySplit() {
-      // TODO Auto-generated method stub
-      return null;
+    public Spliterator.OfInt trySplit() {
+      long remaining = this.bits;
+      int size = SmallIntegerSet.size(remaining);
+      if (size < 2) {
+        return null;
+      }
+      // split at the median element so both halves have the same size
+      long prefix = remaining & ((1L << select(remaining, size / 2)) - 1L);
+      this.bits = remaining & ~prefix;
+      return new IntegerSetSpliterator(prefix, this.base);
     }
 
     @Override
-    public void forEachRemaining(Consumer<? super Integer> action) {
-      // TODO Auto-generated method stub
-      Spliterator.super.forEachRemaining(action);
+    public void forEachRemaining(IntConsumer action) {
+      long remaining = this.bits;
+      this.bits = 0L;
+      int base = this.base;
+      while (remaining != 0L) {
+        action.accept(Long.numberOfTrailingZeros(remaining) + base);
+        remaining &= remaining - 1L;
+      }
     }
 
   }
 
-  abstract static class AbstractIntegerSetIterator implements Iterator<Integer> {
+  abstract static class AbstractIntegerSetIterator implements PrimitiveIterator.OfInt {
 
     /**
      * Marks the end of the iteration has been reached.
@@ -781,10 +1509,9 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
 
     AbstractIntegerSetIterator() {
       this.nextIndex = this.findNextIndex(0);
+      this.removeIndex = NO_REMOVE;
     }
 
-    abstract boolean isSetNoCheck(int i);
-
     abstract void unsetNoCheck(int i);
 
     private int findNextIndex(int startIndex) {
@@ -813,16 +1540,21 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
     }
 
     @Override
-    public Integer next() {
+    public int nextInt() {
       if (!this.hasNext()) {
         throw new NoSuchElementException();
       }
-      this.removeIndex = nextIndex;
-      Integer next = nextIndex;
-      this.nextIndex = this.findNextIndex(this.nextIndex + 1);
+      int next = this.nextIndex;
+      this.removeIndex = next;
+      this.nextIndex = this.findNextIndex(next + 1);
       return next;
     }
 
+    @Override
+    public Integer next() {
+      return this.nextInt();
+    }
+
     @Override
     public void remove() {
       if (this.removeIndex == NO_REMOVE) {
@@ -837,12 +1569,18 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
       if (!this.hasNext()) {
         return;
       }
-      for (int i = this.nextIndex; i <= MAX_VALUE; ++i) {
-        if (this.isSetNoCheck(i)) {
-          // an exception will prevent nextIndex from being updated
-          action.accept(i);
-        }
+      // an exception will prevent nextIndex from being updated
+      SmallIntegerSet.forEach(this.bits() & (-1L << this.nextIndex), action);
+      this.nextIndex = END;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      if (!this.hasNext()) {
+        return;
       }
+      // an exception will prevent nextIndex from being updated
+      SmallIntegerSet.forEachInt(this.bits() & (-1L << this.nextIndex), action);
       this.nextIndex = END;
     }
 
@@ -851,10 +1589,98 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
   final class SmallIntegerSetIterator extends AbstractIntegerSetIterator {
 
     @Override
-    boolean isSetNoCheck(int i) {
-      return SmallIntegerSet.this.isSetNoCheck(i);
+    void unsetNoCheck(int i) {
+      SmallIntegerSet.this.unsetNoCheck(i);
+    }
+
+    @Override
+    long bits() {
+      return SmallIntegerSet.this.values;
+    }
+
+  }
+
+  abstract static class AbstractDescendingIntegerSetIterator implements PrimitiveIterator.OfInt {
+
+    /**
+     * Marks the end of the iteration has been reached.
+     */
+    private static final int END = NONE;
+
+    /**
+     * Marks the remove index as unusable.
+     */
+    private static final int NO_REMOVE = -1;
+
+    /**
+     * Index of the next read, {@value #END} means end reached.
+     */
+    private int nextIndex;
+
+    /**
+     * Index of the next remove, {@value #NO_REMOVE} means no remove possible.
+     */
+    private int removeIndex;
+
+    AbstractDescendingIntegerSetIterator() {
+      this.nextIndex = floor(this.bits(), MAX_VALUE);
+      this.removeIndex = NO_REMOVE;
+    }
+
+    abstract void unsetNoCheck(int i);
+
+    abstract long bits();
+
+    @Override
+    public boolean hasNext() {
+      return this.nextIndex != END;
+    }
+
+    @Override
+    public int nextInt() {
+      if (!this.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int next = this.nextIndex;
+      this.removeIndex = next;
+      this.nextIndex = lower(this.bits(), next);
+      return next;
+    }
+
+    @Override
+    public Integer next() {
+      return this.nextInt();
+    }
+
+    @Override
+    public void remove() {
+      if (this.removeIndex == NO_REMOVE) {
+        throw new IllegalStateException();
+      }
+      this.unsetNoCheck(this.removeIndex);
+      this.removeIndex = NO_REMOVE;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      if (!this.hasNext()) {
+        return;
+      }
+      // 2L << 63 is 0 so the mask becomes -1
+      long remaining = this.bits() & ((2L << this.nextIndex) - 1L);
+      // an exception will prevent nextIndex from being updated
+      while (remaining != 0L) {
+        long highestOneBit = Long.highestOneBit(remaining);
+        action.accept(Long.numberOfTrailingZeros(highestOneBit) + MIN_VALUE);
+        remaining ^= highestOneBit;
+      }
+      this.nextIndex = END;
     }
 
+  }
+
+  final class SmallIntegerSetDescendingIterator extends AbstractDescendingIntegerSetIterator {
+
     @Override
     void unsetNoCheck(int i) {
       SmallIntegerSet.this.unsetNoCheck(i);
@@ -867,9 +1693,15 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
 
   }
 
-  final class SmallIntegerSubSet implements SortedSet<Integer>, Cloneable {
-
-    // TODO removeIf
+  /**
+   * A range view of the set.
+   *
+   * <p>The view is a single mask over {@link SmallIntegerSet#values}.
+   * Range views of range views intersect the masks instead of wrapping
+   * the view so that no matter how deeply nested every operation is a
+   * single {@code values & mask}.</p>
+   */
+  final class SmallIntegerSubSet implements IntNavigableSet, SmallIntegerBits, Cloneable {
 
     final long mask;
 
@@ -886,6 +1718,11 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
       return values & this.mask;
     }
 
+    @Override
+    public long toBits() {
+      return this.bits();
+    }
+
     private boolean isSupported(int i) {
       return SmallIntegerSet.isSupported(this.mask, i);
     }
@@ -911,8 +1748,14 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
       return SmallIntegerSet.this.add(e);
     }
 
-    void checkSupported(Integer e) {
-      if (!this.isSupported(e)) {
+    @Override
+    public boolean addInt(int i) {
+      this.checkSupported(i);
+      return SmallIntegerSet.this.set(i);
+    }
+
+    void checkSupported(int i) {
+      if (!this.isSupported(i)) {
         throw new IllegalArgumentException();
       }
     }
@@ -925,6 +1768,14 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
       return SmallIntegerSet.this.remove(o);
     }
 
+    @Override
+    public boolean removeInt(int i) {
+      if (!this.isSupported(i)) {
+        return false;
+      }
+      return SmallIntegerSet.this.unset(i);
+    }
+
     @Override
     public boolean isEmpty() {
       return SmallIntegerSet.isEmpty(this.bits());
@@ -941,7 +1792,7 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
       if (SmallIntegerSet.isEmpty(bits)) {
         return "[]";
       }
-      return SmallIntegerSet.toStringNotEmpty(this.bits());
+      return SmallIntegerSet.toStringNotEmpty(bits);
     }
 
     @Override
@@ -955,30 +1806,121 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
     }
 
     @Override
-    public SortedSet<Integer> subSet(Integer fromElement, Integer toElement) {
-      this.checkSupported(fromElement);
-      this.checkSupported(toElement - 1);
-      return SmallIntegerSet.this.subSet(fromElement, toElement);
+    public int[] toIntArray() {
+      return SmallIntegerSet.toIntArray(this.bits());
+    }
+
+    @Override
+    public IntNavigableSet subSet(Integer fromElement, Integer toElement) {
+      return this.subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public IntNavigableSet headSet(Integer toElement) {
+      return this.headSet(toElement, false);
+    }
+
+    @Override
+    public IntNavigableSet tailSet(Integer fromElement) {
+      return this.tailSet(fromElement, true);
+    }
+
+    @Override
+    public IntNavigableSet subSet(Integer fromElement, boolean fromInclusive, Integer toElement, boolean toInclusive) {
+      checkRange(fromElement, toElement);
+      long startInclusive = fromInclusive ? fromElement : fromElement + 1L;
+      long endInclusive = toInclusive ? toElement : toElement - 1L;
+      return new SmallIntegerSubSet(rangeMask(this.mask, startInclusive, endInclusive));
+    }
+
+    @Override
+    public IntNavigableSet headSet(Integer toElement, boolean inclusive) {
+      if (this.mask == 0L) {
+        // empty range
+        return this;
+      }
+      long endInclusive = inclusive ? toElement : toElement - 1L;
+      return new SmallIntegerSubSet(rangeMask(this.mask, SmallIntegerSet.first(this.mask), endInclusive));
+    }
+
+    @Override
+    public IntNavigableSet tailSet(Integer fromElement, boolean inclusive) {
+      if (this.mask == 0L) {
+        // empty range
+        return this;
+      }
+      long startInclusive = inclusive ? fromElement : fromElement + 1L;
+      return new SmallIntegerSubSet(rangeMask(this.mask, startInclusive, SmallIntegerSet.last(this.mask)));
+    }
+
+    @Override
+    public Integer ceiling(Integer e) {
+      return boxOrNull(SmallIntegerSet.ceiling(this.bits(), e));
+    }
+
+    @Override
+    public int ceilingInt(int e) {
+      return SmallIntegerSet.ceiling(this.bits(), e);
+    }
+
+    @Override
+    public Integer higher(Integer e) {
+      return boxOrNull(SmallIntegerSet.higher(this.bits(), e));
+    }
+
+    @Override
+    public int higherInt(int e) {
+      return SmallIntegerSet.higher(this.bits(), e);
+    }
+
+    @Override
+    public Integer floor(Integer e) {
+      return boxOrNull(SmallIntegerSet.floor(this.bits(), e));
+    }
+
+    @Override
+    public int floorInt(int e) {
+      return SmallIntegerSet.floor(this.bits(), e);
+    }
+
+    @Override
+    public Integer lower(Integer e) {
+      return boxOrNull(SmallIntegerSet.lower(this.bits(), e));
     }
 
     @Override
-    public SortedSet<Integer> headSet(Integer toElement) {
-      if ((this.mask & 1L) == 1L) {
-        // we're a headSet on the main set
-        return SmallIntegerSet.this.headSet(toElement);
+    public int lowerInt(int e) {
+      return SmallIntegerSet.lower(this.bits(), e);
+    }
+
+    @Override
+    public Integer pollFirst() {
+      long bits = this.bits();
+      if (bits == 0L) {
+        return null;
       }
-      this.checkSupported(toElement - 1);
-      return SmallIntegerSet.this.subSet(SmallIntegerSet.first(this.bits()), toElement);
+      SmallIntegerSet.this.clear(Long.lowestOneBit(bits));
+      return Long.numberOfTrailingZeros(bits) + MIN_VALUE;
     }
 
     @Override
-    public SortedSet<Integer> tailSet(Integer fromElement) {
-      if ((this.mask & Long.MIN_VALUE) == Long.MIN_VALUE) {
-        // we're a tailSet on the main set
-        return SmallIntegerSet.this.tailSet(fromElement);
+    public Integer pollLast() {
+      long bits = this.bits();
+      if (bits == 0L) {
+        return null;
       }
-      this.checkSupported(fromElement);
-      return this.subSet(fromElement, SmallIntegerSet.last(this.bits()) + 1);
+      SmallIntegerSet.this.clear(Long.highestOneBit(bits));
+      return MAX_VALUE - Long.numberOfLeadingZeros(bits);
+    }
+
+    @Override
+    public NavigableSet<Integer> descendingSet() {
+      return new DescendingIntegerSet(this);
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt descendingIterator() {
+      return new SmallIntegerSubSetDescendingIterator();
     }
 
     @Override
@@ -986,18 +1928,49 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
       return SmallIntegerSet.isSet(this.bits(), (Integer) o);
     }
 
+    @Override
+    public boolean containsInt(int i) {
+      return SmallIntegerSet.isSet(this.bits(), i);
+    }
+
     @Override
     public Iterator<Integer> iterator() {
       return new SmallIntegerSubSetIterator();
     }
 
+    @Override
+    public PrimitiveIterator.OfInt intIterator() {
+      return new SmallIntegerSubSetIterator();
+    }
+
+    @Override
+    public IntStream intStream() {
+      // binds late, when the terminal operation starts
+      return StreamSupport.intStream(() -> new IntegerSetSpliterator(this.bits()),
+              IntegerSetSpliterator.CHARACTERISTICS, false);
+    }
+
+    @Override
+    public Spliterator<Integer> spliterator() {
+      return new IntegerSetSpliterator(this.bits());
+    }
+
+    @Override
+    public Stream<Integer> stream() {
+      return StreamSupport.stream(() -> new IntegerSetSpliterator(this.bits()),
+              IntegerSetSpliterator.CHARACTERISTICS, false);
+    }
+
+    @Override
+    public Stream<Integer> parallelStream() {
+      return StreamSupport.stream(() -> new IntegerSetSpliterator(this.bits()),
+              IntegerSetSpliterator.CHARACTERISTICS, true);
+    }
+
     @Override
     public boolean containsAll(Collection<?> c) {
-      if (c instanceof SmallIntegerSet) {
-        return this.containsAll((SmallIntegerSet) c);
-      }
-      if (c instanceof SmallIntegerSubSet) {
-        return this.containsAll((SmallIntegerSubSet) c);
+      if (c instanceof SmallIntegerBits) {
+        return this.containsAll(((SmallIntegerBits) c).toBits());
       }
       return this.containsAllGeneric(c);
     }
@@ -1013,21 +1986,14 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
       return true;
     }
 
-    private boolean containsAll(SmallIntegerSet other) {
-      return SmallIntegerSet.containsAll(this.bits(), other.values);
-    }
-
-    private boolean containsAll(SmallIntegerSubSet other) {
-      return SmallIntegerSet.containsAll(this.bits(), other.bits());
+    private boolean containsAll(long bits) {
+      return SmallIntegerSet.containsAll(this.bits(), bits);
     }
 
     @Override
     public boolean removeAll(Collection<?> c) {
-      if (c instanceof SmallIntegerSet) {
-        return this.removeAll((SmallIntegerSet) c);
-      }
-      if (c instanceof SmallIntegerSubSet) {
-        return this.removeAll((SmallIntegerSubSet) c);
+      if (c instanceof SmallIntegerBits) {
+        return this.removeAll(((SmallIntegerBits) c).toBits());
       }
       return this.removeAllGeneric(c);
     }
@@ -1041,21 +2007,14 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
       return changed;
     }
 
-    private boolean removeAll(SmallIntegerSet other) {
-      return SmallIntegerSet.this.removeAll(other.values & this.mask);
-    }
-
-    private boolean removeAll(SmallIntegerSubSet other) {
-      return SmallIntegerSet.this.removeAll(other.bits() & this.mask);
+    private boolean removeAll(long bits) {
+      return SmallIntegerSet.this.removeAll(bits & this.mask);
     }
 
     @Override
     public boolean addAll(Collection<? extends Integer> c) {
-      if (c instanceof SmallIntegerSet) {
-        return this.addAll((SmallIntegerSet) c);
-      }
-      if (c instanceof SmallIntegerSubSet) {
-        return this.addAll((SmallIntegerSubSet) c);
+      if (c instanceof SmallIntegerBits) {
+        return this.addAll(((SmallIntegerBits) c).toBits());
       }
       return this.addAllGeneric(c);
     }
@@ -1068,16 +2027,7 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
       return changed;
     }
 
-    private boolean addAll(SmallIntegerSet other) {
-      long bits = other.values;
-      if ((bits & this.mask) != bits) {
-        throw new IllegalArgumentException();
-      }
-      return SmallIntegerSet.this.addAll(bits);
-    }
-
-    private boolean addAll(SmallIntegerSubSet other) {
-      long bits = other.bits();
+    private boolean addAll(long bits) {
       if ((bits & this.mask) != bits) {
         throw new IllegalArgumentException();
       }
@@ -1086,33 +2036,18 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
 
     @Override
     public boolean retainAll(Collection<?> c) {
-      if (c instanceof SmallIntegerSet) {
-        return this.retainAll((SmallIntegerSet) c);
-      }
-      if (c instanceof SmallIntegerSubSet) {
-        return this.retainAll((SmallIntegerSubSet) c);
+      if (c instanceof SmallIntegerBits) {
+        return this.retainAll(((SmallIntegerBits) c).toBits());
       }
       return this.retainAllGeneric(c);
     }
 
     private boolean retainAllGeneric(Collection<?> c) {
-      boolean modified = false;
-      long bits = this.bits();
-      for (int i = MIN_VALUE; i <= MAX_VALUE; ++i) {
-        if (SmallIntegerSet.isSetNoCheck(bits, i) && !c.contains(i)) {
-          SmallIntegerSet.this.unsetNoCheck(i);
-          modified = true;
-        }
-      }
-      return modified;
-    }
-
-    private boolean retainAll(SmallIntegerSubSet other) {
-      return SmallIntegerSet.this.retainAll(other.bits() | ~this.mask);
+      return SmallIntegerSet.this.removeAll(matching(this.bits(), i -> !c.contains(i)));
     }
 
-    private boolean retainAll(SmallIntegerSet other) {
-      return SmallIntegerSet.this.retainAll(other.values | ~this.mask);
+    private boolean retainAll(long bits) {
+      return SmallIntegerSet.this.retainAll(bits | ~this.mask);
     }
 
     @Override
@@ -1128,11 +2063,8 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
       if (!(obj instanceof Set)) {
         return false;
       }
-      if (obj instanceof SmallIntegerSet) {
-        return this.bits() == ((SmallIntegerSet) obj).values;
-      }
-      if (obj instanceof SmallIntegerSubSet) {
-        return this.bits() == ((SmallIntegerSubSet) obj).bits();
+      if (obj instanceof SmallIntegerBits) {
+        return this.bits() == ((SmallIntegerBits) obj).toBits();
       }
 
       Set<?> other = (Set<?>) obj;
@@ -1147,13 +2079,37 @@ public final class SmallIntegerSet implements SortedSet<Integer>, Serializable,
       SmallIntegerSet.forEach(this.bits(), action);
     }
 
+    @Override
+    public void forEachInt(IntConsumer action) {
+      SmallIntegerSet.forEachInt(this.bits(), action);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Integer> filter) {
+      return this.removeIfInt(filter::test);
+    }
+
+    @Override
+    public boolean removeIfInt(IntPredicate filter) {
+      return SmallIntegerSet.this.removeAll(matching(this.bits(), filter));
+    }
+
     final class SmallIntegerSubSetIterator extends AbstractIntegerSetIterator {
 
       @Override
-      boolean isSetNoCheck(int i) {
-        return SmallIntegerSet.isSetNoCheck(SmallIntegerSubSet.this.bits(), i);
+      void unsetNoCheck(int i) {
+        SmallIntegerSet.this.unsetNoCheck(i);
       }
 
+      @Override
+      long bits() {
+        return SmallIntegerSubSet.this.bits();
+      }
+
+    }
+
+    final class SmallIntegerSubSetDescendingIterator extends AbstractDescendingIntegerSetIterator {
+
       @Override
       void unsetNoCheck(int i) {
         SmallIntegerSet.this.unsetNoCheck(i);
@@ -0,0 +1,655 @@
+package com.github.marschall.sets;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.github.marschall.sets.SmallIntegerSet.AbstractIntegerSetIterator;
+import com.github.marschall.sets.SmallIntegerSet.IntegerSetSpliterator;
+
+/**
+ * A fixed number of sets for {@link Integer}s between
+ * {@value SmallIntegerSet#MIN_VALUE} and {@value SmallIntegerSet#MAX_VALUE}
+ * stored in a single {@code long[]}.
+ *
+ * <p>Every set, called row, takes exactly eight bytes, there is no object
+ * header per set. This is useful for storing a set per entity for millions
+ * of entities. Iterating over the rows accesses memory linearly.</p>
+ *
+ * <p>The rows are accessed by index with operations like
+ * {@link #add(int, int)}, {@link #contains(int, int)} and
+ * {@link #size(int)}. Rows can be combined with {@link #or(int, int)},
+ * {@link #and(int, int)} and {@link #andNot(int, int)}. A row can be
+ * accessed as a {@link SortedSet} through {@link #row(int)}. The returned
+ * view can be moved to a different row with {@link Row#moveTo(int)} so a
+ * single view can be reused to visit all the rows.</p>
+ *
+ * <p>Operations like {@link #add(int, int)} will throw an
+ * {@link IllegalArgumentException} with a value outside the supported
+ * range. Operations like {@link #remove(int, int)} or
+ * {@link #contains(int, int)} will return {@code false} with a value outside
+ * this range. All operations throw an {@link IndexOutOfBoundsException}
+ * with an invalid row.</p>
+ *
+ * <p>This class is not thread safe.</p>
+ */
+public final class SmallIntegerSetArray implements Serializable, Cloneable {
+
+  private static final long serialVersionUID = 1L;
+
+  private long[] rows;
+
+  /**
+   * Creates a new array of empty sets.
+   *
+   * @param length the number of sets
+   * @throws NegativeArraySizeException if {@code length} is negative
+   */
+  public SmallIntegerSetArray(int length) {
+    this.rows = new long[length];
+  }
+
+  /**
+   * Returns the number of sets in this array.
+   *
+   * @return the number of sets
+   */
+  public int length() {
+    return this.rows.length;
+  }
+
+  /**
+   * Adds a value to a set.
+   *
+   * @param row the index of the set
+   * @param value the value to add
+   * @return {@code true} if the set did not already contain the value
+   * @throws IllegalArgumentException if the value is not supported
+   * @see Set#add(Object)
+   */
+  public boolean add(int row, int value) {
+    checkSupported(-1L, value);
+    long before = this.rows[row];
+    long after = before | (1L << value);
+    this.rows[row] = after;
+    return before != after;
+  }
+
+  /**
+   * Removes a value from a set.
+   *
+   * @param row the index of the set
+   * @param value the value to remove
+   * @return {@code true} if the set contained the value
+   * @see Set#remove(Object)
+   */
+  public boolean remove(int row, int value) {
+    long before = this.rows[row];
+    if (!SmallIntegerSet.isSet(before, value)) {
+      return false;
+    }
+    this.rows[row] = before & ~(1L << value);
+    return true;
+  }
+
+  /**
+   * Checks whether a set contains a value.
+   *
+   * @param row the index of the set
+   * @param value the value to check
+   * @return {@code true} if the set contains the value
+   * @see Set#contains(Object)
+   */
+  public boolean contains(int row, int value) {
+    return SmallIntegerSet.isSet(this.rows[row], value);
+  }
+
+  /**
+   * Returns the number of elements in a set.
+   *
+   * @param row the index of the set
+   * @return the number of elements in the set
+   */
+  public int size(int row) {
+    return SmallIntegerSet.size(this.rows[row]);
+  }
+
+  /**
+   * Checks whether a set is empty.
+   *
+   * @param row the index of the set
+   * @return {@code true} if the set has no elements
+   */
+  public boolean isEmpty(int row) {
+    return this.rows[row] == 0L;
+  }
+
+  /**
+   * Removes all the elements of a set.
+   *
+   * @param row the index of the set
+   */
+  public void clear(int row) {
+    this.rows[row] = 0L;
+  }
+
+  /**
+   * Returns the raw bit representation of a set.
+   *
+   * @param row the index of the set
+   * @return the elements, bit {@code i} is set if {@code i} is contained
+   * @see SmallIntegerSets
+   */
+  public long getBits(int row) {
+    return this.rows[row];
+  }
+
+  /**
+   * Replaces the elements of a set with its raw bit representation.
+   *
+   * @param row the index of the set
+   * @param bits the elements, bit {@code i} is set if {@code i} is contained
+   * @see SmallIntegerSets
+   */
+  public void setBits(int row, long bits) {
+    this.rows[row] = bits;
+  }
+
+  /**
+   * Adds all the elements of one set to another set.
+   *
+   * @param targetRow the index of the set to modify
+   * @param sourceRow the index of the set with the elements to add
+   * @return {@code true} if the target set changed
+   * @see Set#addAll(Collection)
+   */
+  public boolean or(int targetRow, int sourceRow) {
+    long[] rows = this.rows;
+    long before = rows[targetRow];
+    long after = before | rows[sourceRow];
+    rows[targetRow] = after;
+    return before != after;
+  }
+
+  /**
+   * Removes all the elements from one set that are not contained in another
+   * set.
+   *
+   * @param targetRow the index of the set to modify
+   * @param sourceRow the index of the set with the elements to retain
+   * @return {@code true} if the target set changed
+   * @see Set#retainAll(Collection)
+   */
+  public boolean and(int targetRow, int sourceRow) {
+    long[] rows = this.rows;
+    long before = rows[targetRow];
+    long after = before & rows[sourceRow];
+    rows[targetRow] = after;
+    return before != after;
+  }
+
+  /**
+   * Removes all the elements from one set that are contained in another
+   * set.
+   *
+   * @param targetRow the index of the set to modify
+   * @param sourceRow the index of the set with the elements to remove
+   * @return {@code true} if the target set changed
+   * @see Set#removeAll(Collection)
+   */
+  public boolean andNot(int targetRow, int sourceRow) {
+    long[] rows = this.rows;
+    long before = rows[targetRow];
+    long after = before & ~rows[sourceRow];
+    rows[targetRow] = after;
+    return before != after;
+  }
+
+  /**
+   * Computes which sets contain all the elements of a mask.
+   *
+   * @param mask the raw bit representation of the elements to test
+   * @param result the bitmap to write, bit {@code i} of
+   *  {@code result[i >>> 6]} is set if set {@code i} matches, has to have
+   *  at least {@code (length() + 63) / 64} elements
+   * @return the number of matching sets
+   * @see SmallIntegerSetBatch#containingAll(long[], int, int, long, long[])
+   */
+  public int containingAll(long mask, long[] result) {
+    return SmallIntegerSetBatch.containingAll(this.rows, 0, this.rows.length, mask, result);
+  }
+
+  /**
+   * Computes which sets contain any of the elements of a mask.
+   *
+   * @param mask the raw bit representation of the elements to test
+   * @param result the bitmap to write, see {@link #containingAll(long, long[])}
+   * @return the number of matching sets
+   * @see SmallIntegerSetBatch#containingAny(long[], int, int, long, long[])
+   */
+  public int containingAny(long mask, long[] result) {
+    return SmallIntegerSetBatch.containingAny(this.rows, 0, this.rows.length, mask, result);
+  }
+
+  /**
+   * Computes which sets contain none of the elements of a mask.
+   *
+   * @param mask the raw bit representation of the elements to test
+   * @param result the bitmap to write, see {@link #containingAll(long, long[])}
+   * @return the number of matching sets
+   * @see SmallIntegerSetBatch#containingNone(long[], int, int, long, long[])
+   */
+  public int containingNone(long mask, long[] result) {
+    return SmallIntegerSetBatch.containingNone(this.rows, 0, this.rows.length, mask, result);
+  }
+
+  /**
+   * Computes how many sets there are of each size.
+   *
+   * @return an array of length 65, element {@code n} is the number of
+   *  sets with {@code n} elements
+   * @see SmallIntegerSetBatch#addSizeHistogram(long[], int, int, int[])
+   */
+  public int[] sizeHistogram() {
+    int[] histogram = new int[Long.SIZE + 1];
+    SmallIntegerSetBatch.addSizeHistogram(this.rows, 0, this.rows.length, histogram);
+    return histogram;
+  }
+
+  /**
+   * Computes in how many sets each element is contained.
+   *
+   * @return an array of length 64, element {@code e} is the number of
+   *  sets containing {@code e}
+   * @see SmallIntegerSetBatch#addElementHistogram(long[], int, int, int[])
+   */
+  public int[] elementHistogram() {
+    int[] histogram = new int[Long.SIZE];
+    SmallIntegerSetBatch.addElementHistogram(this.rows, 0, this.rows.length, histogram);
+    return histogram;
+  }
+
+  /**
+   * Returns a view of a set.
+   *
+   * <p>The view writes through to this array. It can be moved to a
+   * different set with {@link Row#moveTo(int)}.</p>
+   *
+   * @param row the index of the set
+   * @return a view of the set
+   */
+  public Row row(int row) {
+    checkRow(row, this.rows.length);
+    return new Row(row, -1L);
+  }
+
+  private static void checkRow(int row, int length) {
+    if (row < 0 || row >= length) {
+      throw new IndexOutOfBoundsException("row: " + row + ", length: " + length);
+    }
+  }
+
+  private static void checkSupported(long mask, int i) {
+    if (!SmallIntegerSet.isSupported(mask, i)) {
+      throw new IllegalArgumentException();
+    }
+  }
+
+  /**
+   * Returns a deep copy of this {@code SmallIntegerSetArray} instance.
+   *
+   * @return a deep copy of this array
+   */
+  @Override
+  public Object clone() {
+    try {
+      SmallIntegerSetArray clone = (SmallIntegerSetArray) super.clone();
+      clone.rows = this.rows.clone();
+      return clone;
+    } catch (CloneNotSupportedException e) {
+      // this shouldn't happen, since we are Cloneable
+      throw new InternalError(e);
+    }
+  }
+
+  /**
+   * A view of a single set in a {@link SmallIntegerSetArray}, writes
+   * through to the array.
+   *
+   * <p>The view is a flyweight, it can be moved to a different set with
+   * {@link #moveTo(int)}. Iterators of the view follow the view when it is
+   * moved, range views do not.</p>
+   *
+   * <p>This view supports all optional {@link Set} and {@link Iterator} operations.</p>
+   */
+  public final class Row implements IntSortedSet, SmallIntegerBits {
+
+    private int row;
+
+    /**
+     * The elements of the set that are part of this view.
+     */
+    private final long mask;
+
+    Row(int row, long mask) {
+      this.row = row;
+      this.mask = mask;
+    }
+
+    /**
+     * Moves this view to a different set.
+     *
+     * @param row the index of the set
+     * @return this view
+     */
+    public Row moveTo(int row) {
+      checkRow(row, rows.length);
+      this.row = row;
+      return this;
+    }
+
+    /**
+     * Returns the index of the set this view is currently on.
+     *
+     * @return the index of the set
+     */
+    public int getRow() {
+      return this.row;
+    }
+
+    long bits() {
+      return rows[this.row] & this.mask;
+    }
+
+    @Override
+    public long toBits() {
+      return this.bits();
+    }
+
+    private void setBits(long bits) {
+      rows[this.row] = (rows[this.row] & ~this.mask) | (bits & this.mask);
+    }
+
+    private boolean updateBits(long before, long after) {
+      if (before == after) {
+        return false;
+      }
+      this.setBits(after);
+      return true;
+    }
+
+    @Override
+    public int size() {
+      return SmallIntegerSet.size(this.bits());
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return this.bits() == 0L;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return SmallIntegerSet.isSet(this.bits(), (Integer) o);
+    }
+
+    @Override
+    public boolean containsInt(int i) {
+      return SmallIntegerSet.isSet(this.bits(), i);
+    }
+
+    @Override
+    public boolean add(Integer e) {
+      return this.addInt(e);
+    }
+
+    @Override
+    public boolean addInt(int i) {
+      checkSupported(this.mask, i);
+      long before = this.bits();
+      return this.updateBits(before, before | (1L << i));
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      return this.removeInt((Integer) o);
+    }
+
+    @Override
+    public boolean removeInt(int i) {
+      long before = this.bits();
+      if (!SmallIntegerSet.isSet(before, i)) {
+        return false;
+      }
+      this.setBits(before & ~(1L << i));
+      return true;
+    }
+
+    @Override
+    public void clear() {
+      this.setBits(0L);
+    }
+
+    @Override
+    public Comparator<? super Integer> comparator() {
+      // natural order
+      return null;
+    }
+
+    @Override
+    public Integer first() {
+      return SmallIntegerSet.first(this.bits());
+    }
+
+    @Override
+    public Integer last() {
+      return SmallIntegerSet.last(this.bits());
+    }
+
+    @Override
+    public IntSortedSet subSet(Integer fromElement, Integer toElement) {
+      if (fromElement > toElement) {
+        throw new IllegalArgumentException();
+      }
+      return this.range(fromElement, toElement - 1L);
+    }
+
+    @Override
+    public IntSortedSet headSet(Integer toElement) {
+      if (this.mask == 0L) {
+        // empty range
+        return this;
+      }
+      return this.range(SmallIntegerSet.first(this.mask), toElement - 1L);
+    }
+
+    @Override
+    public IntSortedSet tailSet(Integer fromElement) {
+      if (this.mask == 0L) {
+        // empty range
+        return this;
+      }
+      return this.range(fromElement, SmallIntegerSet.last(this.mask));
+    }
+
+    private IntSortedSet range(long startInclusive, long endInclusive) {
+      long rangeMask = SmallIntegerSet.rangeMask(this.mask, startInclusive, endInclusive);
+      if (rangeMask == this.mask) {
+        return this;
+      }
+      return new Row(this.row, rangeMask);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new RowIterator();
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt intIterator() {
+      return new RowIterator();
+    }
+
+    @Override
+    public Spliterator<Integer> spliterator() {
+      return new IntegerSetSpliterator(this.bits());
+    }
+
+    @Override
+    public Stream<Integer> stream() {
+      return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    @Override
+    public Stream<Integer> parallelStream() {
+      return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    @Override
+    public IntStream intStream() {
+      return StreamSupport.intStream(new IntegerSetSpliterator(this.bits()), false);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Integer> action) {
+      SmallIntegerSet.forEach(this.bits(), action);
+    }
+
+    @Override
+    public void forEachInt(IntConsumer action) {
+      SmallIntegerSet.forEachInt(this.bits(), action);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Integer> filter) {
+      return this.removeIfInt(filter::test);
+    }
+
+    @Override
+    public boolean removeIfInt(IntPredicate filter) {
+      long before = this.bits();
+      return this.updateBits(before, before & ~SmallIntegerSet.matching(before, filter));
+    }
+
+    @Override
+    public Object[] toArray() {
+      return SmallIntegerSet.toArray(this.bits());
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+      return SmallIntegerSet.toArray(this.bits(), a);
+    }
+
+    @Override
+    public int[] toIntArray() {
+      return SmallIntegerSet.toIntArray(this.bits());
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+      long bits = this.bits();
+      if (c instanceof SmallIntegerBits) {
+        return SmallIntegerSet.containsAll(bits, ((SmallIntegerBits) c).toBits());
+      }
+      for (Object each : c) {
+        if (!SmallIntegerSet.isSet(bits, (Integer) each)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Integer> c) {
+      long bits = SmallIntegerSet.bits(c);
+      if ((bits & ~this.mask) != 0L) {
+        throw new IllegalArgumentException();
+      }
+      long before = this.bits();
+      return this.updateBits(before, before | bits);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+      long before = this.bits();
+      if (c instanceof SmallIntegerBits) {
+        return this.updateBits(before, before & ((SmallIntegerBits) c).toBits());
+      }
+      return this.updateBits(before, before & ~SmallIntegerSet.matching(before, i -> !c.contains(i)));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+      long before = this.bits();
+      if (c instanceof SmallIntegerBits) {
+        return this.updateBits(before, before & ~((SmallIntegerBits) c).toBits());
+      }
+      long after = before;
+      for (Object each : c) {
+        int i = (Integer) each;
+        if (SmallIntegerSet.isSupported(i)) {
+          after &= ~(1L << i);
+        }
+      }
+      return this.updateBits(before, after);
+    }
+
+    @Override
+    public int hashCode() {
+      return SmallIntegerSet.hashCode(this.bits());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof Set)) {
+        return false;
+      }
+      long bits = this.bits();
+      if (obj instanceof SmallIntegerBits) {
+        return bits == ((SmallIntegerBits) obj).toBits();
+      }
+      Set<?> other = (Set<?>) obj;
+      if (SmallIntegerSet.size(bits) != other.size()) {
+        return false;
+      }
+      return SmallIntegerSet.containsAllNonThrowing(bits, other);
+    }
+
+    @Override
+    public String toString() {
+      return SmallIntegerSets.toString(this.bits());
+    }
+
+    final class RowIterator extends AbstractIntegerSetIterator {
+
+      @Override
+      void unsetNoCheck(int i) {
+        rows[Row.this.row] &= ~(1L << i);
+      }
+
+      @Override
+      long bits() {
+        return Row.this.bits();
+      }
+
+    }
+
+  }
+
+}
@@ -0,0 +1,272 @@
+package com.github.marschall.sets;
+
+/**
+ * Batch operations over many sets stored as raw {@code long}s in an array,
+ * the representation of {@link SmallIntegerSets}.
+ *
+ * <p>Instead of testing one {@link SmallIntegerSet} at a time these
+ * kernels run a single loop over a {@code long[]}. The loops have no data
+ * dependent branches: the result of a test is computed with SWAR
+ * arithmetic as a {@code 0} or {@code 1} bit which is then shifted into a
+ * result bitmap or used to advance the write position of an index array.
+ * This keeps the throughput independent of the selectivity of the
+ * mask.</p>
+ *
+ * <p>The filter kernels come in two flavors, one that writes a bitmap with
+ * one bit per set and one that writes the indices of the matching sets.
+ * All methods work on the range from {@code fromIndex}, inclusive, to
+ * {@code toIndex}, exclusive.</p>
+ *
+ * <p>The kernels are scalar, they rely on the JIT to unroll the loops.</p>
+ */
+public final class SmallIntegerSetBatch {
+
+  private static final int PLANES = 16;
+
+  /**
+   * The number of sets that can be added to the bit sliced counters
+   * before they overflow.
+   */
+  private static final int MAX_PENDING = (1 << PLANES) - 1;
+
+  private SmallIntegerSetBatch() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Computes which sets contain all the elements of a mask.
+   *
+   * @param sets the sets, not {@code null}
+   * @param fromIndex the index of the first set, inclusive
+   * @param toIndex the index of the last set, exclusive
+   * @param mask the raw bit representation of the elements to test
+   * @param result the bitmap to write, bit {@code i} of
+   *  {@code result[i >>> 6]} is set if the set at {@code fromIndex + i}
+   *  matches, has to have at least {@code (toIndex - fromIndex + 63) / 64}
+   *  elements, the words are overwritten
+   * @return the number of matching sets
+   * @throws IndexOutOfBoundsException if the range is invalid or
+   *  {@code result} is too short
+   */
+  public static int containingAll(long[] sets, int fromIndex, int toIndex, long mask, long[] result) {
+    return match(sets, fromIndex, toIndex, mask, mask, 0L, result);
+  }
+
+  /**
+   * Computes which sets contain any of the elements of a mask.
+   *
+   * @param sets the sets, not {@code null}
+   * @param fromIndex the index of the first set, inclusive
+   * @param toIndex the index of the last set, exclusive
+   * @param mask the raw bit representation of the elements to test
+   * @param result the bitmap to write, see
+   *  {@link #containingAll(long[], int, int, long, long[])}
+   * @return the number of matching sets
+   * @throws IndexOutOfBoundsException if the range is invalid or
+   *  {@code result} is too short
+   */
+  public static int containingAny(long[] sets, int fromIndex, int toIndex, long mask, long[] result) {
+    return match(sets, fromIndex, toIndex, mask, 0L, 1L, result);
+  }
+
+  /**
+   * Computes which sets contain none of the elements of a mask.
+   *
+   * @param sets the sets, not {@code null}
+   * @param fromIndex the index of the first set, inclusive
+   * @param toIndex the index of the last set, exclusive
+   * @param mask the raw bit representation of the elements to test
+   * @param result the bitmap to write, see
+   *  {@link #containingAll(long[], int, int, long, long[])}
+   * @return the number of matching sets
+   * @throws IndexOutOfBoundsException if the range is invalid or
+   *  {@code result} is too short
+   */
+  public static int containingNone(long[] sets, int fromIndex, int toIndex, long mask, long[] result) {
+    return match(sets, fromIndex, toIndex, mask, 0L, 0L, result);
+  }
+
+  /**
+   * Sets a result bit for every set where {@code (set & mask) == expected},
+   * inverted if {@code invert} is {@code 1}.
+   */
+  private static int match(long[] sets, int fromIndex, int toIndex, long mask, long expected, long invert, long[] result) {
+    checkRange(sets, fromIndex, toIndex);
+    int length = toIndex - fromIndex;
+    if (result.length < (length + 63) >>> 6) {
+      throw new IndexOutOfBoundsException("result too short: " + result.length);
+    }
+    int matches = 0;
+    int word = 0;
+    for (int start = fromIndex; start < toIndex; start += Long.SIZE) {
+      int end = Math.min(start + Long.SIZE, toIndex);
+      long bits = 0L;
+      for (int i = start; i < end; i++) {
+        bits |= matchBit(sets[i], mask, expected, invert) << (i - start);
+      }
+      result[word++] = bits;
+      matches += Long.bitCount(bits);
+    }
+    return matches;
+  }
+
+  /**
+   * Returns {@code 1} if {@code (set & mask) == expected} and {@code 0}
+   * otherwise, inverted if {@code invert} is {@code 1}. Branch free,
+   * {@code t | -t} has the sign bit set if and only if {@code t != 0}.
+   */
+  private static long matchBit(long set, long mask, long expected, long invert) {
+    long difference = (set & mask) ^ expected;
+    return (((difference | -difference) >>> 63) ^ 1L) ^ invert;
+  }
+
+  /**
+   * Writes the indices of the sets that contain all the elements of a mask.
+   *
+   * @param sets the sets, not {@code null}
+   * @param fromIndex the index of the first set, inclusive
+   * @param toIndex the index of the last set, exclusive
+   * @param mask the raw bit representation of the elements to test
+   * @param indices where to write the indices of the matching sets in
+   *  ascending order, has to have at least {@code toIndex - fromIndex}
+   *  elements, elements after the returned count may be overwritten
+   * @return the number of matching sets
+   * @throws IndexOutOfBoundsException if the range is invalid or
+   *  {@code indices} is too short
+   */
+  public static int indicesContainingAll(long[] sets, int fromIndex, int toIndex, long mask, int[] indices) {
+    return indicesMatching(sets, fromIndex, toIndex, mask, mask, 0L, indices);
+  }
+
+  /**
+   * Writes the indices of the sets that contain any of the elements of a
+   * mask.
+   *
+   * @param sets the sets, not {@code null}
+   * @param fromIndex the index of the first set, inclusive
+   * @param toIndex the index of the last set, exclusive
+   * @param mask the raw bit representation of the elements to test
+   * @param indices where to write the indices of the matching sets, see
+   *  {@link #indicesContainingAll(long[], int, int, long, int[])}
+   * @return the number of matching sets
+   * @throws IndexOutOfBoundsException if the range is invalid or
+   *  {@code indices} is too short
+   */
+  public static int indicesContainingAny(long[] sets, int fromIndex, int toIndex, long mask, int[] indices) {
+    return indicesMatching(sets, fromIndex, toIndex, mask, 0L, 1L, indices);
+  }
+
+  /**
+   * Writes the indices of the sets that contain none of the elements of a
+   * mask.
+   *
+   * @param sets the sets, not {@code null}
+   * @param fromIndex the index of the first set, inclusive
+   * @param toIndex the index of the last set, exclusive
+   * @param mask the raw bit representation of the elements to test
+   * @param indices where to write the indices of the matching sets, see
+   *  {@link #indicesContainingAll(long[], int, int, long, int[])}
+   * @return the number of matching sets
+   * @throws IndexOutOfBoundsException if the range is invalid or
+   *  {@code indices} is too short
+   */
+  public static int indicesContainingNone(long[] sets, int fromIndex, int toIndex, long mask, int[] indices) {
+    return indicesMatching(sets, fromIndex, toIndex, mask, 0L, 0L, indices);
+  }
+
+  private static int indicesMatching(long[] sets, int fromIndex, int toIndex, long mask, long expected, long invert, int[] indices) {
+    checkRange(sets, fromIndex, toIndex);
+    if (indices.length < toIndex - fromIndex) {
+      throw new IndexOutOfBoundsException("indices too short: " + indices.length);
+    }
+    int count = 0;
+    for (int i = fromIndex; i < toIndex; i++) {
+      // always write, only advance on a match
+      indices[count] = i;
+      count += (int) matchBit(sets[i], mask, expected, invert);
+    }
+    return count;
+  }
+
+  /**
+   * Adds the sizes of the sets to a histogram.
+   *
+   * @param sets the sets, not {@code null}
+   * @param fromIndex the index of the first set, inclusive
+   * @param toIndex the index of the last set, exclusive
+   * @param histogram the histogram to add to, {@code histogram[n]} is
+   *  incremented for every set with {@code n} elements, has to have at
+   *  least 65 elements
+   * @throws IndexOutOfBoundsException if the range is invalid or
+   *  {@code histogram} is too short
+   */
+  public static void addSizeHistogram(long[] sets, int fromIndex, int toIndex, int[] histogram) {
+    checkRange(sets, fromIndex, toIndex);
+    if (histogram.length <= Long.SIZE) {
+      throw new IndexOutOfBoundsException("histogram too short: " + histogram.length);
+    }
+    for (int i = fromIndex; i < toIndex; i++) {
+      histogram[Long.bitCount(sets[i])] += 1;
+    }
+  }
+
+  /**
+   * Adds the number of sets containing each element to a histogram.
+   *
+   * <p>Uses bit sliced counters: the sets are added to 16 {@code long}s
+   * where {@code long} {@code j} holds bit {@code j} of the 64 counters,
+   * with a ripple carry of usually one or two steps per set. The counters
+   * are transferred to {@code histogram} every 65535 sets.</p>
+   *
+   * @param sets the sets, not {@code null}
+   * @param fromIndex the index of the first set, inclusive
+   * @param toIndex the index of the last set, exclusive
+   * @param histogram the histogram to add to, {@code histogram[e]} is
+   *  incremented for every set containing {@code e}, has to have at least
+   *  64 elements
+   * @throws IndexOutOfBoundsException if the range is invalid or
+   *  {@code histogram} is too short
+   */
+  public static void addElementHistogram(long[] sets, int fromIndex, int toIndex, int[] histogram) {
+    checkRange(sets, fromIndex, toIndex);
+    if (histogram.length < Long.SIZE) {
+      throw new IndexOutOfBoundsException("histogram too short: " + histogram.length);
+    }
+    long[] planes = new long[PLANES];
+    int pending = 0;
+    for (int i = fromIndex; i < toIndex; i++) {
+      long carry = sets[i];
+      for (int j = 0; carry != 0L; j++) {
+        long next = planes[j] & carry;
+        planes[j] ^= carry;
+        carry = next;
+      }
+      pending += 1;
+      if (pending == MAX_PENDING) {
+        flush(planes, histogram);
+        pending = 0;
+      }
+    }
+    flush(planes, histogram);
+  }
+
+  private static void flush(long[] planes, int[] histogram) {
+    for (int element = 0; element < Long.SIZE; element++) {
+      int count = 0;
+      for (int j = 0; j < PLANES; j++) {
+        count |= (int) ((planes[j] >>> element) & 1L) << j;
+      }
+      histogram[element] += count;
+    }
+    for (int j = 0; j < PLANES; j++) {
+      planes[j] = 0L;
+    }
+  }
+
+  private static void checkRange(long[] sets, int fromIndex, int toIndex) {
+    if (fromIndex < 0 || toIndex > sets.length || fromIndex > toIndex) {
+      throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", length: " + sets.length);
+    }
+  }
+
+}
@@ -0,0 +1,1175 @@
+package com.github.marschall.sets;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A map with {@link SmallIntegerSet} keys.
+ *
+ * <p>{@link SmallIntegerSet#hashCode()} has to follow the contract of
+ * {@link Set#hashCode()} and is the sum of the elements. It therefore
+ * takes only 2017 different values and many distinct sets as keys of a
+ * {@link java.util.HashMap} end up in the same bucket. This map instead
+ * stores the keys as their raw {@code long} bit representation in an open
+ * addressing hash table with linear probing. The slot of a key is
+ * computed with the 64 bit finalizer of
+ * <a href="https://github.com/aappleby/smhasher/wiki/MurmurHash3">MurmurHash3</a>
+ * and keys are compared with {@code ==} on the bits. No key objects are
+ * stored, removals do not leave tombstones.</p>
+ *
+ * <p>The primitive operations {@link #get(long)}, {@link #put(long, Object)},
+ * {@link #remove(long)} and {@link #containsKey(long)} take the raw bit
+ * representation of a key as used by {@link SmallIntegerSets} and avoid
+ * allocating key objects altogether.</p>
+ *
+ * <p>Since the keys are not stored as objects every key returned from the
+ * views is a new {@link SmallIntegerSet}. Modifying such a key or a key
+ * passed to {@link #put(SmallIntegerSet, Object)} does not affect the
+ * map.</p>
+ *
+ * <p>Operations like {@link #get(Object)} or {@link #remove(Object)} accept
+ * any {@link Set} of supported {@link Integer}s as key and return
+ * {@code null} for other objects. This map does not support {@code null}
+ * keys but does support {@code null} values. The iteration order is
+ * unspecified.</p>
+ *
+ * <p>This map is not thread safe.</p>
+ *
+ * <p>This map is not fail-fast.</p>
+ *
+ * @param <V> the type of the values
+ */
+public final class SmallIntegerSetMap<V> implements Map<SmallIntegerSet, V>, Serializable, Cloneable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final int MIN_CAPACITY = 8;
+
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  /**
+   * The bits of the keys, {@code 0L} marks a free slot. The empty set is
+   * stored in {@link #emptySetValue} instead.
+   */
+  private transient long[] keys;
+
+  private transient Object[] values;
+
+  /**
+   * The number of mappings in {@link #keys}, not counting the empty set.
+   */
+  private transient int tableSize;
+
+  private transient boolean containsEmptySet;
+
+  private transient Object emptySetValue;
+
+  /**
+   * Creates a new empty map.
+   */
+  public SmallIntegerSetMap() {
+    this(0);
+  }
+
+  /**
+   * Creates a new empty map that can hold a number of mappings without
+   * resizing.
+   *
+   * @param expectedSize the number of mappings
+   * @throws IllegalArgumentException if {@code expectedSize} is negative
+   */
+  public SmallIntegerSetMap(int expectedSize) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("negative size: " + expectedSize);
+    }
+    this.allocate(capacityFor(expectedSize));
+  }
+
+  private static int capacityFor(int expectedSize) {
+    // keep the load factor at or below 3/4
+    long minimum = Math.max(MIN_CAPACITY, (expectedSize * 4L + 2L) / 3L);
+    if (minimum > MAX_CAPACITY) {
+      return MAX_CAPACITY;
+    }
+    return Integer.highestOneBit((int) minimum - 1) << 1;
+  }
+
+  private void allocate(int capacity) {
+    this.keys = new long[capacity];
+    this.values = new Object[capacity];
+  }
+
+  /**
+   * Spreads the bits of a key over the whole word.
+   *
+   * @see <a href="https://github.com/aappleby/smhasher/blob/master/src/MurmurHash3.cpp">fmix64</a>
+   */
+  static long mix(long bits) {
+    long h = bits;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * Returns the slot of a key that is not the empty set, or {@code -1} if
+   * the key is not present.
+   */
+  private int slotOf(long bits) {
+    long[] keys = this.keys;
+    int mask = keys.length - 1;
+    int slot = (int) mix(bits) & mask;
+    while (true) {
+      long key = keys[slot];
+      if (key == bits) {
+        return slot;
+      }
+      if (key == 0L) {
+        return -1;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private V valueAt(int slot) {
+    return (V) this.values[slot];
+  }
+
+  @SuppressWarnings("unchecked")
+  private V emptySetValue() {
+    return (V) this.emptySetValue;
+  }
+
+  /**
+   * Returns whether a key is a set that could be contained in this map.
+   */
+  private static boolean isKey(Object key) {
+    if (key instanceof SmallIntegerBits) {
+      return true;
+    }
+    if (!(key instanceof Set)) {
+      return false;
+    }
+    for (Object each : (Set<?>) key) {
+      if (!(each instanceof Integer) || !SmallIntegerSet.isSupported((Integer) each)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the bits of a key for which {@link #isKey(Object)} returned
+   * {@code true}.
+   */
+  @SuppressWarnings("unchecked")
+  private static long bitsOf(Object key) {
+    return SmallIntegerSet.bits((Set<Integer>) key);
+  }
+
+  @Override
+  public int size() {
+    return this.containsEmptySet ? this.tableSize + 1 : this.tableSize;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size() == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return isKey(key) && this.containsKey(bitsOf(key));
+  }
+
+  /**
+   * Checks whether the map contains a mapping for a key.
+   *
+   * @param bits the raw bit representation of the key
+   * @return {@code true} if the map contains a mapping for the key
+   * @see SmallIntegerSets
+   */
+  public boolean containsKey(long bits) {
+    if (bits == 0L) {
+      return this.containsEmptySet;
+    }
+    return this.slotOf(bits) != -1;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    if (this.containsEmptySet && Objects.equals(this.emptySetValue, value)) {
+      return true;
+    }
+    long[] keys = this.keys;
+    Object[] values = this.values;
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != 0L && Objects.equals(values[i], value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public V get(Object key) {
+    if (!isKey(key)) {
+      return null;
+    }
+    return this.get(bitsOf(key));
+  }
+
+  /**
+   * Returns the value of a key.
+   *
+   * @param bits the raw bit representation of the key
+   * @return the value of the key or {@code null} if the map contains no
+   *  mapping for the key
+   * @see SmallIntegerSets
+   */
+  public V get(long bits) {
+    if (bits == 0L) {
+      return this.emptySetValue();
+    }
+    int slot = this.slotOf(bits);
+    return slot == -1 ? null : this.valueAt(slot);
+  }
+
+  @Override
+  public V put(SmallIntegerSet key, V value) {
+    return this.put(key.toBits(), value);
+  }
+
+  /**
+   * Associates a value with a key.
+   *
+   * @param bits the raw bit representation of the key
+   * @param value the value
+   * @return the previous value of the key or {@code null} if the map
+   *  contained no mapping for the key
+   * @see SmallIntegerSets
+   */
+  public V put(long bits, V value) {
+    if (bits == 0L) {
+      V previous = this.emptySetValue();
+      this.emptySetValue = value;
+      this.containsEmptySet = true;
+      return previous;
+    }
+    long[] keys = this.keys;
+    int mask = keys.length - 1;
+    int slot = (int) mix(bits) & mask;
+    while (keys[slot] != 0L) {
+      if (keys[slot] == bits) {
+        V previous = this.valueAt(slot);
+        this.values[slot] = value;
+        return previous;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = bits;
+    this.values[slot] = value;
+    this.tableSize += 1;
+    if (this.tableSize > keys.length - (keys.length >>> 2)) {
+      this.rehash(keys.length << 1);
+    }
+    return null;
+  }
+
+  private void rehash(int capacity) {
+    if (capacity <= 0 || capacity > MAX_CAPACITY) {
+      throw new IllegalStateException("map too large");
+    }
+    long[] oldKeys = this.keys;
+    Object[] oldValues = this.values;
+    this.allocate(capacity);
+    long[] keys = this.keys;
+    int mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      long bits = oldKeys[i];
+      if (bits != 0L) {
+        int slot = (int) mix(bits) & mask;
+        while (keys[slot] != 0L) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = bits;
+        this.values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  @Override
+  public V remove(Object key) {
+    if (!isKey(key)) {
+      return null;
+    }
+    return this.remove(bitsOf(key));
+  }
+
+  /**
+   * Removes the mapping of a key.
+   *
+   * @param bits the raw bit representation of the key
+   * @return the previous value of the key or {@code null} if the map
+   *  contained no mapping for the key
+   * @see SmallIntegerSets
+   */
+  public V remove(long bits) {
+    if (bits == 0L) {
+      V previous = this.emptySetValue();
+      this.emptySetValue = null;
+      this.containsEmptySet = false;
+      return previous;
+    }
+    int slot = this.slotOf(bits);
+    if (slot == -1) {
+      return null;
+    }
+    V previous = this.valueAt(slot);
+    this.removeSlot(slot, null);
+    return previous;
+  }
+
+  /**
+   * Removes the mapping in a slot and moves later mappings of the same
+   * probe sequence back so that no tombstone is needed.
+   *
+   * @param iterator the iterator to notify about mappings that moved from a
+   *  slot it has not yet visited to one it already has, may be {@code null}
+   */
+  private void removeSlot(int slot, TableIterator<?> iterator) {
+    long[] keys = this.keys;
+    Object[] values = this.values;
+    int mask = keys.length - 1;
+    int hole = slot;
+    int current = slot;
+    while (true) {
+      current = (current + 1) & mask;
+      long bits = keys[current];
+      if (bits == 0L) {
+        break;
+      }
+      int home = (int) mix(bits) & mask;
+      // move back unless home lies cyclically in (hole, current]
+      if (hole <= current ? hole >= home || home > current : hole >= home && home > current) {
+        keys[hole] = bits;
+        values[hole] = values[current];
+        if (iterator != null) {
+          iterator.moved(current, hole, bits);
+        }
+        hole = current;
+      }
+    }
+    keys[hole] = 0L;
+    values[hole] = null;
+    this.tableSize -= 1;
+  }
+
+  @Override
+  public void putAll(Map<? extends SmallIntegerSet, ? extends V> m) {
+    if (m instanceof SmallIntegerSetMap) {
+      @SuppressWarnings("unchecked")
+      SmallIntegerSetMap<? extends V> other = (SmallIntegerSetMap<? extends V>) m;
+      this.putAll(other);
+    } else {
+      for (Entry<? extends SmallIntegerSet, ? extends V> entry : m.entrySet()) {
+        this.put(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  private void putAll(SmallIntegerSetMap<? extends V> other) {
+    if (other.containsEmptySet) {
+      this.put(0L, other.emptySetValue());
+    }
+    long[] keys = other.keys;
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != 0L) {
+        this.put(keys[i], other.valueAt(i));
+      }
+    }
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(this.keys, 0L);
+    Arrays.fill(this.values, null);
+    this.tableSize = 0;
+    this.containsEmptySet = false;
+    this.emptySetValue = null;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super SmallIntegerSet, ? super V> action) {
+    if (this.containsEmptySet) {
+      action.accept(new SmallIntegerSet(), this.emptySetValue());
+    }
+    long[] keys = this.keys;
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != 0L) {
+        action.accept(SmallIntegerSet.fromBits(keys[i]), this.valueAt(i));
+      }
+    }
+  }
+
+  /**
+   * Removes all mappings for which a filter returns {@code true}.
+   */
+  boolean removeIf(MappingPredicate<V> filter) {
+    boolean changed = false;
+    for (TableIterator<V> iterator = new TableIterator<V>() {
+
+      @Override
+      V element(long bits, V value) {
+        return value;
+      }
+
+    }; iterator.hasNext();) {
+      V value = iterator.next();
+      if (filter.test(iterator.lastBits, value)) {
+        iterator.remove();
+        changed = true;
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Returns a view of the keys of this map.
+   *
+   * <p>Removing keys from the view removes the mappings, adding keys is not
+   * supported. Each key returned is a new {@link SmallIntegerSet}.</p>
+   *
+   * @return a view of the keys of this map
+   */
+  @Override
+  public Set<SmallIntegerSet> keySet() {
+    return new KeySet();
+  }
+
+  @Override
+  public Collection<V> values() {
+    return new Values();
+  }
+
+  @Override
+  public Set<Entry<SmallIntegerSet, V>> entrySet() {
+    return new EntrySet();
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    if (this.containsEmptySet) {
+      hashCode += Objects.hashCode(this.emptySetValue);
+    }
+    long[] keys = this.keys;
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != 0L) {
+        hashCode += SmallIntegerSet.hashCode(keys[i]) ^ Objects.hashCode(this.values[i]);
+      }
+    }
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof Map)) {
+      return false;
+    }
+    Map<?, ?> other = (Map<?, ?>) obj;
+    if (this.size() != other.size()) {
+      return false;
+    }
+    if (obj instanceof SmallIntegerSetMap) {
+      return this.containsAllMappings((SmallIntegerSetMap<?>) obj);
+    }
+    if (this.containsEmptySet && !containsMapping(other, new SmallIntegerSet(), this.emptySetValue)) {
+      return false;
+    }
+    long[] keys = this.keys;
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != 0L && !containsMapping(other, SmallIntegerSet.fromBits(keys[i]), this.values[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean containsMapping(Map<?, ?> map, Object key, Object value) {
+    return Objects.equals(value, map.get(key)) && (value != null || map.containsKey(key));
+  }
+
+  private boolean containsAllMappings(SmallIntegerSetMap<?> other) {
+    if (this.containsEmptySet
+            && (!other.containsEmptySet || !Objects.equals(this.emptySetValue, other.emptySetValue))) {
+      return false;
+    }
+    long[] keys = this.keys;
+    for (int i = 0; i < keys.length; i++) {
+      long bits = keys[i];
+      if (bits != 0L) {
+        int slot = other.slotOf(bits);
+        if (slot == -1 || !Objects.equals(this.values[i], other.values[slot])) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    if (this.isEmpty()) {
+      return "{}";
+    }
+    StringBuilder buffer = new StringBuilder();
+    buffer.append('{');
+    this.forEach((key, value) -> {
+      if (buffer.length() > 1) {
+        buffer.append(", ");
+      }
+      buffer.append(key)
+        .append('=')
+        .append(value == this ? "(this Map)" : value);
+    });
+    buffer.append('}');
+    return buffer.toString();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public SmallIntegerSetMap<V> clone() {
+    SmallIntegerSetMap<V> clone;
+    try {
+      clone = (SmallIntegerSetMap<V>) super.clone();
+    } catch (CloneNotSupportedException e) {
+      // this shouldn't happen, since we are Cloneable
+      throw new InternalError(e);
+    }
+    clone.keys = this.keys.clone();
+    clone.values = this.values.clone();
+    return clone;
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    out.writeInt(this.size());
+    if (this.containsEmptySet) {
+      out.writeLong(0L);
+      out.writeObject(this.emptySetValue);
+    }
+    long[] keys = this.keys;
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != 0L) {
+        out.writeLong(keys[i]);
+        out.writeObject(this.values[i]);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    int size = in.readInt();
+    if (size < 0) {
+      throw new InvalidObjectException("negative size: " + size);
+    }
+    this.allocate(capacityFor(size));
+    for (int i = 0; i < size; i++) {
+      long bits = in.readLong();
+      this.put(bits, (V) in.readObject());
+    }
+  }
+
+  /**
+   * Tests a mapping given as raw key bits and a value.
+   */
+  @FunctionalInterface
+  interface MappingPredicate<V> {
+
+    boolean test(long bits, V value);
+
+  }
+
+  /**
+   * Iterates over the mappings, supports {@link #remove()}.
+   *
+   * <p>Visits the empty set first, then the table from the last slot to
+   * the first. Removing a mapping moves later mappings of the same probe
+   * sequence back to lower slots, which have not yet been visited, except
+   * when the probe sequence wraps around the end of the table. These
+   * mappings are remembered and visited at the end.</p>
+   */
+  abstract class TableIterator<T> implements Iterator<T> {
+
+    /**
+     * The next slot to visit is below this one, {@code keys.length + 1}
+     * before the empty set was visited.
+     */
+    private int position;
+
+    /**
+     * The bits of the mappings that wrapped around, visited after the
+     * table.
+     */
+    private long[] wrapped;
+
+    private int wrappedSize;
+
+    /**
+     * {@code -1} if the last mapping was the empty set, {@code -2} if it
+     * was a wrapped mapping, {@code -3} if there is none.
+     */
+    private int lastSlot;
+
+    long lastBits;
+
+    TableIterator() {
+      this.position = keys.length + 1;
+      this.lastSlot = -3;
+    }
+
+    private void skipFreeSlots() {
+      if (this.position == keys.length + 1) {
+        if (containsEmptySet) {
+          return;
+        }
+        this.position -= 1;
+      }
+      while (this.position > 0 && keys[this.position - 1] == 0L) {
+        this.position -= 1;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      this.skipFreeSlots();
+      return this.position > 0 || this.wrappedSize > 0;
+    }
+
+    @Override
+    public T next() {
+      if (!this.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (this.position == keys.length + 1) {
+        this.position -= 1;
+        this.lastSlot = -1;
+        this.lastBits = 0L;
+        return this.element(0L, emptySetValue());
+      }
+      if (this.position > 0) {
+        this.position -= 1;
+        this.lastSlot = this.position;
+        this.lastBits = keys[this.position];
+        return this.element(this.lastBits, valueAt(this.position));
+      }
+      this.wrappedSize -= 1;
+      this.lastSlot = -2;
+      this.lastBits = this.wrapped[this.wrappedSize];
+      return this.element(this.lastBits, get(this.lastBits));
+    }
+
+    abstract T element(long bits, V value);
+
+    @Override
+    public void remove() {
+      int lastSlot = this.lastSlot;
+      if (lastSlot == -3) {
+        throw new IllegalStateException();
+      }
+      if (lastSlot == -2) {
+        SmallIntegerSetMap.this.remove(this.lastBits);
+      } else if (lastSlot == -1) {
+        SmallIntegerSetMap.this.remove(0L);
+      } else {
+        removeSlot(lastSlot, this);
+      }
+      this.lastSlot = -3;
+    }
+
+    void moved(int from, int to, long bits) {
+      if (from < this.position && to >= this.position) {
+        if (this.wrapped == null) {
+          this.wrapped = new long[2];
+        } else if (this.wrappedSize == this.wrapped.length) {
+          this.wrapped = Arrays.copyOf(this.wrapped, this.wrappedSize * 2);
+        }
+        this.wrapped[this.wrappedSize++] = bits;
+      }
+    }
+
+  }
+
+  /**
+   * Live view of the keys.
+   */
+  final class KeySet implements Set<SmallIntegerSet> {
+
+    @Override
+    public int size() {
+      return SmallIntegerSetMap.this.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return SmallIntegerSetMap.this.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return containsKey(o);
+    }
+
+    @Override
+    public Iterator<SmallIntegerSet> iterator() {
+      return new TableIterator<SmallIntegerSet>() {
+
+        @Override
+        SmallIntegerSet element(long bits, V value) {
+          return SmallIntegerSet.fromBits(bits);
+        }
+
+      };
+    }
+
+    @Override
+    public void forEach(Consumer<? super SmallIntegerSet> action) {
+      SmallIntegerSetMap.this.forEach((key, value) -> action.accept(key));
+    }
+
+    @Override
+    public Object[] toArray() {
+      Object[] array = new Object[this.size()];
+      int index = 0;
+      for (SmallIntegerSet key : this) {
+        array[index++] = key;
+      }
+      return array;
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+      Object[] array = this.toArray();
+      return SmallIntegerMap.toArray(array, array.length, a);
+    }
+
+    @Override
+    public boolean add(SmallIntegerSet e) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends SmallIntegerSet> c) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      if (!isKey(o)) {
+        return false;
+      }
+      long bits = bitsOf(o);
+      if (!containsKey(bits)) {
+        return false;
+      }
+      SmallIntegerSetMap.this.remove(bits);
+      return true;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+      for (Object each : c) {
+        if (!containsKey(each)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super SmallIntegerSet> filter) {
+      return SmallIntegerSetMap.this.removeIf((bits, value) -> filter.test(SmallIntegerSet.fromBits(bits)));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+      boolean changed = false;
+      for (Object each : c) {
+        changed |= this.remove(each);
+      }
+      return changed;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+      return this.removeIf(each -> !c.contains(each));
+    }
+
+    @Override
+    public void clear() {
+      SmallIntegerSetMap.this.clear();
+    }
+
+    @Override
+    public int hashCode() {
+      int hashCode = 0;
+      long[] keys = SmallIntegerSetMap.this.keys;
+      for (int i = 0; i < keys.length; i++) {
+        hashCode += SmallIntegerSet.hashCode(keys[i]);
+      }
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof Set)) {
+        return false;
+      }
+      Set<?> other = (Set<?>) obj;
+      return this.size() == other.size() && this.containsAll(other);
+    }
+
+    @Override
+    public String toString() {
+      return Arrays.toString(this.toArray());
+    }
+
+  }
+
+  /**
+   * Live view of the values.
+   */
+  final class Values implements Collection<V> {
+
+    @Override
+    public int size() {
+      return SmallIntegerSetMap.this.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return SmallIntegerSetMap.this.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return containsValue(o);
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+      return new TableIterator<V>() {
+
+        @Override
+        V element(long bits, V value) {
+          return value;
+        }
+
+      };
+    }
+
+    @Override
+    public void forEach(Consumer<? super V> action) {
+      SmallIntegerSetMap.this.forEach((key, value) -> action.accept(value));
+    }
+
+    @Override
+    public Object[] toArray() {
+      Object[] array = new Object[this.size()];
+      int index = 0;
+      for (V value : this) {
+        array[index++] = value;
+      }
+      return array;
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+      Object[] array = this.toArray();
+      return SmallIntegerMap.toArray(array, array.length, a);
+    }
+
+    @Override
+    public boolean add(V e) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends V> c) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      for (Iterator<V> iterator = this.iterator(); iterator.hasNext();) {
+        if (Objects.equals(iterator.next(), o)) {
+          iterator.remove();
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+      for (Object each : c) {
+        if (!containsValue(each)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super V> filter) {
+      return SmallIntegerSetMap.this.removeIf((bits, value) -> filter.test(value));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+      return this.removeIf(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+      return this.removeIf(each -> !c.contains(each));
+    }
+
+    @Override
+    public void clear() {
+      SmallIntegerSetMap.this.clear();
+    }
+
+    @Override
+    public String toString() {
+      return Arrays.toString(this.toArray());
+    }
+
+  }
+
+  /**
+   * Live view of the mappings.
+   */
+  final class EntrySet implements Set<Entry<SmallIntegerSet, V>> {
+
+    @Override
+    public int size() {
+      return SmallIntegerSetMap.this.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return SmallIntegerSetMap.this.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      Entry<?, ?> entry = (Entry<?, ?>) o;
+      Object key = entry.getKey();
+      if (!isKey(key)) {
+        return false;
+      }
+      long bits = bitsOf(key);
+      return containsKey(bits) && Objects.equals(get(bits), entry.getValue());
+    }
+
+    @Override
+    public Iterator<Entry<SmallIntegerSet, V>> iterator() {
+      return new TableIterator<Entry<SmallIntegerSet, V>>() {
+
+        @Override
+        Entry<SmallIntegerSet, V> element(long bits, V value) {
+          return new MapEntry(bits);
+        }
+
+      };
+    }
+
+    @Override
+    public Object[] toArray() {
+      Object[] array = new Object[this.size()];
+      int index = 0;
+      for (Entry<SmallIntegerSet, V> entry : this) {
+        array[index++] = entry;
+      }
+      return array;
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+      Object[] array = this.toArray();
+      return SmallIntegerMap.toArray(array, array.length, a);
+    }
+
+    @Override
+    public boolean add(Entry<SmallIntegerSet, V> e) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Entry<SmallIntegerSet, V>> c) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      if (!this.contains(o)) {
+        return false;
+      }
+      SmallIntegerSetMap.this.remove(((Entry<?, ?>) o).getKey());
+      return true;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+      for (Object each : c) {
+        if (!this.contains(each)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Entry<SmallIntegerSet, V>> filter) {
+      return SmallIntegerSetMap.this.removeIf((bits, value) -> filter.test(new MapEntry(bits)));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+      boolean changed = false;
+      for (Object each : c) {
+        changed |= this.remove(each);
+      }
+      return changed;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+      return this.removeIf(each -> !c.contains(each));
+    }
+
+    @Override
+    public void clear() {
+      SmallIntegerSetMap.this.clear();
+    }
+
+    @Override
+    public int hashCode() {
+      return SmallIntegerSetMap.this.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof Set)) {
+        return false;
+      }
+      Set<?> other = (Set<?>) obj;
+      return this.size() == other.size() && this.containsAll(other);
+    }
+
+    @Override
+    public String toString() {
+      return Arrays.toString(this.toArray());
+    }
+
+  }
+
+  /**
+   * A mapping that reads and writes through to the map.
+   * {@link #setValue(Object)} fails once the mapping has been removed.
+   */
+  final class MapEntry implements Entry<SmallIntegerSet, V> {
+
+    private final long bits;
+
+    MapEntry(long bits) {
+      this.bits = bits;
+    }
+
+    @Override
+    public SmallIntegerSet getKey() {
+      return SmallIntegerSet.fromBits(this.bits);
+    }
+
+    @Override
+    public V getValue() {
+      return get(this.bits);
+    }
+
+    @Override
+    public V setValue(V value) {
+      if (this.bits == 0L) {
+        if (!containsEmptySet) {
+          throw new IllegalStateException("mapping was removed");
+        }
+        V previous = emptySetValue();
+        emptySetValue = value;
+        return previous;
+      }
+      int slot = slotOf(this.bits);
+      if (slot == -1) {
+        throw new IllegalStateException("mapping was removed");
+      }
+      V previous = valueAt(slot);
+      values[slot] = value;
+      return previous;
+    }
+
+    @Override
+    public int hashCode() {
+      return SmallIntegerSet.hashCode(this.bits) ^ Objects.hashCode(this.getValue());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof Entry)) {
+        return false;
+      }
+      Entry<?, ?> other = (Entry<?, ?>) obj;
+      return this.getKey().equals(other.getKey())
+              && Objects.equals(this.getValue(), other.getValue());
+    }
+
+    @Override
+    public String toString() {
+      return this.getKey() + "=" + this.getValue();
+    }
+
+  }
+
+}
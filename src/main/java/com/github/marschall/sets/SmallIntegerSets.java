@@ -0,0 +1,423 @@
+package com.github.marschall.sets;
+
+import java.util.BitSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Set operations on a raw {@code long} holding the elements between
+ * {@value SmallIntegerSet#MIN_VALUE} and {@value SmallIntegerSet#MAX_VALUE}.
+ *
+ * <p>Uses the same representation as {@link SmallIntegerSet}, bit {@code i}
+ * is set if the element {@code i} is contained. This allows code that
+ * keeps many sets in {@code long} fields or {@code long[]} arrays to get set
+ * semantics without an object per set. {@link SmallIntegerSet#fromBits(long)}
+ * and {@link SmallIntegerSet#toBits()} convert between the two
+ * representations.</p>
+ *
+ * <p>Since {@code long} is immutable the methods that modify a set return
+ * the new value. The result of {@link #hashCode(long)} and
+ * {@link #toString(long)} is the same as the one of {@link Set#hashCode()}
+ * and {@link java.util.AbstractCollection#toString()} of an equal set.</p>
+ *
+ * <p>All operations except {@link #toArray(long)}, {@link #forEach(long, IntConsumer)},
+ * {@link #stream(long)}, {@link #fromBitSet(BitSet)}, {@link #toBitSet(long)}
+ * and {@link #toString(long)} run in constant time and do not allocate.</p>
+ */
+public final class SmallIntegerSets {
+
+  /**
+   * The set containing no elements.
+   */
+  public static final long EMPTY = 0L;
+
+  /**
+   * The set containing all elements between
+   * {@value SmallIntegerSet#MIN_VALUE} and {@value SmallIntegerSet#MAX_VALUE}.
+   */
+  public static final long FULL = -1L;
+
+  private SmallIntegerSets() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Returns the set containing the given elements.
+   *
+   * @param elements the elements to contain
+   * @return the set containing the given elements
+   * @throws IllegalArgumentException if any of the elements is not supported
+   */
+  public static long of(int... elements) {
+    long bits = EMPTY;
+    for (int element : elements) {
+      bits = add(bits, element);
+    }
+    return bits;
+  }
+
+  /**
+   * Returns the set containing all elements between the given values.
+   *
+   * @param fromInclusive the lowest element, inclusive
+   * @param toExclusive the highest element, exclusive
+   * @return the set containing all elements from {@code fromInclusive}
+   *  to {@code toExclusive}
+   * @throws IllegalArgumentException if {@code fromInclusive} is greater
+   *  than {@code toExclusive} or any of the values is outside the
+   *  supported range
+   */
+  public static long range(int fromInclusive, int toExclusive) {
+    if (fromInclusive > toExclusive) {
+      throw new IllegalArgumentException();
+    }
+    if (fromInclusive < SmallIntegerSet.MIN_VALUE || toExclusive > SmallIntegerSet.MAX_VALUE + 1) {
+      throw new IllegalArgumentException();
+    }
+    if (fromInclusive == toExclusive) {
+      return EMPTY;
+    }
+    return SmallIntegerSet.rangeMask(FULL, fromInclusive, toExclusive - 1);
+  }
+
+  /**
+   * Returns the set with the given element added.
+   *
+   * @param bits the set
+   * @param i the element to add
+   * @return the set with {@code i} added
+   * @throws IllegalArgumentException if the element is not supported
+   * @see SmallIntegerSet#isSupported(int)
+   */
+  public static long add(long bits, int i) {
+    if (!SmallIntegerSet.isSupported(i)) {
+      throw new IllegalArgumentException();
+    }
+    return bits | (1L << i);
+  }
+
+  /**
+   * Returns the set with the given element removed.
+   *
+   * <p>Elements outside the supported range are never contained so the set
+   * is returned unchanged.</p>
+   *
+   * @param bits the set
+   * @param i the element to remove
+   * @return the set with {@code i} removed
+   */
+  public static long remove(long bits, int i) {
+    if (!SmallIntegerSet.isSupported(i)) {
+      return bits;
+    }
+    return bits & ~(1L << i);
+  }
+
+  /**
+   * Checks if the set contains the given element.
+   *
+   * @param bits the set
+   * @param i the element to check
+   * @return {@code true} if the set contains {@code i}
+   */
+  public static boolean contains(long bits, int i) {
+    return SmallIntegerSet.isSet(bits, i);
+  }
+
+  /**
+   * Checks if the first set contains all the elements of the second set.
+   *
+   * @param bits the set
+   * @param other the possible subset
+   * @return {@code true} if {@code bits} contains all elements of
+   *  {@code other}
+   */
+  public static boolean containsAll(long bits, long other) {
+    return SmallIntegerSet.containsAll(bits, other);
+  }
+
+  /**
+   * Checks if the two sets have at least one element in common.
+   *
+   * @param a the first set
+   * @param b the second set
+   * @return {@code true} if there is at least one element contained in both
+   *  sets
+   */
+  public static boolean intersects(long a, long b) {
+    return (a & b) != 0L;
+  }
+
+  /**
+   * Returns the number of elements in the set.
+   *
+   * @param bits the set
+   * @return the number of elements in the set
+   */
+  public static int size(long bits) {
+    return SmallIntegerSet.size(bits);
+  }
+
+  /**
+   * Checks if the set contains no elements.
+   *
+   * @param bits the set
+   * @return {@code true} if the set contains no elements
+   */
+  public static boolean isEmpty(long bits) {
+    return SmallIntegerSet.isEmpty(bits);
+  }
+
+  /**
+   * Returns the lowest element in the set.
+   *
+   * @param bits the set
+   * @return the lowest element in the set
+   * @throws java.util.NoSuchElementException if the set is empty
+   */
+  public static int first(long bits) {
+    return SmallIntegerSet.first(bits);
+  }
+
+  /**
+   * Returns the highest element in the set.
+   *
+   * @param bits the set
+   * @return the highest element in the set
+   * @throws java.util.NoSuchElementException if the set is empty
+   */
+  public static int last(long bits) {
+    return SmallIntegerSet.last(bits);
+  }
+
+  /**
+   * Returns the least element in the set greater than or equal to the
+   * given element.
+   *
+   * @param bits the set
+   * @param e the value to match
+   * @return the least element greater than or equal to {@code e},
+   *         or {@code -1} if there is no such element
+   */
+  public static int ceiling(long bits, int e) {
+    return SmallIntegerSet.ceiling(bits, e);
+  }
+
+  /**
+   * Returns the greatest element in the set less than or equal to the
+   * given element.
+   *
+   * @param bits the set
+   * @param e the value to match
+   * @return the greatest element less than or equal to {@code e},
+   *         or {@code -1} if there is no such element
+   */
+  public static int floor(long bits, int e) {
+    return SmallIntegerSet.floor(bits, e);
+  }
+
+  /**
+   * Returns the least element in the set strictly greater than the
+   * given element.
+   *
+   * @param bits the set
+   * @param e the value to match
+   * @return the least element greater than {@code e},
+   *         or {@code -1} if there is no such element
+   */
+  public static int higher(long bits, int e) {
+    return SmallIntegerSet.higher(bits, e);
+  }
+
+  /**
+   * Returns the greatest element in the set strictly less than the
+   * given element.
+   *
+   * @param bits the set
+   * @param e the value to match
+   * @return the greatest element less than {@code e},
+   *         or {@code -1} if there is no such element
+   */
+  public static int lower(long bits, int e) {
+    return SmallIntegerSet.lower(bits, e);
+  }
+
+  /**
+   * Returns the union of the two sets.
+   *
+   * @param a the first set
+   * @param b the second set
+   * @return the set containing the elements contained in either set
+   */
+  public static long union(long a, long b) {
+    return a | b;
+  }
+
+  /**
+   * Returns the intersection of the two sets.
+   *
+   * @param a the first set
+   * @param b the second set
+   * @return the set containing the elements contained in both sets
+   */
+  public static long intersection(long a, long b) {
+    return a & b;
+  }
+
+  /**
+   * Returns the difference of the two sets.
+   *
+   * @param a the first set
+   * @param b the second set
+   * @return the set containing the elements of {@code a} that are not
+   *  contained in {@code b}
+   */
+  public static long difference(long a, long b) {
+    return a & ~b;
+  }
+
+  /**
+   * Returns the symmetric difference of the two sets.
+   *
+   * @param a the first set
+   * @param b the second set
+   * @return the set containing the elements contained in exactly one of
+   *  the two sets
+   */
+  public static long symmetricDifference(long a, long b) {
+    return a ^ b;
+  }
+
+  /**
+   * Returns the complement of the set.
+   *
+   * @param bits the set
+   * @return the set containing all supported elements not contained in
+   *  {@code bits}
+   */
+  public static long complement(long bits) {
+    return ~bits;
+  }
+
+  /**
+   * Performs the given action for each element of the set in ascending
+   * order.
+   *
+   * @param bits the set
+   * @param action the action to be performed for each element
+   */
+  public static void forEach(long bits, IntConsumer action) {
+    SmallIntegerSet.forEachInt(bits, action);
+  }
+
+  /**
+   * Returns an array containing all of the elements of the set in
+   * ascending order.
+   *
+   * @param bits the set
+   * @return an array containing all the elements of the set
+   */
+  public static int[] toArray(long bits) {
+    return SmallIntegerSet.toIntArray(bits);
+  }
+
+  /**
+   * Returns a {@link Spliterator} over the elements of the set.
+   *
+   * <p>The spliterator has the same characteristics as the one of
+   * {@link SmallIntegerSet}.</p>
+   *
+   * @param bits the set
+   * @return a spliterator over the elements of the set
+   */
+  public static Spliterator.OfInt spliterator(long bits) {
+    return new SmallIntegerSet.IntegerSetSpliterator(bits);
+  }
+
+  /**
+   * Returns a sequential {@link IntStream} over the elements of the set.
+   *
+   * @param bits the set
+   * @return a sequential stream over the elements of the set
+   */
+  public static IntStream stream(long bits) {
+    return StreamSupport.intStream(spliterator(bits), false);
+  }
+
+  /**
+   * Returns the number of elements of the set smaller than a value.
+   *
+   * @param bits the set
+   * @param i the value, does not have to be contained
+   * @return the number of elements less than {@code i}, for an element
+   *  its zero based index in ascending order
+   */
+  public static int rank(long bits, int i) {
+    return SmallIntegerSet.rank(bits, i);
+  }
+
+  /**
+   * Returns the element of the set with the given index in ascending order.
+   *
+   * @param bits the set
+   * @param k the zero based index of the element
+   * @return the {@code k}th smallest element
+   * @throws IndexOutOfBoundsException if {@code k} is negative or not less
+   *  than the size of the set
+   */
+  public static int select(long bits, int k) {
+    if (k < 0 || k >= size(bits)) {
+      throw new IndexOutOfBoundsException("k: " + k + ", size: " + size(bits));
+    }
+    return SmallIntegerSet.select(bits, k);
+  }
+
+  /**
+   * Returns the set containing the elements of a {@link BitSet}.
+   *
+   * @param bitSet the elements, not {@code null}
+   * @return the set containing the elements of {@code bitSet}
+   * @throws IllegalArgumentException if {@code bitSet} contains an element
+   *  that is not supported
+   */
+  public static long fromBitSet(BitSet bitSet) {
+    return SmallIntegerSet.bits(bitSet);
+  }
+
+  /**
+   * Returns a new {@link BitSet} containing the elements of the set.
+   *
+   * @param bits the set
+   * @return a new {@link BitSet} containing the elements of the set
+   */
+  public static BitSet toBitSet(long bits) {
+    return BitSet.valueOf(new long[] {bits});
+  }
+
+  /**
+   * Returns the hash code of the set.
+   *
+   * @param bits the set
+   * @return the same value as {@link Set#hashCode()} of an equal set
+   */
+  public static int hashCode(long bits) {
+    return SmallIntegerSet.hashCode(bits);
+  }
+
+  /**
+   * Returns a string representation of the set.
+   *
+   * @param bits the set
+   * @return the same value as {@link java.util.AbstractCollection#toString()} of an equal set
+   */
+  public static String toString(long bits) {
+    if (isEmpty(bits)) {
+      return "[]";
+    }
+    return SmallIntegerSet.toStringNotEmpty(bits);
+  }
+
+}
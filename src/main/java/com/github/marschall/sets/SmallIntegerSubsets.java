@@ -0,0 +1,494 @@
+package com.github.marschall.sets;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Enumerates the subsets of a set in the raw {@code long} representation
+ * of {@link SmallIntegerSets}.
+ *
+ * <p>All subsets are enumerated with the {@code (s - bits) & bits} walk in
+ * ascending order of their compressed representation, starting with the
+ * empty set and ending with the set itself. The subsets with exactly
+ * {@code k} elements are enumerated with
+ * <a href="https://en.wikipedia.org/wiki/Combinatorial_number_system#Applications">Gosper's hack</a>
+ * in the same order. A set with {@code n} elements has {@code 2^n} subsets
+ * and {@code n choose k} subsets with {@code k} elements.</p>
+ *
+ * <p>The {@code forEach} methods do not allocate. The methods taking a
+ * {@link Consumer} of {@link SmallIntegerSet} pass the same instance for
+ * every subset, only its elements change. The spliterators split the
+ * subsets in half by rank so that parallel streams can spread the
+ * enumeration across a {@link java.util.concurrent.ForkJoinPool}.</p>
+ */
+public final class SmallIntegerSubsets {
+
+  /**
+   * {@code BINOMIAL[n][k]} is {@code n choose k}, zero if {@code k > n}.
+   * All of them fit into a {@code long}.
+   */
+  private static final long[][] BINOMIAL = binomials();
+
+  private SmallIntegerSubsets() {
+    throw new AssertionError("not instantiable");
+  }
+
+  private static long[][] binomials() {
+    long[][] binomials = new long[Long.SIZE + 1][Long.SIZE + 1];
+    binomials[0][0] = 1L;
+    for (int n = 1; n <= Long.SIZE; n++) {
+      binomials[n][0] = 1L;
+      for (int k = 1; k <= n; k++) {
+        binomials[n][k] = binomials[n - 1][k - 1] + binomials[n - 1][k];
+      }
+    }
+    return binomials;
+  }
+
+  /**
+   * Performs the given action for every subset of a set.
+   *
+   * @param bits the set
+   * @param action the action to be performed for each subset, called with
+   *  the raw bit representation of the subset
+   */
+  public static void forEach(long bits, LongConsumer action) {
+    long subset = 0L;
+    do {
+      action.accept(subset);
+      subset = (subset - bits) & bits;
+    } while (subset != 0L);
+  }
+
+  /**
+   * Performs the given action for every subset of a set with exactly
+   * {@code k} elements.
+   *
+   * @param bits the set
+   * @param k the number of elements of the subsets
+   * @param action the action to be performed for each subset, called with
+   *  the raw bit representation of the subset
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public static void forEach(long bits, int k, LongConsumer action) {
+    int n = checkK(bits, k);
+    if (k > n) {
+      return;
+    }
+    long combination = lowest(k);
+    long last = highest(n, k);
+    while (true) {
+      action.accept(deposit(combination, bits));
+      if (combination == last) {
+        return;
+      }
+      combination = next(combination);
+    }
+  }
+
+  /**
+   * Performs the given action for every subset of a set.
+   *
+   * <p>The same {@link SmallIntegerSet} instance is passed for every
+   * subset, it has to be copied if it is retained. Modifying it does not
+   * affect the enumeration.</p>
+   *
+   * @param bits the set
+   * @param action the action to be performed for each subset
+   */
+  public static void forEachSet(long bits, Consumer<? super SmallIntegerSet> action) {
+    SmallIntegerSet set = new SmallIntegerSet();
+    forEach(bits, subset -> {
+      set.values = subset;
+      action.accept(set);
+    });
+  }
+
+  /**
+   * Performs the given action for every subset of a set with exactly
+   * {@code k} elements.
+   *
+   * <p>The same {@link SmallIntegerSet} instance is passed for every
+   * subset, it has to be copied if it is retained. Modifying it does not
+   * affect the enumeration.</p>
+   *
+   * @param bits the set
+   * @param k the number of elements of the subsets
+   * @param action the action to be performed for each subset
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public static void forEachSet(long bits, int k, Consumer<? super SmallIntegerSet> action) {
+    SmallIntegerSet set = new SmallIntegerSet();
+    forEach(bits, k, subset -> {
+      set.values = subset;
+      action.accept(set);
+    });
+  }
+
+  /**
+   * Returns the number of subsets of a set with exactly {@code k} elements.
+   *
+   * @param bits the set
+   * @param k the number of elements of the subsets
+   * @return {@code n choose k} where {@code n} is the size of the set
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public static long count(long bits, int k) {
+    int n = checkK(bits, k);
+    if (k > n) {
+      return 0L;
+    }
+    return BINOMIAL[n][k];
+  }
+
+  /**
+   * Returns a {@link Spliterator} over all subsets of a set.
+   *
+   * <p>The spliterator is {@link Spliterator#SIZED} unless the set has
+   * more than 62 elements.</p>
+   *
+   * @param bits the set
+   * @return a spliterator over the raw bit representation of the subsets
+   */
+  public static Spliterator.OfLong spliterator(long bits) {
+    return new SubsetSpliterator(bits, 0L, lowest(Long.bitCount(bits)), 0L);
+  }
+
+  /**
+   * Returns a {@link Spliterator} over the subsets of a set with exactly
+   * {@code k} elements.
+   *
+   * @param bits the set
+   * @param k the number of elements of the subsets
+   * @return a spliterator over the raw bit representation of the subsets
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public static Spliterator.OfLong spliterator(long bits, int k) {
+    long count = count(bits, k);
+    return new CombinationSpliterator(bits, k, count, lowest(k));
+  }
+
+  /**
+   * Returns a sequential {@link LongStream} over all subsets of a set.
+   *
+   * @param bits the set
+   * @return a sequential stream over the raw bit representation of the
+   *  subsets
+   */
+  public static LongStream stream(long bits) {
+    return StreamSupport.longStream(spliterator(bits), false);
+  }
+
+  /**
+   * Returns a sequential {@link LongStream} over the subsets of a set with
+   * exactly {@code k} elements.
+   *
+   * @param bits the set
+   * @param k the number of elements of the subsets
+   * @return a sequential stream over the raw bit representation of the
+   *  subsets
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public static LongStream stream(long bits, int k) {
+    return StreamSupport.longStream(spliterator(bits, k), false);
+  }
+
+  /**
+   * Returns a parallel {@link LongStream} over all subsets of a set.
+   *
+   * @param bits the set
+   * @return a parallel stream over the raw bit representation of the
+   *  subsets
+   */
+  public static LongStream parallelStream(long bits) {
+    return StreamSupport.longStream(spliterator(bits), true);
+  }
+
+  /**
+   * Returns a parallel {@link LongStream} over the subsets of a set with
+   * exactly {@code k} elements.
+   *
+   * @param bits the set
+   * @param k the number of elements of the subsets
+   * @return a parallel stream over the raw bit representation of the
+   *  subsets
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public static LongStream parallelStream(long bits, int k) {
+    return StreamSupport.longStream(spliterator(bits, k), true);
+  }
+
+  private static int checkK(long bits, int k) {
+    if (k < 0) {
+      throw new IllegalArgumentException("negative k: " + k);
+    }
+    return Long.bitCount(bits);
+  }
+
+  /**
+   * The first combination of {@code k} out of {@code n}, also the
+   * compressed index of the last subset of a set with {@code k} elements.
+   */
+  private static long lowest(int k) {
+    return k == 0 ? 0L : -1L >>> (Long.SIZE - k);
+  }
+
+  /**
+   * The last combination of {@code k} out of {@code n}.
+   */
+  private static long highest(int n, int k) {
+    return lowest(k) << (n - k);
+  }
+
+  /**
+   * Gosper's hack, the next higher number with the same number of bits
+   * set. Must not be called with the last combination.
+   */
+  static long next(long combination) {
+    long lowest = combination & -combination;
+    long ripple = combination + lowest;
+    return ripple | (((ripple ^ combination) >>> 2) >>> Long.numberOfTrailingZeros(lowest));
+  }
+
+  /**
+   * Software version of the {@code PDEP} instruction, deposits the low bits
+   * of {@code compressed} into the set bits of {@code mask}.
+   */
+  static long deposit(long compressed, long mask) {
+    if ((mask & (mask + 1L)) == 0L) {
+      // mask is contiguous from bit 0, nothing to spread
+      return compressed;
+    }
+    long result = 0L;
+    long remaining = mask;
+    for (long bit = 1L; remaining != 0L; bit <<= 1) {
+      if ((compressed & bit) != 0L) {
+        result |= remaining & -remaining;
+      }
+      remaining &= remaining - 1L;
+    }
+    return result;
+  }
+
+  /**
+   * The combination of {@code k} elements with the given rank in ascending
+   * order, using the combinatorial number system.
+   */
+  static long unrank(long rank, int k) {
+    long combination = 0L;
+    long remaining = rank;
+    for (int i = k; i > 0; i--) {
+      int position = i - 1;
+      while (position < Long.SIZE - 1 && BINOMIAL[position + 1][i] <= remaining) {
+        position += 1;
+      }
+      combination |= 1L << position;
+      remaining -= BINOMIAL[position][i];
+    }
+    return combination;
+  }
+
+  /**
+   * Spliterator over all subsets of a set.
+   *
+   * <p>Works on the compressed index of the subsets, {@link #deposit(long, long)}
+   * is only needed when splitting.</p>
+   */
+  static final class SubsetSpliterator implements Spliterator.OfLong {
+
+    private static final int CHARACTERISTICS = DISTINCT | ORDERED | NONNULL | IMMUTABLE;
+
+    private final long mask;
+
+    // compressed index of the next subset
+    private long index;
+
+    // compressed index of the last subset, inclusive
+    private final long lastIndex;
+
+    private long subset;
+
+    private boolean exhausted;
+
+    private final int characteristics;
+
+    SubsetSpliterator(long mask, long index, long lastIndex, long subset) {
+      this.mask = mask;
+      this.index = index;
+      this.lastIndex = lastIndex;
+      this.subset = subset;
+      if (lastIndex - index + 1L <= 0L) {
+        // 2^63 or 2^64 subsets
+        this.characteristics = CHARACTERISTICS;
+      } else {
+        this.characteristics = CHARACTERISTICS | SIZED | SUBSIZED;
+      }
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+      if (this.exhausted) {
+        return false;
+      }
+      long current = this.subset;
+      if (this.index == this.lastIndex) {
+        this.exhausted = true;
+      } else {
+        this.index += 1L;
+        this.subset = (current - this.mask) & this.mask;
+      }
+      action.accept(current);
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+      if (this.exhausted) {
+        return;
+      }
+      this.exhausted = true;
+      long mask = this.mask;
+      long current = this.subset;
+      // unsigned count - 1, the count itself could overflow
+      long remaining = this.lastIndex - this.index;
+      while (true) {
+        action.accept(current);
+        if (remaining == 0L) {
+          return;
+        }
+        remaining -= 1L;
+        current = (current - mask) & mask;
+      }
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+      if (this.exhausted || this.index == this.lastIndex) {
+        return null;
+      }
+      long middle = this.index + ((this.lastIndex - this.index) >>> 1);
+      SubsetSpliterator prefix = new SubsetSpliterator(this.mask, this.index, middle, this.subset);
+      this.index = middle + 1L;
+      this.subset = deposit(this.index, this.mask);
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      if (this.exhausted) {
+        return 0L;
+      }
+      long size = this.lastIndex - this.index + 1L;
+      if (size <= 0L) {
+        // too large
+        return Long.MAX_VALUE;
+      }
+      return size;
+    }
+
+    @Override
+    public int characteristics() {
+      return this.characteristics;
+    }
+
+  }
+
+  /**
+   * Spliterator over the subsets of a set with {@code k} elements.
+   *
+   * <p>Enumerates the compressed combinations with {@link #next(long)} and
+   * deposits them into the set. Splits at the middle rank with
+   * {@link #unrank(long, int)}.</p>
+   */
+  static final class CombinationSpliterator implements Spliterator.OfLong {
+
+    private static final int CHARACTERISTICS = DISTINCT | ORDERED | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+
+    private final long mask;
+
+    private final int k;
+
+    private long remaining;
+
+    // the next combination in compressed form
+    private long combination;
+
+    CombinationSpliterator(long mask, int k, long remaining, long combination) {
+      this.mask = mask;
+      this.k = k;
+      this.remaining = remaining;
+      this.combination = combination;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+      if (this.remaining == 0L) {
+        return false;
+      }
+      long current = this.combination;
+      this.remaining -= 1L;
+      if (this.remaining > 0L) {
+        this.combination = next(current);
+      }
+      action.accept(deposit(current, this.mask));
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+      long mask = this.mask;
+      long current = this.combination;
+      long remaining = this.remaining;
+      this.remaining = 0L;
+      while (remaining > 0L) {
+        action.accept(deposit(current, mask));
+        remaining -= 1L;
+        if (remaining > 0L) {
+          current = next(current);
+        }
+      }
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+      long prefixSize = this.remaining >>> 1;
+      if (prefixSize == 0L) {
+        return null;
+      }
+      CombinationSpliterator prefix = new CombinationSpliterator(this.mask, this.k, prefixSize, this.combination);
+      long rank = rank(this.combination, this.k) + prefixSize;
+      this.remaining -= prefixSize;
+      this.combination = unrank(rank, this.k);
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return this.remaining;
+    }
+
+    @Override
+    public int characteristics() {
+      return CHARACTERISTICS;
+    }
+
+  }
+
+  /**
+   * The rank of a combination of {@code k} elements in ascending order,
+   * the inverse of {@link #unrank(long, int)}.
+   */
+  static long rank(long combination, int k) {
+    long rank = 0L;
+    long remaining = combination;
+    for (int i = 1; i <= k; i++) {
+      rank += BINOMIAL[Long.numberOfTrailingZeros(remaining)][i];
+      remaining &= remaining - 1L;
+    }
+    return rank;
+  }
+
+}
@@ -0,0 +1,348 @@
+package com.github.marschall.sets;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * An unmodifiable view of a {@link SmallIntegerSet} or one of its range
+ * views.
+ *
+ * <p>Unlike {@link java.util.Collections#unmodifiableSet(java.util.Set)}
+ * this view still takes the bitwise fast paths in bulk operations and
+ * {@link #equals(Object)}.</p>
+ *
+ * <p>All operations that would modify the set throw an
+ * {@link UnsupportedOperationException}.</p>
+ *
+ * <p>Serializes as an {@link ImmutableSmallIntegerSet} with the elements
+ * at the time of writing since the range views of
+ * {@link SmallIntegerSet} are not serializable.</p>
+ */
+final class UnmodifiableSmallIntegerSet implements IntNavigableSet, SmallIntegerBits, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The backing set, also a {@link SmallIntegerBits}.
+   */
+  private final IntNavigableSet delegate;
+
+  UnmodifiableSmallIntegerSet(IntNavigableSet delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public long toBits() {
+    return ((SmallIntegerBits) this.delegate).toBits();
+  }
+
+  @Override
+  public Comparator<? super Integer> comparator() {
+    return this.delegate.comparator();
+  }
+
+  @Override
+  public Integer first() {
+    return this.delegate.first();
+  }
+
+  @Override
+  public Integer last() {
+    return this.delegate.last();
+  }
+
+  @Override
+  public int size() {
+    return this.delegate.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.delegate.isEmpty();
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return this.delegate.contains(o);
+  }
+
+  @Override
+  public boolean containsInt(int i) {
+    return this.delegate.containsInt(i);
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> c) {
+    return this.delegate.containsAll(c);
+  }
+
+  @Override
+  public Object[] toArray() {
+    return this.delegate.toArray();
+  }
+
+  @Override
+  public <T> T[] toArray(T[] a) {
+    return this.delegate.toArray(a);
+  }
+
+  @Override
+  public int[] toIntArray() {
+    return this.delegate.toIntArray();
+  }
+
+  @Override
+  public boolean add(Integer e) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean addInt(int i) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean removeInt(int i) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Integer> c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super Integer> filter) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean removeIfInt(IntPredicate filter) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Integer pollFirst() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Integer pollLast() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void forEach(Consumer<? super Integer> action) {
+    this.delegate.forEach(action);
+  }
+
+  @Override
+  public void forEachInt(IntConsumer action) {
+    this.delegate.forEachInt(action);
+  }
+
+  @Override
+  public Iterator<Integer> iterator() {
+    return new UnmodifiableIterator(this.delegate.intIterator());
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return new UnmodifiableIterator(this.delegate.intIterator());
+  }
+
+  @Override
+  public Iterator<Integer> descendingIterator() {
+    return new UnmodifiableIterator((PrimitiveIterator.OfInt) this.delegate.descendingIterator());
+  }
+
+  @Override
+  public NavigableSet<Integer> descendingSet() {
+    return new DescendingIntegerSet(this);
+  }
+
+  @Override
+  public Spliterator<Integer> spliterator() {
+    // spliterators don't support removal
+    return this.delegate.spliterator();
+  }
+
+  @Override
+  public Stream<Integer> stream() {
+    return this.delegate.stream();
+  }
+
+  @Override
+  public Stream<Integer> parallelStream() {
+    return this.delegate.parallelStream();
+  }
+
+  @Override
+  public IntStream intStream() {
+    return this.delegate.intStream();
+  }
+
+  @Override
+  public Integer lower(Integer e) {
+    return this.delegate.lower(e);
+  }
+
+  @Override
+  public int lowerInt(int e) {
+    return this.delegate.lowerInt(e);
+  }
+
+  @Override
+  public Integer floor(Integer e) {
+    return this.delegate.floor(e);
+  }
+
+  @Override
+  public int floorInt(int e) {
+    return this.delegate.floorInt(e);
+  }
+
+  @Override
+  public Integer ceiling(Integer e) {
+    return this.delegate.ceiling(e);
+  }
+
+  @Override
+  public int ceilingInt(int e) {
+    return this.delegate.ceilingInt(e);
+  }
+
+  @Override
+  public Integer higher(Integer e) {
+    return this.delegate.higher(e);
+  }
+
+  @Override
+  public int higherInt(int e) {
+    return this.delegate.higherInt(e);
+  }
+
+  @Override
+  public IntNavigableSet subSet(Integer fromElement, boolean fromInclusive, Integer toElement, boolean toInclusive) {
+    return new UnmodifiableSmallIntegerSet(this.delegate.subSet(fromElement, fromInclusive, toElement, toInclusive));
+  }
+
+  @Override
+  public IntNavigableSet headSet(Integer toElement, boolean inclusive) {
+    return new UnmodifiableSmallIntegerSet(this.delegate.headSet(toElement, inclusive));
+  }
+
+  @Override
+  public IntNavigableSet tailSet(Integer fromElement, boolean inclusive) {
+    return new UnmodifiableSmallIntegerSet(this.delegate.tailSet(fromElement, inclusive));
+  }
+
+  @Override
+  public IntNavigableSet subSet(Integer fromElement, Integer toElement) {
+    return this.subSet(fromElement, true, toElement, false);
+  }
+
+  @Override
+  public IntNavigableSet headSet(Integer toElement) {
+    return this.headSet(toElement, false);
+  }
+
+  @Override
+  public IntNavigableSet tailSet(Integer fromElement) {
+    return this.tailSet(fromElement, true);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.delegate.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    return this.delegate.equals(obj);
+  }
+
+  @Override
+  public String toString() {
+    return this.delegate.toString();
+  }
+
+  static final class UnmodifiableIterator implements PrimitiveIterator.OfInt {
+
+    private final PrimitiveIterator.OfInt delegate;
+
+    UnmodifiableIterator(PrimitiveIterator.OfInt delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.delegate.hasNext();
+    }
+
+    @Override
+    public int nextInt() {
+      return this.delegate.nextInt();
+    }
+
+    @Override
+    public Integer next() {
+      return this.delegate.nextInt();
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      this.delegate.forEachRemaining(action);
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Integer> action) {
+      this.delegate.forEachRemaining(action);
+    }
+
+  }
+
+  private Object writeReplace() {
+    return ImmutableSmallIntegerSet.fromBits(this.toBits());
+  }
+
+}
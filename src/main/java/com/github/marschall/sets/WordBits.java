@@ -0,0 +1,33 @@
+package com.github.marschall.sets;
+
+/**
+ * A collection whose elements can be represented as a sequence of
+ * {@code long} words.
+ *
+ * <p>Bit {@code i % 64} of word {@code i / 64} is set if the element
+ * {@code i} is contained. Like {@link SmallIntegerBits} but for more than
+ * 64 elements.</p>
+ *
+ * <p>Bulk operations check for this interface so that they can work one
+ * word at a time instead of one element at a time.</p>
+ */
+interface WordBits {
+
+  /**
+   * Returns the number of words.
+   *
+   * @return the number of words, words with a higher index are always
+   *  {@code 0}
+   */
+  int wordCount();
+
+  /**
+   * Returns the word with the given index.
+   *
+   * @param index the index of the word, between {@code 0} and
+   *  {@link #wordCount()} exclusive
+   * @return the word with the given index
+   */
+  long getWord(int index);
+
+}
@@ -0,0 +1,312 @@
+package com.github.marschall.sets;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.github.marschall.sets.WordBitsSupport.DescendingWordBitsIterator;
+import com.github.marschall.sets.WordBitsSupport.WordBitsIterator;
+import com.github.marschall.sets.WordBitsSupport.WordBitsSpliterator;
+
+/**
+ * A range view of a set backed by words.
+ *
+ * <p>Writes through to the backing set, adding elements outside the range
+ * throws an {@link IllegalArgumentException}.</p>
+ */
+final class WordBitsSubSet implements IntNavigableSet, WordBits {
+
+  private final MutableWordBits bits;
+
+  /**
+   * The lowest element of the range, inclusive.
+   */
+  private final int from;
+
+  /**
+   * The highest element of the range, inclusive.
+   */
+  private final int to;
+
+  WordBitsSubSet(MutableWordBits bits, int from, int to) {
+    this.bits = bits;
+    this.from = from;
+    this.to = to;
+  }
+
+  @Override
+  public int wordCount() {
+    return this.bits.wordCount();
+  }
+
+  @Override
+  public long getWord(int index) {
+    return WordBitsSupport.word(this.bits, index, this.from, this.to);
+  }
+
+  @Override
+  public int size() {
+    return WordBitsSupport.size(this.bits, this.from, this.to);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return WordBitsSupport.isEmpty(this.bits, this.from, this.to);
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return WordBitsSupport.contains(this.bits, this.from, this.to, (Integer) o);
+  }
+
+  @Override
+  public boolean containsInt(int i) {
+    return WordBitsSupport.contains(this.bits, this.from, this.to, i);
+  }
+
+  @Override
+  public boolean add(Integer e) {
+    return WordBitsSupport.add(this.bits, this.from, this.to, e);
+  }
+
+  @Override
+  public boolean addInt(int i) {
+    return WordBitsSupport.add(this.bits, this.from, this.to, i);
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    return WordBitsSupport.remove(this.bits, this.from, this.to, (Integer) o);
+  }
+
+  @Override
+  public boolean removeInt(int i) {
+    return WordBitsSupport.remove(this.bits, this.from, this.to, i);
+  }
+
+  @Override
+  public void clear() {
+    WordBitsSupport.clear(this.bits, this.from, this.to);
+  }
+
+  @Override
+  public Comparator<? super Integer> comparator() {
+    // natural order
+    return null;
+  }
+
+  @Override
+  public Integer first() {
+    return WordBitsSupport.first(this.bits, this.from, this.to);
+  }
+
+  @Override
+  public Integer last() {
+    return WordBitsSupport.last(this.bits, this.from, this.to);
+  }
+
+  @Override
+  public Integer ceiling(Integer e) {
+    return SmallIntegerSet.boxOrNull(this.ceilingInt(e));
+  }
+
+  @Override
+  public int ceilingInt(int e) {
+    return WordBitsSupport.ceiling(this.bits, this.from, this.to, e);
+  }
+
+  @Override
+  public Integer higher(Integer e) {
+    return SmallIntegerSet.boxOrNull(this.higherInt(e));
+  }
+
+  @Override
+  public int higherInt(int e) {
+    return WordBitsSupport.higher(this.bits, this.from, this.to, e);
+  }
+
+  @Override
+  public Integer floor(Integer e) {
+    return SmallIntegerSet.boxOrNull(this.floorInt(e));
+  }
+
+  @Override
+  public int floorInt(int e) {
+    return WordBitsSupport.floor(this.bits, this.from, this.to, e);
+  }
+
+  @Override
+  public Integer lower(Integer e) {
+    return SmallIntegerSet.boxOrNull(this.lowerInt(e));
+  }
+
+  @Override
+  public int lowerInt(int e) {
+    return WordBitsSupport.lower(this.bits, this.from, this.to, e);
+  }
+
+  @Override
+  public Integer pollFirst() {
+    return SmallIntegerSet.boxOrNull(WordBitsSupport.pollFirst(this.bits, this.from, this.to));
+  }
+
+  @Override
+  public Integer pollLast() {
+    return SmallIntegerSet.boxOrNull(WordBitsSupport.pollLast(this.bits, this.from, this.to));
+  }
+
+  @Override
+  public NavigableSet<Integer> descendingSet() {
+    return new DescendingIntegerSet(this);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt descendingIterator() {
+    return new DescendingWordBitsIterator(this.bits, this.from, this.to);
+  }
+
+  @Override
+  public IntNavigableSet subSet(Integer fromElement, boolean fromInclusive, Integer toElement, boolean toInclusive) {
+    return (IntNavigableSet) WordBitsSupport.subSet(this.bits, this, this.from, this.to,
+            fromElement, fromInclusive, toElement, toInclusive);
+  }
+
+  @Override
+  public IntNavigableSet headSet(Integer toElement, boolean inclusive) {
+    return (IntNavigableSet) WordBitsSupport.headSet(this.bits, this, this.from, this.to, toElement, inclusive);
+  }
+
+  @Override
+  public IntNavigableSet tailSet(Integer fromElement, boolean inclusive) {
+    return (IntNavigableSet) WordBitsSupport.tailSet(this.bits, this, this.from, this.to, fromElement, inclusive);
+  }
+
+  @Override
+  public IntNavigableSet subSet(Integer fromElement, Integer toElement) {
+    return this.subSet(fromElement, true, toElement, false);
+  }
+
+  @Override
+  public IntNavigableSet headSet(Integer toElement) {
+    return this.headSet(toElement, false);
+  }
+
+  @Override
+  public IntNavigableSet tailSet(Integer fromElement) {
+    return this.tailSet(fromElement, true);
+  }
+
+  @Override
+  public Iterator<Integer> iterator() {
+    return new WordBitsIterator(this.bits, this.from, this.to);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return new WordBitsIterator(this.bits, this.from, this.to);
+  }
+
+  @Override
+  public Spliterator<Integer> spliterator() {
+    return new WordBitsSpliterator(this.bits, this.from, this.to);
+  }
+
+  @Override
+  public Stream<Integer> stream() {
+    return StreamSupport.stream(this.spliterator(), false);
+  }
+
+  @Override
+  public Stream<Integer> parallelStream() {
+    return StreamSupport.stream(this.spliterator(), true);
+  }
+
+  @Override
+  public IntStream intStream() {
+    return StreamSupport.intStream(new WordBitsSpliterator(this.bits, this.from, this.to), false);
+  }
+
+  @Override
+  public void forEach(Consumer<? super Integer> action) {
+    WordBitsSupport.forEach(this.bits, this.from, this.to, action);
+  }
+
+  @Override
+  public void forEachInt(IntConsumer action) {
+    WordBitsSupport.forEachInt(this.bits, this.from, this.to, action);
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super Integer> filter) {
+    return WordBitsSupport.removeIf(this.bits, this.from, this.to, filter::test);
+  }
+
+  @Override
+  public boolean removeIfInt(IntPredicate filter) {
+    return WordBitsSupport.removeIf(this.bits, this.from, this.to, filter);
+  }
+
+  @Override
+  public Object[] toArray() {
+    return WordBitsSupport.toArray(this.bits, this.from, this.to);
+  }
+
+  @Override
+  public <T> T[] toArray(T[] a) {
+    return WordBitsSupport.toArray(this.bits, this.from, this.to, a);
+  }
+
+  @Override
+  public int[] toIntArray() {
+    return WordBitsSupport.toIntArray(this.bits, this.from, this.to);
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> c) {
+    return WordBitsSupport.containsAll(this.bits, this.from, this.to, c);
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Integer> c) {
+    return WordBitsSupport.addAll(this.bits, this.from, this.to, c);
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    return WordBitsSupport.retainAll(this.bits, this.from, this.to, c);
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    return WordBitsSupport.removeAll(this.bits, this.from, this.to, c);
+  }
+
+  @Override
+  public int hashCode() {
+    return WordBitsSupport.hashCode(this.bits, this.from, this.to);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    return WordBitsSupport.equals(this.bits, this.from, this.to, obj);
+  }
+
+  @Override
+  public String toString() {
+    return WordBitsSupport.toString(this.bits, this.from, this.to);
+  }
+
+}
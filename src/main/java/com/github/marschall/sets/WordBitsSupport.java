@@ -0,0 +1,840 @@
+package com.github.marschall.sets;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+import com.github.marschall.sets.SmallIntegerSet.IntegerSetSpliterator;
+
+/**
+ * Set operations on {@link WordBits} restricted to a range of elements.
+ *
+ * <p>The range is given by its lowest and highest element, both inclusive.
+ * A range with the lowest element greater than the highest element is
+ * empty. This allows the same code to be used for sets and their range
+ * views.</p>
+ */
+final class WordBitsSupport {
+
+  static final int NONE = -1;
+
+  private WordBitsSupport() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Computes the bits of a word that are inside a range.
+   *
+   * @param wordIndex the index of the word
+   * @param from the lowest element of the range, inclusive
+   * @param to the highest element of the range, inclusive
+   * @return the bits of the word that are inside the range
+   */
+  static long rangeMask(int wordIndex, int from, int to) {
+    long wordStart = (long) wordIndex << 6;
+    long low = Math.max(from - wordStart, 0L);
+    long high = Math.min(to - wordStart, 63L);
+    if (low > high) {
+      return 0L;
+    }
+    return (-1L << low) & (-1L >>> (63L - high));
+  }
+
+  static long word(WordBits bits, int wordIndex, int from, int to) {
+    return bits.getWord(wordIndex) & rangeMask(wordIndex, from, to);
+  }
+
+  /**
+   * Computes the index of the last word to look at for a range.
+   *
+   * <p>Words past {@link WordBits#wordCount()} are always {@code 0} so
+   * ranges up to {@link Integer#MAX_VALUE} don't cause unnecessary work.</p>
+   *
+   * @param bits the set
+   * @param to the highest element of the range, inclusive
+   * @return the index of the last word to look at, less than the index
+   *  of the first word if there is nothing to look at
+   */
+  static int lastWordIndex(WordBits bits, int to) {
+    return Math.min(to >>> 6, bits.wordCount() - 1);
+  }
+
+  static boolean isInRange(int from, int to, int i) {
+    return i >= from && i <= to;
+  }
+
+  static boolean contains(WordBits bits, int from, int to, int i) {
+    if (!isInRange(from, to, i)) {
+      return false;
+    }
+    return (bits.getWord(i >>> 6) & (1L << i)) != 0L;
+  }
+
+  static boolean add(MutableWordBits bits, int from, int to, int i) {
+    if (!isInRange(from, to, i)) {
+      throw new IllegalArgumentException();
+    }
+    int wordIndex = i >>> 6;
+    long before = bits.getWord(wordIndex);
+    long after = before | (1L << i);
+    bits.setWord(wordIndex, after);
+    return before != after;
+  }
+
+  static boolean remove(MutableWordBits bits, int from, int to, int i) {
+    if (!isInRange(from, to, i)) {
+      return false;
+    }
+    int wordIndex = i >>> 6;
+    long before = bits.getWord(wordIndex);
+    long after = before & ~(1L << i);
+    bits.setWord(wordIndex, after);
+    return before != after;
+  }
+
+  static void clear(MutableWordBits bits, int from, int to) {
+    if (from > to) {
+      return;
+    }
+    for (int i = from >>> 6, last = lastWordIndex(bits, to); i <= last; i++) {
+      bits.setWord(i, bits.getWord(i) & ~rangeMask(i, from, to));
+    }
+  }
+
+  static int size(WordBits bits, int from, int to) {
+    if (from > to) {
+      return 0;
+    }
+    int size = 0;
+    for (int i = from >>> 6, last = lastWordIndex(bits, to); i <= last; i++) {
+      size += Long.bitCount(word(bits, i, from, to));
+    }
+    return size;
+  }
+
+  static boolean isEmpty(WordBits bits, int from, int to) {
+    return nextSetBit(bits, from, to) == NONE;
+  }
+
+  /**
+   * Finds the lowest element in a range.
+   *
+   * @param bits the set to search
+   * @param fromIndex the lowest element to consider, inclusive
+   * @param to the highest element to consider, inclusive
+   * @return the lowest element between {@code fromIndex} and {@code to},
+   *  {@value #NONE} if there is none
+   */
+  static int nextSetBit(WordBits bits, int fromIndex, int to) {
+    if (fromIndex > to) {
+      return NONE;
+    }
+    int wordIndex = fromIndex >>> 6;
+    int lastWordIndex = lastWordIndex(bits, to);
+    if (wordIndex > lastWordIndex) {
+      return NONE;
+    }
+    long lastWordMask = lastWordIndex == to >>> 6 ? -1L >>> (63 - (to & 63)) : -1L;
+    long word = bits.getWord(wordIndex) & (-1L << fromIndex);
+    while (true) {
+      if (wordIndex == lastWordIndex) {
+        word &= lastWordMask;
+      }
+      if (word != 0L) {
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+      }
+      if (wordIndex == lastWordIndex) {
+        return NONE;
+      }
+      word = bits.getWord(++wordIndex);
+    }
+  }
+
+  /**
+   * Finds the highest element in a range.
+   *
+   * @param bits the set to search
+   * @param fromIndex the highest element to consider, inclusive
+   * @param from the lowest element to consider, inclusive
+   * @return the highest element between {@code from} and {@code fromIndex},
+   *  {@value #NONE} if there is none
+   */
+  static int previousSetBit(WordBits bits, int fromIndex, int from) {
+    if (fromIndex < from) {
+      return NONE;
+    }
+    int wordIndex = fromIndex >>> 6;
+    int firstWordIndex = from >>> 6;
+    long word;
+    if (wordIndex < bits.wordCount()) {
+      word = bits.getWord(wordIndex) & (-1L >>> (63 - (fromIndex & 63)));
+    } else {
+      // skip the words that are always 0
+      wordIndex = bits.wordCount() - 1;
+      if (wordIndex < firstWordIndex) {
+        return NONE;
+      }
+      word = bits.getWord(wordIndex);
+    }
+    while (true) {
+      if (wordIndex == firstWordIndex) {
+        word &= -1L << from;
+      }
+      if (word != 0L) {
+        return (wordIndex << 6) + 63 - Long.numberOfLeadingZeros(word);
+      }
+      if (wordIndex == firstWordIndex) {
+        return NONE;
+      }
+      word = bits.getWord(--wordIndex);
+    }
+  }
+
+  static int first(WordBits bits, int from, int to) {
+    int first = nextSetBit(bits, from, to);
+    if (first == NONE) {
+      throw new NoSuchElementException();
+    }
+    return first;
+  }
+
+  static int last(WordBits bits, int from, int to) {
+    int last = previousSetBit(bits, to, from);
+    if (last == NONE) {
+      throw new NoSuchElementException();
+    }
+    return last;
+  }
+
+  static int ceiling(WordBits bits, int from, int to, int e) {
+    return nextSetBit(bits, Math.max(e, from), to);
+  }
+
+  static int higher(WordBits bits, int from, int to, int e) {
+    if (e >= to) {
+      return NONE;
+    }
+    return ceiling(bits, from, to, e + 1);
+  }
+
+  static int floor(WordBits bits, int from, int to, int e) {
+    return previousSetBit(bits, Math.min(e, to), from);
+  }
+
+  static int lower(WordBits bits, int from, int to, int e) {
+    if (e <= from) {
+      return NONE;
+    }
+    return floor(bits, from, to, e - 1);
+  }
+
+  static int pollFirst(MutableWordBits bits, int from, int to) {
+    int first = nextSetBit(bits, from, to);
+    if (first != NONE) {
+      unset(bits, first);
+    }
+    return first;
+  }
+
+  static int pollLast(MutableWordBits bits, int from, int to) {
+    int last = previousSetBit(bits, to, from);
+    if (last != NONE) {
+      unset(bits, last);
+    }
+    return last;
+  }
+
+  private static void unset(MutableWordBits bits, int i) {
+    int wordIndex = i >>> 6;
+    bits.setWord(wordIndex, bits.getWord(wordIndex) & ~(1L << i));
+  }
+
+  static void forEach(WordBits bits, int from, int to, Consumer<? super Integer> action) {
+    if (from > to) {
+      return;
+    }
+    for (int i = from >>> 6, last = lastWordIndex(bits, to); i <= last; i++) {
+      long remaining = word(bits, i, from, to);
+      int wordStart = i << 6;
+      while (remaining != 0L) {
+        action.accept(wordStart + Long.numberOfTrailingZeros(remaining));
+        remaining &= remaining - 1L;
+      }
+    }
+  }
+
+  static void forEachInt(WordBits bits, int from, int to, IntConsumer action) {
+    if (from > to) {
+      return;
+    }
+    for (int i = from >>> 6, last = lastWordIndex(bits, to); i <= last; i++) {
+      long remaining = word(bits, i, from, to);
+      int wordStart = i << 6;
+      while (remaining != 0L) {
+        action.accept(wordStart + Long.numberOfTrailingZeros(remaining));
+        remaining &= remaining - 1L;
+      }
+    }
+  }
+
+  static boolean removeIf(MutableWordBits bits, int from, int to, IntPredicate filter) {
+    if (from > to) {
+      return false;
+    }
+    int firstWordIndex = from >>> 6;
+    int lastWordIndex = lastWordIndex(bits, to);
+    if (lastWordIndex < firstWordIndex) {
+      return false;
+    }
+    // test all elements before removing any so that an exception in the
+    // predicate leaves the set unchanged
+    long[] matching = new long[lastWordIndex - firstWordIndex + 1];
+    boolean changed = false;
+    for (int i = firstWordIndex; i <= lastWordIndex; i++) {
+      long remaining = word(bits, i, from, to);
+      int wordStart = i << 6;
+      long matchingWord = 0L;
+      while (remaining != 0L) {
+        long lowestOneBit = remaining & -remaining;
+        if (filter.test(wordStart + Long.numberOfTrailingZeros(remaining))) {
+          matchingWord |= lowestOneBit;
+        }
+        remaining ^= lowestOneBit;
+      }
+      matching[i - firstWordIndex] = matchingWord;
+      changed |= matchingWord != 0L;
+    }
+    if (changed) {
+      for (int i = firstWordIndex; i <= lastWordIndex; i++) {
+        bits.setWord(i, bits.getWord(i) & ~matching[i - firstWordIndex]);
+      }
+    }
+    return changed;
+  }
+
+  static int[] toIntArray(WordBits bits, int from, int to) {
+    int[] result = new int[size(bits, from, to)];
+    forEachInto(bits, from, to, result);
+    return result;
+  }
+
+  private static void forEachInto(WordBits bits, int from, int to, int[] result) {
+    if (from > to) {
+      return;
+    }
+    int current = 0;
+    for (int i = from >>> 6, last = lastWordIndex(bits, to); i <= last; i++) {
+      long remaining = word(bits, i, from, to);
+      int wordStart = i << 6;
+      while (remaining != 0L) {
+        result[current++] = wordStart + Long.numberOfTrailingZeros(remaining);
+        remaining &= remaining - 1L;
+      }
+    }
+  }
+
+  static Object[] toArray(WordBits bits, int from, int to) {
+    int[] elements = toIntArray(bits, from, to);
+    Object[] result = new Object[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      result[i] = elements[i];
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> T[] toArray(WordBits bits, int from, int to, T[] a) {
+    int[] elements = toIntArray(bits, from, to);
+    int size = elements.length;
+    T[] result;
+    if (a.length < size) {
+      result = (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+    } else {
+      result = a;
+      if (result.length > size) {
+        result[size] = null;
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      result[i] = (T) (Integer) elements[i];
+    }
+    return result;
+  }
+
+  static int hashCode(WordBits bits, int from, int to) {
+    if (from > to) {
+      return 0;
+    }
+    int hashCode = 0;
+    for (int i = from >>> 6, last = lastWordIndex(bits, to); i <= last; i++) {
+      hashCode += hashCode(word(bits, i, from, to), i);
+    }
+    return hashCode;
+  }
+
+  /**
+   * Computes the sum of the elements in a word.
+   *
+   * @param word the word
+   * @param wordIndex the index of the word
+   * @return the sum of the elements in a word
+   */
+  static int hashCode(long word, int wordIndex) {
+    return SmallIntegerSet.hashCode(word) + (wordIndex << 6) * Long.bitCount(word);
+  }
+
+  static String toString(WordBits bits, int from, int to) {
+    int first = nextSetBit(bits, from, to);
+    if (first == NONE) {
+      return "[]";
+    }
+    StringBuilder builder = new StringBuilder();
+    builder.append('[');
+    builder.append(first);
+    int next = first == to ? NONE : nextSetBit(bits, first + 1, to);
+    while (next != NONE) {
+      builder.append(',').append(' ');
+      builder.append(next);
+      next = next == to ? NONE : nextSetBit(bits, next + 1, to);
+    }
+    builder.append(']');
+    return builder.toString();
+  }
+
+  /**
+   * Checks if an object has a word representation.
+   *
+   * @param o the object to check
+   * @return {@code true} if {@link #otherWord(Object, int)} can be called
+   */
+  static boolean hasWords(Object o) {
+    return o instanceof WordBits || o instanceof SmallIntegerBits;
+  }
+
+  static int otherWordCount(Object o) {
+    if (o instanceof WordBits) {
+      return ((WordBits) o).wordCount();
+    }
+    return 1;
+  }
+
+  static long otherWord(Object o, int wordIndex) {
+    if (o instanceof WordBits) {
+      WordBits other = (WordBits) o;
+      return wordIndex < other.wordCount() ? other.getWord(wordIndex) : 0L;
+    }
+    return wordIndex == 0 ? ((SmallIntegerBits) o).toBits() : 0L;
+  }
+
+  private static long wordOrZero(WordBits bits, int wordIndex, int from, int to) {
+    return wordIndex < bits.wordCount() ? word(bits, wordIndex, from, to) : 0L;
+  }
+
+  static boolean containsAll(WordBits bits, int from, int to, Collection<?> c) {
+    if (hasWords(c)) {
+      int wordCount = Math.max(bits.wordCount(), otherWordCount(c));
+      for (int i = 0; i < wordCount; i++) {
+        long otherWord = otherWord(c, i);
+        if ((otherWord & ~wordOrZero(bits, i, from, to)) != 0L) {
+          return false;
+        }
+      }
+      return true;
+    }
+    for (Object each : c) {
+      if (!contains(bits, from, to, (Integer) each)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static boolean addAll(MutableWordBits bits, int from, int to, Collection<? extends Integer> c) {
+    if (hasWords(c)) {
+      int otherWordCount = otherWordCount(c);
+      // check before modifying anything
+      for (int i = 0; i < otherWordCount; i++) {
+        if ((otherWord(c, i) & ~rangeMask(i, from, to)) != 0L) {
+          throw new IllegalArgumentException();
+        }
+      }
+      boolean changed = false;
+      for (int i = 0; i < otherWordCount; i++) {
+        long otherWord = otherWord(c, i);
+        if (otherWord != 0L) {
+          // may grow the set
+          long before = bits.getWord(i);
+          long after = before | otherWord;
+          bits.setWord(i, after);
+          changed |= before != after;
+        }
+      }
+      return changed;
+    }
+    boolean changed = false;
+    for (Integer each : c) {
+      changed |= add(bits, from, to, each);
+    }
+    return changed;
+  }
+
+  static boolean retainAll(MutableWordBits bits, int from, int to, Collection<?> c) {
+    if (from > to) {
+      return false;
+    }
+    if (hasWords(c)) {
+      boolean changed = false;
+      for (int i = from >>> 6, last = lastWordIndex(bits, to); i <= last; i++) {
+        long before = bits.getWord(i);
+        long after = before & (otherWord(c, i) | ~rangeMask(i, from, to));
+        bits.setWord(i, after);
+        changed |= before != after;
+      }
+      return changed;
+    }
+    return removeIf(bits, from, to, i -> !c.contains(i));
+  }
+
+  static boolean removeAll(MutableWordBits bits, int from, int to, Collection<?> c) {
+    if (from > to) {
+      return false;
+    }
+    if (hasWords(c)) {
+      boolean changed = false;
+      for (int i = from >>> 6, last = lastWordIndex(bits, to); i <= last; i++) {
+        long before = bits.getWord(i);
+        long after = before & ~(otherWord(c, i) & rangeMask(i, from, to));
+        bits.setWord(i, after);
+        changed |= before != after;
+      }
+      return changed;
+    }
+    boolean changed = false;
+    for (Object each : c) {
+      changed |= remove(bits, from, to, (Integer) each);
+    }
+    return changed;
+  }
+
+  static boolean equals(WordBits bits, int from, int to, Object obj) {
+    if (!(obj instanceof Set)) {
+      return false;
+    }
+    if (hasWords(obj)) {
+      int wordCount = Math.max(bits.wordCount(), otherWordCount(obj));
+      for (int i = 0; i < wordCount; i++) {
+        if (wordOrZero(bits, i, from, to) != otherWord(obj, i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    Set<?> other = (Set<?>) obj;
+    if (size(bits, from, to) != other.size()) {
+      return false;
+    }
+    // avoids exceptions in the case of null or anything but Integer
+    for (Object each : other) {
+      if (!(each instanceof Integer)) {
+        return false;
+      }
+      if (!contains(bits, from, to, (Integer) each)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Creates a range view.
+   *
+   * <p>The bounds are {@code long}s so that they can't overflow when
+   * converting exclusive bounds to inclusive ones.</p>
+   *
+   * @param bits the backing set
+   * @param self the set on which the range view is created
+   * @param from the lowest element of {@code self}, inclusive
+   * @param to the highest element of {@code self}, inclusive
+   * @param startInclusive the lowest element of the range view
+   * @param endInclusive the highest element of the range view
+   * @return the range view
+   * @throws IllegalArgumentException if the range is not empty and lies
+   *  outside of {@code self}
+   */
+  static IntSortedSet range(MutableWordBits bits, IntSortedSet self, int from, int to,
+          long startInclusive, long endInclusive) {
+    if (startInclusive > endInclusive) {
+      // empty range
+      return new WordBitsSubSet(bits, 0, -1);
+    }
+    if (startInclusive < from || endInclusive > to) {
+      throw new IllegalArgumentException();
+    }
+    if (startInclusive == from && endInclusive == to) {
+      return self;
+    }
+    return new WordBitsSubSet(bits, (int) startInclusive, (int) endInclusive);
+  }
+
+  static IntSortedSet subSet(MutableWordBits bits, IntSortedSet self, int from, int to,
+          Integer fromElement, Integer toElement) {
+    return subSet(bits, self, from, to, fromElement, true, toElement, false);
+  }
+
+  static IntSortedSet subSet(MutableWordBits bits, IntSortedSet self, int from, int to,
+          Integer fromElement, boolean fromInclusive, Integer toElement, boolean toInclusive) {
+    if (fromElement > toElement) {
+      throw new IllegalArgumentException();
+    }
+    long startInclusive = fromInclusive ? fromElement : fromElement + 1L;
+    long endInclusive = toInclusive ? toElement : toElement - 1L;
+    return range(bits, self, from, to, startInclusive, endInclusive);
+  }
+
+  static IntSortedSet headSet(MutableWordBits bits, IntSortedSet self, int from, int to, Integer toElement) {
+    return headSet(bits, self, from, to, toElement, false);
+  }
+
+  static IntSortedSet headSet(MutableWordBits bits, IntSortedSet self, int from, int to,
+          Integer toElement, boolean inclusive) {
+    if (from > to) {
+      // empty range
+      return self;
+    }
+    long endInclusive = inclusive ? toElement : toElement - 1L;
+    return range(bits, self, from, to, from, endInclusive);
+  }
+
+  static IntSortedSet tailSet(MutableWordBits bits, IntSortedSet self, int from, int to, Integer fromElement) {
+    return tailSet(bits, self, from, to, fromElement, true);
+  }
+
+  static IntSortedSet tailSet(MutableWordBits bits, IntSortedSet self, int from, int to,
+          Integer fromElement, boolean inclusive) {
+    if (from > to) {
+      // empty range
+      return self;
+    }
+    long startInclusive = inclusive ? fromElement : fromElement + 1L;
+    return range(bits, self, from, to, startInclusive, to);
+  }
+
+  /**
+   * Iterates over the elements of a range, reflects concurrent
+   * modifications.
+   */
+  static final class WordBitsIterator implements PrimitiveIterator.OfInt {
+
+    private final MutableWordBits bits;
+
+    private final int to;
+
+    /**
+     * Next element to return, {@value WordBitsSupport#NONE} means end reached.
+     */
+    private int nextIndex;
+
+    /**
+     * Element to remove, {@value WordBitsSupport#NONE} means no remove possible.
+     */
+    private int removeIndex;
+
+    WordBitsIterator(MutableWordBits bits, int from, int to) {
+      this.bits = bits;
+      this.to = to;
+      this.nextIndex = nextSetBit(bits, from, to);
+      this.removeIndex = NONE;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.nextIndex != NONE;
+    }
+
+    @Override
+    public int nextInt() {
+      if (!this.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int next = this.nextIndex;
+      this.removeIndex = next;
+      this.nextIndex = next == this.to ? NONE : nextSetBit(this.bits, next + 1, this.to);
+      return next;
+    }
+
+    @Override
+    public Integer next() {
+      return this.nextInt();
+    }
+
+    @Override
+    public void remove() {
+      if (this.removeIndex == NONE) {
+        throw new IllegalStateException();
+      }
+      unset(this.bits, this.removeIndex);
+      this.removeIndex = NONE;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      if (!this.hasNext()) {
+        return;
+      }
+      // an exception will prevent nextIndex from being updated
+      forEachInt(this.bits, this.nextIndex, this.to, action);
+      this.nextIndex = NONE;
+    }
+
+  }
+
+  /**
+   * Iterates over the elements of a range in descending order, reflects
+   * concurrent modifications.
+   */
+  static final class DescendingWordBitsIterator implements PrimitiveIterator.OfInt {
+
+    private final MutableWordBits bits;
+
+    private final int from;
+
+    /**
+     * Next element to return, {@value WordBitsSupport#NONE} means end reached.
+     */
+    private int nextIndex;
+
+    /**
+     * Element to remove, {@value WordBitsSupport#NONE} means no remove possible.
+     */
+    private int removeIndex;
+
+    DescendingWordBitsIterator(MutableWordBits bits, int from, int to) {
+      this.bits = bits;
+      this.from = from;
+      this.nextIndex = previousSetBit(bits, to, from);
+      this.removeIndex = NONE;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.nextIndex != NONE;
+    }
+
+    @Override
+    public int nextInt() {
+      if (!this.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int next = this.nextIndex;
+      this.removeIndex = next;
+      this.nextIndex = next == this.from ? NONE : previousSetBit(this.bits, next - 1, this.from);
+      return next;
+    }
+
+    @Override
+    public Integer next() {
+      return this.nextInt();
+    }
+
+    @Override
+    public void remove() {
+      if (this.removeIndex == NONE) {
+        throw new IllegalStateException();
+      }
+      unset(this.bits, this.removeIndex);
+      this.removeIndex = NONE;
+    }
+
+  }
+
+  /**
+   * Spliterator over the elements of a range, splits at word boundaries.
+   *
+   * <p>Binds late, reads the words during traversal.</p>
+   */
+  static final class WordBitsSpliterator implements Spliterator.OfInt {
+
+    private final WordBits bits;
+
+    /**
+     * The lowest element not yet traversed, a {@code long} so that it can
+     * move past the last element without overflowing.
+     */
+    private long index;
+
+    private final int to;
+
+    WordBitsSpliterator(WordBits bits, int from, int to) {
+      this.bits = bits;
+      this.index = from;
+      this.to = to;
+    }
+
+    @Override
+    public int characteristics() {
+      return IntegerSetSpliterator.CHARACTERISTICS;
+    }
+
+    @Override
+    public Comparator<? super Integer> getComparator() {
+      // natural order
+      return null;
+    }
+
+    @Override
+    public long estimateSize() {
+      if (this.index > this.to) {
+        return 0L;
+      }
+      return size(this.bits, (int) this.index, this.to);
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+      if (this.index > this.to) {
+        return false;
+      }
+      int next = nextSetBit(this.bits, (int) this.index, this.to);
+      if (next == NONE) {
+        this.index = this.to + 1L;
+        return false;
+      }
+      this.index = next + 1L;
+      action.accept(next);
+      return true;
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+      // words past the word count are always 0, don't split them off
+      long end = Math.min(this.to, ((long) this.bits.wordCount() << 6) - 1L);
+      // split in the middle, rounded to a word boundary
+      long middle = (((this.index + end + 1L) >>> 1) + 32L) & ~63L;
+      if (middle <= this.index || middle > end) {
+        return null;
+      }
+      WordBitsSpliterator prefix = new WordBitsSpliterator(this.bits, (int) this.index, (int) (middle - 1L));
+      this.index = middle;
+      return prefix;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      if (this.index > this.to) {
+        return;
+      }
+      int from = (int) this.index;
+      this.index = this.to + 1L;
+      forEachInt(this.bits, from, this.to, action);
+    }
+
+  }
+
+}
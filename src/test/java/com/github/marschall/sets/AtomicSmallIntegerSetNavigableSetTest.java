@@ -0,0 +1,9 @@
+package com.github.marschall.sets;
+
+public class AtomicSmallIntegerSetNavigableSetTest extends NavigableSetTest {
+
+  AtomicSmallIntegerSetNavigableSetTest() {
+    super(AtomicSmallIntegerSet::new);
+  }
+
+}
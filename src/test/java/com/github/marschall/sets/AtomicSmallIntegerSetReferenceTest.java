@@ -0,0 +1,9 @@
+package com.github.marschall.sets;
+
+public class AtomicSmallIntegerSetReferenceTest extends SortedSetTest {
+
+  AtomicSmallIntegerSetReferenceTest() {
+    super(AtomicSmallIntegerSet::new);
+  }
+
+}
@@ -0,0 +1,196 @@
+package com.github.marschall.sets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AtomicSmallIntegerSetTest {
+
+  private AtomicSmallIntegerSet set;
+
+  @BeforeEach
+  public void setUp() {
+    this.set = new AtomicSmallIntegerSet();
+  }
+
+  @Test
+  public void bitPrimitives() {
+    assertEquals(0L, this.set.getAndAdd(3));
+    assertEquals(0b1000L, this.set.getAndAdd(0));
+    assertEquals(0b1001L, this.set.toBits());
+    assertFalse(this.set.compareAndSet(0L, 1L));
+    assertTrue(this.set.compareAndSet(0b1001L, 0b110L));
+    assertArrayEquals(new int[] {1, 2}, this.set.toIntArray());
+    assertEquals(0b110L, this.set.getAndRemove(1));
+    assertEquals(0b100L, this.set.getAndRemove(64));
+    assertEquals(0b100L, this.set.getAndSet(-1L));
+    assertEquals(64, this.set.size());
+    assertEquals(-1L, this.set.getAndUpdate(bits -> bits & 0xFFL));
+    assertEquals(0xF0L, this.set.updateAndGet(bits -> bits & 0xF0L));
+    assertThrows(IllegalArgumentException.class, () -> this.set.getAndAdd(64));
+    assertEquals(this.set, AtomicSmallIntegerSet.fromBits(0xF0L));
+  }
+
+  @Test
+  public void singleElements() {
+    assertTrue(this.set.add(5));
+    assertFalse(this.set.add(5));
+    assertTrue(this.set.addInt(63));
+    assertTrue(this.set.contains(5));
+    assertFalse(this.set.contains(64));
+    assertFalse(this.set.remove(64));
+    assertThrows(IllegalArgumentException.class, () -> this.set.add(64));
+    assertThrows(IllegalArgumentException.class, () -> this.set.add(-1));
+    assertTrue(this.set.remove(5));
+    assertFalse(this.set.removeInt(5));
+    assertEquals(Integer.valueOf(63), this.set.pollFirst());
+    assertNull(this.set.pollLast());
+  }
+
+  @Test
+  public void bulkOperationsAreAllOrNothing() {
+    this.set.addAll(Arrays.asList(1, 2, 3));
+    assertThrows(IllegalArgumentException.class, () -> this.set.addAll(Arrays.asList(4, 64)));
+    assertArrayEquals(new int[] {1, 2, 3}, this.set.toIntArray());
+    assertThrows(NullPointerException.class, () -> this.set.removeAll(Arrays.asList(1, null)));
+    assertArrayEquals(new int[] {1, 2, 3}, this.set.toIntArray());
+    assertThrows(IllegalStateException.class, () -> this.set.removeIf(i -> {
+      if (i == 3) {
+        throw new IllegalStateException();
+      }
+      return true;
+    }));
+    assertArrayEquals(new int[] {1, 2, 3}, this.set.toIntArray());
+  }
+
+  @Test
+  public void bulkOperations() {
+    SmallIntegerSet other = new SmallIntegerSet();
+    other.addAll(Arrays.asList(5, 60));
+    this.set.add(60);
+
+    assertTrue(this.set.addAll(other));
+    assertFalse(this.set.addAll(other));
+    assertTrue(this.set.containsAll(other));
+    assertEquals(other, this.set);
+    assertEquals(this.set, other);
+    assertEquals(other.hashCode(), this.set.hashCode());
+    this.set.add(10);
+    assertTrue(this.set.retainAll(other.headSet(50)));
+    assertArrayEquals(new int[] {5}, this.set.toIntArray());
+    assertTrue(other.removeAll(this.set));
+    assertArrayEquals(new int[] {60}, other.toIntArray());
+    assertFalse(this.set.removeAll(other));
+    assertTrue(this.set.retainAll(new ArrayList<>(other)));
+    assertTrue(this.set.isEmpty());
+  }
+
+  @Test
+  public void rangeViews() {
+    this.set.addAll(Arrays.asList(1, 10, 20, 30, 63));
+    NavigableSet<Integer> subSet = this.set.subSet(10, true, 30, false);
+    assertEquals(new TreeSet<>(Arrays.asList(10, 20)), subSet);
+    assertThrows(IllegalArgumentException.class, () -> subSet.add(30));
+    assertThrows(IllegalArgumentException.class, () -> subSet.addAll(Arrays.asList(11, 40)));
+    assertFalse(subSet.contains(11));
+    assertTrue(subSet.add(11));
+    assertEquals(Integer.valueOf(10), subSet.pollFirst());
+    assertEquals(Integer.valueOf(20), subSet.pollLast());
+    assertTrue(subSet.removeAll(Arrays.asList(1, 11, 63)));
+    assertTrue(subSet.isEmpty());
+    assertArrayEquals(new int[] {1, 30, 63}, this.set.toIntArray());
+    this.set.headSet(40).clear();
+    assertArrayEquals(new int[] {63}, this.set.toIntArray());
+  }
+
+  @Test
+  public void snapshotIterator() {
+    this.set.addAll(Arrays.asList(1, 2, 3));
+    Iterator<Integer> iterator = this.set.iterator();
+    this.set.add(0);
+    this.set.remove(3);
+    List<Integer> seen = new ArrayList<>();
+    while (iterator.hasNext()) {
+      Integer next = iterator.next();
+      seen.add(next);
+      if (next == 2) {
+        iterator.remove();
+      }
+    }
+    assertEquals(Arrays.asList(1, 2, 3), seen);
+    assertArrayEquals(new int[] {0, 1}, this.set.toIntArray());
+
+    Iterator<Integer> descending = this.set.descendingIterator();
+    assertEquals(Integer.valueOf(1), descending.next());
+    descending.remove();
+    assertThrows(IllegalStateException.class, descending::remove);
+    assertArrayEquals(new int[] {0}, this.set.toIntArray());
+  }
+
+  @Test
+  public void concurrentUpdates() throws InterruptedException {
+    int threadCount = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>(threadCount);
+    for (int t = 0; t < threadCount; t++) {
+      int offset = t * 8;
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        for (int round = 0; round < 10_000; round++) {
+          for (int i = offset; i < offset + 8; i++) {
+            this.set.add(i);
+          }
+          for (int i = offset; i < offset + 8; i += 2) {
+            this.set.remove(i);
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    // only the odd elements survive
+    assertEquals(0xAAAAAAAAAAAAAAAAL, this.set.toBits());
+  }
+
+  @Test
+  public void serialization() throws IOException, ClassNotFoundException {
+    this.set.addAll(Arrays.asList(0, 33, 63));
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (ObjectOutputStream stream = new ObjectOutputStream(bos)) {
+      stream.writeObject(this.set);
+    }
+    try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+      AtomicSmallIntegerSet copy = (AtomicSmallIntegerSet) stream.readObject();
+      assertEquals(this.set.toBits(), copy.toBits());
+    }
+  }
+
+}
@@ -0,0 +1,9 @@
+package com.github.marschall.sets;
+
+public class BitIntegerSetNavigableSetTest extends NavigableSetTest {
+
+  BitIntegerSetNavigableSetTest() {
+    super(BitIntegerSet::new);
+  }
+
+}
@@ -0,0 +1,9 @@
+package com.github.marschall.sets;
+
+public class BitIntegerSetReferenceTest extends SortedSetTest {
+
+  BitIntegerSetReferenceTest() {
+    super(BitIntegerSet::new);
+  }
+
+}
@@ -0,0 +1,251 @@
+package com.github.marschall.sets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BitIntegerSetTest {
+
+  private BitIntegerSet set;
+
+  @BeforeEach
+  public void setUp() {
+    this.set = new BitIntegerSet();
+  }
+
+  @Test
+  public void supportedRange() {
+    assertTrue(BitIntegerSet.isSupported(0));
+    assertTrue(BitIntegerSet.isSupported(Integer.MAX_VALUE));
+    assertFalse(BitIntegerSet.isSupported(-1));
+    assertThrows(IllegalArgumentException.class, () -> this.set.add(-1));
+    assertThrows(IllegalArgumentException.class, () -> new BitIntegerSet(-1));
+    assertFalse(this.set.contains(-1));
+    assertFalse(this.set.remove(-1));
+    assertFalse(this.set.contains(Integer.MAX_VALUE));
+    assertFalse(this.set.remove(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void grow() {
+    assertEquals(0, this.set.wordCount());
+    assertTrue(this.set.add(1000));
+    assertEquals(16, this.set.wordCount());
+    assertTrue(this.set.add(3));
+    assertFalse(this.set.add(1000));
+    assertEquals(2, this.set.size());
+    assertEquals(Integer.valueOf(3), this.set.first());
+    assertEquals(Integer.valueOf(1000), this.set.last());
+    assertEquals(0L, this.set.getWord(100));
+    assertThrows(IndexOutOfBoundsException.class, () -> this.set.getWord(-1));
+
+    this.set.clear();
+    assertTrue(this.set.isEmpty());
+    assertEquals(16, this.set.wordCount());
+    assertEquals(1, new BitIntegerSet(64).wordCount());
+    assertEquals(2, new BitIntegerSet(65).wordCount());
+  }
+
+  @Test
+  public void wordBoundaries() {
+    this.set.addAll(Arrays.asList(0, 63, 64, 127, 128));
+    assertEquals(5, this.set.size());
+    assertEquals(Integer.valueOf(0), this.set.first());
+    assertEquals(Integer.valueOf(128), this.set.last());
+    assertArrayEquals(new int[] {0, 63, 64, 127, 128}, this.set.toIntArray());
+    assertEquals("[0, 63, 64, 127, 128]", this.set.toString());
+    assertEquals(new HashSet<>(Arrays.asList(0, 63, 64, 127, 128)).hashCode(), this.set.hashCode());
+    assertEquals(1L | (1L << 63), this.set.getWord(0));
+    assertEquals(1L | (1L << 63), this.set.getWord(1));
+    assertEquals(1L, this.set.getWord(2));
+  }
+
+  @Test
+  public void largeElements() {
+    this.set.add(Integer.MAX_VALUE);
+    this.set.add(Integer.MAX_VALUE - 64);
+    assertEquals(2, this.set.size());
+    assertEquals(Integer.valueOf(Integer.MAX_VALUE), this.set.last());
+    assertEquals(Integer.valueOf(Integer.MAX_VALUE - 64), this.set.first());
+    assertNull(this.set.higher(Integer.MAX_VALUE));
+    assertEquals(Integer.valueOf(Integer.MAX_VALUE), this.set.ceiling(Integer.MAX_VALUE - 63));
+    assertArrayEquals(new int[] {Integer.MAX_VALUE - 64, Integer.MAX_VALUE}, this.set.toIntArray());
+    assertEquals(Arrays.asList(Integer.MAX_VALUE, Integer.MAX_VALUE - 64),
+            this.set.descendingSet().stream().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void sizeIsMaintained() {
+    this.set.addAll(Arrays.asList(1, 100, 1000));
+    assertEquals(3, this.set.size());
+    assertEquals(Integer.valueOf(1), this.set.pollFirst());
+    assertEquals(Integer.valueOf(1000), this.set.pollLast());
+    assertEquals(1, this.set.size());
+    this.set.setWord(20, -1L);
+    assertEquals(65, this.set.size());
+    this.set.setWord(20, 0L);
+    int wordCount = this.set.wordCount();
+    // setting a 0 word past the end does not grow
+    this.set.setWord(200, 0L);
+    assertEquals(wordCount, this.set.wordCount());
+    assertEquals(1, this.set.size());
+    assertTrue(this.set.removeIf(i -> i == 100));
+    assertTrue(this.set.isEmpty());
+    assertNull(this.set.pollFirst());
+  }
+
+  @Test
+  public void navigation() {
+    this.set.addAll(Arrays.asList(10, 63, 64, 100, 1000));
+    assertEquals(63, this.set.ceilingInt(11));
+    assertEquals(64, this.set.higherInt(63));
+    assertEquals(100, this.set.floorInt(999));
+    assertEquals(10, this.set.lowerInt(63));
+    assertEquals(-1, this.set.lowerInt(10));
+    assertEquals(-1, this.set.higherInt(1000));
+    assertEquals(1000, this.set.floorInt(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void rangeViews() {
+    this.set.addAll(Arrays.asList(10, 63, 64, 100, 1000));
+
+    NavigableSet<Integer> subSet = this.set.subSet(60, true, 100, false);
+    assertEquals(new TreeSet<>(Arrays.asList(63, 64)), subSet);
+    assertEquals(Integer.valueOf(63), subSet.first());
+    assertEquals(Integer.valueOf(64), subSet.last());
+    assertEquals(Integer.valueOf(64), subSet.floor(1000));
+    assertThrows(IllegalArgumentException.class, () -> subSet.add(100));
+    assertThrows(IllegalArgumentException.class, () -> subSet.subSet(50, 70));
+    assertEquals(Arrays.asList(64, 63), subSet.descendingSet().stream().collect(Collectors.toList()));
+
+    assertEquals(new TreeSet<>(Arrays.asList(100, 1000)), this.set.tailSet(64, false));
+    assertTrue(subSet.add(70));
+    assertTrue(this.set.contains(70));
+    subSet.clear();
+    assertArrayEquals(new int[] {10, 100, 1000}, this.set.toIntArray());
+    assertEquals(3, this.set.size());
+    assertTrue(this.set.subSet(20, 20).isEmpty());
+  }
+
+  @Test
+  public void iteration() {
+    this.set.addAll(Arrays.asList(1, 63, 64, 500));
+    Iterator<Integer> iterator = this.set.iterator();
+    assertEquals(Integer.valueOf(1), iterator.next());
+    assertEquals(Integer.valueOf(63), iterator.next());
+    iterator.remove();
+    assertEquals(Integer.valueOf(64), iterator.next());
+    assertEquals(Integer.valueOf(500), iterator.next());
+    assertFalse(iterator.hasNext());
+    assertArrayEquals(new int[] {1, 64, 500}, this.set.toIntArray());
+    assertEquals(3, this.set.size());
+
+    Iterator<Integer> descending = this.set.descendingIterator();
+    assertEquals(Integer.valueOf(500), descending.next());
+    descending.remove();
+    assertEquals(Integer.valueOf(64), descending.next());
+    assertEquals(2, this.set.size());
+  }
+
+  @Test
+  public void spliterator() {
+    IntStream.range(0, 256).forEach(this.set::addInt);
+    Spliterator<Integer> spliterator = this.set.spliterator();
+    assertEquals(256L, spliterator.estimateSize());
+    Spliterator<Integer> prefix = spliterator.trySplit();
+    assertEquals(128L, prefix.estimateSize());
+    assertEquals(128L, spliterator.estimateSize());
+    assertEquals(IntStream.range(0, 256).sum(), this.set.parallelStream().mapToInt(Integer::intValue).sum());
+  }
+
+  @Test
+  public void bulkOperations() {
+    BitIntegerSet other = new BitIntegerSet();
+    other.addAll(Arrays.asList(5, 1000));
+    this.set.add(1000);
+
+    assertTrue(this.set.addAll(other));
+    assertFalse(this.set.addAll(other));
+    assertEquals(2, this.set.size());
+    assertTrue(this.set.containsAll(other));
+    assertEquals(other, this.set);
+    assertEquals(other.hashCode(), this.set.hashCode());
+    this.set.add(2000);
+    assertFalse(other.containsAll(this.set));
+    assertTrue(this.set.retainAll(other.headSet(50)));
+    assertArrayEquals(new int[] {5}, this.set.toIntArray());
+    assertEquals(1, this.set.size());
+    assertTrue(other.removeAll(this.set));
+    assertArrayEquals(new int[] {1000}, other.toIntArray());
+    assertEquals(1, other.size());
+  }
+
+  @Test
+  public void equalsDifferentCapacity() {
+    BitIntegerSet other = new BitIntegerSet(10000);
+    other.add(5);
+    this.set.add(5);
+    assertEquals(other, this.set);
+    assertEquals(this.set, other);
+    assertEquals(other.hashCode(), this.set.hashCode());
+    this.set.add(200);
+    this.set.remove(200);
+    assertEquals(other, this.set);
+  }
+
+  @Test
+  public void otherSetTypes() {
+    SmallIntegerSet small = new SmallIntegerSet();
+    small.addAll(Arrays.asList(1, 63));
+    assertTrue(this.set.addAll(small));
+    assertEquals(2, this.set.size());
+    assertEquals(small, this.set);
+    assertEquals(this.set, small);
+    assertTrue(this.set.containsAll(small));
+
+    LargeIntegerSet large = new LargeIntegerSet();
+    large.addAll(Arrays.asList(1, 100, 200));
+    assertTrue(this.set.addAll(large));
+    assertEquals(4, this.set.size());
+    assertTrue(this.set.containsAll(large));
+    assertTrue(this.set.retainAll(large));
+    assertEquals(large, this.set);
+    assertEquals(this.set, large);
+    assertTrue(this.set.removeAll(small));
+    assertArrayEquals(new int[] {100, 200}, this.set.toIntArray());
+    assertEquals(2, this.set.size());
+
+    MediumIntegerSet medium = new MediumIntegerSet();
+    assertThrows(IllegalArgumentException.class, () -> medium.addAll(this.set));
+    assertTrue(medium.addAll(this.set.headSet(128)));
+    assertArrayEquals(new int[] {100}, medium.toIntArray());
+  }
+
+  @Test
+  public void cloneIndependent() {
+    this.set.add(100);
+    BitIntegerSet clone = (BitIntegerSet) this.set.clone();
+    clone.add(101);
+    clone.add(5000);
+    assertArrayEquals(new int[] {100}, this.set.toIntArray());
+    assertEquals(1, this.set.size());
+    assertEquals(Arrays.asList(100, 101, 5000), clone.stream().collect(Collectors.toList()));
+  }
+
+}
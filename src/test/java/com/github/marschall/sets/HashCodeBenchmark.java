@@ -0,0 +1,112 @@
+package com.github.marschall.sets;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the popcount based {@link SmallIntegerSet#hashCode()} with
+ * iterating over the elements.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HashCodeBenchmark {
+
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+            .include(".*HashCodeBenchmark.*")
+            .warmupIterations(10)
+            .measurementIterations(10)
+            .forks(5)
+            .build();
+    new Runner(options).run();
+  }
+
+  private long dense;
+  private long sparse;
+  private long empty;
+
+  @Setup
+  public void setup() {
+    this.dense = 0x7FFF_FFFF_FFFF_FFFEL;
+    this.sparse = (1L << 3) | (1L << 30) | (1L << 61);
+    this.empty = 0L;
+  }
+
+  @Benchmark
+  public int popcount_dense() {
+    return SmallIntegerSet.hashCode(this.dense);
+  }
+
+  @Benchmark
+  public int popcount_sparse() {
+    return SmallIntegerSet.hashCode(this.sparse);
+  }
+
+  @Benchmark
+  public int popcount_empty() {
+    return SmallIntegerSet.hashCode(this.empty);
+  }
+
+  @Benchmark
+  public int bitScan_dense() {
+    return bitScan(this.dense);
+  }
+
+  @Benchmark
+  public int bitScan_sparse() {
+    return bitScan(this.sparse);
+  }
+
+  @Benchmark
+  public int bitScan_empty() {
+    return bitScan(this.empty);
+  }
+
+  @Benchmark
+  public int allBits_dense() {
+    return allBits(this.dense);
+  }
+
+  @Benchmark
+  public int allBits_sparse() {
+    return allBits(this.sparse);
+  }
+
+  @Benchmark
+  public int allBits_empty() {
+    return allBits(this.empty);
+  }
+
+  private static int bitScan(long bits) {
+    int hashCode = 0;
+    long remaining = bits;
+    while (remaining != 0L) {
+      hashCode += Long.numberOfTrailingZeros(remaining);
+      remaining &= remaining - 1L;
+    }
+    return hashCode;
+  }
+
+  private static int allBits(long bits) {
+    int hashCode = 0;
+    for (int i = SmallIntegerSet.MIN_VALUE; i <= SmallIntegerSet.MAX_VALUE; ++i) {
+      if ((bits & (1L << i)) != 0L) {
+        hashCode += i;
+      }
+    }
+    return hashCode;
+  }
+
+}
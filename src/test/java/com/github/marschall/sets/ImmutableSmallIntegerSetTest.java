@@ -0,0 +1,167 @@
+package com.github.marschall.sets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class ImmutableSmallIntegerSetTest {
+
+  @Test
+  public void sharedInstances() {
+    assertSame(ImmutableSmallIntegerSet.of(), ImmutableSmallIntegerSet.of(new int[0]));
+    assertSame(ImmutableSmallIntegerSet.of(), ImmutableSmallIntegerSet.fromBits(0L));
+    assertSame(ImmutableSmallIntegerSet.of(), ImmutableSmallIntegerSet.copyOf(Collections.emptySet()));
+    assertSame(ImmutableSmallIntegerSet.of(7), ImmutableSmallIntegerSet.of(7, 7));
+    assertSame(ImmutableSmallIntegerSet.of(0), ImmutableSmallIntegerSet.copyOf(Arrays.asList(0)));
+    assertSame(ImmutableSmallIntegerSet.of(63), ImmutableSmallIntegerSet.fromBits(Long.MIN_VALUE));
+    assertSame(ImmutableSmallIntegerSet.fromBits(-1L), ImmutableSmallIntegerSet.copyOf(SmallIntegerSet.complement(Collections.emptySet())));
+
+    ImmutableSmallIntegerSet set = ImmutableSmallIntegerSet.of(1, 2, 3);
+    assertSame(set, ImmutableSmallIntegerSet.copyOf(set));
+  }
+
+  @Test
+  public void unsupported() {
+    assertThrows(IllegalArgumentException.class, () -> ImmutableSmallIntegerSet.of(64));
+    assertThrows(IllegalArgumentException.class, () -> ImmutableSmallIntegerSet.of(-1));
+    assertThrows(IllegalArgumentException.class, () -> ImmutableSmallIntegerSet.of(1, 64));
+    assertThrows(IllegalArgumentException.class, () -> ImmutableSmallIntegerSet.copyOf(Arrays.asList(100)));
+  }
+
+  @Test
+  public void readOperations() {
+    ImmutableSmallIntegerSet set = ImmutableSmallIntegerSet.of(63, 1, 10);
+    assertEquals(3, set.size());
+    assertFalse(set.isEmpty());
+    assertTrue(set.contains(10));
+    assertTrue(set.containsInt(63));
+    assertFalse(set.contains(11));
+    assertEquals(Integer.valueOf(1), set.first());
+    assertEquals(Integer.valueOf(63), set.last());
+    assertEquals(Integer.valueOf(10), set.ceiling(2));
+    assertEquals(Integer.valueOf(1), set.lower(10));
+    assertNull(set.higher(63));
+    assertEquals(-1, set.floorInt(0));
+    assertArrayEquals(new int[] {1, 10, 63}, set.toIntArray());
+    assertArrayEquals(new Object[] {1, 10, 63}, set.toArray());
+    assertEquals(Arrays.asList(1, 10, 63), set.stream().collect(Collectors.toList()));
+    assertEquals(Arrays.asList(63, 10, 1), new TreeSet<>(set).descendingSet().stream().collect(Collectors.toList()));
+    assertEquals(Arrays.asList(63, 10, 1), set.descendingSet().stream().collect(Collectors.toList()));
+    assertEquals("[1, 10, 63]", set.toString());
+    assertEquals("[]", ImmutableSmallIntegerSet.of().toString());
+  }
+
+  @Test
+  public void modificationsNotSupported() {
+    ImmutableSmallIntegerSet set = ImmutableSmallIntegerSet.of(1, 10);
+    assertThrows(UnsupportedOperationException.class, () -> set.add(2));
+    assertThrows(UnsupportedOperationException.class, () -> set.addInt(2));
+    assertThrows(UnsupportedOperationException.class, () -> set.remove(1));
+    assertThrows(UnsupportedOperationException.class, () -> set.removeInt(1));
+    assertThrows(UnsupportedOperationException.class, () -> set.addAll(Arrays.asList(2)));
+    assertThrows(UnsupportedOperationException.class, () -> set.retainAll(Arrays.asList(2)));
+    assertThrows(UnsupportedOperationException.class, () -> set.removeAll(Arrays.asList(1)));
+    assertThrows(UnsupportedOperationException.class, () -> set.removeIf(i -> true));
+    assertThrows(UnsupportedOperationException.class, () -> set.clear());
+    assertThrows(UnsupportedOperationException.class, () -> set.pollFirst());
+    assertThrows(UnsupportedOperationException.class, () -> set.pollLast());
+    assertThrows(UnsupportedOperationException.class, () -> set.headSet(5).add(2));
+    assertThrows(UnsupportedOperationException.class, () -> set.descendingSet().add(2));
+
+    Iterator<Integer> iterator = set.iterator();
+    iterator.next();
+    assertThrows(UnsupportedOperationException.class, () -> iterator.remove());
+    Iterator<Integer> descendingIterator = set.descendingIterator();
+    descendingIterator.next();
+    assertThrows(UnsupportedOperationException.class, () -> descendingIterator.remove());
+    assertEquals(2, set.size());
+  }
+
+  @Test
+  public void rangeViews() {
+    ImmutableSmallIntegerSet set = ImmutableSmallIntegerSet.of(1, 10, 20, 63);
+    NavigableSet<Integer> headSet = set.headSet(20, false);
+    assertEquals(new TreeSet<>(Arrays.asList(1, 10)), headSet);
+    assertEquals(new TreeSet<>(Arrays.asList(10, 20)), set.subSet(5, 25));
+    assertEquals(new TreeSet<>(Arrays.asList(20, 63)), set.tailSet(20));
+    assertThrows(IllegalArgumentException.class, () -> headSet.headSet(30));
+  }
+
+  @Test
+  public void bulkOperationsWithSmallIntegerSet() {
+    ImmutableSmallIntegerSet immutable = ImmutableSmallIntegerSet.of(1, 10, 63);
+    SmallIntegerSet set = new SmallIntegerSet();
+    set.add(5);
+    assertTrue(set.addAll(immutable));
+    assertArrayEquals(new int[] {1, 5, 10, 63}, set.toIntArray());
+    assertTrue(set.containsAll(immutable));
+    assertTrue(set.retainAll(immutable));
+    assertEquals(set, immutable);
+    assertEquals(immutable, set);
+    assertEquals(set.hashCode(), immutable.hashCode());
+    assertTrue(immutable.containsAll(set));
+    assertTrue(set.removeAll(immutable));
+    assertTrue(set.isEmpty());
+    assertEquals(immutable, new TreeSet<>(Arrays.asList(1, 10, 63)));
+    assertEquals(new TreeSet<>(Arrays.asList(1, 10, 63)), immutable);
+  }
+
+  @Test
+  public void serialization() throws IOException, ClassNotFoundException {
+    ImmutableSmallIntegerSet set = ImmutableSmallIntegerSet.of(1, 10, 63);
+    assertEquals(set, copy(set));
+    assertSame(ImmutableSmallIntegerSet.of(), copy(ImmutableSmallIntegerSet.of()));
+    assertSame(ImmutableSmallIntegerSet.of(5), copy(ImmutableSmallIntegerSet.of(5)));
+    assertSame(ImmutableSmallIntegerSet.fromBits(-1L), copy(ImmutableSmallIntegerSet.fromBits(-1L)));
+  }
+
+  @Test
+  public void rangeSerialization() throws IOException, ClassNotFoundException {
+    ImmutableSmallIntegerSet set = ImmutableSmallIntegerSet.of(3, 10, 40);
+    assertEquals(ImmutableSmallIntegerSet.of(3, 10), copy(set.subSet(1, 20)));
+    assertEquals(ImmutableSmallIntegerSet.of(40), copy(set.tailSet(20)));
+    assertSame(ImmutableSmallIntegerSet.of(), copy(set.headSet(3)));
+  }
+
+  @Test
+  public void dataOutput() throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bos)) {
+      ImmutableSmallIntegerSet.of(7).writeTo(out);
+    }
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+      assertSame(ImmutableSmallIntegerSet.of(7), ImmutableSmallIntegerSet.readFrom(in));
+    }
+  }
+
+  private static Object copy(Object o) throws IOException, ClassNotFoundException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (ObjectOutputStream stream = new ObjectOutputStream(bos)) {
+      stream.writeObject(o);
+    }
+    try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+      return stream.readObject();
+    }
+  }
+
+}
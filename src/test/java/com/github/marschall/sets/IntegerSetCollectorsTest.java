@@ -0,0 +1,63 @@
+package com.github.marschall.sets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+public class IntegerSetCollectorsTest {
+
+  @Test
+  public void toSmallIntegerSet() {
+    SmallIntegerSet set = Stream.of(3, 1, 63, 3).collect(IntegerSetCollectors.toSmallIntegerSet());
+    assertArrayEquals(new int[] {1, 3, 63}, set.toIntArray());
+
+    SmallIntegerSet parallel = IntStream.range(0, 64).boxed().parallel()
+            .filter(i -> i % 3 == 0)
+            .collect(IntegerSetCollectors.toSmallIntegerSet());
+    assertArrayEquals(IntStream.range(0, 64).filter(i -> i % 3 == 0).toArray(), parallel.toIntArray());
+
+    assertThrows(IllegalArgumentException.class, () -> Stream.of(1, 64).collect(IntegerSetCollectors.toSmallIntegerSet()));
+  }
+
+  @Test
+  public void toSmallIntegerSetFromIntStream() {
+    assertArrayEquals(new int[] {1, 3}, IntegerSetCollectors.toSmallIntegerSet(IntStream.of(3, 1, 3)).toIntArray());
+    SmallIntegerSet parallel = IntegerSetCollectors.toSmallIntegerSet(IntStream.range(0, 64).parallel());
+    assertEquals(64, parallel.size());
+    assertThrows(IllegalArgumentException.class, () -> IntegerSetCollectors.toSmallIntegerSet(IntStream.of(-1)));
+  }
+
+  @Test
+  public void toImmutableSmallIntegerSet() {
+    assertSame(ImmutableSmallIntegerSet.of(), Stream.<Integer>empty().collect(IntegerSetCollectors.toImmutableSmallIntegerSet()));
+    assertSame(ImmutableSmallIntegerSet.of(7), Stream.of(7, 7).collect(IntegerSetCollectors.toImmutableSmallIntegerSet()));
+    assertEquals(ImmutableSmallIntegerSet.of(1, 2, 3),
+            IntStream.rangeClosed(1, 3).boxed().parallel().collect(IntegerSetCollectors.toImmutableSmallIntegerSet()));
+    assertSame(ImmutableSmallIntegerSet.fromBits(-1L),
+            IntegerSetCollectors.toImmutableSmallIntegerSet(IntStream.range(0, 64).parallel()));
+  }
+
+  @Test
+  public void toBitIntegerSet() {
+    BitIntegerSet set = Stream.of(1000, 1, 64).collect(IntegerSetCollectors.toBitIntegerSet());
+    assertArrayEquals(new int[] {1, 64, 1000}, set.toIntArray());
+
+    BitIntegerSet parallel = IntStream.range(0, 10_000).boxed().parallel()
+            .filter(i -> i % 7 == 0)
+            .collect(IntegerSetCollectors.toBitIntegerSet());
+    assertArrayEquals(IntStream.range(0, 10_000).filter(i -> i % 7 == 0).toArray(), parallel.toIntArray());
+    assertEquals(parallel.toIntArray().length, parallel.size());
+
+    BitIntegerSet fromIntStream = IntegerSetCollectors.toBitIntegerSet(IntStream.range(0, 10_000).parallel());
+    assertEquals(10_000, fromIntStream.size());
+    assertEquals(Integer.valueOf(9_999), fromIntStream.last());
+    assertThrows(IllegalArgumentException.class, () -> IntegerSetCollectors.toBitIntegerSet(IntStream.of(-1)));
+  }
+
+}
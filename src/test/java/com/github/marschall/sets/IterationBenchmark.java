@@ -107,6 +107,14 @@ public class IterationBenchmark {
   private long low4;
   private long high4;
 
+  private SmallIntegerSet allSetSet;
+  private SmallIntegerSet lowSetSet;
+  private SmallIntegerSet highSetSet;
+  private SmallIntegerSet low4Set;
+  private SmallIntegerSet high4Set;
+
+  private int sum;
+
 
   @Setup
   public void setup() {
@@ -115,6 +123,160 @@ public class IterationBenchmark {
     this.highSet = 1L << 63;
     this.low4 = 0b1111L;
     this.high4 = 0b1111L << 60;
+
+    this.allSetSet = newSet(this.allSet);
+    this.lowSetSet = newSet(this.lowSet);
+    this.highSetSet = newSet(this.highSet);
+    this.low4Set = newSet(this.low4);
+    this.high4Set = newSet(this.high4);
+  }
+
+  private static SmallIntegerSet newSet(long bits) {
+    SmallIntegerSet set = new SmallIntegerSet();
+    set.values = bits;
+    return set;
+  }
+
+  @Benchmark
+  public int forEach_allSet() {
+    return this.forEach(this.allSetSet);
+  }
+
+  @Benchmark
+  public int forEach_lowSet() {
+    return this.forEach(this.lowSetSet);
+  }
+
+  @Benchmark
+  public int forEach_low4() {
+    return this.forEach(this.low4Set);
+  }
+
+  @Benchmark
+  public int forEach_high4() {
+    return this.forEach(this.high4Set);
+  }
+
+  @Benchmark
+  public int forEach_highSet() {
+    return this.forEach(this.highSetSet);
+  }
+
+  @Benchmark
+  public int forEachRemaining_allSet() {
+    return this.forEachRemaining(this.allSetSet);
+  }
+
+  @Benchmark
+  public int forEachRemaining_lowSet() {
+    return this.forEachRemaining(this.lowSetSet);
+  }
+
+  @Benchmark
+  public int forEachRemaining_low4() {
+    return this.forEachRemaining(this.low4Set);
+  }
+
+  @Benchmark
+  public int forEachRemaining_high4() {
+    return this.forEachRemaining(this.high4Set);
+  }
+
+  @Benchmark
+  public int forEachRemaining_highSet() {
+    return this.forEachRemaining(this.highSetSet);
+  }
+
+  @Benchmark
+  public boolean removeIf_allSet() {
+    return removeIf(this.allSetSet);
+  }
+
+  @Benchmark
+  public boolean removeIf_lowSet() {
+    return removeIf(this.lowSetSet);
+  }
+
+  @Benchmark
+  public boolean removeIf_low4() {
+    return removeIf(this.low4Set);
+  }
+
+  @Benchmark
+  public boolean removeIf_high4() {
+    return removeIf(this.high4Set);
+  }
+
+  @Benchmark
+  public boolean removeIf_highSet() {
+    return removeIf(this.highSetSet);
+  }
+
+  @Benchmark
+  public String toString_allSet() {
+    return this.allSetSet.toString();
+  }
+
+  @Benchmark
+  public String toString_lowSet() {
+    return this.lowSetSet.toString();
+  }
+
+  @Benchmark
+  public String toString_low4() {
+    return this.low4Set.toString();
+  }
+
+  @Benchmark
+  public String toString_high4() {
+    return this.high4Set.toString();
+  }
+
+  @Benchmark
+  public String toString_highSet() {
+    return this.highSetSet.toString();
+  }
+
+  @Benchmark
+  public int hashCode_allSet() {
+    return this.allSetSet.hashCode();
+  }
+
+  @Benchmark
+  public int hashCode_lowSet() {
+    return this.lowSetSet.hashCode();
+  }
+
+  @Benchmark
+  public int hashCode_low4() {
+    return this.low4Set.hashCode();
+  }
+
+  @Benchmark
+  public int hashCode_high4() {
+    return this.high4Set.hashCode();
+  }
+
+  @Benchmark
+  public int hashCode_highSet() {
+    return this.highSetSet.hashCode();
+  }
+
+  private int forEach(SmallIntegerSet set) {
+    this.sum = 0;
+    set.forEach(i -> this.sum += i);
+    return this.sum;
+  }
+
+  private int forEachRemaining(SmallIntegerSet set) {
+    this.sum = 0;
+    set.iterator().forEachRemaining(i -> this.sum += i);
+    return this.sum;
+  }
+
+  private static boolean removeIf(SmallIntegerSet set) {
+    // never matches so the set stays unchanged between invocations
+    return set.removeIf(i -> i < 0);
   }
 
   @Benchmark
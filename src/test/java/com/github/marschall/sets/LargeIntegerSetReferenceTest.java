@@ -0,0 +1,9 @@
+package com.github.marschall.sets;
+
+public class LargeIntegerSetReferenceTest extends SortedSetTest {
+
+  LargeIntegerSetReferenceTest() {
+    super(LargeIntegerSet::new);
+  }
+
+}
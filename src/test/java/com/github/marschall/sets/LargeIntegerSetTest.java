@@ -0,0 +1,122 @@
+package com.github.marschall.sets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LargeIntegerSetTest {
+
+  private LargeIntegerSet set;
+
+  @BeforeEach
+  public void setUp() {
+    this.set = new LargeIntegerSet();
+  }
+
+  @Test
+  public void supportedRange() {
+    assertTrue(LargeIntegerSet.isSupported(0));
+    assertTrue(LargeIntegerSet.isSupported(255));
+    assertFalse(LargeIntegerSet.isSupported(256));
+    assertFalse(LargeIntegerSet.isSupported(-1));
+    assertThrows(IllegalArgumentException.class, () -> this.set.add(256));
+    assertFalse(this.set.contains(256));
+    assertFalse(this.set.remove(-1));
+  }
+
+  @Test
+  public void wordBoundaries() {
+    this.set.addAll(Arrays.asList(0, 64, 127, 128, 191, 192, 255));
+    assertEquals(7, this.set.size());
+    assertEquals(Integer.valueOf(0), this.set.first());
+    assertEquals(Integer.valueOf(255), this.set.last());
+    assertEquals("[0, 64, 127, 128, 191, 192, 255]", this.set.toString());
+    assertEquals(new HashSet<>(Arrays.asList(0, 64, 127, 128, 191, 192, 255)).hashCode(), this.set.hashCode());
+
+    this.set.removeIf(i -> i < 150);
+    assertEquals(Integer.valueOf(191), this.set.first());
+    this.set.removeIf(i -> i > 200);
+    assertEquals(Integer.valueOf(192), this.set.last());
+  }
+
+  @Test
+  public void allBytes() {
+    for (byte b = Byte.MIN_VALUE; b < Byte.MAX_VALUE; b++) {
+      this.set.addInt(Byte.toUnsignedInt(b));
+    }
+    this.set.addInt(Byte.toUnsignedInt(Byte.MAX_VALUE));
+    assertEquals(256, this.set.size());
+    assertArrayEquals(IntStream.rangeClosed(0, 255).toArray(), this.set.toIntArray());
+    assertEquals(IntStream.rangeClosed(0, 255).sum(), this.set.hashCode());
+
+    Spliterator<Integer> spliterator = this.set.spliterator();
+    Spliterator<Integer> prefix = spliterator.trySplit();
+    assertEquals(128L, prefix.estimateSize());
+    assertEquals(128L, spliterator.estimateSize());
+    assertEquals(IntStream.rangeClosed(0, 255).sum(), this.set.parallelStream().mapToInt(Integer::intValue).sum());
+  }
+
+  @Test
+  public void rangeViews() {
+    this.set.addAll(Arrays.asList(10, 100, 150, 200, 250));
+    SortedSet<Integer> tailSet = this.set.tailSet(100);
+    assertEquals(new TreeSet<>(Arrays.asList(100, 150, 200, 250)), tailSet);
+    SortedSet<Integer> subSet = tailSet.subSet(120, 220);
+    assertEquals(new TreeSet<>(Arrays.asList(150, 200)), subSet);
+    assertThrows(IllegalArgumentException.class, () -> subSet.add(230));
+
+    Iterator<Integer> iterator = subSet.iterator();
+    iterator.next();
+    iterator.remove();
+    assertArrayEquals(new int[] {10, 100, 200, 250}, this.set.toIntArray());
+  }
+
+  @Test
+  public void bulkOperations() {
+    LargeIntegerSet other = new LargeIntegerSet();
+    other.addAll(Arrays.asList(5, 100, 200, 255));
+    this.set.add(255);
+
+    assertTrue(this.set.addAll(other));
+    assertTrue(this.set.containsAll(other));
+    assertEquals(other, this.set);
+    this.set.add(1);
+    assertTrue(this.set.retainAll(other.tailSet(150)));
+    assertArrayEquals(new int[] {200, 255}, this.set.toIntArray());
+    assertTrue(other.removeAll(this.set));
+    assertArrayEquals(new int[] {5, 100}, other.toIntArray());
+  }
+
+  @Test
+  public void otherSetTypes() {
+    MediumIntegerSet medium = new MediumIntegerSet();
+    medium.addAll(Arrays.asList(1, 127));
+    SmallIntegerSet small = new SmallIntegerSet();
+    small.addAll(Arrays.asList(1, 2));
+
+    assertTrue(this.set.addAll(medium));
+    assertTrue(this.set.addAll(small));
+    assertArrayEquals(new int[] {1, 2, 127}, this.set.toIntArray());
+    assertTrue(this.set.containsAll(medium));
+    assertFalse(medium.containsAll(this.set));
+    assertTrue(this.set.removeAll(small));
+    assertEquals(new TreeSet<>(Arrays.asList(127)), this.set);
+    assertTrue(this.set.retainAll(small));
+    assertTrue(this.set.isEmpty());
+    assertEquals(new MediumIntegerSet(), this.set);
+  }
+
+}
@@ -0,0 +1,125 @@
+package com.github.marschall.sets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class MappedSmallIntegerSetArrayTest {
+
+  @Test
+  public void rowOperations() throws IOException {
+    Path path = Files.createTempFile("sets", ".bin");
+    try (MappedSmallIntegerSetArray array = MappedSmallIntegerSetArray.open(path, 10L)) {
+      assertEquals(10L, array.length());
+      assertTrue(array.add(0L, 1));
+      assertFalse(array.add(0L, 1));
+      assertTrue(array.add(9L, 63));
+      assertTrue(array.contains(0L, 1));
+      assertFalse(array.contains(0L, 2));
+      assertFalse(array.contains(0L, 64));
+      assertEquals(1, array.size(9L));
+      assertTrue(array.remove(0L, 1));
+      assertFalse(array.remove(0L, 1));
+      assertFalse(array.remove(0L, -1));
+      assertEquals(0, array.size(0L));
+
+      assertThrows(IllegalArgumentException.class, () -> array.add(0L, 64));
+      assertThrows(IndexOutOfBoundsException.class, () -> array.add(10L, 1));
+      assertThrows(IndexOutOfBoundsException.class, () -> array.getBits(-1L));
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void convertToSmallIntegerSet() throws IOException {
+    Path path = Files.createTempFile("sets", ".bin");
+    try (MappedSmallIntegerSetArray array = MappedSmallIntegerSetArray.open(path, 3L)) {
+      SmallIntegerSet set = new SmallIntegerSet();
+      set.addAll(Arrays.asList(1, 10, 63));
+      array.set(1L, set);
+      assertEquals(set, array.get(1L));
+      assertEquals(set.toBits(), array.getBits(1L));
+      assertTrue(array.get(2L).isEmpty());
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void scan() throws IOException {
+    Path path = Files.createTempFile("sets", ".bin");
+    try (MappedSmallIntegerSetArray array = MappedSmallIntegerSetArray.open(path, 5L)) {
+      array.setBits(0L, 0b011L);
+      array.setBits(1L, 0b001L);
+      array.setBits(3L, 0b111L);
+      array.setBits(4L, 0b100L);
+
+      List<Long> all = new ArrayList<>();
+      array.forEachRowContainingAll(0b011L, all::add);
+      assertEquals(Arrays.asList(0L, 3L), all);
+
+      List<Long> any = new ArrayList<>();
+      array.forEachRowContainingAny(0b110L, any::add);
+      assertEquals(Arrays.asList(0L, 3L, 4L), any);
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void persistent() throws IOException {
+    Path path = Files.createTempFile("sets", ".bin");
+    try {
+      try (MappedSmallIntegerSetArray array = MappedSmallIntegerSetArray.open(path, 4L)) {
+        array.add(2L, 5);
+        array.add(3L, 63);
+        array.force();
+      }
+      assertEquals(32L, Files.size(path));
+      ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+      assertEquals(1L << 5, buffer.getLong(16));
+
+      try (MappedSmallIntegerSetArray array = MappedSmallIntegerSetArray.open(path)) {
+        assertEquals(4L, array.length());
+        assertArrayEquals(new int[] {5}, array.get(2L).toIntArray());
+        assertTrue(array.contains(3L, 63));
+      }
+
+      // grow, existing rows are kept
+      try (MappedSmallIntegerSetArray array = MappedSmallIntegerSetArray.open(path, 6L)) {
+        assertEquals(6L, array.length());
+        assertTrue(array.contains(2L, 5));
+        assertEquals(0L, array.getBits(5L));
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void invalidFileSize() throws IOException {
+    Path path = Files.createTempFile("sets", ".bin");
+    try {
+      Files.write(path, new byte[7]);
+      assertThrows(IOException.class, () -> MappedSmallIntegerSetArray.open(path));
+      assertThrows(IllegalArgumentException.class, () -> MappedSmallIntegerSetArray.open(path, -1L));
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+}
@@ -0,0 +1,9 @@
+package com.github.marschall.sets;
+
+public class MediumIntegerSetReferenceTest extends SortedSetTest {
+
+  MediumIntegerSetReferenceTest() {
+    super(MediumIntegerSet::new);
+  }
+
+}
@@ -0,0 +1,156 @@
+package com.github.marschall.sets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MediumIntegerSetTest {
+
+  private MediumIntegerSet set;
+
+  @BeforeEach
+  public void setUp() {
+    this.set = new MediumIntegerSet();
+  }
+
+  @Test
+  public void supportedRange() {
+    assertTrue(MediumIntegerSet.isSupported(0));
+    assertTrue(MediumIntegerSet.isSupported(127));
+    assertFalse(MediumIntegerSet.isSupported(128));
+    assertFalse(MediumIntegerSet.isSupported(-1));
+    assertThrows(IllegalArgumentException.class, () -> this.set.add(128));
+    assertThrows(IllegalArgumentException.class, () -> this.set.add(-1));
+    assertFalse(this.set.contains(128));
+    assertFalse(this.set.remove(-1));
+  }
+
+  @Test
+  public void wordBoundaries() {
+    this.set.addAll(Arrays.asList(0, 63, 64, 127));
+    assertEquals(4, this.set.size());
+    assertEquals(Integer.valueOf(0), this.set.first());
+    assertEquals(Integer.valueOf(127), this.set.last());
+    assertArrayEquals(new int[] {0, 63, 64, 127}, this.set.toIntArray());
+    assertEquals("[0, 63, 64, 127]", this.set.toString());
+    assertEquals(new HashSet<>(Arrays.asList(0, 63, 64, 127)).hashCode(), this.set.hashCode());
+    assertEquals(1L | (1L << 63), this.set.getWord(0));
+    assertEquals(1L | (1L << 63), this.set.getWord(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> this.set.getWord(2));
+
+    this.set.remove(0);
+    this.set.remove(63);
+    assertEquals(Integer.valueOf(64), this.set.first());
+    this.set.remove(127);
+    assertEquals(Integer.valueOf(64), this.set.last());
+  }
+
+  @Test
+  public void rangeViews() {
+    this.set.addAll(Arrays.asList(10, 63, 64, 100, 127));
+
+    SortedSet<Integer> subSet = this.set.subSet(60, 101);
+    assertEquals(new TreeSet<>(Arrays.asList(63, 64, 100)), subSet);
+    assertEquals(Integer.valueOf(63), subSet.first());
+    assertEquals(Integer.valueOf(100), subSet.last());
+    assertEquals(new TreeSet<>(Arrays.asList(63, 64)), subSet.headSet(100));
+    assertThrows(IllegalArgumentException.class, () -> subSet.add(101));
+    assertThrows(IllegalArgumentException.class, () -> subSet.subSet(50, 70));
+
+    assertTrue(subSet.add(70));
+    assertTrue(this.set.contains(70));
+    subSet.clear();
+    assertArrayEquals(new int[] {10, 127}, this.set.toIntArray());
+    assertTrue(this.set.subSet(20, 20).isEmpty());
+  }
+
+  @Test
+  public void iteration() {
+    this.set.addAll(Arrays.asList(1, 63, 64, 126));
+    Iterator<Integer> iterator = this.set.iterator();
+    assertEquals(Integer.valueOf(1), iterator.next());
+    assertEquals(Integer.valueOf(63), iterator.next());
+    iterator.remove();
+    assertEquals(Integer.valueOf(64), iterator.next());
+    assertEquals(Integer.valueOf(126), iterator.next());
+    assertFalse(iterator.hasNext());
+    assertArrayEquals(new int[] {1, 64, 126}, this.set.toIntArray());
+
+    assertTrue(this.set.removeIf(i -> i > 100));
+    assertArrayEquals(new int[] {1, 64}, this.set.intStream().toArray());
+  }
+
+  @Test
+  public void spliterator() {
+    IntStream.rangeClosed(MediumIntegerSet.MIN_VALUE, MediumIntegerSet.MAX_VALUE).forEach(this.set::addInt);
+    Spliterator<Integer> spliterator = this.set.spliterator();
+    assertEquals(128L, spliterator.estimateSize());
+    Spliterator<Integer> prefix = spliterator.trySplit();
+    assertEquals(64L, prefix.estimateSize());
+    assertEquals(64L, spliterator.estimateSize());
+    assertEquals(IntStream.rangeClosed(0, 127).sum(), this.set.parallelStream().mapToInt(Integer::intValue).sum());
+  }
+
+  @Test
+  public void bulkOperations() {
+    MediumIntegerSet other = new MediumIntegerSet();
+    other.addAll(Arrays.asList(5, 100));
+    this.set.add(100);
+
+    assertTrue(this.set.addAll(other));
+    assertFalse(this.set.addAll(other));
+    assertTrue(this.set.containsAll(other));
+    assertEquals(other, this.set);
+    assertEquals(other.hashCode(), this.set.hashCode());
+    this.set.add(120);
+    assertTrue(this.set.retainAll(other.headSet(50)));
+    assertArrayEquals(new int[] {5}, this.set.toIntArray());
+    assertTrue(other.removeAll(this.set));
+    assertArrayEquals(new int[] {100}, other.toIntArray());
+  }
+
+  @Test
+  public void otherSetTypes() {
+    SmallIntegerSet small = new SmallIntegerSet();
+    small.addAll(Arrays.asList(1, 63));
+    assertTrue(this.set.addAll(small));
+    assertEquals(small, this.set);
+    assertEquals(this.set, small);
+    assertTrue(this.set.containsAll(small));
+
+    LargeIntegerSet large = new LargeIntegerSet();
+    large.addAll(Arrays.asList(1, 100, 200));
+    assertThrows(IllegalArgumentException.class, () -> this.set.addAll(large));
+    assertArrayEquals(new int[] {1, 63}, this.set.toIntArray());
+    assertTrue(this.set.addAll(large.headSet(128)));
+    assertFalse(this.set.containsAll(large));
+    assertTrue(this.set.retainAll(large));
+    assertEquals(large.headSet(150), this.set);
+    assertTrue(this.set.removeAll(small));
+    assertArrayEquals(new int[] {100}, this.set.toIntArray());
+  }
+
+  @Test
+  public void cloneIndependent() {
+    this.set.add(100);
+    MediumIntegerSet clone = (MediumIntegerSet) this.set.clone();
+    clone.add(101);
+    assertArrayEquals(new int[] {100}, this.set.toIntArray());
+    assertEquals(Arrays.asList(100, 101), clone.stream().collect(Collectors.toList()));
+  }
+
+}
@@ -0,0 +1,346 @@
+package com.github.marschall.sets;
+
+import static com.github.marschall.sets.Lists.toList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public abstract class NavigableSetTest {
+
+  private NavigableSet<Integer> set;
+  private final Supplier<NavigableSet<Integer>> setFactory;
+  private int minValue;
+  private int maxValue;
+
+  NavigableSetTest(Supplier<NavigableSet<Integer>> setFactory) {
+    this.setFactory = setFactory;
+    this.minValue = SmallIntegerSet.MIN_VALUE;
+    this.maxValue = SmallIntegerSet.MAX_VALUE;
+  }
+
+  @BeforeEach
+  public void setUp() {
+    this.set = this.setFactory.get();
+  }
+
+  @Test
+  public void ceiling() {
+    assertNull(this.set.ceiling(this.minValue));
+
+    this.set.addAll(Arrays.asList(this.minValue, 10, 20, this.maxValue));
+
+    assertEquals(Integer.valueOf(this.minValue), this.set.ceiling(Integer.MIN_VALUE));
+    assertEquals(Integer.valueOf(this.minValue), this.set.ceiling(this.minValue - 1));
+    assertEquals(Integer.valueOf(this.minValue), this.set.ceiling(this.minValue));
+    assertEquals(Integer.valueOf(10), this.set.ceiling(this.minValue + 1));
+    assertEquals(Integer.valueOf(10), this.set.ceiling(10));
+    assertEquals(Integer.valueOf(20), this.set.ceiling(11));
+    assertEquals(Integer.valueOf(this.maxValue), this.set.ceiling(this.maxValue));
+    assertNull(this.set.ceiling(this.maxValue + 1));
+    assertNull(this.set.ceiling(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void higher() {
+    assertNull(this.set.higher(this.minValue));
+
+    this.set.addAll(Arrays.asList(this.minValue, 10, 20, this.maxValue));
+
+    assertEquals(Integer.valueOf(this.minValue), this.set.higher(Integer.MIN_VALUE));
+    assertEquals(Integer.valueOf(this.minValue), this.set.higher(this.minValue - 1));
+    assertEquals(Integer.valueOf(10), this.set.higher(this.minValue));
+    assertEquals(Integer.valueOf(20), this.set.higher(10));
+    assertEquals(Integer.valueOf(this.maxValue), this.set.higher(this.maxValue - 1));
+    assertNull(this.set.higher(this.maxValue));
+    assertNull(this.set.higher(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void floor() {
+    assertNull(this.set.floor(this.maxValue));
+
+    this.set.addAll(Arrays.asList(this.minValue, 10, 20, this.maxValue));
+
+    assertNull(this.set.floor(Integer.MIN_VALUE));
+    assertNull(this.set.floor(this.minValue - 1));
+    assertEquals(Integer.valueOf(this.minValue), this.set.floor(this.minValue));
+    assertEquals(Integer.valueOf(this.minValue), this.set.floor(9));
+    assertEquals(Integer.valueOf(10), this.set.floor(10));
+    assertEquals(Integer.valueOf(20), this.set.floor(this.maxValue - 1));
+    assertEquals(Integer.valueOf(this.maxValue), this.set.floor(this.maxValue));
+    assertEquals(Integer.valueOf(this.maxValue), this.set.floor(this.maxValue + 1));
+    assertEquals(Integer.valueOf(this.maxValue), this.set.floor(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void lower() {
+    assertNull(this.set.lower(this.maxValue));
+
+    this.set.addAll(Arrays.asList(this.minValue, 10, 20, this.maxValue));
+
+    assertNull(this.set.lower(Integer.MIN_VALUE));
+    assertNull(this.set.lower(this.minValue));
+    assertEquals(Integer.valueOf(this.minValue), this.set.lower(10));
+    assertEquals(Integer.valueOf(10), this.set.lower(11));
+    assertEquals(Integer.valueOf(20), this.set.lower(this.maxValue));
+    assertEquals(Integer.valueOf(this.maxValue), this.set.lower(this.maxValue + 1));
+    assertEquals(Integer.valueOf(this.maxValue), this.set.lower(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void navigationNull() {
+    this.set.add(1);
+    assertThrows(NullPointerException.class, () -> this.set.ceiling(null));
+    assertThrows(NullPointerException.class, () -> this.set.floor(null));
+    assertThrows(NullPointerException.class, () -> this.set.higher(null));
+    assertThrows(NullPointerException.class, () -> this.set.lower(null));
+  }
+
+  @Test
+  public void pollFirst() {
+    assertNull(this.set.pollFirst());
+
+    this.set.addAll(Arrays.asList(this.minValue, 10, this.maxValue));
+
+    assertEquals(Integer.valueOf(this.minValue), this.set.pollFirst());
+    assertEquals(Integer.valueOf(10), this.set.pollFirst());
+    assertEquals(Integer.valueOf(this.maxValue), this.set.pollFirst());
+    assertNull(this.set.pollFirst());
+    assertTrue(this.set.isEmpty());
+  }
+
+  @Test
+  public void pollLast() {
+    assertNull(this.set.pollLast());
+
+    this.set.addAll(Arrays.asList(this.minValue, 10, this.maxValue));
+
+    assertEquals(Integer.valueOf(this.maxValue), this.set.pollLast());
+    assertEquals(Integer.valueOf(10), this.set.pollLast());
+    assertEquals(Integer.valueOf(this.minValue), this.set.pollLast());
+    assertNull(this.set.pollLast());
+    assertTrue(this.set.isEmpty());
+  }
+
+  @Test
+  public void descendingIterator() {
+    assertFalse(this.set.descendingIterator().hasNext());
+    assertThrows(NoSuchElementException.class, () -> this.set.descendingIterator().next());
+
+    this.set.addAll(Arrays.asList(this.minValue, 10, 20, this.maxValue));
+    assertEquals(Arrays.asList(this.maxValue, 20, 10, this.minValue), toList(this.set.descendingIterator()));
+  }
+
+  @Test
+  public void descendingIteratorRemove() {
+    this.set.addAll(Arrays.asList(this.minValue, 10, this.maxValue));
+
+    Iterator<Integer> iterator = this.set.descendingIterator();
+    assertThrows(IllegalStateException.class, iterator::remove);
+    assertEquals(Integer.valueOf(this.maxValue), iterator.next());
+    assertEquals(Integer.valueOf(10), iterator.next());
+    iterator.remove();
+    assertThrows(IllegalStateException.class, iterator::remove);
+    assertEquals(Integer.valueOf(this.minValue), iterator.next());
+    assertFalse(iterator.hasNext());
+
+    assertArrayEquals(new Object[] {this.minValue, this.maxValue}, this.set.toArray());
+  }
+
+  @Test
+  public void descendingIteratorForEachRemaining() {
+    this.set.addAll(Arrays.asList(this.minValue, 10, 20, this.maxValue));
+
+    Iterator<Integer> iterator = this.set.descendingIterator();
+    iterator.next();
+    assertEquals(Arrays.asList(20, 10, this.minValue), toList(iterator));
+  }
+
+  @Test
+  public void descendingSet() {
+    this.set.addAll(Arrays.asList(this.minValue, 10, 20, this.maxValue));
+    NavigableSet<Integer> descending = this.set.descendingSet();
+
+    assertSame(Collections.reverseOrder(), descending.comparator());
+    assertEquals(4, descending.size());
+    assertEquals(Integer.valueOf(this.maxValue), descending.first());
+    assertEquals(Integer.valueOf(this.minValue), descending.last());
+    assertArrayEquals(new Object[] {this.maxValue, 20, 10, this.minValue}, descending.toArray());
+    assertArrayEquals(new Integer[] {this.maxValue, 20, 10, this.minValue}, descending.toArray(new Integer[0]));
+    assertEquals(Arrays.asList(this.maxValue, 20, 10, this.minValue), toList(descending.iterator()));
+    assertEquals(Arrays.asList(this.minValue, 10, 20, this.maxValue), toList(descending.descendingIterator()));
+    NavigableSet<Integer> reference = new TreeSet<>(Collections.reverseOrder());
+    reference.addAll(this.set);
+    assertEquals(reference.toString(), descending.toString());
+
+    assertEquals(this.set, descending);
+    assertEquals(descending, this.set);
+    assertEquals(this.set.hashCode(), descending.hashCode());
+
+    assertEquals(Arrays.asList(this.minValue, 10, 20, this.maxValue), toList(descending.descendingSet().iterator()));
+  }
+
+  @Test
+  public void descendingSetToArraySetNull() {
+    this.set.addAll(Arrays.asList(1, 2));
+
+    Object[] array = new Object[4];
+    Arrays.fill(array, 7);
+    Object[] result = this.set.descendingSet().toArray(array);
+
+    assertSame(array, result);
+    assertArrayEquals(new Object[] {2, 1, null, 7}, result);
+  }
+
+  @Test
+  public void descendingSetNavigation() {
+    this.set.addAll(Arrays.asList(this.minValue, 10, 20, this.maxValue));
+    NavigableSet<Integer> descending = this.set.descendingSet();
+
+    assertEquals(Integer.valueOf(10), descending.ceiling(15));
+    assertEquals(Integer.valueOf(20), descending.floor(15));
+    assertEquals(Integer.valueOf(this.minValue), descending.higher(10));
+    assertEquals(Integer.valueOf(20), descending.lower(10));
+
+    assertEquals(Integer.valueOf(this.maxValue), descending.pollFirst());
+    assertEquals(Integer.valueOf(this.minValue), descending.pollLast());
+    assertArrayEquals(new Object[] {10, 20}, this.set.toArray());
+  }
+
+  @Test
+  public void descendingSetRangeViews() {
+    this.set.addAll(Arrays.asList(this.minValue, 10, 20, 30, this.maxValue));
+    NavigableSet<Integer> descending = this.set.descendingSet();
+
+    assertArrayEquals(new Object[] {20, 10}, descending.subSet(25, 5).toArray());
+    assertArrayEquals(new Object[] {30, 20}, descending.subSet(30, true, 10, false).toArray());
+    assertArrayEquals(new Object[] {this.maxValue, 30}, descending.headSet(20).toArray());
+    assertArrayEquals(new Object[] {this.maxValue, 30, 20}, descending.headSet(20, true).toArray());
+    assertArrayEquals(new Object[] {20, 10, this.minValue}, descending.tailSet(20).toArray());
+    assertArrayEquals(new Object[] {10, this.minValue}, descending.tailSet(20, false).toArray());
+
+    assertThrows(IllegalArgumentException.class, () -> descending.subSet(5, 25));
+  }
+
+  @Test
+  public void descendingSetModification() {
+    NavigableSet<Integer> descending = this.set.descendingSet();
+
+    assertTrue(descending.add(10));
+    assertTrue(descending.addAll(Arrays.asList(20, 30)));
+    assertTrue(this.set.contains(10));
+    assertTrue(descending.remove(10));
+    assertFalse(this.set.contains(10));
+    assertTrue(descending.removeIf(i -> i == 30));
+    assertArrayEquals(new Object[] {20}, this.set.toArray());
+
+    descending.clear();
+    assertTrue(this.set.isEmpty());
+  }
+
+  @Test
+  public void subSetInclusive() {
+    this.set.addAll(Arrays.asList(this.minValue, 10, 20, 30, this.maxValue));
+
+    assertArrayEquals(new Object[] {10, 20, 30}, this.set.subSet(10, true, 30, true).toArray());
+    assertArrayEquals(new Object[] {20, 30}, this.set.subSet(10, false, 30, true).toArray());
+    assertArrayEquals(new Object[] {10, 20}, this.set.subSet(10, true, 30, false).toArray());
+    assertArrayEquals(new Object[] {20}, this.set.subSet(10, false, 30, false).toArray());
+    assertArrayEquals(new Object[0], this.set.subSet(10, false, 10, false).toArray());
+    assertArrayEquals(new Object[] {10}, this.set.subSet(10, true, 10, true).toArray());
+    assertArrayEquals(new Object[] {this.minValue, 10, 20, 30, this.maxValue},
+            this.set.subSet(this.minValue, true, this.maxValue, true).toArray());
+
+    assertThrows(IllegalArgumentException.class, () -> this.set.subSet(30, true, 10, true));
+  }
+
+  @Test
+  public void headSetInclusive() {
+    this.set.addAll(Arrays.asList(this.minValue, 10, 20, this.maxValue));
+
+    assertArrayEquals(new Object[] {this.minValue, 10}, this.set.headSet(10, true).toArray());
+    assertArrayEquals(new Object[] {this.minValue}, this.set.headSet(10, false).toArray());
+    assertArrayEquals(new Object[] {this.minValue, 10, 20, this.maxValue}, this.set.headSet(this.maxValue, true).toArray());
+    assertArrayEquals(new Object[0], this.set.headSet(this.minValue, false).toArray());
+  }
+
+  @Test
+  public void tailSetInclusive() {
+    this.set.addAll(Arrays.asList(this.minValue, 10, 20, this.maxValue));
+
+    assertArrayEquals(new Object[] {10, 20, this.maxValue}, this.set.tailSet(10, true).toArray());
+    assertArrayEquals(new Object[] {20, this.maxValue}, this.set.tailSet(10, false).toArray());
+    assertArrayEquals(new Object[] {this.minValue, 10, 20, this.maxValue}, this.set.tailSet(this.minValue, true).toArray());
+    assertArrayEquals(new Object[0], this.set.tailSet(this.maxValue, false).toArray());
+  }
+
+  @Test
+  public void subSetNavigation() {
+    this.set.addAll(Arrays.asList(this.minValue, 10, 20, 30, this.maxValue));
+    NavigableSet<Integer> subSet = this.set.subSet(10, true, 30, false);
+
+    assertEquals(Integer.valueOf(10), subSet.ceiling(this.minValue));
+    assertNull(subSet.ceiling(21));
+    assertEquals(Integer.valueOf(20), subSet.floor(this.maxValue));
+    assertNull(subSet.floor(9));
+    assertEquals(Integer.valueOf(20), subSet.higher(10));
+    assertNull(subSet.higher(20));
+    assertEquals(Integer.valueOf(10), subSet.lower(20));
+    assertNull(subSet.lower(10));
+
+    assertEquals(Arrays.asList(20, 10), toList(subSet.descendingIterator()));
+    assertArrayEquals(new Object[] {20, 10}, subSet.descendingSet().toArray());
+  }
+
+  @Test
+  public void subSetPoll() {
+    this.set.addAll(Arrays.asList(this.minValue, 10, 20, 30, this.maxValue));
+    NavigableSet<Integer> subSet = this.set.subSet(10, true, 30, false);
+
+    assertEquals(Integer.valueOf(10), subSet.pollFirst());
+    assertEquals(Integer.valueOf(20), subSet.pollLast());
+    assertNull(subSet.pollFirst());
+    assertNull(subSet.pollLast());
+    assertArrayEquals(new Object[] {this.minValue, 30, this.maxValue}, this.set.toArray());
+  }
+
+  @Test
+  public void subSetSubSet() {
+    this.set.addAll(Arrays.asList(this.minValue, 10, 20, 30, this.maxValue));
+    NavigableSet<Integer> subSet = this.set.subSet(10, true, 30, true);
+
+    assertArrayEquals(new Object[] {20, 30}, subSet.subSet(10, false, 30, true).toArray());
+    assertArrayEquals(new Object[] {10, 20}, subSet.headSet(30, false).toArray());
+    assertArrayEquals(new Object[] {20, 30}, subSet.tailSet(10, false).toArray());
+
+    assertThrows(IllegalArgumentException.class, () -> subSet.subSet(5, true, 30, true));
+    assertThrows(IllegalArgumentException.class, () -> subSet.headSet(31, true));
+    assertThrows(IllegalArgumentException.class, () -> subSet.tailSet(9, true));
+  }
+
+  @Test
+  public void subSetAddOutOfRange() {
+    NavigableSet<Integer> subSet = this.set.subSet(10, false, 30, false);
+
+    assertThrows(IllegalArgumentException.class, () -> subSet.add(10));
+    assertThrows(IllegalArgumentException.class, () -> subSet.add(30));
+    assertTrue(subSet.add(11));
+    assertTrue(subSet.add(29));
+  }
+
+}
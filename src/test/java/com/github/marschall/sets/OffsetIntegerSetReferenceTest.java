@@ -0,0 +1,9 @@
+package com.github.marschall.sets;
+
+public class OffsetIntegerSetReferenceTest extends SortedSetTest {
+
+  OffsetIntegerSetReferenceTest() {
+    super(() -> new OffsetIntegerSet(SmallIntegerSet.MIN_VALUE));
+  }
+
+}
@@ -0,0 +1,249 @@
+package com.github.marschall.sets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class OffsetIntegerSetTest {
+
+  private OffsetIntegerSet set;
+
+  @BeforeEach
+  public void setUp() {
+    this.set = new OffsetIntegerSet(1000);
+  }
+
+  @Test
+  public void supportedRange() {
+    assertFalse(this.set.isSupported(999));
+    assertTrue(this.set.isSupported(1000));
+    assertTrue(this.set.isSupported(1063));
+    assertFalse(this.set.isSupported(1064));
+
+    assertThrows(IllegalArgumentException.class, () -> this.set.add(999));
+    assertThrows(IllegalArgumentException.class, () -> this.set.add(1064));
+    assertFalse(this.set.contains(0));
+    assertFalse(this.set.remove(0));
+    assertThrows(NullPointerException.class, () -> this.set.add(null));
+  }
+
+  @Test
+  public void extremeBases() {
+    OffsetIntegerSet min = new OffsetIntegerSet(Integer.MIN_VALUE);
+    assertTrue(min.add(Integer.MIN_VALUE));
+    assertTrue(min.add(Integer.MIN_VALUE + 63));
+    assertFalse(min.contains(Integer.MAX_VALUE));
+    assertEquals(Arrays.asList(Integer.MIN_VALUE, Integer.MIN_VALUE + 63), min.stream().collect(Collectors.toList()));
+
+    OffsetIntegerSet max = new OffsetIntegerSet(Integer.MAX_VALUE - 63);
+    assertTrue(max.add(Integer.MAX_VALUE));
+    assertFalse(max.contains(Integer.MIN_VALUE));
+    assertEquals(Integer.valueOf(Integer.MAX_VALUE), max.last());
+
+    assertThrows(IllegalArgumentException.class, () -> new OffsetIntegerSet(Integer.MAX_VALUE - 62));
+  }
+
+  @Test
+  public void negativeBase() {
+    OffsetIntegerSet negative = new OffsetIntegerSet(-10);
+    negative.addAll(Arrays.asList(-10, -1, 0, 53));
+    assertEquals("[-10, -1, 0, 53]", negative.toString());
+    assertEquals(new HashSet<>(Arrays.asList(-10, -1, 0, 53)).hashCode(), negative.hashCode());
+    assertEquals(Integer.valueOf(-10), negative.first());
+    assertEquals(Integer.valueOf(53), negative.last());
+  }
+
+  @Test
+  public void basicOperations() {
+    assertTrue(this.set.isEmpty());
+    assertTrue(this.set.add(1063));
+    assertTrue(this.set.add(1000));
+    assertTrue(this.set.add(1017));
+    assertFalse(this.set.add(1017));
+    assertEquals(3, this.set.size());
+    assertTrue(this.set.contains(1017));
+    assertTrue(this.set.containsInt(1063));
+    assertEquals(Integer.valueOf(1000), this.set.first());
+    assertEquals(Integer.valueOf(1063), this.set.last());
+    assertArrayEquals(new int[] {1000, 1017, 1063}, this.set.toIntArray());
+    assertArrayEquals(new Object[] {1000, 1017, 1063}, this.set.toArray());
+    assertArrayEquals(new Integer[] {1000, 1017, 1063}, this.set.toArray(new Integer[0]));
+    assertEquals("[1000, 1017, 1063]", this.set.toString());
+    assertEquals(new HashSet<>(Arrays.asList(1000, 1017, 1063)).hashCode(), this.set.hashCode());
+    assertEquals(new TreeSet<>(Arrays.asList(1000, 1017, 1063)), this.set);
+    assertEquals(this.set, new TreeSet<>(Arrays.asList(1000, 1017, 1063)));
+
+    assertTrue(this.set.remove(1017));
+    assertFalse(this.set.remove(1017));
+    this.set.clear();
+    assertTrue(this.set.isEmpty());
+    assertThrows(NoSuchElementException.class, () -> this.set.first());
+  }
+
+  @Test
+  public void iteration() {
+    this.set.addAll(Arrays.asList(1000, 1001, 1040, 1063));
+
+    StringBuilder builder = new StringBuilder();
+    this.set.forEachInt(i -> builder.append(i).append(' '));
+    assertEquals("1000 1001 1040 1063 ", builder.toString());
+    assertArrayEquals(new int[] {1000, 1001, 1040, 1063}, this.set.intStream().toArray());
+    assertEquals(4, this.set.parallelStream().filter(i -> i >= 1000).count());
+    assertEquals(Arrays.asList(1000, 1001, 1040, 1063), this.set.stream().sorted().collect(Collectors.toList()));
+
+    Iterator<Integer> iterator = this.set.iterator();
+    assertThrows(IllegalStateException.class, () -> iterator.remove());
+    assertEquals(Integer.valueOf(1000), iterator.next());
+    iterator.remove();
+    assertEquals(Integer.valueOf(1001), iterator.next());
+    assertEquals(Integer.valueOf(1040), iterator.next());
+    iterator.remove();
+    assertEquals(Integer.valueOf(1063), iterator.next());
+    assertFalse(iterator.hasNext());
+    assertThrows(NoSuchElementException.class, () -> iterator.next());
+    assertArrayEquals(new int[] {1001, 1063}, this.set.toIntArray());
+
+    assertTrue(this.set.removeIf(i -> i == 1063));
+    assertArrayEquals(new int[] {1001}, this.set.toIntArray());
+  }
+
+  @Test
+  public void rangeViews() {
+    this.set.addAll(Arrays.asList(1000, 1010, 1020, 1063));
+
+    SortedSet<Integer> headSet = this.set.headSet(1020);
+    assertEquals(new TreeSet<>(Arrays.asList(1000, 1010)), headSet);
+    assertEquals(new TreeSet<>(Arrays.asList(1010, 1020)), this.set.subSet(1005, 1030));
+    assertEquals(new TreeSet<>(Arrays.asList(1020, 1063)), this.set.tailSet(1020));
+    assertEquals("[1000, 1010]", headSet.toString());
+
+    assertThrows(IllegalArgumentException.class, () -> headSet.add(1030));
+    assertTrue(headSet.add(1005));
+    assertTrue(this.set.contains(1005));
+    assertFalse(headSet.remove(1063));
+    assertTrue(this.set.contains(1063));
+    assertThrows(IllegalArgumentException.class, () -> headSet.subSet(1005, 1030));
+    assertThrows(IllegalArgumentException.class, () -> this.set.subSet(1030, 1020));
+    assertThrows(IllegalArgumentException.class, () -> this.set.headSet(2000));
+
+    headSet.clear();
+    assertArrayEquals(new int[] {1020, 1063}, this.set.toIntArray());
+  }
+
+  @Test
+  public void sameBase() {
+    OffsetIntegerSet other = new OffsetIntegerSet(1000);
+    other.addAll(Arrays.asList(1001, 1063));
+    this.set.add(1002);
+
+    assertTrue(this.set.addAll(other));
+    assertArrayEquals(new int[] {1001, 1002, 1063}, this.set.toIntArray());
+    assertTrue(this.set.containsAll(other));
+    assertFalse(other.containsAll(this.set));
+    assertTrue(this.set.retainAll(other));
+    assertEquals(other, this.set);
+    assertEquals(other.hashCode(), this.set.hashCode());
+    assertTrue(this.set.removeAll(other.headSet(1010)));
+    assertArrayEquals(new int[] {1063}, this.set.toIntArray());
+  }
+
+  @Test
+  public void differentBase() {
+    OffsetIntegerSet other = new OffsetIntegerSet(1030);
+    other.addAll(Arrays.asList(1030, 1063));
+    this.set.addAll(Arrays.asList(1000, 1030));
+
+    assertTrue(this.set.addAll(other));
+    assertArrayEquals(new int[] {1000, 1030, 1063}, this.set.toIntArray());
+    assertTrue(this.set.containsAll(other));
+    assertFalse(other.containsAll(this.set));
+
+    other.add(1070);
+    assertFalse(this.set.containsAll(other));
+    assertThrows(IllegalArgumentException.class, () -> this.set.addAll(other));
+    assertArrayEquals(new int[] {1000, 1030, 1063}, this.set.toIntArray());
+
+    assertTrue(this.set.retainAll(other));
+    assertArrayEquals(new int[] {1030, 1063}, this.set.toIntArray());
+    assertNotEquals(other, this.set);
+    other.remove(1070);
+    assertEquals(other, this.set);
+    assertEquals(this.set, other);
+
+    assertTrue(other.removeAll(this.set));
+    assertTrue(other.isEmpty());
+  }
+
+  @Test
+  public void disjointBases() {
+    OffsetIntegerSet other = new OffsetIntegerSet(5000);
+    other.add(5000);
+    this.set.add(1000);
+    assertFalse(this.set.containsAll(other));
+    assertFalse(this.set.removeAll(other));
+    assertTrue(this.set.retainAll(other));
+    assertTrue(this.set.isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> this.set.addAll(other));
+  }
+
+  @Test
+  public void smallIntegerSet() {
+    OffsetIntegerSet offset = new OffsetIntegerSet(10);
+    SmallIntegerSet small = new SmallIntegerSet();
+    small.addAll(Arrays.asList(10, 20, 63));
+
+    assertTrue(offset.addAll(small));
+    assertArrayEquals(new int[] {10, 20, 63}, offset.toIntArray());
+    assertEquals(small, offset);
+    assertEquals(offset, small);
+    assertTrue(offset.containsAll(small.tailSet(20)));
+
+    small.add(5);
+    assertFalse(offset.containsAll(small));
+    assertThrows(IllegalArgumentException.class, () -> offset.addAll(small));
+    assertFalse(offset.retainAll(small));
+    assertTrue(offset.removeAll(small.headSet(15)));
+    assertArrayEquals(new int[] {20, 63}, offset.toIntArray());
+  }
+
+  @Test
+  public void subSetBulkOperations() {
+    OffsetIntegerSet other = new OffsetIntegerSet(990);
+    other.addAll(Arrays.asList(995, 1000, 1010, 1040));
+    SortedSet<Integer> subSet = this.set.subSet(1000, 1020);
+
+    assertThrows(IllegalArgumentException.class, () -> subSet.addAll(other));
+    assertTrue(subSet.addAll(other.subSet(1000, 1020)));
+    assertArrayEquals(new int[] {1000, 1010}, this.set.toIntArray());
+    this.set.add(1050);
+    assertTrue(subSet.retainAll(other.tailSet(1005)));
+    assertArrayEquals(new int[] {1010, 1050}, this.set.toIntArray());
+    assertTrue(subSet.removeAll(other));
+    assertArrayEquals(new int[] {1050}, this.set.toIntArray());
+  }
+
+  @Test
+  public void cloneIndependent() {
+    this.set.add(1001);
+    OffsetIntegerSet clone = (OffsetIntegerSet) this.set.clone();
+    clone.add(1002);
+    assertEquals(1000, clone.getBase());
+    assertArrayEquals(new int[] {1001}, this.set.toIntArray());
+    assertArrayEquals(new int[] {1001, 1002}, clone.toIntArray());
+  }
+
+}
@@ -0,0 +1,126 @@
+package com.github.marschall.sets;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the boxed {@link java.util.Set} methods of {@link SmallIntegerSet}
+ * with their primitive counterparts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PrimitiveApiBenchmark {
+
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+            .include(".*PrimitiveApiBenchmark.*")
+            .warmupIterations(10)
+            .measurementIterations(10)
+            .forks(5)
+            .build();
+    new Runner(options).run();
+  }
+
+  private SmallIntegerSet set;
+
+  private int sum;
+
+  @Setup
+  public void setup() {
+    this.set = new SmallIntegerSet();
+    for (int i = SmallIntegerSet.MIN_VALUE; i <= SmallIntegerSet.MAX_VALUE; i += 3) {
+      this.set.add(i);
+    }
+  }
+
+  @Benchmark
+  public int containsBoxed() {
+    int count = 0;
+    for (int i = SmallIntegerSet.MIN_VALUE; i <= SmallIntegerSet.MAX_VALUE; i++) {
+      if (this.set.contains(i)) {
+        count += 1;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int containsPrimitive() {
+    int count = 0;
+    for (int i = SmallIntegerSet.MIN_VALUE; i <= SmallIntegerSet.MAX_VALUE; i++) {
+      if (this.set.containsInt(i)) {
+        count += 1;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public boolean addRemoveBoxed() {
+    boolean changed = false;
+    for (int i = SmallIntegerSet.MIN_VALUE; i <= SmallIntegerSet.MAX_VALUE; i++) {
+      changed |= this.set.add(i);
+      changed |= this.set.remove(i);
+    }
+    return changed;
+  }
+
+  @Benchmark
+  public boolean addRemovePrimitive() {
+    boolean changed = false;
+    for (int i = SmallIntegerSet.MIN_VALUE; i <= SmallIntegerSet.MAX_VALUE; i++) {
+      changed |= this.set.addInt(i);
+      changed |= this.set.removeInt(i);
+    }
+    return changed;
+  }
+
+  @Benchmark
+  public int forEachBoxed() {
+    this.sum = 0;
+    this.set.forEach(i -> this.sum += i);
+    return this.sum;
+  }
+
+  @Benchmark
+  public int forEachPrimitive() {
+    this.sum = 0;
+    this.set.forEachInt(i -> this.sum += i);
+    return this.sum;
+  }
+
+  @Benchmark
+  public boolean removeIfBoxed() {
+    SmallIntegerSet copy = (SmallIntegerSet) this.set.clone();
+    return copy.removeIf(i -> (i & 1) == 0);
+  }
+
+  @Benchmark
+  public boolean removeIfPrimitive() {
+    SmallIntegerSet copy = (SmallIntegerSet) this.set.clone();
+    return copy.removeIfInt(i -> (i & 1) == 0);
+  }
+
+  @Benchmark
+  public Object[] toArrayBoxed() {
+    return this.set.toArray();
+  }
+
+  @Benchmark
+  public int[] toArrayPrimitive() {
+    return this.set.toIntArray();
+  }
+
+}
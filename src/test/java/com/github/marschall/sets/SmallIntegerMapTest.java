@@ -0,0 +1,259 @@
+package com.github.marschall.sets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SmallIntegerMapTest {
+
+  private SmallIntegerMap<String> map;
+
+  @BeforeEach
+  public void setUp() {
+    this.map = new SmallIntegerMap<>();
+  }
+
+  @Test
+  public void putGetRemove() {
+    assertTrue(this.map.isEmpty());
+    assertNull(this.map.put(5, "five"));
+    assertNull(this.map.put(1, "one"));
+    assertNull(this.map.put(63, "sixty-three"));
+    assertNull(this.map.put(0, "zero"));
+    assertEquals("one", this.map.put(1, "uno"));
+    assertEquals(4, this.map.size());
+
+    assertEquals("uno", this.map.get(1));
+    assertEquals("sixty-three", this.map.get(Integer.valueOf(63)));
+    assertNull(this.map.get(2));
+    assertNull(this.map.get(64));
+    assertNull(this.map.get(-1));
+    assertTrue(this.map.containsKey(0));
+    assertFalse(this.map.containsKey(Integer.valueOf(2)));
+    assertTrue(this.map.containsValue("five"));
+    assertFalse(this.map.containsValue("one"));
+
+    assertEquals("five", this.map.remove(5));
+    assertNull(this.map.remove(5));
+    assertNull(this.map.remove(Integer.valueOf(100)));
+    assertEquals("{0=zero, 1=uno, 63=sixty-three}", this.map.toString());
+
+    this.map.clear();
+    assertTrue(this.map.isEmpty());
+    assertEquals("{}", this.map.toString());
+  }
+
+  @Test
+  public void unsupportedKeys() {
+    assertThrows(IllegalArgumentException.class, () -> this.map.put(64, "a"));
+    assertThrows(IllegalArgumentException.class, () -> this.map.put(-1, "a"));
+    assertThrows(NullPointerException.class, () -> this.map.put(null, "a"));
+    assertTrue(this.map.isEmpty());
+  }
+
+  @Test
+  public void nullValues() {
+    this.map.put(3, null);
+    assertTrue(this.map.containsKey(3));
+    assertTrue(this.map.containsValue(null));
+    assertNull(this.map.get(3));
+    assertEquals("fallback", this.map.getOrDefault(4, "fallback"));
+    assertNull(this.map.getOrDefault(3, "fallback"));
+
+    Map<Integer, String> expected = new HashMap<>();
+    expected.put(3, null);
+    assertEquals(expected, this.map);
+    assertEquals(this.map, expected);
+    assertNotEquals(this.map, Collections.singletonMap(4, null));
+  }
+
+  @Test
+  public void againstTreeMap() {
+    Random random = new Random(3L);
+    TreeMap<Integer, String> expected = new TreeMap<>();
+    for (int i = 0; i < 10_000; i++) {
+      int key = random.nextInt(64);
+      switch (random.nextInt(3)) {
+        case 0:
+          assertEquals(expected.put(key, "v" + i), this.map.put(key, "v" + i));
+          break;
+        case 1:
+          assertEquals(expected.remove(key), this.map.remove(key));
+          break;
+        default:
+          assertEquals(expected.get(key), this.map.get(key));
+          break;
+      }
+      assertEquals(expected.size(), this.map.size());
+    }
+    assertEquals(expected, this.map);
+    assertEquals(this.map, expected);
+    assertEquals(expected.hashCode(), this.map.hashCode());
+    assertEquals(expected.toString(), this.map.toString());
+    assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(this.map.values()));
+    assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(this.map.entrySet()));
+  }
+
+  @Test
+  public void keySet() {
+    this.map.put(1, "a");
+    this.map.put(2, "b");
+    this.map.put(40, "c");
+    IntSortedSet keySet = this.map.keySet();
+    assertArrayEquals(new int[] {1, 2, 40}, keySet.toIntArray());
+    assertThrows(UnsupportedOperationException.class, () -> keySet.add(3));
+
+    SmallIntegerSet set = SmallIntegerSet.fromBits(SmallIntegerSets.of(2, 3, 40));
+    assertTrue(set.retainAll(keySet));
+    assertArrayEquals(new int[] {2, 40}, set.toIntArray());
+    assertTrue(keySet.containsAll(set));
+    assertEquals(SmallIntegerSet.fromBits(SmallIntegerSets.of(1, 2, 40)), keySet);
+    assertEquals(keySet, SmallIntegerSet.fromBits(SmallIntegerSets.of(1, 2, 40)));
+
+    assertTrue(keySet.removeAll(SmallIntegerSet.fromBits(SmallIntegerSets.of(2))));
+    assertEquals("{1=a, 40=c}", this.map.toString());
+
+    this.map.put(10, "d");
+    assertArrayEquals(new int[] {1, 10, 40}, keySet.toIntArray());
+    IntSortedSet headSet = keySet.headSet(20);
+    assertArrayEquals(new int[] {1, 10}, headSet.toIntArray());
+    headSet.clear();
+    assertEquals("{40=c}", this.map.toString());
+
+    Iterator<Integer> iterator = keySet.iterator();
+    assertEquals(Integer.valueOf(40), iterator.next());
+    iterator.remove();
+    assertTrue(this.map.isEmpty());
+  }
+
+  @Test
+  public void keySetRemoveIf() {
+    for (int i = 0; i < 64; i++) {
+      this.map.put(i, Integer.toString(i));
+    }
+    assertTrue(this.map.keySet().removeIfInt(i -> i % 3 != 0));
+    assertEquals(22, this.map.size());
+    for (int i = 0; i < 64; i++) {
+      assertEquals(i % 3 == 0 ? Integer.toString(i) : null, this.map.get(i));
+    }
+  }
+
+  @Test
+  public void values() {
+    this.map.put(3, "c");
+    this.map.put(1, "a");
+    this.map.put(2, "b");
+    this.map.put(4, "a");
+    Collection<String> values = this.map.values();
+    assertArrayEquals(new Object[] {"a", "b", "c", "a"}, values.toArray());
+    assertArrayEquals(new String[] {"a", "b", "c", "a"}, values.toArray(new String[0]));
+
+    assertTrue(values.remove("a"));
+    assertEquals("{2=b, 3=c, 4=a}", this.map.toString());
+    assertTrue(values.removeIf("b"::equals));
+    assertEquals("{3=c, 4=a}", this.map.toString());
+    assertTrue(values.retainAll(Arrays.asList("a")));
+    assertEquals("{4=a}", this.map.toString());
+
+    Iterator<String> iterator = values.iterator();
+    assertEquals("a", iterator.next());
+    iterator.remove();
+    assertTrue(this.map.isEmpty());
+  }
+
+  @Test
+  public void entrySet() {
+    this.map.put(7, "g");
+    this.map.put(1, "a");
+    Set<Entry<Integer, String>> entrySet = this.map.entrySet();
+    assertTrue(entrySet.contains(new SimpleEntry<>(7, "g")));
+    assertFalse(entrySet.contains(new SimpleEntry<>(7, "x")));
+    assertEquals(new HashMap<>(this.map).entrySet(), entrySet);
+
+    List<Integer> keys = new ArrayList<>();
+    for (Entry<Integer, String> entry : entrySet) {
+      keys.add(entry.getKey());
+      entry.setValue(entry.getValue().toUpperCase());
+    }
+    assertEquals(Arrays.asList(1, 7), keys);
+    assertEquals("{1=A, 7=G}", this.map.toString());
+
+    assertTrue(entrySet.remove(new SimpleEntry<>(1, "A")));
+    assertFalse(entrySet.remove(new SimpleEntry<>(7, "g")));
+    assertEquals("{7=G}", this.map.toString());
+
+    Entry<Integer, String> removed = entrySet.iterator().next();
+    this.map.remove(7);
+    assertThrows(IllegalStateException.class, () -> removed.setValue("h"));
+    assertTrue(this.map.isEmpty());
+  }
+
+  @Test
+  public void forEachAndPutAll() {
+    this.map.put(9, "i");
+    this.map.put(2, "b");
+    List<String> seen = new ArrayList<>();
+    this.map.forEach((key, value) -> seen.add(key + value));
+    assertEquals(Arrays.asList("2b", "9i"), seen);
+
+    SmallIntegerMap<String> copy = new SmallIntegerMap<>();
+    copy.put(1, "a");
+    copy.putAll(this.map);
+    assertEquals("{1=a, 2=b, 9=i}", copy.toString());
+
+    Map<Integer, String> treeMap = new TreeMap<>();
+    treeMap.put(0, "z");
+    copy.putAll(treeMap);
+    assertEquals("{0=z, 1=a, 2=b, 9=i}", copy.toString());
+  }
+
+  @Test
+  public void cloneAndSerialize() throws IOException, ClassNotFoundException {
+    for (int i = 0; i < 64; i += 7) {
+      this.map.put(i, "v" + i);
+    }
+    SmallIntegerMap<String> clone = this.map.clone();
+    assertEquals(this.map, clone);
+    clone.put(1, "one");
+    assertFalse(this.map.containsKey(1));
+
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+      out.writeObject(this.map);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+      @SuppressWarnings("unchecked")
+      SmallIntegerMap<String> read = (SmallIntegerMap<String>) in.readObject();
+      assertEquals(this.map, read);
+      read.put(1, "one");
+      assertEquals("one", read.get(1));
+    }
+  }
+
+}
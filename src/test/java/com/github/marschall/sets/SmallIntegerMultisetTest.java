@@ -0,0 +1,235 @@
+package com.github.marschall.sets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SmallIntegerMultisetTest {
+
+  private SmallIntegerMultiset multiset;
+
+  @BeforeEach
+  public void setUp() {
+    this.multiset = new SmallIntegerMultiset();
+  }
+
+  @Test
+  public void addAndRemove() {
+    assertTrue(this.multiset.isEmpty());
+    assertEquals(0, this.multiset.add(3));
+    assertEquals(1, this.multiset.add(3, 4));
+    assertEquals(0, this.multiset.add(63));
+    assertEquals(5, this.multiset.count(3));
+    assertEquals(6L, this.multiset.size());
+    assertEquals("[3 x 5, 63]", this.multiset.toString());
+
+    assertEquals(5, this.multiset.remove(3, 2));
+    assertEquals(3, this.multiset.count(3));
+    assertEquals(1, this.multiset.remove(63));
+    assertFalse(this.multiset.contains(63));
+    assertEquals(0, this.multiset.remove(63));
+    assertEquals(3, this.multiset.remove(3, 100));
+    assertTrue(this.multiset.isEmpty());
+    assertEquals(0L, this.multiset.size());
+
+    assertEquals(0, this.multiset.count(64));
+    assertEquals(0, this.multiset.remove(-1));
+    assertThrows(IllegalArgumentException.class, () -> this.multiset.add(64));
+    assertThrows(IllegalArgumentException.class, () -> this.multiset.add(1, -1));
+    assertThrows(IllegalArgumentException.class, () -> this.multiset.remove(1, -1));
+  }
+
+  @Test
+  public void widening() {
+    this.multiset.add(1, 255);
+    this.multiset.add(2, 7);
+    assertEquals(255, this.multiset.count(1));
+
+    this.multiset.add(1);
+    assertEquals(256, this.multiset.count(1));
+    assertEquals(7, this.multiset.count(2));
+
+    this.multiset.add(1, 65_536 - 256);
+    assertEquals(65_536, this.multiset.count(1));
+    assertEquals(7, this.multiset.count(2));
+
+    this.multiset.setCount(3, Integer.MAX_VALUE);
+    assertEquals(Integer.MAX_VALUE, this.multiset.count(3));
+    assertThrows(IllegalArgumentException.class, () -> this.multiset.add(3));
+    assertEquals(65_536L + 7L + Integer.MAX_VALUE, this.multiset.size());
+
+    SmallIntegerMultiset direct = new SmallIntegerMultiset();
+    direct.add(5, 100_000);
+    direct.add(6, 200);
+    assertEquals(100_000, direct.count(5));
+    assertEquals(200, direct.count(6));
+  }
+
+  @Test
+  public void againstCounters() {
+    Random random = new Random(11L);
+    int[] expected = new int[64];
+    for (int i = 0; i < 20_000; i++) {
+      int element = random.nextInt(64);
+      int occurrences = random.nextInt(300);
+      if (random.nextBoolean()) {
+        assertEquals(expected[element], this.multiset.add(element, occurrences));
+        expected[element] += occurrences;
+      } else {
+        assertEquals(expected[element], this.multiset.remove(element, occurrences));
+        expected[element] = Math.max(0, expected[element] - occurrences);
+      }
+    }
+    assertArrayEquals(expected, this.multiset.toCounts());
+    assertEquals(Arrays.stream(expected).asLongStream().sum(), this.multiset.size());
+    assertEquals(nonZero(expected), this.multiset.elementBits());
+    assertEquals(SmallIntegerMultiset.fromCounts(expected), this.multiset);
+    assertEquals(SmallIntegerMultiset.fromCounts(expected).hashCode(), this.multiset.hashCode());
+  }
+
+  @Test
+  public void elementSet() {
+    IntNavigableSet elementSet = this.multiset.elementSet();
+    this.multiset.add(4, 3);
+    this.multiset.add(9);
+    assertArrayEquals(new int[] {4, 9}, elementSet.toIntArray());
+    assertThrows(UnsupportedOperationException.class, () -> elementSet.add(1));
+
+    SmallIntegerSet set = SmallIntegerSet.fromBits(SmallIntegerSets.of(4, 5));
+    assertTrue(set.retainAll(elementSet));
+    assertArrayEquals(new int[] {4}, set.toIntArray());
+
+    List<Integer> seen = new ArrayList<>();
+    this.multiset.forEachElement(seen::add);
+    assertEquals(Arrays.asList(4, 9), seen);
+
+    this.multiset.remove(9);
+    assertArrayEquals(new int[] {4}, elementSet.toIntArray());
+    this.multiset.clear();
+    assertTrue(elementSet.isEmpty());
+    assertEquals(0L, this.multiset.size());
+
+    this.multiset.add(4);
+    assertEquals(1, this.multiset.count(4));
+  }
+
+  @Test
+  public void removeAndRetainElements() {
+    this.multiset.add(1, 2);
+    this.multiset.add(2, 3);
+    this.multiset.add(3, 4);
+    assertTrue(this.multiset.removeElements(SmallIntegerSets.of(2, 40)));
+    assertFalse(this.multiset.removeElements(SmallIntegerSets.of(2)));
+    assertEquals("[1 x 2, 3 x 4]", this.multiset.toString());
+    assertEquals(6L, this.multiset.size());
+
+    assertTrue(this.multiset.retainElements(SmallIntegerSets.of(3)));
+    assertEquals("[3 x 4]", this.multiset.toString());
+    assertEquals(4L, this.multiset.size());
+    assertEquals(0, this.multiset.count(1));
+  }
+
+  @Test
+  public void algebra() {
+    SmallIntegerMultiset a = SmallIntegerMultiset.fromCounts(new int[] {0, 2, 5, 1});
+    SmallIntegerMultiset b = SmallIntegerMultiset.fromCounts(new int[] {3, 1, 7, 0});
+    assertTrue(a.intersects(b));
+    assertFalse(a.intersects(SmallIntegerMultiset.fromCounts(new int[] {1})));
+
+    SmallIntegerMultiset sum = a.clone();
+    sum.addAll(b);
+    assertArrayEquals(Arrays.copyOf(new int[] {3, 3, 12, 1}, 64), sum.toCounts());
+
+    SmallIntegerMultiset difference = a.clone();
+    difference.removeAll(b);
+    assertArrayEquals(Arrays.copyOf(new int[] {0, 1, 0, 1}, 64), difference.toCounts());
+    assertEquals(2L, difference.size());
+
+    SmallIntegerMultiset intersection = a.clone();
+    intersection.retainAll(b);
+    assertArrayEquals(Arrays.copyOf(new int[] {0, 1, 5, 0}, 64), intersection.toCounts());
+    assertEquals(6L, intersection.size());
+
+    assertArrayEquals(Arrays.copyOf(new int[] {0, 2, 5, 1}, 64), a.toCounts());
+    assertThrows(IllegalArgumentException.class, () -> SmallIntegerMultiset.fromCounts(new int[65]));
+    assertThrows(IllegalArgumentException.class, () -> SmallIntegerMultiset.fromCounts(new int[] {-1}));
+  }
+
+  @Test
+  public void addAllOverflow() {
+    this.multiset.add(1, 10);
+    this.multiset.add(2, 20);
+    this.multiset.setCount(63, Integer.MAX_VALUE - 1);
+    SmallIntegerMultiset other = SmallIntegerMultiset.fromCounts(new int[] {0, 1, 2});
+    other.add(63, 2);
+    SmallIntegerMultiset before = this.multiset.clone();
+
+    // only the last element overflows
+    assertThrows(IllegalArgumentException.class, () -> this.multiset.addAll(other));
+    assertEquals(before, this.multiset);
+    assertEquals(10, this.multiset.count(1));
+    assertEquals(20, this.multiset.count(2));
+    assertEquals(before.size(), this.multiset.size());
+
+    other.remove(63);
+    this.multiset.addAll(other);
+    assertEquals(11, this.multiset.count(1));
+    assertEquals(22, this.multiset.count(2));
+    assertEquals(Integer.MAX_VALUE, this.multiset.count(63));
+  }
+
+  @Test
+  public void equalsAndClone() {
+    this.multiset.add(2, 300);
+    SmallIntegerMultiset narrow = SmallIntegerMultiset.fromCounts(new int[] {0, 0, 300});
+    assertEquals(narrow, this.multiset);
+    SmallIntegerMultiset clone = this.multiset.clone();
+    clone.add(2);
+    assertNotEquals(clone, this.multiset);
+    assertEquals(300, this.multiset.count(2));
+  }
+
+  @Test
+  public void serialize() throws IOException, ClassNotFoundException {
+    this.multiset.add(7, 70_000);
+    this.multiset.add(8);
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+      out.writeObject(this.multiset);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+      SmallIntegerMultiset read = (SmallIntegerMultiset) in.readObject();
+      assertEquals(this.multiset, read);
+      read.add(8);
+      assertEquals(2, read.count(8));
+      assertArrayEquals(new int[] {7, 8}, read.elementSet().toIntArray());
+    }
+  }
+
+  private static long nonZero(int[] counts) {
+    long bits = 0L;
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] != 0) {
+        bits |= 1L << i;
+      }
+    }
+    return bits;
+  }
+
+}
@@ -0,0 +1,9 @@
+package com.github.marschall.sets;
+
+public class SmallIntegerSetArrayReferenceTest extends SortedSetTest {
+
+  SmallIntegerSetArrayReferenceTest() {
+    super(() -> new SmallIntegerSetArray(3).row(1));
+  }
+
+}
@@ -0,0 +1,173 @@
+package com.github.marschall.sets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SmallIntegerSetArrayTest {
+
+  private SmallIntegerSetArray array;
+
+  @BeforeEach
+  public void setUp() {
+    this.array = new SmallIntegerSetArray(4);
+  }
+
+  @Test
+  public void indexedOperations() {
+    assertEquals(4, this.array.length());
+    assertTrue(this.array.add(0, 1));
+    assertFalse(this.array.add(0, 1));
+    assertTrue(this.array.add(0, 63));
+    assertTrue(this.array.add(2, 5));
+    assertTrue(this.array.contains(0, 63));
+    assertFalse(this.array.contains(1, 63));
+    assertFalse(this.array.contains(0, 64));
+    assertEquals(2, this.array.size(0));
+    assertTrue(this.array.isEmpty(1));
+    assertTrue(this.array.remove(0, 1));
+    assertFalse(this.array.remove(0, 1));
+    assertFalse(this.array.remove(0, -1));
+    assertEquals(Long.MIN_VALUE, this.array.getBits(0));
+    this.array.setBits(3, 0b111L);
+    assertEquals(3, this.array.size(3));
+    this.array.clear(3);
+    assertTrue(this.array.isEmpty(3));
+
+    assertThrows(IllegalArgumentException.class, () -> this.array.add(0, 64));
+    assertThrows(IndexOutOfBoundsException.class, () -> this.array.add(4, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> this.array.contains(-1, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> this.array.row(4));
+  }
+
+  @Test
+  public void rowOperations() {
+    this.array.setBits(0, 0b0011L);
+    this.array.setBits(1, 0b0110L);
+    assertTrue(this.array.or(2, 0));
+    assertFalse(this.array.or(2, 0));
+    assertTrue(this.array.or(2, 1));
+    assertEquals(0b0111L, this.array.getBits(2));
+    assertTrue(this.array.and(2, 1));
+    assertEquals(0b0110L, this.array.getBits(2));
+    assertTrue(this.array.andNot(2, 0));
+    assertEquals(0b0100L, this.array.getBits(2));
+    assertFalse(this.array.andNot(2, 0));
+  }
+
+  @Test
+  public void flyweight() {
+    this.array.setBits(0, 0b0011L);
+    this.array.setBits(2, 0b1100L);
+    SmallIntegerSetArray.Row row = this.array.row(0);
+    assertEquals(new TreeSet<>(Arrays.asList(0, 1)), row);
+    assertSame(row, row.moveTo(2));
+    assertEquals(2, row.getRow());
+    assertEquals(new TreeSet<>(Arrays.asList(2, 3)), row);
+    assertTrue(row.add(10));
+    assertTrue(this.array.contains(2, 10));
+    assertThrows(IndexOutOfBoundsException.class, () -> row.moveTo(4));
+
+    int total = 0;
+    for (int i = 0; i < this.array.length(); i++) {
+      total += row.moveTo(i).size();
+    }
+    assertEquals(5, total);
+  }
+
+  @Test
+  public void rangeViews() {
+    this.array.setBits(1, 0b1111_0000L);
+    SmallIntegerSetArray.Row row = this.array.row(1);
+    SortedSet<Integer> headSet = row.headSet(6);
+    assertEquals(new TreeSet<>(Arrays.asList(4, 5)), headSet);
+    assertThrows(IllegalArgumentException.class, () -> headSet.add(6));
+    assertTrue(headSet.add(0));
+    headSet.clear();
+    assertEquals(0b1100_0000L, this.array.getBits(1));
+
+    // range views stay on their row
+    row.moveTo(0);
+    assertTrue(headSet.isEmpty());
+    assertEquals(0b1100_0000L, this.array.getBits(1));
+    assertTrue(row.isEmpty());
+  }
+
+  @Test
+  public void bulkOperations() {
+    SmallIntegerSetArray.Row row = this.array.row(0);
+    SmallIntegerSet other = new SmallIntegerSet();
+    other.addAll(Arrays.asList(1, 2, 3));
+    assertTrue(row.addAll(other));
+    assertEquals(other, row);
+    assertEquals(row, other);
+    assertTrue(other.containsAll(row));
+    assertTrue(row.retainAll(Arrays.asList(2, 3, 4)));
+    assertTrue(row.removeAll(row.tailSet(3)));
+    assertArrayEquals(new int[] {2}, row.toIntArray());
+    assertThrows(IllegalArgumentException.class, () -> row.addAll(Arrays.asList(5, 64)));
+    assertArrayEquals(new int[] {2}, row.toIntArray());
+  }
+
+  @Test
+  public void iteration() {
+    this.array.setBits(3, 0b1011L);
+    Iterator<Integer> iterator = this.array.row(3).iterator();
+    assertEquals(Integer.valueOf(0), iterator.next());
+    assertEquals(Integer.valueOf(1), iterator.next());
+    iterator.remove();
+    assertEquals(Integer.valueOf(3), iterator.next());
+    assertFalse(iterator.hasNext());
+    assertEquals(0b1001L, this.array.getBits(3));
+  }
+
+  @Test
+  public void cloneIndependent() {
+    this.array.add(1, 1);
+    SmallIntegerSetArray clone = (SmallIntegerSetArray) this.array.clone();
+    clone.add(1, 2);
+    assertEquals(1, this.array.size(1));
+    assertEquals(2, clone.size(1));
+  }
+
+  @Test
+  public void batchOperations() {
+    this.array.setBits(0, SmallIntegerSets.of(1, 2, 3));
+    this.array.setBits(1, SmallIntegerSets.of(2));
+    this.array.setBits(3, SmallIntegerSets.of(3, 63));
+    long[] result = new long[1];
+    assertEquals(1, this.array.containingAll(SmallIntegerSets.of(2, 3), result));
+    assertEquals(0b0001L, result[0]);
+    assertEquals(3, this.array.containingAny(SmallIntegerSets.of(2, 63), result));
+    assertEquals(0b1011L, result[0]);
+    assertEquals(2, this.array.containingNone(SmallIntegerSets.of(3), result));
+    assertEquals(0b0110L, result[0]);
+
+    int[] sizes = this.array.sizeHistogram();
+    assertEquals(65, sizes.length);
+    assertEquals(1, sizes[0]);
+    assertEquals(1, sizes[1]);
+    assertEquals(1, sizes[2]);
+    assertEquals(1, sizes[3]);
+
+    int[] elements = this.array.elementHistogram();
+    assertEquals(64, elements.length);
+    assertEquals(1, elements[1]);
+    assertEquals(2, elements[2]);
+    assertEquals(2, elements[3]);
+    assertEquals(1, elements[63]);
+    assertEquals(0, elements[0]);
+  }
+
+}
@@ -0,0 +1,143 @@
+package com.github.marschall.sets;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares testing many {@link SmallIntegerSet}s one at a time with the
+ * batch kernels of {@link SmallIntegerSetBatch}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SmallIntegerSetBatchBenchmark {
+
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+            .include(".*SmallIntegerSetBatchBenchmark.*")
+            .warmupIterations(10)
+            .measurementIterations(10)
+            .forks(5)
+            .build();
+    new Runner(options).run();
+  }
+
+  @Param({"1024", "65536"})
+  public int length;
+
+  /**
+   * The number of elements in the mask, the fewer elements the more sets
+   * match.
+   */
+  @Param({"1", "4"})
+  public int maskSize;
+
+  private SmallIntegerSet[] objects;
+
+  private long[] sets;
+
+  private long mask;
+
+  private SmallIntegerSet maskSet;
+
+  private long[] bitmap;
+
+  private int[] indices;
+
+  private int[] histogram;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42L);
+    this.objects = new SmallIntegerSet[this.length];
+    this.sets = new long[this.length];
+    for (int i = 0; i < this.length; i++) {
+      long bits = random.nextLong() & random.nextLong();
+      this.sets[i] = bits;
+      this.objects[i] = SmallIntegerSet.fromBits(bits);
+    }
+    long mask = 0L;
+    while (Long.bitCount(mask) < this.maskSize) {
+      mask |= 1L << random.nextInt(64);
+    }
+    this.mask = mask;
+    this.maskSet = SmallIntegerSet.fromBits(mask);
+    this.bitmap = new long[(this.length + 63) / 64];
+    this.indices = new int[this.length];
+    this.histogram = new int[65];
+  }
+
+  @Benchmark
+  public int containsAllObjects() {
+    int count = 0;
+    for (SmallIntegerSet set : this.objects) {
+      if (set.containsAll(this.maskSet)) {
+        count += 1;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int containsAllBranching() {
+    long[] sets = this.sets;
+    long mask = this.mask;
+    int count = 0;
+    for (int i = 0; i < sets.length; i++) {
+      if ((sets[i] & mask) == mask) {
+        this.indices[count++] = i;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int containingAllBitmap() {
+    return SmallIntegerSetBatch.containingAll(this.sets, 0, this.sets.length, this.mask, this.bitmap);
+  }
+
+  @Benchmark
+  public int containingAllIndices() {
+    return SmallIntegerSetBatch.indicesContainingAll(this.sets, 0, this.sets.length, this.mask, this.indices);
+  }
+
+  @Benchmark
+  public int containingAnyBitmap() {
+    return SmallIntegerSetBatch.containingAny(this.sets, 0, this.sets.length, this.mask, this.bitmap);
+  }
+
+  @Benchmark
+  public int[] sizeHistogramObjects() {
+    int[] histogram = this.histogram;
+    for (SmallIntegerSet set : this.objects) {
+      histogram[set.size()] += 1;
+    }
+    return histogram;
+  }
+
+  @Benchmark
+  public int[] sizeHistogram() {
+    SmallIntegerSetBatch.addSizeHistogram(this.sets, 0, this.sets.length, this.histogram);
+    return this.histogram;
+  }
+
+  @Benchmark
+  public int[] elementHistogram() {
+    SmallIntegerSetBatch.addElementHistogram(this.sets, 0, this.sets.length, this.histogram);
+    return this.histogram;
+  }
+
+}
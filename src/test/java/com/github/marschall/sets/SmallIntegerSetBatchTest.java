@@ -0,0 +1,224 @@
+package com.github.marschall.sets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SmallIntegerSetBatchTest {
+
+  private long[] sets;
+
+  private long[] masks;
+
+  @BeforeEach
+  public void setUp() {
+    Random random = new Random(17L);
+    this.sets = new long[1_000];
+    for (int i = 0; i < this.sets.length; i++) {
+      // mix sparse, dense, empty and full sets
+      switch (i % 4) {
+        case 0:
+          this.sets[i] = random.nextLong() & random.nextLong() & random.nextLong();
+          break;
+        case 1:
+          this.sets[i] = random.nextLong() | random.nextLong();
+          break;
+        case 2:
+          this.sets[i] = random.nextLong();
+          break;
+        default:
+          this.sets[i] = random.nextBoolean() ? 0L : -1L;
+          break;
+      }
+    }
+    this.masks = new long[] {
+        0L, -1L, 1L, Long.MIN_VALUE, SmallIntegerSets.of(1, 2, 3), random.nextLong(), random.nextLong() & random.nextLong()
+    };
+  }
+
+  @Test
+  public void containingAll() {
+    for (long mask : this.masks) {
+      for (int[] range : ranges()) {
+        assertBitmap(range[0], range[1], mask, MatchKind.ALL);
+        assertIndices(range[0], range[1], mask, MatchKind.ALL);
+      }
+    }
+  }
+
+  @Test
+  public void containingAny() {
+    for (long mask : this.masks) {
+      for (int[] range : ranges()) {
+        assertBitmap(range[0], range[1], mask, MatchKind.ANY);
+        assertIndices(range[0], range[1], mask, MatchKind.ANY);
+      }
+    }
+  }
+
+  @Test
+  public void containingNone() {
+    for (long mask : this.masks) {
+      for (int[] range : ranges()) {
+        assertBitmap(range[0], range[1], mask, MatchKind.NONE);
+        assertIndices(range[0], range[1], mask, MatchKind.NONE);
+      }
+    }
+  }
+
+  @Test
+  public void sizeHistogram() {
+    int[] expected = new int[65];
+    expected[0] = 5;
+    for (int i = 3; i < 900; i++) {
+      expected[Long.bitCount(this.sets[i])] += 1;
+    }
+    int[] histogram = new int[65];
+    histogram[0] = 5;
+    SmallIntegerSetBatch.addSizeHistogram(this.sets, 3, 900, histogram);
+    assertArrayEquals(expected, histogram);
+  }
+
+  @Test
+  public void elementHistogram() {
+    int[] expected = new int[64];
+    expected[7] = 3;
+    for (int i = 1; i < 999; i++) {
+      for (int e = 0; e < 64; e++) {
+        if ((this.sets[i] & (1L << e)) != 0L) {
+          expected[e] += 1;
+        }
+      }
+    }
+    int[] histogram = new int[64];
+    histogram[7] = 3;
+    SmallIntegerSetBatch.addElementHistogram(this.sets, 1, 999, histogram);
+    assertArrayEquals(expected, histogram);
+  }
+
+  @Test
+  public void elementHistogramOverflow() {
+    // more sets than fit into the bit sliced counters
+    long[] full = new long[200_000];
+    Arrays.fill(full, -1L);
+    full[0] = 1L;
+    int[] histogram = new int[64];
+    SmallIntegerSetBatch.addElementHistogram(full, 0, full.length, histogram);
+    assertEquals(200_000, histogram[0]);
+    assertEquals(199_999, histogram[1]);
+    assertEquals(199_999, histogram[63]);
+  }
+
+  @Test
+  public void invalidArguments() {
+    assertThrows(IndexOutOfBoundsException.class, () -> SmallIntegerSetBatch.containingAll(this.sets, -1, 10, 1L, new long[1]));
+    assertThrows(IndexOutOfBoundsException.class, () -> SmallIntegerSetBatch.containingAll(this.sets, 10, 9, 1L, new long[1]));
+    assertThrows(IndexOutOfBoundsException.class, () -> SmallIntegerSetBatch.containingAny(this.sets, 0, 1_001, 1L, new long[16]));
+    assertThrows(IndexOutOfBoundsException.class, () -> SmallIntegerSetBatch.containingNone(this.sets, 0, 65, 1L, new long[1]));
+    assertThrows(IndexOutOfBoundsException.class, () -> SmallIntegerSetBatch.indicesContainingAll(this.sets, 0, 10, 1L, new int[9]));
+    assertThrows(IndexOutOfBoundsException.class, () -> SmallIntegerSetBatch.addSizeHistogram(this.sets, 0, 10, new int[64]));
+    assertThrows(IndexOutOfBoundsException.class, () -> SmallIntegerSetBatch.addElementHistogram(this.sets, 0, 10, new int[63]));
+
+    assertEquals(0, SmallIntegerSetBatch.containingAll(this.sets, 5, 5, 1L, new long[0]));
+    assertEquals(0, SmallIntegerSetBatch.indicesContainingAny(this.sets, 5, 5, 1L, new int[0]));
+  }
+
+  private void assertBitmap(int fromIndex, int toIndex, long mask, MatchKind kind) {
+    int length = toIndex - fromIndex;
+    long[] expected = new long[(length + 63) / 64];
+    int expectedCount = 0;
+    for (int i = fromIndex; i < toIndex; i++) {
+      if (kind.matches(this.sets[i], mask)) {
+        expected[(i - fromIndex) / 64] |= 1L << (i - fromIndex);
+        expectedCount += 1;
+      }
+    }
+    long[] result = new long[expected.length];
+    Arrays.fill(result, 0x5555L);
+    int count;
+    switch (kind) {
+      case ALL:
+        count = SmallIntegerSetBatch.containingAll(this.sets, fromIndex, toIndex, mask, result);
+        break;
+      case ANY:
+        count = SmallIntegerSetBatch.containingAny(this.sets, fromIndex, toIndex, mask, result);
+        break;
+      default:
+        count = SmallIntegerSetBatch.containingNone(this.sets, fromIndex, toIndex, mask, result);
+        break;
+    }
+    assertEquals(expectedCount, count);
+    assertArrayEquals(expected, result);
+  }
+
+  private void assertIndices(int fromIndex, int toIndex, long mask, MatchKind kind) {
+    int[] expected = new int[toIndex - fromIndex];
+    int expectedCount = 0;
+    for (int i = fromIndex; i < toIndex; i++) {
+      if (kind.matches(this.sets[i], mask)) {
+        expected[expectedCount++] = i;
+      }
+    }
+    int[] indices = new int[toIndex - fromIndex];
+    int count;
+    switch (kind) {
+      case ALL:
+        count = SmallIntegerSetBatch.indicesContainingAll(this.sets, fromIndex, toIndex, mask, indices);
+        break;
+      case ANY:
+        count = SmallIntegerSetBatch.indicesContainingAny(this.sets, fromIndex, toIndex, mask, indices);
+        break;
+      default:
+        count = SmallIntegerSetBatch.indicesContainingNone(this.sets, fromIndex, toIndex, mask, indices);
+        break;
+    }
+    assertEquals(expectedCount, count);
+    assertArrayEquals(Arrays.copyOf(expected, expectedCount), Arrays.copyOf(indices, count));
+  }
+
+  private int[][] ranges() {
+    int length = this.sets.length;
+    return new int[][] {{0, length}, {0, 64}, {1, 65}, {3, 200}, {7, 8}, {length - 1, length}};
+  }
+
+  enum MatchKind {
+
+    ALL {
+
+      @Override
+      boolean matches(long set, long mask) {
+        SmallIntegerSet s = SmallIntegerSet.fromBits(set);
+        return s.containsAll(SmallIntegerSet.fromBits(mask));
+      }
+
+    },
+
+    ANY {
+
+      @Override
+      boolean matches(long set, long mask) {
+        return (set & mask) != 0L;
+      }
+
+    },
+
+    NONE {
+
+      @Override
+      boolean matches(long set, long mask) {
+        return (set & mask) == 0L;
+      }
+
+    };
+
+    abstract boolean matches(long set, long mask);
+
+  }
+
+}
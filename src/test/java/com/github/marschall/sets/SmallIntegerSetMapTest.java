@@ -0,0 +1,310 @@
+package com.github.marschall.sets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SmallIntegerSetMapTest {
+
+  private SmallIntegerSetMap<String> map;
+
+  @BeforeEach
+  public void setUp() {
+    this.map = new SmallIntegerSetMap<>();
+  }
+
+  @Test
+  public void putGetRemove() {
+    assertTrue(this.map.isEmpty());
+    assertNull(this.map.put(SmallIntegerSet.fromBits(SmallIntegerSets.of(1, 2)), "a"));
+    assertNull(this.map.put(SmallIntegerSets.of(3), "b"));
+    assertNull(this.map.put(new SmallIntegerSet(), "empty"));
+    assertEquals("a", this.map.put(SmallIntegerSets.of(1, 2), "c"));
+    assertEquals(3, this.map.size());
+
+    assertEquals("c", this.map.get(SmallIntegerSets.of(1, 2)));
+    assertEquals("c", this.map.get(SmallIntegerSet.fromBits(SmallIntegerSets.of(1, 2))));
+    assertEquals("c", this.map.get(new TreeSet<>(Arrays.asList(2, 1))));
+    assertEquals("empty", this.map.get(new HashSet<>()));
+    assertEquals("empty", this.map.get(0L));
+    assertNull(this.map.get(SmallIntegerSets.of(1)));
+    assertNull(this.map.get(new TreeSet<>(Arrays.asList(1, 64))));
+    assertNull(this.map.get(Arrays.asList(1, 2)));
+    assertNull(this.map.get("[1, 2]"));
+    assertNull(this.map.get(null));
+
+    assertTrue(this.map.containsKey(SmallIntegerSets.of(3)));
+    assertTrue(this.map.containsKey(ImmutableSmallIntegerSet.of(3)));
+    assertFalse(this.map.containsKey(SmallIntegerSets.of(4)));
+    assertTrue(this.map.containsValue("empty"));
+    assertFalse(this.map.containsValue("a"));
+
+    assertEquals("empty", this.map.remove(new SmallIntegerSet()));
+    assertNull(this.map.remove(0L));
+    assertEquals("b", this.map.remove(SmallIntegerSets.of(3)));
+    assertNull(this.map.remove(SmallIntegerSets.of(3)));
+    assertEquals(1, this.map.size());
+    assertEquals("{[1, 2]=c}", this.map.toString());
+
+    this.map.clear();
+    assertTrue(this.map.isEmpty());
+    assertEquals("{}", this.map.toString());
+    assertThrows(NullPointerException.class, () -> this.map.put((SmallIntegerSet) null, "a"));
+    assertThrows(IllegalArgumentException.class, () -> new SmallIntegerSetMap<>(-1));
+  }
+
+  @Test
+  public void keysNotShared() {
+    SmallIntegerSet key = SmallIntegerSet.fromBits(SmallIntegerSets.of(5));
+    this.map.put(key, "a");
+    key.add(6);
+    assertEquals("a", this.map.get(SmallIntegerSets.of(5)));
+    SmallIntegerSet returned = this.map.keySet().iterator().next();
+    returned.add(7);
+    assertEquals("a", this.map.get(SmallIntegerSets.of(5)));
+  }
+
+  @Test
+  public void collidingSetHashCodes() {
+    // all sets with two elements that sum to 63 have the same hash code
+    for (int i = 0; i < 32; i++) {
+      this.map.put(SmallIntegerSets.of(i, 63 - i), Integer.toString(i));
+    }
+    assertEquals(32, this.map.size());
+    for (int i = 0; i < 32; i++) {
+      assertEquals(Integer.toString(i), this.map.get(SmallIntegerSets.of(i, 63 - i)));
+    }
+  }
+
+  @Test
+  public void againstHashMap() {
+    Random random = new Random(7L);
+    Map<Long, String> expected = new HashMap<>();
+    for (int i = 0; i < 50_000; i++) {
+      // small key space for many hits, including the empty set
+      long bits = random.nextInt(4) == 0 ? random.nextInt(8) : random.nextLong() & 0x3FFL;
+      switch (random.nextInt(3)) {
+        case 0:
+          assertEquals(expected.put(bits, "v" + i), this.map.put(bits, "v" + i));
+          break;
+        case 1:
+          assertEquals(expected.remove(bits), this.map.remove(bits));
+          break;
+        default:
+          assertEquals(expected.get(bits), this.map.get(bits));
+          assertEquals(expected.containsKey(bits), this.map.containsKey(bits));
+          break;
+      }
+      assertEquals(expected.size(), this.map.size());
+    }
+    Map<SmallIntegerSet, String> boxed = new HashMap<>();
+    expected.forEach((bits, value) -> boxed.put(SmallIntegerSet.fromBits(bits), value));
+    assertEquals(boxed, this.map);
+    assertEquals(this.map, boxed);
+    assertEquals(boxed.hashCode(), this.map.hashCode());
+    assertEquals(boxed.keySet(), this.map.keySet());
+    assertEquals(boxed.keySet().hashCode(), this.map.keySet().hashCode());
+    assertEquals(boxed.entrySet(), this.map.entrySet());
+    assertEquals(new HashMap<>(this.map), boxed);
+  }
+
+  @Test
+  public void growAndShrink() {
+    for (long bits = 0L; bits < 10_000L; bits++) {
+      this.map.put(bits * 0x9E3779B97F4A7C15L, Long.toString(bits));
+    }
+    assertEquals(10_000, this.map.size());
+    for (long bits = 0L; bits < 10_000L; bits += 2L) {
+      assertEquals(Long.toString(bits), this.map.remove(bits * 0x9E3779B97F4A7C15L));
+    }
+    assertEquals(5_000, this.map.size());
+    for (long bits = 0L; bits < 10_000L; bits++) {
+      String expected = bits % 2L == 0L ? null : Long.toString(bits);
+      assertEquals(expected, this.map.get(bits * 0x9E3779B97F4A7C15L));
+    }
+  }
+
+  @Test
+  public void iteratorRemove() {
+    Random random = new Random(13L);
+    Set<Long> expected = new HashSet<>();
+    SmallIntegerSetMap<String> map = new SmallIntegerSetMap<>();
+    for (int i = 0; i < 5_000; i++) {
+      long bits = random.nextLong();
+      expected.add(bits);
+      map.put(bits, "v");
+    }
+    map.put(0L, "v");
+    expected.add(0L);
+
+    // every key has to be returned exactly once even though removals move
+    // mappings between slots
+    Set<Long> seen = new HashSet<>();
+    Set<Long> kept = new HashSet<>();
+    for (Iterator<SmallIntegerSet> iterator = map.keySet().iterator(); iterator.hasNext();) {
+      long bits = iterator.next().toBits();
+      assertTrue(seen.add(bits));
+      if (random.nextInt(3) != 0) {
+        iterator.remove();
+        assertThrows(IllegalStateException.class, iterator::remove);
+      } else {
+        kept.add(bits);
+      }
+    }
+    assertEquals(expected, seen);
+    assertEquals(kept.size(), map.size());
+    for (long bits : kept) {
+      assertTrue(map.containsKey(bits));
+    }
+  }
+
+  @Test
+  public void removeIf() {
+    for (int i = 0; i < 64; i++) {
+      this.map.put(1L << i, Integer.toString(i));
+    }
+    assertTrue(this.map.keySet().removeIf(key -> key.first() % 2 == 0));
+    assertEquals(32, this.map.size());
+    assertTrue(this.map.values().removeIf(value -> Integer.parseInt(value) < 32));
+    assertEquals(16, this.map.size());
+    assertTrue(this.map.entrySet().removeIf(entry -> entry.getKey().first() > 48));
+    assertEquals(8, this.map.size());
+    for (int i = 0; i < 64; i++) {
+      String expected = i % 2 == 1 && i >= 32 && i <= 48 ? Integer.toString(i) : null;
+      assertEquals(expected, this.map.get(1L << i));
+    }
+    assertFalse(this.map.keySet().removeIf(key -> false));
+  }
+
+  @Test
+  public void views() {
+    this.map.put(SmallIntegerSets.of(1), "a");
+    this.map.put(SmallIntegerSets.of(2), "b");
+    this.map.put(0L, "c");
+
+    Set<SmallIntegerSet> keySet = this.map.keySet();
+    assertEquals(3, keySet.size());
+    assertTrue(keySet.contains(new TreeSet<>(Arrays.asList(1))));
+    assertThrows(UnsupportedOperationException.class, () -> keySet.add(new SmallIntegerSet()));
+    assertTrue(keySet.remove(new SmallIntegerSet()));
+    assertFalse(keySet.remove(new SmallIntegerSet()));
+    assertFalse(this.map.containsKey(0L));
+
+    Collection<String> values = this.map.values();
+    assertTrue(values.contains("b"));
+    assertTrue(values.remove("b"));
+    assertFalse(values.remove("b"));
+    assertEquals(1, this.map.size());
+
+    Set<Entry<SmallIntegerSet, String>> entrySet = this.map.entrySet();
+    assertTrue(entrySet.contains(new SimpleEntry<>(SmallIntegerSet.fromBits(SmallIntegerSets.of(1)), "a")));
+    assertFalse(entrySet.contains(new SimpleEntry<>(SmallIntegerSet.fromBits(SmallIntegerSets.of(1)), "x")));
+    Entry<SmallIntegerSet, String> entry = entrySet.iterator().next();
+    assertEquals("a", entry.setValue("A"));
+    assertEquals("A", this.map.get(SmallIntegerSets.of(1)));
+    assertEquals(new SimpleEntry<>(SmallIntegerSet.fromBits(SmallIntegerSets.of(1)), "A"), entry);
+    assertEquals(new SimpleEntry<>(SmallIntegerSet.fromBits(SmallIntegerSets.of(1)), "A").hashCode(), entry.hashCode());
+    assertTrue(entrySet.remove(new SimpleEntry<>(SmallIntegerSet.fromBits(SmallIntegerSets.of(1)), "A")));
+    assertTrue(this.map.isEmpty());
+  }
+
+  @Test
+  public void setValueAfterRemove() {
+    this.map.put(5L, "a");
+    this.map.put(0L, "b");
+    Iterator<Entry<SmallIntegerSet, String>> iterator = this.map.entrySet().iterator();
+    Entry<SmallIntegerSet, String> first = iterator.next();
+    Entry<SmallIntegerSet, String> second = iterator.next();
+    assertEquals("b", first.setValue("c"));
+    assertEquals("c", this.map.get(0L));
+
+    this.map.remove(5L);
+    this.map.remove(0L);
+    assertThrows(IllegalStateException.class, () -> first.setValue("d"));
+    assertThrows(IllegalStateException.class, () -> second.setValue("e"));
+    assertTrue(this.map.isEmpty());
+  }
+
+  @Test
+  public void nullValues() {
+    this.map.put(0L, null);
+    this.map.put(SmallIntegerSets.of(9), null);
+    assertTrue(this.map.containsKey(0L));
+    assertTrue(this.map.containsValue(null));
+    assertEquals("fallback", this.map.getOrDefault(SmallIntegerSet.fromBits(SmallIntegerSets.of(8)), "fallback"));
+    assertNull(this.map.getOrDefault(SmallIntegerSet.fromBits(SmallIntegerSets.of(9)), "fallback"));
+
+    Map<SmallIntegerSet, String> expected = new HashMap<>();
+    expected.put(new SmallIntegerSet(), null);
+    expected.put(SmallIntegerSet.fromBits(SmallIntegerSets.of(9)), null);
+    assertEquals(expected, this.map);
+    expected.remove(new SmallIntegerSet());
+    expected.put(SmallIntegerSet.fromBits(SmallIntegerSets.of(10)), null);
+    assertNotEquals(expected, this.map);
+    assertNotEquals(this.map, expected);
+  }
+
+  @Test
+  public void putAllAndEquals() {
+    this.map.put(0L, "a");
+    this.map.put(-1L, "b");
+    SmallIntegerSetMap<String> copy = new SmallIntegerSetMap<>(100);
+    copy.putAll(this.map);
+    assertEquals(this.map, copy);
+    copy.put(-1L, "c");
+    assertNotEquals(this.map, copy);
+
+    Map<SmallIntegerSet, String> hashMap = new HashMap<>(this.map);
+    SmallIntegerSetMap<String> fromHashMap = new SmallIntegerSetMap<>();
+    fromHashMap.putAll(hashMap);
+    assertEquals(this.map, fromHashMap);
+  }
+
+  @Test
+  public void cloneAndSerialize() throws IOException, ClassNotFoundException {
+    for (int i = 0; i < 100; i++) {
+      this.map.put(SmallIntegerSetMap.mix(i + 1), "v" + i);
+    }
+    this.map.put(0L, "empty");
+    SmallIntegerSetMap<String> clone = this.map.clone();
+    assertEquals(this.map, clone);
+    clone.put(1L, "one");
+    assertFalse(this.map.containsKey(1L));
+
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+      out.writeObject(this.map);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+      @SuppressWarnings("unchecked")
+      SmallIntegerSetMap<String> read = (SmallIntegerSetMap<String>) in.readObject();
+      assertEquals(this.map, read);
+      read.put(1L, "one");
+      assertEquals("one", read.get(1L));
+    }
+  }
+
+}
@@ -0,0 +1,9 @@
+package com.github.marschall.sets;
+
+public class SmallIntegerSetNavigableSetTest extends NavigableSetTest {
+
+  SmallIntegerSetNavigableSetTest() {
+    super(SmallIntegerSet::new);
+  }
+
+}
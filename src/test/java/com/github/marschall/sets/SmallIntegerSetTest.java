@@ -7,21 +7,39 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.Spliterator;
 import java.util.TreeSet;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -267,6 +285,19 @@ public class SmallIntegerSetTest {
     assertArrayEquals(new Object[] {0, 2, 4}, this.set.toArray());
   }
 
+  @Test
+  public void removeIfException() {
+    this.set.addAll(Arrays.asList(1, 2, 3));
+
+    assertThrows(IllegalStateException.class, () -> this.set.removeIf(i -> {
+      if (i == 3) {
+        throw new IllegalStateException();
+      }
+      return true;
+    }));
+    assertArrayEquals(new Object[] {1, 2, 3}, this.set.toArray());
+  }
+
   @Test
   public void retainAll() {
     this.set.addAll(Arrays.asList(9, 12));
@@ -486,6 +517,33 @@ public class SmallIntegerSetTest {
     assertEquals(equalSet.toString(), this.set.toString());
   }
 
+  @Test
+  public void testToStringAll() {
+    IntStream.rangeClosed(SmallIntegerSet.MIN_VALUE, SmallIntegerSet.MAX_VALUE)
+      .boxed()
+      .forEach(this.set::add);
+
+    assertEquals(new TreeSet<>(this.set).toString(), this.set.toString());
+  }
+
+  @Test
+  public void testHashCodeAll() {
+    IntStream.rangeClosed(SmallIntegerSet.MIN_VALUE, SmallIntegerSet.MAX_VALUE)
+      .boxed()
+      .forEach(this.set::add);
+
+    assertEquals(new HashSet<>(this.set).hashCode(), this.set.hashCode());
+  }
+
+  @Test
+  public void testHashCodeSingleElements() {
+    for (int i = SmallIntegerSet.MIN_VALUE; i <= SmallIntegerSet.MAX_VALUE; i++) {
+      this.set.clear();
+      this.set.add(i);
+      assertEquals(Collections.singleton(i).hashCode(), this.set.hashCode());
+    }
+  }
+
   @Test
   public void identity() {
     Integer i = new Integer(1);
@@ -615,10 +673,657 @@ public class SmallIntegerSetTest {
     assertEquals(Integer.valueOf(SmallIntegerSet.MAX_VALUE), this.set.last());
   }
 
+  @Test
+  public void primitiveAddContainsRemove() {
+    SmallIntegerSet intSet = new SmallIntegerSet();
+    assertFalse(intSet.containsInt(SmallIntegerSet.MIN_VALUE - 1));
+    assertFalse(intSet.containsInt(SmallIntegerSet.MAX_VALUE + 1));
+    assertFalse(intSet.removeInt(SmallIntegerSet.MIN_VALUE - 1));
+    assertFalse(intSet.removeInt(SmallIntegerSet.MAX_VALUE + 1));
+
+    for (int i = SmallIntegerSet.MIN_VALUE; i <= SmallIntegerSet.MAX_VALUE; i++) {
+      assertFalse(intSet.containsInt(i));
+      assertTrue(intSet.addInt(i));
+      assertFalse(intSet.addInt(i));
+      assertTrue(intSet.containsInt(i));
+      assertTrue(intSet.contains(i));
+    }
+    assertEquals(64, intSet.size());
+
+    for (int i = SmallIntegerSet.MIN_VALUE; i <= SmallIntegerSet.MAX_VALUE; i++) {
+      assertTrue(intSet.removeInt(i));
+      assertFalse(intSet.removeInt(i));
+      assertFalse(intSet.containsInt(i));
+    }
+    assertTrue(intSet.isEmpty());
+  }
+
+  @Test
+  public void primitiveAddOutOfRange() {
+    SmallIntegerSet intSet = new SmallIntegerSet();
+    assertThrows(IllegalArgumentException.class, () -> intSet.addInt(SmallIntegerSet.MIN_VALUE - 1));
+    assertThrows(IllegalArgumentException.class, () -> intSet.addInt(SmallIntegerSet.MAX_VALUE + 1));
+  }
+
+  @Test
+  public void forEachInt() {
+    SmallIntegerSet intSet = new SmallIntegerSet();
+    intSet.addAll(Arrays.asList(0, 9, 12, 63));
+
+    List<Integer> seen = new ArrayList<>(4);
+    intSet.forEachInt(seen::add);
+
+    assertEquals(Arrays.asList(0, 9, 12, 63), seen);
+  }
+
+  @Test
+  public void removeIfInt() {
+    SmallIntegerSet intSet = new SmallIntegerSet();
+    intSet.addAll(Arrays.asList(0, 1, 2, 3, 4, 5, 63));
+
+    assertTrue(intSet.removeIfInt(i -> i % 2 == 1));
+    assertArrayEquals(new int[] {0, 2, 4}, intSet.toIntArray());
+    assertFalse(intSet.removeIfInt(i -> i % 2 == 1));
+  }
+
+  @Test
+  public void removeIfIntException() {
+    SmallIntegerSet intSet = new SmallIntegerSet();
+    intSet.addAll(Arrays.asList(1, 2, 3));
+
+    assertThrows(IllegalStateException.class, () -> intSet.removeIfInt(i -> {
+      if (i == 3) {
+        throw new IllegalStateException();
+      }
+      return true;
+    }));
+    assertArrayEquals(new int[] {1, 2, 3}, intSet.toIntArray());
+  }
+
+  @Test
+  public void toIntArray() {
+    SmallIntegerSet intSet = new SmallIntegerSet();
+    assertArrayEquals(new int[0], intSet.toIntArray());
+
+    intSet.addAll(Arrays.asList(63, 0, 12));
+    assertArrayEquals(new int[] {0, 12, 63}, intSet.toIntArray());
+  }
+
+  @Test
+  public void subSetPrimitive() {
+    SmallIntegerSet intSet = new SmallIntegerSet();
+    intSet.addAll(Arrays.asList(1, 10, 11, 12, 20));
+
+    IntSortedSet subSet = intSet.subSet(10, 20);
+    assertFalse(subSet.containsInt(1));
+    assertTrue(subSet.containsInt(11));
+    assertFalse(subSet.containsInt(20));
+    assertArrayEquals(new int[] {10, 11, 12}, subSet.toIntArray());
+
+    assertThrows(IllegalArgumentException.class, () -> subSet.addInt(20));
+    assertTrue(subSet.addInt(19));
+    assertTrue(intSet.containsInt(19));
+
+    assertFalse(subSet.removeInt(1));
+    assertTrue(intSet.containsInt(1));
+    assertTrue(subSet.removeInt(11));
+    assertFalse(intSet.containsInt(11));
+
+    List<Integer> seen = new ArrayList<>(3);
+    subSet.forEachInt(seen::add);
+    assertEquals(Arrays.asList(10, 12, 19), seen);
+
+    assertTrue(subSet.removeIfInt(i -> true));
+    assertArrayEquals(new int[] {1, 20}, intSet.toIntArray());
+  }
+
+  @Test
+  public void intIterator() {
+    SmallIntegerSet intSet = new SmallIntegerSet();
+    assertFalse(intSet.intIterator().hasNext());
+    assertThrows(NoSuchElementException.class, () -> intSet.intIterator().nextInt());
+
+    intSet.addAll(Arrays.asList(0, 11, 63));
+    PrimitiveIterator.OfInt iterator = intSet.intIterator();
+    assertTrue(iterator.hasNext());
+    assertEquals(0, iterator.nextInt());
+    assertEquals(11, iterator.nextInt());
+    iterator.remove();
+    assertEquals(63, iterator.nextInt());
+    assertFalse(iterator.hasNext());
+
+    assertArrayEquals(new int[] {0, 63}, intSet.toIntArray());
+  }
+
+  @Test
+  public void intIteratorForEachRemaining() {
+    SmallIntegerSet intSet = new SmallIntegerSet();
+    intSet.addAll(Arrays.asList(0, 11, 22, 63));
+    PrimitiveIterator.OfInt iterator = intSet.intIterator();
+    iterator.nextInt();
+
+    List<Integer> seen = new ArrayList<>(3);
+    iterator.forEachRemaining((IntConsumer) seen::add);
+    assertEquals(Arrays.asList(11, 22, 63), seen);
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public void iteratorRemoveBeforeNext() {
+    this.set.add(SmallIntegerSet.MIN_VALUE);
+    Iterator<Integer> iterator = this.set.iterator();
+    assertThrows(IllegalStateException.class, iterator::remove);
+    assertTrue(this.set.contains(SmallIntegerSet.MIN_VALUE));
+  }
+
+  @Test
+  public void intStream() {
+    SmallIntegerSet intSet = new SmallIntegerSet();
+    assertEquals(0, intSet.intStream().count());
+
+    intSet.addAll(Arrays.asList(1, 2, 63));
+    assertEquals(66, intSet.intStream().sum());
+    assertArrayEquals(new int[] {1, 2, 63}, intSet.intStream().sorted().distinct().toArray());
+  }
+
+  @Test
+  public void intStreamLateBinding() {
+    SmallIntegerSet intSet = new SmallIntegerSet();
+    IntStream stream = intSet.intStream();
+    intSet.add(5);
+    assertArrayEquals(new int[] {5}, stream.toArray());
+  }
+
+  @Test
+  public void subSetIntStream() {
+    SmallIntegerSet intSet = new SmallIntegerSet();
+    intSet.addAll(Arrays.asList(1, 10, 11, 12, 20));
+
+    IntSortedSet subSet = intSet.subSet(10, 20);
+    assertArrayEquals(new int[] {10, 11, 12}, subSet.intStream().toArray());
+
+    PrimitiveIterator.OfInt iterator = subSet.intIterator();
+    assertEquals(10, iterator.nextInt());
+    assertEquals(11, iterator.nextInt());
+    assertEquals(12, iterator.nextInt());
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public void spliteratorCharacteristics() {
+    Spliterator<Integer> spliterator = this.set.spliterator();
+    assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+    assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+    assertTrue(spliterator.hasCharacteristics(Spliterator.SORTED));
+    assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+    assertTrue(spliterator.hasCharacteristics(Spliterator.DISTINCT));
+    assertTrue(spliterator.hasCharacteristics(Spliterator.NONNULL));
+    assertNull(spliterator.getComparator());
+  }
+
+  @Test
+  public void spliteratorSplitsAtMedian() {
+    this.set.addAll(Arrays.asList(0, 1, 2, 3, 40, 50, 63));
+    Spliterator<Integer> suffix = this.set.spliterator();
+    Spliterator<Integer> prefix = suffix.trySplit();
+
+    assertEquals(3, prefix.getExactSizeIfKnown());
+    assertEquals(4, suffix.getExactSizeIfKnown());
+
+    List<Integer> seen = new ArrayList<>(7);
+    prefix.forEachRemaining(seen::add);
+    assertEquals(Arrays.asList(0, 1, 2), seen);
+
+    seen.clear();
+    assertTrue(suffix.tryAdvance(seen::add));
+    suffix.forEachRemaining(seen::add);
+    assertEquals(Arrays.asList(3, 40, 50, 63), seen);
+    assertFalse(suffix.tryAdvance(seen::add));
+  }
+
+  @Test
+  public void spliteratorDoesNotSplitSingleElement() {
+    Spliterator<Integer> spliterator = this.set.spliterator();
+    assertNull(spliterator.trySplit());
+
+    this.set.add(SmallIntegerSet.MAX_VALUE);
+    spliterator = this.set.spliterator();
+    assertNull(spliterator.trySplit());
+    assertEquals(1, spliterator.getExactSizeIfKnown());
+  }
+
+  @Test
+  public void parallelStream() {
+    IntStream.rangeClosed(SmallIntegerSet.MIN_VALUE, SmallIntegerSet.MAX_VALUE)
+      .boxed()
+      .forEach(this.set::add);
+
+    List<Integer> expected = new ArrayList<>(this.set);
+    assertEquals(expected, this.set.parallelStream().collect(Collectors.toList()));
+    assertEquals(2016, this.set.parallelStream().mapToInt(Integer::intValue).sum());
+  }
+
+  @Test
+  public void subSetSpliterator() {
+    this.set.addAll(Arrays.asList(1, 10, 11, 12, 20));
+    SortedSet<Integer> subSet = this.set.subSet(10, 20);
+
+    Spliterator<Integer> spliterator = subSet.spliterator();
+    assertEquals(3, spliterator.getExactSizeIfKnown());
+    assertEquals(Arrays.asList(10, 11, 12), subSet.stream().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void primitiveNavigation() {
+    SmallIntegerSet intSet = new SmallIntegerSet();
+    assertEquals(-1, intSet.ceilingInt(SmallIntegerSet.MIN_VALUE));
+    assertEquals(-1, intSet.floorInt(SmallIntegerSet.MAX_VALUE));
+
+    intSet.addAll(Arrays.asList(0, 10, 63));
+
+    assertEquals(0, intSet.ceilingInt(Integer.MIN_VALUE));
+    assertEquals(10, intSet.ceilingInt(1));
+    assertEquals(-1, intSet.ceilingInt(64));
+    assertEquals(10, intSet.higherInt(0));
+    assertEquals(-1, intSet.higherInt(63));
+    assertEquals(-1, intSet.higherInt(Integer.MAX_VALUE));
+    assertEquals(10, intSet.floorInt(62));
+    assertEquals(63, intSet.floorInt(Integer.MAX_VALUE));
+    assertEquals(-1, intSet.floorInt(-1));
+    assertEquals(10, intSet.lowerInt(63));
+    assertEquals(-1, intSet.lowerInt(0));
+    assertEquals(-1, intSet.lowerInt(Integer.MIN_VALUE));
+
+    IntNavigableSet subSet = intSet.subSet(1, true, 62, true);
+    assertEquals(10, subSet.ceilingInt(0));
+    assertEquals(-1, subSet.higherInt(10));
+    assertEquals(10, subSet.floorInt(63));
+    assertEquals(-1, subSet.lowerInt(10));
+  }
+
+  @Test
+  public void rankAndSelect() {
+    SmallIntegerSet intSet = SmallIntegerSet.fromBits(SmallIntegerSets.of(0, 7, 8, 33, 63));
+    int[] elements = intSet.toIntArray();
+    for (int k = 0; k < elements.length; k++) {
+      assertEquals(elements[k], intSet.select(k));
+      assertEquals(k, intSet.rank(elements[k]));
+    }
+    assertEquals(0, intSet.rank(-1));
+    assertEquals(1, intSet.rank(5));
+    assertEquals(4, intSet.rank(40));
+    assertEquals(5, intSet.rank(64));
+    assertThrows(IndexOutOfBoundsException.class, () -> intSet.select(-1));
+    assertThrows(IndexOutOfBoundsException.class, () -> intSet.select(5));
+    assertThrows(IndexOutOfBoundsException.class, () -> new SmallIntegerSet().select(0));
+  }
+
+  @Test
+  public void selectMatchesIteration() {
+    Random random = new Random(42L);
+    for (int i = 0; i < 1_000; i++) {
+      long bits = random.nextLong() & random.nextLong();
+      int k = 0;
+      for (long remaining = bits; remaining != 0L; remaining &= remaining - 1L) {
+        assertEquals(Long.numberOfTrailingZeros(remaining), SmallIntegerSet.select(bits, k));
+        k += 1;
+      }
+    }
+    assertEquals(63, SmallIntegerSet.select(-1L, 63));
+    assertEquals(63, SmallIntegerSet.select(1L << 63, 0));
+  }
+
+  @Test
+  public void asList() {
+    SmallIntegerSet intSet = SmallIntegerSet.fromBits(SmallIntegerSets.of(2, 3, 5, 7, 11));
+    List<Integer> list = intSet.asList();
+    assertTrue(list instanceof RandomAccess);
+    assertEquals(Arrays.asList(2, 3, 5, 7, 11), list);
+    assertEquals(list, Arrays.asList(2, 3, 5, 7, 11));
+    assertEquals(Arrays.asList(2, 3, 5, 7, 11).hashCode(), list.hashCode());
+    assertEquals("[2, 3, 5, 7, 11]", list.toString());
+    assertEquals(Integer.valueOf(7), list.get(3));
+    assertEquals(3, list.indexOf(7));
+    assertEquals(-1, list.indexOf(4));
+    assertEquals(-1, list.indexOf("7"));
+    assertThrows(IndexOutOfBoundsException.class, () -> list.get(5));
+    assertThrows(UnsupportedOperationException.class, () -> list.add(13));
+    assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+
+    List<Integer> subList = list.subList(1, 4);
+    assertEquals(Arrays.asList(3, 5, 7), subList);
+    assertEquals(Arrays.asList(5), subList.subList(1, 2));
+    assertTrue(list.subList(2, 2).isEmpty());
+    assertThrows(IndexOutOfBoundsException.class, () -> list.subList(3, 6));
+
+    intSet.addInt(4);
+    assertEquals(Arrays.asList(2, 3, 4, 5, 7, 11), list);
+    assertEquals(Arrays.asList(3, 4, 5, 7), subList);
+
+    ListIterator<Integer> iterator = list.listIterator(6);
+    assertFalse(iterator.hasNext());
+    assertEquals(Integer.valueOf(11), iterator.previous());
+    assertEquals(5, iterator.nextIndex());
+    assertEquals(Integer.valueOf(11), iterator.next());
+    assertThrows(UnsupportedOperationException.class, iterator::remove);
+  }
+
+  @Test
+  public void randomElement() {
+    SmallIntegerSet intSet = SmallIntegerSet.fromBits(SmallIntegerSets.of(1, 20, 63));
+    Random random = new Random(7L);
+    int[] counts = new int[64];
+    for (int i = 0; i < 3_000; i++) {
+      counts[intSet.randomElement(random)] += 1;
+    }
+    assertEquals(3_000, counts[1] + counts[20] + counts[63]);
+    assertTrue(counts[1] > 800 && counts[20] > 800 && counts[63] > 800);
+    assertThrows(NoSuchElementException.class, () -> new SmallIntegerSet().randomElement(random));
+  }
+
+  enum Color {
+    RED, GREEN, BLUE
+  }
+
+  @Test
+  public void bitSetConversion() {
+    BitSet bitSet = new BitSet();
+    bitSet.set(1);
+    bitSet.set(63);
+    SmallIntegerSet intSet = SmallIntegerSet.fromBitSet(bitSet);
+    assertArrayEquals(new int[] {1, 63}, intSet.toIntArray());
+    assertEquals(bitSet, intSet.toBitSet());
+    assertEquals(new BitSet(), new SmallIntegerSet().toBitSet());
+
+    bitSet.set(100);
+    assertThrows(IllegalArgumentException.class, () -> SmallIntegerSet.fromBitSet(bitSet));
+  }
+
+  @Test
+  public void bitSetBulkOperations() {
+    SmallIntegerSet intSet = SmallIntegerSet.fromBits(SmallIntegerSets.of(1, 2, 3));
+    BitSet small = new BitSet();
+    small.set(3);
+    small.set(4);
+    BitSet large = new BitSet();
+    large.set(2);
+    large.set(1000);
+
+    assertTrue(intSet.addAll(small));
+    assertFalse(intSet.addAll(small));
+    assertArrayEquals(new int[] {1, 2, 3, 4}, intSet.toIntArray());
+    assertThrows(IllegalArgumentException.class, () -> intSet.addAll(large));
+    assertArrayEquals(new int[] {1, 2, 3, 4}, intSet.toIntArray());
+
+    assertTrue(intSet.containsAll(small));
+    assertFalse(intSet.containsAll(large));
+    assertTrue(intSet.containsAll(new BitSet()));
+
+    assertTrue(intSet.removeAll(small));
+    assertFalse(intSet.removeAll(small));
+    assertArrayEquals(new int[] {1, 2}, intSet.toIntArray());
+
+    assertTrue(intSet.retainAll(large));
+    assertFalse(intSet.retainAll(large));
+    assertArrayEquals(new int[] {2}, intSet.toIntArray());
+    assertTrue(intSet.removeAll(large));
+    assertTrue(intSet.isEmpty());
+  }
+
+  @Test
+  public void enumSetConversion() {
+    SmallIntegerSet intSet = SmallIntegerSet.fromEnumSet(EnumSet.of(Color.RED, Color.BLUE));
+    assertArrayEquals(new int[] {0, 2}, intSet.toIntArray());
+    assertEquals(EnumSet.of(Color.RED, Color.BLUE), intSet.toEnumSet(Color.class));
+    assertEquals(EnumSet.noneOf(Color.class), new SmallIntegerSet().toEnumSet(Color.class));
+
+    intSet.add(3);
+    assertThrows(IllegalArgumentException.class, () -> intSet.toEnumSet(Color.class));
+  }
+
+  @Test
+  public void subSetRemoveIf() {
+    this.set.addAll(Arrays.asList(1, 2, 3, 4, 5, 6));
+    SortedSet<Integer> subSet = this.set.subSet(2, 6);
+
+    assertTrue(subSet.removeIf(i -> i % 2 == 0));
+    assertArrayEquals(new Object[] {3, 5}, subSet.toArray());
+    assertArrayEquals(new Object[] {1, 3, 5, 6}, this.set.toArray());
+    assertFalse(subSet.removeIf(i -> i % 2 == 0));
+
+    assertThrows(IllegalStateException.class, () -> subSet.removeIf(i -> {
+      if (i == 5) {
+        throw new IllegalStateException();
+      }
+      return true;
+    }));
+    assertArrayEquals(new Object[] {1, 3, 5, 6}, this.set.toArray());
+  }
+
+  @Test
+  public void nestedRangeViews() {
+    SmallIntegerSet intSet = new SmallIntegerSet();
+    intSet.addAll(Arrays.asList(1, 5, 10, 20, 30, 40, 50, 60));
+
+    IntNavigableSet nested = intSet.subSet(1, true, 60, true)
+            .tailSet(5, false)
+            .headSet(50, false)
+            .subSet(10, true, 40, true)
+            .tailSet(20, true);
+    assertArrayEquals(new int[] {20, 30, 40}, nested.toIntArray());
+    assertEquals(intSet.subSet(20, true, 40, true), nested);
+    assertEquals(((SmallIntegerBits) intSet.subSet(20, true, 40, true)).toBits(), ((SmallIntegerBits) nested).toBits());
+
+    intSet.addInt(35);
+    assertArrayEquals(new int[] {20, 30, 35, 40}, nested.toIntArray());
+    assertThrows(IllegalArgumentException.class, () -> nested.addInt(10));
+
+    List<Integer> seen = new ArrayList<>();
+    nested.forEach(seen::add);
+    assertEquals(Arrays.asList(20, 30, 35, 40), seen);
+    assertEquals(Arrays.asList(20, 30, 35, 40), nested.parallelStream().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void emptyRangeViews() {
+    SmallIntegerSet intSet = new SmallIntegerSet();
+    intSet.addAll(Arrays.asList(0, 63));
+
+    assertTrue(intSet.headSet(0).isEmpty());
+    assertTrue(intSet.tailSet(63, false).isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> intSet.headSet(0).add(0));
+  }
+
+  @Test
+  public void union() {
+    SmallIntegerSet a = new SmallIntegerSet();
+    a.addAll(Arrays.asList(1, 2, 63));
+    SmallIntegerSet b = new SmallIntegerSet();
+    b.addAll(Arrays.asList(2, 3));
+
+    assertArrayEquals(new int[] {1, 2, 3, 63}, SmallIntegerSet.union(a, b).toIntArray());
+    assertArrayEquals(new int[] {1, 2, 3, 63}, SmallIntegerSet.union(a, Arrays.asList(3, 2)).toIntArray());
+    assertNotSame(a, SmallIntegerSet.union(a, Collections.emptySet()));
+  }
+
+  @Test
+  public void intersection() {
+    SmallIntegerSet a = new SmallIntegerSet();
+    a.addAll(Arrays.asList(1, 2, 10, 63));
+    SmallIntegerSet b = new SmallIntegerSet();
+    b.addAll(Arrays.asList(2, 3, 10, 63));
+
+    assertArrayEquals(new int[] {2, 10, 63}, SmallIntegerSet.intersection(a, b).toIntArray());
+    assertArrayEquals(new int[] {2, 10}, SmallIntegerSet.intersection(a, b.headSet(20)).toIntArray());
+    assertArrayEquals(new int[] {63}, SmallIntegerSet.intersection(a, new TreeSet<>(Arrays.asList(63))).toIntArray());
+  }
+
+  @Test
+  public void difference() {
+    SmallIntegerSet a = new SmallIntegerSet();
+    a.addAll(Arrays.asList(1, 2, 10, 63));
+    SmallIntegerSet b = new SmallIntegerSet();
+    b.addAll(Arrays.asList(2, 3, 63));
+
+    assertArrayEquals(new int[] {1, 10}, SmallIntegerSet.difference(a, b).toIntArray());
+    assertArrayEquals(new int[] {3}, SmallIntegerSet.difference(b, a).toIntArray());
+    assertArrayEquals(new int[] {1, 2, 10}, SmallIntegerSet.difference(a, b.tailSet(60)).toIntArray());
+  }
+
+  @Test
+  public void symmetricDifference() {
+    SmallIntegerSet a = new SmallIntegerSet();
+    a.addAll(Arrays.asList(1, 2, 63));
+    SmallIntegerSet b = new SmallIntegerSet();
+    b.addAll(Arrays.asList(2, 3));
+
+    assertArrayEquals(new int[] {1, 3, 63}, SmallIntegerSet.symmetricDifference(a, b).toIntArray());
+  }
+
+  @Test
+  public void complement() {
+    SmallIntegerSet a = new SmallIntegerSet();
+    assertEquals(64, SmallIntegerSet.complement(a).size());
+
+    a.addAll(Arrays.asList(1, 2, 63));
+    SmallIntegerSet complement = SmallIntegerSet.complement(a);
+    assertEquals(61, complement.size());
+    assertTrue(complement.contains(0));
+    assertFalse(complement.contains(1));
+    assertFalse(complement.contains(63));
+    assertTrue(SmallIntegerSet.isDisjoint(a, complement));
+  }
+
+  @Test
+  public void intersects() {
+    SmallIntegerSet a = new SmallIntegerSet();
+    a.addAll(Arrays.asList(1, 2, 63));
+    SmallIntegerSet b = new SmallIntegerSet();
+    b.addAll(Arrays.asList(3, 63));
+
+    assertTrue(SmallIntegerSet.intersects(a, b));
+    assertFalse(SmallIntegerSet.isDisjoint(a, b));
+    assertFalse(SmallIntegerSet.intersects(a, b.headSet(63)));
+    assertTrue(SmallIntegerSet.isDisjoint(a, b.headSet(63)));
+    assertFalse(SmallIntegerSet.intersects(a, new SmallIntegerSet()));
+  }
+
+  @Test
+  public void setAlgebraUnsupported() {
+    SmallIntegerSet a = new SmallIntegerSet();
+    assertThrows(IllegalArgumentException.class, () -> SmallIntegerSet.union(a, Arrays.asList(64)));
+    assertThrows(NullPointerException.class, () -> SmallIntegerSet.union(a, Arrays.asList((Integer) null)));
+  }
+
+  @Test
+  public void asUnmodifiable() {
+    SmallIntegerSet set = new SmallIntegerSet();
+    set.addAll(Arrays.asList(1, 10, 63));
+    IntNavigableSet unmodifiable = set.asUnmodifiable();
+
+    assertEquals(set, unmodifiable);
+    assertEquals(unmodifiable, set);
+    assertEquals(set.hashCode(), unmodifiable.hashCode());
+    assertEquals("[1, 10, 63]", unmodifiable.toString());
+    assertThrows(UnsupportedOperationException.class, () -> unmodifiable.add(2));
+    assertThrows(UnsupportedOperationException.class, () -> unmodifiable.remove(1));
+    assertThrows(UnsupportedOperationException.class, () -> unmodifiable.clear());
+    assertThrows(UnsupportedOperationException.class, () -> unmodifiable.headSet(5).addInt(2));
+    assertThrows(UnsupportedOperationException.class, () -> unmodifiable.descendingSet().pollFirst());
+    Iterator<Integer> iterator = unmodifiable.iterator();
+    iterator.next();
+    assertThrows(UnsupportedOperationException.class, () -> iterator.remove());
+
+    // view, not a copy
+    set.add(20);
+    assertTrue(unmodifiable.contains(20));
+    assertTrue(unmodifiable.headSet(30).containsInt(20));
+
+    // still takes the bitwise paths
+    SmallIntegerSet other = new SmallIntegerSet();
+    assertTrue(other.addAll(unmodifiable));
+    assertTrue(other.containsAll(unmodifiable.tailSet(10)));
+    assertFalse(other.retainAll(unmodifiable));
+    assertTrue(other.removeAll(unmodifiable.headSet(10)));
+    assertArrayEquals(new int[] {10, 20, 63}, other.toIntArray());
+    assertEquals(other, unmodifiable.tailSet(10));
+  }
+
   @Test
   public void emptySet() {
     Set<Integer> emptySet = Collections.emptySet();
     assertNotNull(emptySet);
   }
 
+  @Test
+  public void serialization() throws IOException, ClassNotFoundException {
+    for (long bits : new long[] {0L, 1L, 0b1010L, 1L << 40, Long.MIN_VALUE, -1L}) {
+      SmallIntegerSet set = SmallIntegerSet.fromBits(bits);
+      Object copy = copy(set);
+      assertEquals(SmallIntegerSet.class, copy.getClass());
+      assertEquals(bits, ((SmallIntegerSet) copy).toBits());
+    }
+  }
+
+  @Test
+  public void unmodifiableRangeSerialization() throws IOException, ClassNotFoundException {
+    SmallIntegerSet set = SmallIntegerSet.fromBits(SmallIntegerSets.of(0, 3, 10, 40));
+    IntNavigableSet unmodifiable = set.asUnmodifiable();
+    IntNavigableSet range = unmodifiable.subSet(1, 20);
+    assertEquals(range, copy(range));
+    assertEquals(unmodifiable.headSet(10, true), copy(unmodifiable.headSet(10, true)));
+    assertEquals(unmodifiable.tailSet(5), copy(unmodifiable.tailSet(5)));
+    assertEquals(unmodifiable, copy(unmodifiable));
+
+    // a snapshot, not a view
+    Object copy = copy(range);
+    set.add(4);
+    assertEquals(SmallIntegerSet.fromBits(SmallIntegerSets.of(3, 10)), copy);
+  }
+
+  @Test
+  public void serializedFormIsCompact() throws IOException {
+    SmallIntegerSet set = SmallIntegerSet.fromBits(0b1010L);
+    // the old form with the default field descriptor was 79 bytes
+    assertTrue(serialize(set).length < 60);
+  }
+
+  @Test
+  public void readOldSerializedForm() throws IOException, ClassNotFoundException {
+    // written before the compact form was introduced
+    byte[] old = Base64.getDecoder().decode("rO0ABXNyACljb20uZ2l0aHViLm1hcnNjaGFsbC5zZXRzLlNtYWxsSW50ZWdlclNldAAAAAAAAAABAgABSgAGdmFsdWVzeHCAAAAAAAAEAg==");
+    try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(old))) {
+      SmallIntegerSet set = (SmallIntegerSet) stream.readObject();
+      assertArrayEquals(new int[] {1, 10, 63}, set.toIntArray());
+    }
+  }
+
+  @Test
+  public void dataOutput() throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bos)) {
+      SmallIntegerSet.fromBits(0b1010L).writeTo(out);
+      SmallIntegerSet.fromBits(-1L).writeTo(out);
+    }
+    assertEquals(16, bos.size());
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+      assertArrayEquals(new int[] {1, 3}, SmallIntegerSet.readFrom(in).toIntArray());
+      assertEquals(64, SmallIntegerSet.readFrom(in).size());
+    }
+  }
+
+  private static byte[] serialize(Object o) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (ObjectOutputStream stream = new ObjectOutputStream(bos)) {
+      stream.writeObject(o);
+    }
+    return bos.toByteArray();
+  }
+
+  private static Object copy(Object o) throws IOException, ClassNotFoundException {
+    try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(serialize(o)))) {
+      return stream.readObject();
+    }
+  }
+
 }
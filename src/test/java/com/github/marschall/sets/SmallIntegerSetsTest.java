@@ -0,0 +1,146 @@
+package com.github.marschall.sets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class SmallIntegerSetsTest {
+
+  @Test
+  public void addRemoveContains() {
+    long bits = SmallIntegerSets.EMPTY;
+    assertTrue(SmallIntegerSets.isEmpty(bits));
+
+    bits = SmallIntegerSets.add(bits, 0);
+    bits = SmallIntegerSets.add(bits, 63);
+    assertEquals(2, SmallIntegerSets.size(bits));
+    assertTrue(SmallIntegerSets.contains(bits, 0));
+    assertTrue(SmallIntegerSets.contains(bits, 63));
+    assertFalse(SmallIntegerSets.contains(bits, 1));
+    assertFalse(SmallIntegerSets.contains(bits, -1));
+    assertFalse(SmallIntegerSets.contains(bits, 64));
+
+    bits = SmallIntegerSets.remove(bits, 0);
+    bits = SmallIntegerSets.remove(bits, 64);
+    bits = SmallIntegerSets.remove(bits, -1);
+    assertEquals(SmallIntegerSets.of(63), bits);
+
+    assertThrows(IllegalArgumentException.class, () -> SmallIntegerSets.add(0L, 64));
+    assertThrows(IllegalArgumentException.class, () -> SmallIntegerSets.add(0L, -1));
+  }
+
+  @Test
+  public void range() {
+    assertEquals(SmallIntegerSets.FULL, SmallIntegerSets.range(0, 64));
+    assertEquals(SmallIntegerSets.EMPTY, SmallIntegerSets.range(10, 10));
+    assertEquals(SmallIntegerSets.of(3, 4, 5), SmallIntegerSets.range(3, 6));
+    assertThrows(IllegalArgumentException.class, () -> SmallIntegerSets.range(6, 3));
+    assertThrows(IllegalArgumentException.class, () -> SmallIntegerSets.range(-1, 3));
+    assertThrows(IllegalArgumentException.class, () -> SmallIntegerSets.range(0, 65));
+  }
+
+  @Test
+  public void navigation() {
+    long bits = SmallIntegerSets.of(5, 10, 20);
+    assertEquals(5, SmallIntegerSets.first(bits));
+    assertEquals(20, SmallIntegerSets.last(bits));
+    assertEquals(10, SmallIntegerSets.ceiling(bits, 10));
+    assertEquals(20, SmallIntegerSets.higher(bits, 10));
+    assertEquals(10, SmallIntegerSets.floor(bits, 10));
+    assertEquals(5, SmallIntegerSets.lower(bits, 10));
+    assertEquals(-1, SmallIntegerSets.higher(bits, 20));
+    assertEquals(-1, SmallIntegerSets.lower(bits, 5));
+    assertThrows(NoSuchElementException.class, () -> SmallIntegerSets.first(0L));
+    assertThrows(NoSuchElementException.class, () -> SmallIntegerSets.last(0L));
+  }
+
+  @Test
+  public void algebra() {
+    long a = SmallIntegerSets.of(1, 2, 63);
+    long b = SmallIntegerSets.of(2, 3);
+    assertEquals(SmallIntegerSets.of(1, 2, 3, 63), SmallIntegerSets.union(a, b));
+    assertEquals(SmallIntegerSets.of(2), SmallIntegerSets.intersection(a, b));
+    assertEquals(SmallIntegerSets.of(1, 63), SmallIntegerSets.difference(a, b));
+    assertEquals(SmallIntegerSets.of(1, 3, 63), SmallIntegerSets.symmetricDifference(a, b));
+    assertEquals(61, SmallIntegerSets.size(SmallIntegerSets.complement(a)));
+    assertTrue(SmallIntegerSets.intersects(a, b));
+    assertFalse(SmallIntegerSets.intersects(a, SmallIntegerSets.complement(a)));
+    assertTrue(SmallIntegerSets.containsAll(a, SmallIntegerSets.of(1, 63)));
+    assertFalse(SmallIntegerSets.containsAll(a, b));
+  }
+
+  @Test
+  public void iteration() {
+    long bits = SmallIntegerSets.of(63, 0, 17);
+    assertArrayEquals(new int[] {0, 17, 63}, SmallIntegerSets.toArray(bits));
+    assertArrayEquals(new int[] {0, 17, 63}, SmallIntegerSets.stream(bits).toArray());
+    assertArrayEquals(new int[0], SmallIntegerSets.toArray(0L));
+
+    StringBuilder builder = new StringBuilder();
+    SmallIntegerSets.forEach(bits, builder::append);
+    assertEquals("01763", builder.toString());
+  }
+
+  @Test
+  public void hashCodeAndToString() {
+    long bits = SmallIntegerSets.of(63, 0, 17);
+    Set<Integer> expected = new HashSet<>(Arrays.asList(0, 17, 63));
+    assertEquals(expected.hashCode(), SmallIntegerSets.hashCode(bits));
+    assertEquals(new TreeSet<>(expected).toString(), SmallIntegerSets.toString(bits));
+    assertEquals("[]", SmallIntegerSets.toString(0L));
+    assertEquals(0, SmallIntegerSets.hashCode(0L));
+  }
+
+  @Test
+  public void conversion() {
+    long bits = SmallIntegerSets.of(1, 2, 63);
+    SmallIntegerSet set = SmallIntegerSet.fromBits(bits);
+    assertEquals(new TreeSet<>(Arrays.asList(1, 2, 63)), set);
+    assertEquals(bits, set.toBits());
+    assertEquals(set.stream().collect(Collectors.toList()), SmallIntegerSets.stream(bits).boxed().collect(Collectors.toList()));
+
+    set.add(5);
+    assertEquals(SmallIntegerSets.add(bits, 5), set.toBits());
+  }
+
+  @Test
+  public void rankAndSelect() {
+    long bits = SmallIntegerSets.of(3, 17, 40);
+    assertEquals(0, SmallIntegerSets.rank(bits, 3));
+    assertEquals(2, SmallIntegerSets.rank(bits, 20));
+    assertEquals(3, SmallIntegerSets.rank(bits, Integer.MAX_VALUE));
+    assertEquals(3, SmallIntegerSets.select(bits, 0));
+    assertEquals(40, SmallIntegerSets.select(bits, 2));
+    assertThrows(IndexOutOfBoundsException.class, () -> SmallIntegerSets.select(bits, 3));
+  }
+
+  @Test
+  public void bitSetConversion() {
+    BitSet bitSet = new BitSet();
+    bitSet.set(0);
+    bitSet.set(17);
+    bitSet.set(63);
+    long bits = SmallIntegerSets.fromBitSet(bitSet);
+    assertEquals(SmallIntegerSets.of(0, 17, 63), bits);
+    assertEquals(bitSet, SmallIntegerSets.toBitSet(bits));
+
+    assertEquals(SmallIntegerSets.EMPTY, SmallIntegerSets.fromBitSet(new BitSet()));
+    assertEquals(new BitSet(), SmallIntegerSets.toBitSet(SmallIntegerSets.EMPTY));
+
+    bitSet.set(64);
+    assertThrows(IllegalArgumentException.class, () -> SmallIntegerSets.fromBitSet(bitSet));
+  }
+
+}
@@ -0,0 +1,191 @@
+package com.github.marschall.sets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+public class SmallIntegerSubsetsTest {
+
+  private static final long SPARSE = SmallIntegerSets.of(1, 4, 5, 17, 30, 31, 50, 63);
+
+  @Test
+  public void allSubsets() {
+    long[] expected = bruteForce(SPARSE, -1);
+    assertEquals(256, expected.length);
+
+    List<Long> seen = new ArrayList<>();
+    SmallIntegerSubsets.forEach(SPARSE, seen::add);
+    assertArrayEquals(expected, toArray(seen));
+    assertArrayEquals(expected, SmallIntegerSubsets.stream(SPARSE).toArray());
+    assertArrayEquals(expected, SmallIntegerSubsets.parallelStream(SPARSE).toArray());
+  }
+
+  @Test
+  public void allSubsetsOfEmptySet() {
+    assertArrayEquals(new long[] {0L}, SmallIntegerSubsets.stream(SmallIntegerSets.EMPTY).toArray());
+    assertEquals(1L, SmallIntegerSubsets.spliterator(SmallIntegerSets.EMPTY).estimateSize());
+  }
+
+  @Test
+  public void kSubsets() {
+    for (int k = 0; k <= 9; k++) {
+      long[] expected = bruteForce(SPARSE, k);
+      assertEquals(expected.length, SmallIntegerSubsets.count(SPARSE, k));
+
+      List<Long> seen = new ArrayList<>();
+      SmallIntegerSubsets.forEach(SPARSE, k, seen::add);
+      assertArrayEquals(expected, toArray(seen));
+      assertArrayEquals(expected, SmallIntegerSubsets.stream(SPARSE, k).toArray());
+      assertArrayEquals(expected, SmallIntegerSubsets.parallelStream(SPARSE, k).toArray());
+    }
+    assertThrows(IllegalArgumentException.class, () -> SmallIntegerSubsets.count(SPARSE, -1));
+  }
+
+  @Test
+  public void kSubsetsOfFullSet() {
+    long full = SmallIntegerSets.FULL;
+    assertEquals(1L, SmallIntegerSubsets.count(full, 0));
+    assertEquals(64L, SmallIntegerSubsets.count(full, 1));
+    assertEquals(1832624140942590534L, SmallIntegerSubsets.count(full, 32));
+    assertEquals(1L, SmallIntegerSubsets.count(full, 64));
+
+    assertArrayEquals(new long[] {0L}, SmallIntegerSubsets.stream(full, 0).toArray());
+    assertArrayEquals(new long[] {full}, SmallIntegerSubsets.stream(full, 64).toArray());
+    assertArrayEquals(LongStream.range(0, 64).map(i -> 1L << i).toArray(),
+            SmallIntegerSubsets.parallelStream(full, 1).toArray());
+    assertArrayEquals(LongStream.range(0, 64).map(i -> ~(1L << (63 - i))).toArray(),
+            SmallIntegerSubsets.parallelStream(full, 63).toArray());
+    assertEquals(2016L, SmallIntegerSubsets.parallelStream(full, 2).filter(s -> Long.bitCount(s) == 2).distinct().count());
+  }
+
+  @Test
+  public void largeSpliterator() {
+    Spliterator.OfLong spliterator = SmallIntegerSubsets.spliterator(SmallIntegerSets.FULL);
+    assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+    assertEquals(Long.MAX_VALUE, spliterator.estimateSize());
+
+    Spliterator.OfLong prefix = spliterator.trySplit();
+    assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+    assertFalse(prefix.hasCharacteristics(Spliterator.SIZED));
+    assertTrue(prefix.tryAdvance((long s) -> assertEquals(0L, s)));
+    assertTrue(prefix.tryAdvance((long s) -> assertEquals(1L, s)));
+    assertTrue(spliterator.tryAdvance((long s) -> assertEquals(1L << 63, s)));
+
+    // the element consumed above shifts the middle by one
+    Spliterator.OfLong quarter = spliterator.trySplit();
+    assertTrue(quarter.hasCharacteristics(Spliterator.SIZED));
+    assertEquals(1L << 62, quarter.estimateSize());
+    assertTrue(quarter.tryAdvance((long s) -> assertEquals((1L << 63) | 1L, s)));
+    // characteristics do not change after creation
+    assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+    assertEquals((1L << 62) - 1L, spliterator.estimateSize());
+    assertTrue(spliterator.tryAdvance((long s) -> assertEquals((0b11L << 62) | 1L, s)));
+  }
+
+  @Test
+  public void splitToSingleElements() {
+    long bits = SmallIntegerSets.of(2, 3, 40, 41, 60);
+    for (int k = -1; k <= 5; k++) {
+      Spliterator.OfLong spliterator = k == -1
+              ? SmallIntegerSubsets.spliterator(bits)
+              : SmallIntegerSubsets.spliterator(bits, k);
+      List<Long> seen = new ArrayList<>();
+      splitFully(spliterator, seen);
+      assertArrayEquals(bruteForce(bits, k), toArray(seen));
+    }
+  }
+
+  @Test
+  public void forEachSet() {
+    List<Integer> sizes = new ArrayList<>();
+    List<SmallIntegerSet> instances = new ArrayList<>();
+    SmallIntegerSubsets.forEachSet(SmallIntegerSets.of(1, 2, 3), 2, set -> {
+      sizes.add(set.size());
+      instances.add(set);
+      set.clear();
+    });
+    assertEquals(3, sizes.size());
+    assertTrue(sizes.stream().allMatch(size -> size == 2));
+    assertTrue(instances.stream().allMatch(set -> set == instances.get(0)));
+
+    List<String> strings = new ArrayList<>();
+    SmallIntegerSubsets.forEachSet(SmallIntegerSets.of(1, 2), set -> strings.add(set.toString()));
+    assertEquals(4, strings.size());
+    assertEquals("[]", strings.get(0));
+    assertEquals("[1, 2]", strings.get(3));
+  }
+
+  @Test
+  public void rankAndUnrank() {
+    for (int k = 0; k <= 4; k++) {
+      long combination = k == 0 ? 0L : -1L >>> (64 - k);
+      for (long rank = 0; rank < SmallIntegerSubsets.count(0xFFL, k); rank++) {
+        assertEquals(combination, SmallIntegerSubsets.unrank(rank, k));
+        assertEquals(rank, SmallIntegerSubsets.rank(combination, k));
+        if (rank + 1 < SmallIntegerSubsets.count(0xFFL, k)) {
+          combination = SmallIntegerSubsets.next(combination);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void deposit() {
+    assertEquals(0b1010L, SmallIntegerSubsets.deposit(0b1010L, 0b1111L));
+    assertEquals(SmallIntegerSets.of(4, 17), SmallIntegerSubsets.deposit(0b1010L, SmallIntegerSets.of(1, 4, 5, 17)));
+    assertEquals(0L, SmallIntegerSubsets.deposit(0L, SPARSE));
+    assertEquals(SPARSE, SmallIntegerSubsets.deposit(0xFFL, SPARSE));
+  }
+
+  private static void splitFully(Spliterator.OfLong spliterator, List<Long> seen) {
+    Spliterator.OfLong prefix = spliterator.trySplit();
+    if (prefix == null) {
+      assertTrue(spliterator.estimateSize() <= 1L);
+      spliterator.forEachRemaining((long s) -> seen.add(s));
+      assertNull(spliterator.trySplit());
+      assertFalse(spliterator.tryAdvance((long s) -> seen.add(s)));
+      return;
+    }
+    splitFully(prefix, seen);
+    splitFully(spliterator, seen);
+  }
+
+  /**
+   * All subsets with {@code k} elements of {@code bits} or all subsets if
+   * {@code k} is negative, in ascending order of their compressed
+   * representation.
+   */
+  private static long[] bruteForce(long bits, int k) {
+    int n = Long.bitCount(bits);
+    List<Long> subsets = new ArrayList<>();
+    for (long compressed = 0L; compressed < (1L << n); compressed++) {
+      if (k < 0 || Long.bitCount(compressed) == k) {
+        long subset = 0L;
+        long remaining = bits;
+        for (int i = 0; i < n; i++) {
+          if ((compressed & (1L << i)) != 0L) {
+            subset |= remaining & -remaining;
+          }
+          remaining &= remaining - 1L;
+        }
+        subsets.add(subset);
+      }
+    }
+    return toArray(subsets);
+  }
+
+  private static long[] toArray(List<Long> list) {
+    return list.stream().mapToLong(Long::longValue).toArray();
+  }
+
+}
@@ -0,0 +1,11 @@
+package com.github.marschall.sets;
+
+import java.util.TreeSet;
+
+public class TreeSetNavigableSetTest extends NavigableSetTest {
+
+  TreeSetNavigableSetTest() {
+    super(TreeSet::new);
+  }
+
+}